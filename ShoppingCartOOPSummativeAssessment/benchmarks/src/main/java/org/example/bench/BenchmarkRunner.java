@@ -0,0 +1,55 @@
+package org.example.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the benchmarks once per requested thread count, always with the GC
+ * profiler (allocation rate) and JSON output so runs can be diffed between
+ * releases.
+ *
+ * <p>Arguments: {@code results=<dir> threads=1,4,8 include=<regex>}; anything
+ * else is handed to JMH as normal command line options.</p>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() { }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        String resultsDir = "build/results/jmh";
+        String threads = "1";
+        String include = ".*";
+        List<String> jmhArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("results=")) resultsDir = arg.substring("results=".length());
+            else if (arg.startsWith("threads=")) threads = arg.substring("threads=".length());
+            else if (arg.startsWith("include=")) include = arg.substring("include=".length());
+            else if (!arg.isBlank()) jmhArgs.add(arg);
+        }
+        new File(resultsDir).mkdirs();
+        CommandLineOptions parent = new CommandLineOptions(jmhArgs.toArray(new String[0]));
+
+        for (String t : threads.split(",")) {
+            int threadCount = Integer.parseInt(t.trim());
+            Options options = new OptionsBuilder()
+                    .parent(parent)
+                    .include(include)
+                    .threads(threadCount)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(new File(resultsDir, "results-t" + threadCount + ".json").getPath())
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.bench;
+
+import org.example.cart.Cart;
+import org.example.cart.CompactCart;
+import org.example.cart.ConcurrentCart;
+import org.example.cart.InMemoryCart;
+import org.example.model.Item;
+import org.example.model.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cart hot paths as the number of lines grows. Each thread gets its own cart.
+ * Throughput plus sampled latency (for percentiles); run with the GC profiler
+ * for allocation rate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartBenchmark {
+
+    @Param({"InMemoryCart", "ConcurrentCart", "CompactCart"})
+    public String cartType;
+
+    @Param({"1", "10", "100", "1000"})
+    public int lineCount;
+
+    private Cart cart;
+    private Item[] items;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void createItems() {
+        items = new Item[lineCount];
+        for (int i = 0; i < lineCount; i++) {
+            items[i] = new Item("SKU" + i, "Item " + i, BigDecimal.valueOf(100 + i, 2));
+        }
+        cart = newCart(cartType);
+        fill();
+    }
+
+    static Cart newCart(String type) {
+        switch (type) {
+            case "InMemoryCart":   return new InMemoryCart();
+            case "ConcurrentCart": return new ConcurrentCart();
+            case "CompactCart":    return new CompactCart();
+            default: throw new IllegalArgumentException("unknown cart type " + type);
+        }
+    }
+
+    private void fill() {
+        for (Item item : items) {
+            cart.addItemToCart(item, 2);
+        }
+    }
+
+    private Item nextItem() {
+        Item item = items[next];
+        next = next + 1 == items.length ? 0 : next + 1;
+        return item;
+    }
+
+    // Add then remove keeps the cart at lineCount lines for the whole run
+    @Benchmark
+    public void addThenRemoveExistingLine() {
+        Item item = nextItem();
+        cart.addItemToCart(item, 1);
+        cart.removeItemFromCart(item, 1);
+    }
+
+    @Benchmark
+    public BigDecimal getSubtotal() {
+        return cart.getSubtotal();
+    }
+
+    @Benchmark
+    public Money getSubtotalMoney() {
+        return cart.getSubtotalMoney();
+    }
+
+    // Includes refilling the cart, so compare across cart types rather than
+    // reading it as the cost of checkout alone
+    @Benchmark
+    public BigDecimal checkoutAndRefill() {
+        BigDecimal total = cart.checkout();
+        fill();
+        return total;
+    }
+}
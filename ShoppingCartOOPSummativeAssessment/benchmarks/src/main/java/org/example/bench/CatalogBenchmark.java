@@ -0,0 +1,94 @@
+package org.example.bench;
+
+import org.example.catalog.Catalog;
+import org.example.catalog.Page;
+import org.example.catalog.SnapshotCatalog;
+import org.example.catalog.StaticCatalog;
+import org.example.model.Item;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Catalog lookups as the catalog grows. The catalog is shared by all
+ * benchmark threads, the way a service would share it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogBenchmark {
+
+    @Param({"StaticCatalog", "SnapshotCatalog"})
+    public String catalogType;
+
+    @Param({"1000", "100000"})
+    public int catalogSize;
+
+    private Catalog catalog;
+    private String[] skus;
+    private String[] names;
+
+    @Setup(Level.Trial)
+    public void createCatalog() {
+        catalog = catalogType.equals("StaticCatalog") ? new StaticCatalog() : new SnapshotCatalog();
+        skus = new String[catalogSize];
+        names = new String[catalogSize];
+        for (int i = 0; i < catalogSize; i++) {
+            skus[i] = "SKU" + i;
+            names[i] = "Product " + Integer.toString(i, 36) + " deluxe";
+        }
+        Item[] items = new Item[catalogSize];
+        for (int i = 0; i < catalogSize; i++) {
+            items[i] = new Item(skus[i], names[i], BigDecimal.valueOf(100 + i % 1000, 2));
+        }
+        catalog.upsertAll(List.of(items));
+        catalog.browse(null, 1);        // builds the SKU order before threads share the catalog
+    }
+
+    private int randomIndex() {
+        return ThreadLocalRandom.current().nextInt(catalogSize);
+    }
+
+    @Benchmark
+    public Item findItemBySKU() {
+        return catalog.findItemBySKU(skus[randomIndex()]);
+    }
+
+    @Benchmark
+    public Item findItemByName() {
+        return catalog.findItemByName(names[randomIndex()]);
+    }
+
+    @Benchmark
+    public Page<Item> searchByNamePrefix() {
+        return catalog.searchByName("product 1", 0, 10);
+    }
+
+    // A page deep inside the catalog, found by cursor
+    @Benchmark
+    public Page<Item> browsePage() {
+        return catalog.browse(skus[randomIndex()], 10);
+    }
+
+    @Benchmark
+    public List<Item> getCatalogItems() {
+        return catalog.getCatalogItems();
+    }
+}
@@ -0,0 +1,168 @@
+package org.example.bench;
+
+import org.example.cart.InMemoryCart;
+import org.example.codec.CartCodec;
+import org.example.model.CartLine;
+import org.example.model.Item;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binary cart codec against a plain JSON rendering of the same cart. The
+ * encode benchmarks also report a {@code bytes} rate; divide it by the
+ * score to get the encoded size of one cart.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    @Param({"10", "100"})
+    public int lineCount;
+
+    private InMemoryCart cart;
+    private final ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+    private final StringBuilder json = new StringBuilder(1 << 16);
+    private CartCodec strings;
+    private CartCodec ordinals;
+    private byte[] stringEncoded;
+    private byte[] ordinalEncoded;
+    private byte[] jsonEncoded;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Size {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void createCart() {
+        cart = new InMemoryCart();
+        Map<Integer, Item> byOrdinal = new HashMap<>();
+        for (int i = 0; i < lineCount; i++) {
+            Item item = new Item("SKU" + i, "Benchmark item number " + i, BigDecimal.valueOf(199 + i, 2));
+            cart.addItemToCart(item, 1 + i % 5);
+            byOrdinal.put(item.getOrdinal(), item);
+        }
+        strings = new CartCodec();
+        ordinals = new CartCodec(byOrdinal::get);
+        stringEncoded = copy(strings, buffer);
+        ordinalEncoded = copy(ordinals, buffer);
+        jsonEncoded = toJson(cart, json).toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] copy(CartCodec codec, ByteBuffer scratch) {
+        scratch.clear();
+        codec.encode(cart, scratch);
+        byte[] bytes = new byte[scratch.position()];
+        scratch.flip();
+        scratch.get(bytes);
+        return bytes;
+    }
+
+    private static StringBuilder toJson(InMemoryCart cart, StringBuilder out) {
+        out.setLength(0);
+        out.append("{\"currency\":\"USD\",\"lines\":[");
+        boolean first = true;
+        for (CartLine line : cart.getLines()) {
+            if (!first) out.append(',');
+            first = false;
+            Item item = line.getItem();
+            out.append("{\"sku\":\"").append(item.getSku())
+                    .append("\",\"name\":\"").append(item.getName())
+                    .append("\",\"price\":\"").append(item.getUnitPrice().toPlainString())
+                    .append("\",\"quantity\":").append(line.getQuantity()).append('}');
+        }
+        return out.append("]}");
+    }
+
+    // Just enough of a parser for toJson's own output
+    private static InMemoryCart fromJson(String text) {
+        InMemoryCart result = new InMemoryCart();
+        int at = text.indexOf("\"lines\":[") + 9;
+        while (text.charAt(at) == '{') {
+            String sku = field(text, "\"sku\":\"", at);
+            String name = field(text, "\"name\":\"", at);
+            String price = field(text, "\"price\":\"", at);
+            int q = text.indexOf("\"quantity\":", at) + 11;
+            int end = text.indexOf('}', q);
+            result.addItemToCart(new Item(sku, name, new BigDecimal(price)), Integer.parseInt(text, q, end, 10));
+            at = end + 1;
+            if (text.charAt(at) == ',') at++;
+        }
+        return result;
+    }
+
+    private static String field(String text, String key, int from) {
+        int start = text.indexOf(key, from) + key.length();
+        return text.substring(start, text.indexOf('"', start));
+    }
+
+    @Benchmark
+    public int encodeBinaryStrings(Size size) {
+        buffer.clear();
+        int bytes = strings.encode(cart, buffer);
+        size.bytes += bytes;
+        return bytes;
+    }
+
+    @Benchmark
+    public int encodeBinaryOrdinals(Size size) {
+        buffer.clear();
+        int bytes = ordinals.encode(cart, buffer);
+        size.bytes += bytes;
+        return bytes;
+    }
+
+    @Benchmark
+    public byte[] encodeJson(Size size) {
+        byte[] bytes = toJson(cart, json).toString().getBytes(StandardCharsets.UTF_8);
+        size.bytes += bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public InMemoryCart decodeBinaryStrings() {
+        InMemoryCart result = new InMemoryCart();
+        strings.decode(ByteBuffer.wrap(stringEncoded), result);
+        return result;
+    }
+
+    @Benchmark
+    public InMemoryCart decodeBinaryOrdinals() {
+        InMemoryCart result = new InMemoryCart();
+        ordinals.decode(ByteBuffer.wrap(ordinalEncoded), result);
+        return result;
+    }
+
+    @Benchmark
+    public InMemoryCart decodeJson() {
+        return fromJson(new String(jsonEncoded, StandardCharsets.UTF_8));
+    }
+}
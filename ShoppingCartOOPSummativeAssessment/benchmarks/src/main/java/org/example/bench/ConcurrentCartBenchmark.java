@@ -0,0 +1,61 @@
+package org.example.bench;
+
+import org.example.cart.ConcurrentCart;
+import org.example.model.Item;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One ConcurrentCart shared by every benchmark thread; run with
+ * {@code -Pthreads=1,2,4,8} to see how it scales.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentCartBenchmark {
+
+    @Param({"16", "1000"})
+    public int lineCount;
+
+    private ConcurrentCart cart;
+    private Item[] items;
+
+    @Setup(Level.Trial)
+    public void createCart() {
+        cart = new ConcurrentCart();
+        items = new Item[lineCount];
+        for (int i = 0; i < lineCount; i++) {
+            items[i] = new Item("SKU" + i, "Item " + i, BigDecimal.valueOf(100 + i, 2));
+            cart.addItemToCart(items[i], 1);
+        }
+    }
+
+    @Benchmark
+    public void sharedAddThenRemove() {
+        Item item = items[ThreadLocalRandom.current().nextInt(lineCount)];
+        cart.addItemToCart(item, 1);
+        cart.removeItemFromCart(item, 1);
+    }
+
+    @Benchmark
+    public BigDecimal sharedGetSubtotal() {
+        return cart.getSubtotal();
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.bench;
+
+import org.example.cart.InMemoryCart;
+import org.example.cart.wal.DurableCart;
+import org.example.cart.wal.DurableCartStore;
+import org.example.model.Item;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Cost of a logged add. Run with {@code -Pthreads=1,8,32} to see group
+ * commit spread each fsync over more writers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DurableCartBenchmark {
+
+    @Param({"true", "false"})
+    public boolean fsync;
+
+    private Path dir;
+    private DurableCartStore store;
+    private final Item item = new Item("WAL", "Logged item", new BigDecimal("1.00"));
+
+    @State(Scope.Thread)
+    public static class Session {
+        DurableCart cart;
+
+        @Setup(Level.Trial)
+        public void open(DurableCartBenchmark bench) {
+            cart = bench.store.getCart("session-" + Thread.currentThread().getId());
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void openStore() throws IOException {
+        dir = Files.createTempDirectory("cart-wal-bench");
+        store = DurableCartStore.open(dir, InMemoryCart::new, fsync, 100_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeStore() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void loggedAdd(Session session) {
+        session.cart.addItemToCart(item, 1);
+    }
+}
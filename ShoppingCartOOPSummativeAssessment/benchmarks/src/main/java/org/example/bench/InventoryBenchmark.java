@@ -0,0 +1,54 @@
+package org.example.bench;
+
+import org.example.inventory.Inventory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Flash sale: every benchmark thread reserves and releases the same SKU.
+ * {@code stripes=1} is a single CAS counter; compare it with the striped
+ * counter under {@code -Pthreads=1,2,4,8}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryBenchmark {
+
+    @Param({"1", "16"})
+    public int stripes;
+
+    private Inventory inventory;
+
+    @Setup(Level.Trial)
+    public void stock() {
+        inventory = new Inventory(stripes);
+        inventory.trackHot("HOT", 1_000_000);
+    }
+
+    @Benchmark
+    public boolean reserveThenRelease() {
+        boolean reserved = inventory.tryReserve("HOT", 1);
+        if (reserved) inventory.release("HOT", 1);
+        return reserved;
+    }
+
+    @Benchmark
+    public long readAvailable() {
+        return inventory.getAvailable("HOT");
+    }
+}
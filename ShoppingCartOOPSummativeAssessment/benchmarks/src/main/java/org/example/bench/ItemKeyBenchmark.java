@@ -0,0 +1,87 @@
+package org.example.bench;
+
+import org.example.model.Item;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Map lookups keyed three ways: by a SKU String built per call (the way
+ * lookups by SKU text arrive), by Item (cached hash, interned SKU), and by
+ * the Item's dense ordinal into a plain array. Lookups use different Item
+ * instances from the ones stored, as they would when items come from a catalog.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemKeyBenchmark {
+
+    @Param({"16", "10000"})
+    public int keyCount;
+
+    private Item[] probes;
+    private String[] rawSkus;
+    private Map<String, Integer> bySku;
+    private Map<Item, Integer> byItem;
+    private Integer[] byOrdinal;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void createMaps() {
+        probes = new Item[keyCount];
+        rawSkus = new String[keyCount];
+        bySku = new HashMap<>();
+        byItem = new HashMap<>();
+        int maxOrdinal = 0;
+        for (int i = 0; i < keyCount; i++) {
+            Item stored = new Item("KEY" + i, "Item " + i, BigDecimal.ONE);
+            probes[i] = new Item("key" + i, "Item " + i, BigDecimal.ONE);
+            rawSkus[i] = " key" + i + " ";
+            bySku.put(stored.getSku(), i);
+            byItem.put(stored, i);
+            maxOrdinal = Math.max(maxOrdinal, stored.getOrdinal());
+        }
+        byOrdinal = new Integer[maxOrdinal + 1];
+        for (Map.Entry<Item, Integer> e : byItem.entrySet()) {
+            byOrdinal[e.getKey().getOrdinal()] = e.getValue();
+        }
+    }
+
+    private int nextIndex() {
+        int i = next;
+        next = i + 1 == keyCount ? 0 : i + 1;
+        return i;
+    }
+
+    @Benchmark
+    public Integer lookupBySkuText() {
+        return bySku.get(rawSkus[nextIndex()].trim().toUpperCase());
+    }
+
+    @Benchmark
+    public Integer lookupByItem() {
+        return byItem.get(probes[nextIndex()]);
+    }
+
+    @Benchmark
+    public Integer lookupByOrdinal() {
+        return byOrdinal[probes[nextIndex()].getOrdinal()];
+    }
+}
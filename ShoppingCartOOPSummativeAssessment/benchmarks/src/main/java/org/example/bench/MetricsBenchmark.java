@@ -0,0 +1,73 @@
+package org.example.bench;
+
+import org.example.cart.Cart;
+import org.example.cart.InMemoryCart;
+import org.example.catalog.Catalog;
+import org.example.catalog.SnapshotCatalog;
+import org.example.catalog.StaticCatalog;
+import org.example.metrics.MeteredCart;
+import org.example.metrics.MeteredCatalog;
+import org.example.metrics.Metrics;
+import org.example.model.Item;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of metering: the same cart and catalog calls unwrapped ("none") and
+ * through MeteredCart/MeteredCatalog at each metrics level.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+
+    @Param({"none", "off", "count", "time"})
+    public String level;
+
+    private Cart cart;
+    private Catalog catalog;
+    private Item apple;
+
+    @Setup(Level.Trial)
+    public void wrap() {
+        Cart plainCart = new InMemoryCart();
+        Catalog plainCatalog = new SnapshotCatalog(new StaticCatalog().getCatalogItems());
+        if (level.equals("none")) {
+            cart = plainCart;
+            catalog = plainCatalog;
+        } else {
+            Metrics metrics = new Metrics();
+            metrics.setLevel(org.example.metrics.Level.parse(level));
+            cart = new MeteredCart(plainCart, metrics.cart());
+            catalog = new MeteredCatalog(plainCatalog, metrics.catalog());
+        }
+        apple = plainCatalog.findItemBySKU("APL");
+    }
+
+    @Benchmark
+    public Cart addThenRemove() {
+        cart.addItemToCart(apple, 1);
+        cart.removeItemFromCart(apple, 1);
+        return cart;
+    }
+
+    @Benchmark
+    public Item findBySku() {
+        return catalog.findItemBySKU("APL");
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.bench;
+
+import org.example.model.Item;
+import org.example.order.Order;
+import org.example.order.OrderHistory;
+import org.example.order.OrderLine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-customer queries against an order log of {@code orderCount} orders in blocks of {@code blockSize}
+ * spread over 100k customers, reopened from disk so the indexes are the
+ * ones rebuilt by open and the block cache starts cold. Customers are
+ * picked at random, so most queries decode blocks rather than hit the cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderHistoryBenchmark {
+    private static final int CUSTOMERS = 100_000;
+
+    @Param({"1000000"})
+    public int orderCount;
+
+    @Param({"256", "1024"})
+    public int blockSize;
+
+    private Path dir;
+    private OrderHistory history;
+    private final SplittableRandom random = new SplittableRandom(7);
+
+    @Setup(Level.Trial)
+    public void fillLog() throws IOException {
+        dir = Files.createTempDirectory("orders");
+        Item[] items = new Item[500];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = new Item("SKU" + i, "Item " + i, BigDecimal.valueOf(99 + i * 7L, 2));
+        }
+        long[] clock = {1_700_000_000_000L};
+        try (OrderHistory writer = OrderHistory.open(dir.resolve("orders.log"), blockSize, () -> clock[0] += 250)) {
+            SplittableRandom fill = new SplittableRandom(1);
+            for (int o = 0; o < orderCount; o++) {
+                int lines = 1 + fill.nextInt(6);
+                List<OrderLine> basket = new ArrayList<>(lines);
+                for (int l = 0; l < lines; l++) {
+                    basket.add(OrderLine.of(items[(o + l * 31) % items.length], 1 + fill.nextInt(3)));
+                }
+                writer.record("customer-" + fill.nextInt(CUSTOMERS), basket);
+            }
+        }
+        long start = System.nanoTime();
+        history = OrderHistory.open(dir.resolve("orders.log"), blockSize, System::currentTimeMillis);
+        System.out.printf("%n%d orders in %d bytes (%.1f bytes/order), reopened in %d ms%n", history.getOrderCount(),
+                history.getFileBytes(), (double) history.getFileBytes() / history.getOrderCount(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteLog() throws IOException {
+        history.close();
+        Files.deleteIfExists(dir.resolve("orders.log"));
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public List<Order> lastTenOrders() {
+        return history.lastOrders("customer-" + random.nextInt(CUSTOMERS), 10);
+    }
+
+    @Benchmark
+    public Order lastOrder() {
+        return history.lastOrder("customer-" + random.nextInt(CUSTOMERS));
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.bench;
+
+import org.example.model.CartLine;
+import org.example.model.Item;
+import org.example.model.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Line pricing: the BigDecimal API next to the fixed-point Money path.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingBenchmark {
+
+    @Param({"1", "37", "1000"})
+    public int quantity;
+
+    private Item item;
+    private BigDecimal unitPrice;
+
+    @Setup(Level.Trial)
+    public void createItem() {
+        item = new Item("PRC", "Priced item", new BigDecimal("3.49"));
+        unitPrice = item.getUnitPrice();
+    }
+
+    // A fresh line per call, so every invocation prices it the way a changed cart would
+    @Benchmark
+    public BigDecimal cartLineGetLineTotal() {
+        return new CartLine(item, quantity).getLineTotal();
+    }
+
+    @Benchmark
+    public Money cartLineGetLineTotalMoney() {
+        return new CartLine(item, quantity).getLineTotalMoney();
+    }
+
+    // What getLineTotal() cost before prices moved to Money, for comparison
+    @Benchmark
+    public BigDecimal bigDecimalMultiply() {
+        return unitPrice.multiply(BigDecimal.valueOf(quantity));
+    }
+}
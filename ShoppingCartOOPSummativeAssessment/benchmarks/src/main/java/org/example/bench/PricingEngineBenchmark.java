@@ -0,0 +1,91 @@
+package org.example.bench;
+
+import org.example.cart.InMemoryCart;
+import org.example.model.Item;
+import org.example.model.Money;
+import org.example.pricing.PricedCart;
+import org.example.pricing.PricedLine;
+import org.example.pricing.PricingEngine;
+import org.example.pricing.PricingRule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pricing a cart against a large ruleset: a full price next to repricing
+ * the one line that changed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingEngineBenchmark {
+
+    @Param({"10000"})
+    public int ruleCount;
+
+    @Param({"10", "100"})
+    public int lineCount;
+
+    private PricingEngine engine;
+    private InMemoryCart cart;
+    private PricedCart priced;
+    private Item changed;
+    private int quantity;
+
+    @Setup(Level.Trial)
+    public void compileRules() {
+        List<PricingRule> rules = new ArrayList<>(ruleCount);
+        Map<String, String> categories = new HashMap<>();
+        for (int i = 0; i < ruleCount; i++) {
+            String sku = "SKU" + (i / 4);
+            switch (i % 4) {
+                case 0: rules.add(PricingRule.bogo(sku)); break;
+                case 1: rules.add(PricingRule.bulkPrice(sku, 5, Money.ofMinor(50, Money.DEFAULT_CURRENCY))); break;
+                case 2: rules.add(PricingRule.bulkPrice(sku, 10, Money.ofMinor(40, Money.DEFAULT_CURRENCY))); break;
+                default: categories.put(sku, "cat" + (i % 50));
+            }
+        }
+        for (int c = 0; c < 50; c++) {
+            rules.add(PricingRule.categoryDiscount("cat" + c, BigDecimal.valueOf(c % 20)));
+            rules.add(PricingRule.tax("cat" + c, new BigDecimal("7.25")));
+        }
+        engine = new PricingEngine(rules, categories);
+
+        cart = new InMemoryCart();
+        for (int i = 0; i < lineCount; i++) {
+            cart.addItemToCart(new Item("SKU" + i * 7, "Item " + i, BigDecimal.valueOf(100 + i, 2)), 1 + i % 12);
+        }
+        priced = engine.price(cart);
+        changed = cart.getLines().get(0).getItem();
+    }
+
+    @Benchmark
+    public PricedCart priceWholeCart() {
+        return engine.price(cart);
+    }
+
+    @Benchmark
+    public PricedLine repriceOneLine() {
+        quantity = quantity % 12 + 1;
+        return priced.reprice(changed, quantity);
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.bench;
+
+import org.example.cart.InMemoryCart;
+import org.example.model.CartLine;
+import org.example.model.Item;
+import org.example.view.CartRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering a whole cart as text: CartRenderer into a reused StringBuilder,
+ * next to joining every line's toString() as MenuController used to.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReceiptBenchmark {
+
+    @Param({"10", "100"})
+    public int lineCount;
+
+    private InMemoryCart cart;
+    private final CartRenderer renderer = new CartRenderer("\n");
+    private final StringBuilder out = new StringBuilder();
+
+    @Setup(Level.Trial)
+    public void createCart() {
+        cart = new InMemoryCart();
+        for (int i = 0; i < lineCount; i++) {
+            cart.addItemToCart(new Item("SKU" + i, "Item " + i, BigDecimal.valueOf(100 + i, 2)), 1 + i % 5);
+        }
+    }
+
+    @Benchmark
+    public int rendererIntoReusedBuilder() {
+        out.setLength(0);
+        renderer.render(cart, out);
+        return out.length();
+    }
+
+    @Benchmark
+    public int lineToStrings() {
+        int length = 0;
+        for (CartLine line : cart.getLines()) {
+            length += line.toString().length() + 1;
+        }
+        return length;
+    }
+}
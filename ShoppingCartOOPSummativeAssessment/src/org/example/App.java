@@ -1,11 +1,32 @@
 package org.example;
 
+import org.example.batch.BatchDriver;
+import org.example.server.CartServer;
+import org.example.server.LoadGenerator;
 import org.example.view.ConsoleIO;
 import org.example.view.MenuController;
 
+import java.util.Arrays;
+
 public class App {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+
+        // Headless mode: replay a command script instead of running the menu
+        if(args.length > 0 && args[0].equals("--batch")){
+            BatchDriver.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        // Serve carts over a local socket, or drive such a server with load
+        if(args.length > 0 && args[0].equals("--server")){
+            CartServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if(args.length > 0 && args[0].equals("--loadgen")){
+            LoadGenerator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
 
         // Initialize Variables
         ConsoleIO console = new ConsoleIO();
@@ -20,15 +41,19 @@ public class App {
         boolean running = true;
         int userInput;
 
-        // Main Loop
-        while(running){
-            userInput = console.getIntegerInputInRange(MAIN_MENU, 1, 5);
-            running = menu.handleAction(userInput);
+        // Main Loop; output is buffered, so flush whatever is left however the loop ends
+        try {
+            while(running){
+                userInput = console.getIntegerInputInRange(MAIN_MENU, 1, 5);
+                running = menu.handleAction(userInput);
+            }
+
+            // Exit Message
+            console.writeMessage("Goodbye!");
+        } finally {
+            console.flush();
         }
 
-        // Exit Message
-        console.writeMessage("Goodbye!");
-
     }
 
 }
@@ -0,0 +1,233 @@
+package org.example.batch;
+
+import org.example.cart.Cart;
+import org.example.cart.CompactCart;
+import org.example.cart.ConcurrentCart;
+import org.example.cart.InMemoryCart;
+import org.example.catalog.Catalog;
+import org.example.catalog.CatalogImporter;
+import org.example.catalog.ImportResult;
+import org.example.catalog.SnapshotCatalog;
+import org.example.catalog.StaticCatalog;
+import org.example.metrics.MeteredCart;
+import org.example.metrics.MeteredCatalog;
+import org.example.metrics.Metrics;
+import org.example.model.Item;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Replays a {@link BatchScript} without the interactive menu, for load tests.
+ *
+ * <p>Every simulated session gets a fresh cart from the factory and runs
+ * the whole script against it, looking items up in the shared catalog by
+ * SKU the way the menu does. Sessions are spread over a fixed thread pool.
+ * Each worker times every command into its own histogram, so workers
+ * share nothing but the catalog and a session counter while they run.</p>
+ *
+ * <p>A command that fails, such as adding a SKU the catalog doesn't have,
+ * is counted as an error and the session carries on.</p>
+ *
+ * <p>From the command line: {@code App --batch <script|-> [--sessions N]
+ * [--threads N] [--cart inmemory|concurrent|compact] [--catalog items.csv] [--metrics]}.
+ * With {@code --metrics} the carts and catalog are metered and the metrics
+ * are printed after the report.</p>
+ */
+public class BatchDriver {
+    private final Catalog catalog;
+    private final Supplier<? extends Cart> cartFactory;
+
+    /**
+     * @param catalog catalog shared by every session; must be safe for concurrent reads
+     * @param cartFactory makes the cart for each session
+     * @throws IllegalArgumentException when an argument is null
+     */
+    public BatchDriver(Catalog catalog, Supplier<? extends Cart> cartFactory) {
+        if (catalog == null) throw new IllegalArgumentException("catalog required");
+        if (cartFactory == null) throw new IllegalArgumentException("cart factory required");
+        this.catalog = catalog;
+        this.cartFactory = cartFactory;
+    }
+
+    /**
+     * Replays the script once per session.
+     *
+     * @param script the commands each session runs
+     * @param sessions number of simulated shoppers
+     * @param threads number of worker threads
+     * @return throughput and latency of the run
+     * @throws IllegalArgumentException when {@code script} is null or a count is less than 1
+     * @throws InterruptedException when interrupted while waiting for the workers
+     */
+    public BatchReport run(BatchScript script, int sessions, int threads) throws InterruptedException {
+        if (script == null) throw new IllegalArgumentException("script required");
+        if (sessions < 1) throw new IllegalArgumentException("sessions > 0 required");
+        if (threads < 1) throw new IllegalArgumentException("threads > 0 required");
+        int workers = Math.min(threads, sessions);
+        AtomicInteger nextSession = new AtomicInteger();
+        List<Worker> tasks = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            tasks.add(new Worker(script, sessions, nextSession));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        long start = System.nanoTime();
+        try {
+            List<Future<Worker>> done = new ArrayList<>(workers);
+            for (Worker task : tasks) {
+                done.add(pool.submit(task, task));
+            }
+            for (Future<Worker> future : done) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("batch worker failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        LatencyHistogram latency = new LatencyHistogram();
+        long errors = 0;
+        long checkouts = 0;
+        for (Worker task : tasks) {
+            latency.add(task.latency);
+            errors += task.errors;
+            checkouts += task.checkouts;
+        }
+        return new BatchReport(sessions, workers, errors, checkouts, elapsed, latency);
+    }
+
+    /**
+     * Command line entry point, see the class comment.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String scriptPath = null;
+        int sessions = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Supplier<? extends Cart> carts = InMemoryCart::new;
+        Catalog catalog = null;
+        boolean metered = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (arg.equals("--sessions")) sessions = Integer.parseInt(value(args, ++i));
+                else if (arg.equals("--threads")) threads = Integer.parseInt(value(args, ++i));
+                else if (arg.equals("--cart")) carts = cartFactory(value(args, ++i));
+                else if (arg.equals("--catalog")) catalog = importCatalog(Path.of(value(args, ++i)));
+                else if (arg.equals("--metrics")) metered = true;
+                else if (scriptPath == null && !arg.startsWith("--")) scriptPath = arg;
+                else throw new IllegalArgumentException("unexpected argument " + arg);
+            }
+            if (scriptPath == null) throw new IllegalArgumentException("script file (or - for stdin) required");
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("usage: --batch <script|-> [--sessions N] [--threads N] "
+                    + "[--cart inmemory|concurrent|compact] [--catalog items.csv] [--metrics]");
+            System.exit(2);
+            return;
+        }
+        if (catalog == null) catalog = new SnapshotCatalog(new StaticCatalog().getCatalogItems());
+
+        BatchScript script;
+        try (Reader in = scriptPath.equals("-")
+                ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                : Files.newBufferedReader(Path.of(scriptPath))) {
+            script = BatchScript.parse(in);
+        }
+        if (!metered) {
+            System.out.println(new BatchDriver(catalog, carts).run(script, sessions, threads));
+            return;
+        }
+        Metrics metrics = new Metrics();
+        Supplier<? extends Cart> plainCarts = carts;
+        BatchDriver driver = new BatchDriver(new MeteredCatalog(catalog, metrics.catalog()),
+                () -> new MeteredCart(plainCarts.get(), metrics.cart()));
+        System.out.println(driver.run(script, sessions, threads));
+        System.out.print(metrics.dump());
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) throw new IllegalArgumentException(args[i - 1] + " needs a value");
+        return args[i];
+    }
+
+    private static Supplier<? extends Cart> cartFactory(String type) {
+        switch (type.toLowerCase()) {
+            case "inmemory":   return InMemoryCart::new;
+            case "concurrent": return ConcurrentCart::new;
+            case "compact":    return CompactCart::new;
+            default: throw new IllegalArgumentException("unknown cart type " + type);
+        }
+    }
+
+    private static Catalog importCatalog(Path file) throws IOException {
+        SnapshotCatalog catalog = new SnapshotCatalog();
+        try (Reader in = Files.newBufferedReader(file)) {
+            ImportResult result = new CatalogImporter().importFeed(in, CatalogImporter.Format.CSV,
+                    CatalogImporter.ErrorPolicy.SKIP_INVALID, catalog);
+            System.err.println("catalog: " + result);
+        }
+        return catalog;
+    }
+
+    /**
+     * Runs whole sessions until none are left, recording into its own counters.
+     */
+    private final class Worker implements Runnable {
+        private final BatchScript script;
+        private final int sessions;
+        private final AtomicInteger nextSession;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private long errors;
+        private long checkouts;
+
+        private Worker(BatchScript script, int sessions, AtomicInteger nextSession) {
+            this.script = script;
+            this.sessions = sessions;
+            this.nextSession = nextSession;
+        }
+
+        @Override
+        public void run() {
+            List<ScriptCommand> commands = script.commands();
+            while (nextSession.getAndIncrement() < sessions && !Thread.currentThread().isInterrupted()) {
+                Cart cart = cartFactory.get();
+                for (ScriptCommand command : commands) {
+                    long start = System.nanoTime();
+                    try {
+                        execute(command, cart);
+                    } catch (RuntimeException e) {
+                        errors++;
+                    }
+                    latency.record(System.nanoTime() - start);
+                }
+            }
+        }
+
+        private void execute(ScriptCommand command, Cart cart) {
+            if (command.kind == ScriptCommand.Kind.CHECKOUT) {
+                cart.checkoutMoney();
+                checkouts++;
+                return;
+            }
+            Item item = catalog.findItemBySKU(command.sku);
+            if (item == null) throw new IllegalArgumentException("unknown SKU " + command.sku);
+            if (command.kind == ScriptCommand.Kind.ADD) cart.addItemToCart(item, command.quantity);
+            else cart.removeItemFromCart(item, command.quantity);
+        }
+    }
+}
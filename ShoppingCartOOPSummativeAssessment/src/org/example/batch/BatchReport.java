@@ -0,0 +1,64 @@
+package org.example.batch;
+
+/**
+ * Outcome of one {@link BatchDriver} run: counts, throughput and the
+ * latency of single commands.
+ */
+public final class BatchReport {
+    private final int sessions;
+    private final int threads;
+    private final long operations;
+    private final long errors;
+    private final long checkouts;
+    private final long elapsedNanos;
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long p999;
+    private final long max;
+
+    BatchReport(int sessions, int threads, long errors, long checkouts, long elapsedNanos, LatencyHistogram latency) {
+        this.sessions = sessions;
+        this.threads = threads;
+        this.operations = latency.count();
+        this.errors = errors;
+        this.checkouts = checkouts;
+        this.elapsedNanos = elapsedNanos;
+        this.p50 = latency.valueAt(50);
+        this.p90 = latency.valueAt(90);
+        this.p99 = latency.valueAt(99);
+        this.p999 = latency.valueAt(99.9);
+        this.max = latency.max();
+    }
+
+    // getters
+    public int getSessions()        { return sessions; }
+    public int getThreads()         { return threads; }
+    public long getOperations()     { return operations; }
+    /** @return commands that failed, e.g. an unknown SKU; they still count as operations */
+    public long getErrors()         { return errors; }
+    public long getCheckouts()      { return checkouts; }
+    public long getElapsedNanos()   { return elapsedNanos; }
+
+    // Latency of one command, in nanoseconds, to within about 1.6%
+    public long getP50Nanos()       { return p50; }
+    public long getP90Nanos()       { return p90; }
+    public long getP99Nanos()       { return p99; }
+    public long getP999Nanos()      { return p999; }
+    public long getMaxNanos()       { return max; }
+
+    /**
+     * @return commands run per second across all threads
+     */
+    public double getOpsPerSecond() {
+        return elapsedNanos == 0 ? 0 : operations * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d sessions on %d threads: %d ops (%d errors, %d checkouts) in %d ms, %.0f ops/s%n"
+                        + "latency us: p50 %.2f  p90 %.2f  p99 %.2f  p99.9 %.2f  max %.2f",
+                sessions, threads, operations, errors, checkouts, elapsedNanos / 1_000_000, getOpsPerSecond(),
+                p50 / 1e3, p90 / 1e3, p99 / 1e3, p999 / 1e3, max / 1e3);
+    }
+}
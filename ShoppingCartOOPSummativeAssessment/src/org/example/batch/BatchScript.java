@@ -0,0 +1,54 @@
+package org.example.batch;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A parsed batch script: the commands one simulated shopper runs, in order.
+ *
+ * <p>One command per line, see {@link ScriptCommand}. Blank lines and lines
+ * starting with {@code #} are skipped. The script is parsed once and then
+ * shared, read-only, by every session that replays it.</p>
+ */
+public final class BatchScript {
+    private final List<ScriptCommand> commands;
+
+    private BatchScript(List<ScriptCommand> commands) {
+        this.commands = commands;
+    }
+
+    /**
+     * @param script the script text; read to the end but not closed
+     * @return the parsed script
+     * @throws IllegalArgumentException when {@code script} is null or a line
+     * isn't a valid command; the message gives the line number
+     */
+    public static BatchScript parse(Reader script) throws IOException {
+        if (script == null) throw new IllegalArgumentException("script required");
+        BufferedReader reader = script instanceof BufferedReader ? (BufferedReader) script : new BufferedReader(script);
+        List<ScriptCommand> commands = new ArrayList<>();
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+            commands.add(ScriptCommand.parse(trimmed, lineNumber));
+        }
+        return new BatchScript(List.copyOf(commands));
+    }
+
+    /**
+     * @return number of commands in the script
+     */
+    public int size() {
+        return commands.size();
+    }
+
+    List<ScriptCommand> commands() {
+        return commands;
+    }
+}
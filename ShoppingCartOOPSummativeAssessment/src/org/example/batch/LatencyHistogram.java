@@ -0,0 +1,64 @@
+package org.example.batch;
+
+import org.example.metrics.Histogram;
+
+/**
+ * Log-linear histogram of latencies in nanoseconds, with the same buckets
+ * as {@link Histogram}: any recorded value is reported within about 1.6%
+ * whatever its size. Recording is a plain array increment with no
+ * allocation, cheaper than Histogram's atomic one.
+ *
+ * <p>Not thread-safe: give every worker its own and {@link #add} them up
+ * at the end.</p>
+ */
+final class LatencyHistogram {
+    private final long[] counts = new long[Histogram.BUCKETS];
+    private long total;
+    private long max;
+
+    void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[indexOf(value)]++;
+        total++;
+        if (value > max) max = value;
+    }
+
+    void add(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+        max = Math.max(max, other.max);
+    }
+
+    long count() {
+        return total;
+    }
+
+    long max() {
+        return max;
+    }
+
+    /**
+     * @param percentile 0 to 100
+     * @return the value at that percentile, the upper end of its bucket; 0 when empty
+     */
+    long valueAt(double percentile) {
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(max, highestValueAt(i));
+        }
+        return max;
+    }
+
+    static int indexOf(long value) {
+        return Histogram.bucketOf(value);
+    }
+
+    static long highestValueAt(int index) {
+        return Histogram.bucketMax(index);
+    }
+}
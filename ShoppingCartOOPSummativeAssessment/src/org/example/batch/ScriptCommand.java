@@ -0,0 +1,62 @@
+package org.example.batch;
+
+/**
+ * One line of a batch script:
+ * <p>- {@code add SKU [qty]}</p>
+ * <p>- {@code remove SKU [qty]}</p>
+ * <p>- {@code checkout}</p>
+ *
+ * <p>The quantity defaults to 1. Keywords are case-insensitive.</p>
+ */
+final class ScriptCommand {
+
+    enum Kind { ADD, REMOVE, CHECKOUT }
+
+    final Kind kind;
+    final String sku;       // null for checkout
+    final int quantity;
+
+    private ScriptCommand(Kind kind, String sku, int quantity) {
+        this.kind = kind;
+        this.sku = sku;
+        this.quantity = quantity;
+    }
+
+    /**
+     * @param line a script line that isn't blank or a comment
+     * @param lineNumber 1-based line number, for the error message
+     * @throws IllegalArgumentException when the line isn't a valid command
+     */
+    static ScriptCommand parse(String line, long lineNumber) {
+        String[] words = line.trim().split("\\s+");
+        String keyword = words[0].toLowerCase();
+        if (keyword.equals("checkout")) {
+            if (words.length != 1) throw error(lineNumber, "checkout takes no arguments");
+            return new ScriptCommand(Kind.CHECKOUT, null, 0);
+        }
+        Kind kind;
+        if (keyword.equals("add")) kind = Kind.ADD;
+        else if (keyword.equals("remove")) kind = Kind.REMOVE;
+        else throw error(lineNumber, "unknown command \"" + words[0] + "\"");
+        if (words.length < 2 || words.length > 3) throw error(lineNumber, keyword + " needs a SKU and an optional quantity");
+        int quantity = 1;
+        if (words.length == 3) {
+            try {
+                quantity = Integer.parseInt(words[2]);
+            } catch (NumberFormatException e) {
+                throw error(lineNumber, "quantity is not a whole number: " + words[2]);
+            }
+            if (quantity < 1) throw error(lineNumber, "quantity > 0 required");
+        }
+        return new ScriptCommand(kind, words[1].toUpperCase(), quantity);
+    }
+
+    private static IllegalArgumentException error(long lineNumber, String message) {
+        return new IllegalArgumentException("line " + lineNumber + ": " + message);
+    }
+
+    @Override
+    public String toString() {
+        return kind == Kind.CHECKOUT ? "checkout" : kind.name().toLowerCase() + " " + sku + " " + quantity;
+    }
+}
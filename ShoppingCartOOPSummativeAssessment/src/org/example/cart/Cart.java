@@ -2,13 +2,78 @@ package org.example.cart;
 
 import org.example.model.CartLine;
 import org.example.model.Item;
+import org.example.model.Money;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.ObjIntConsumer;
 
 public interface Cart {
+    public List<CartLine> getLines();
     public void addItemToCart(Item item, int quantity);
     public void removeItemFromCart(Item item, int quantity);
     public BigDecimal getSubtotal();
     public BigDecimal checkout();
+    public Money getSubtotalMoney();
+    public Money checkoutMoney();
+
+    /**
+     * Applies a batch of adds and removes as one change. Every delta is
+     * validated before anything is applied, so either the whole batch lands
+     * or the cart is left untouched. The result is the same as calling
+     * add/remove once per delta in order, but the subtotal is updated once.
+     *
+     * @param deltas changes to apply, in order
+     * @return the cart's lines after the batch
+     * @throws IllegalArgumentException when {@code deltas} or a delta is null,
+     * or an added item is priced in another currency
+     * @throws ArithmeticException when a quantity or the subtotal would overflow
+     */
+    public List<CartLine> applyAll(List<CartDelta> deltas);
+
+    /**
+     * Calls {@code action} with the Item and quantity of every line, without
+     * copying the lines.
+     *
+     * @param action receives each line; must not modify this cart
+     */
+    public void forEachLine(ObjIntConsumer<Item> action);
+
+    /**
+     * Looks up one line. The default walks {@link #forEachLine}; carts that
+     * keep their lines keyed by Item override it with a direct lookup.
+     *
+     * @param item the item to look for
+     * @return how many of {@code item} the cart holds, 0 when it holds none
+     */
+    public default int quantityOf(Item item) {
+        int[] quantity = {0};
+        forEachLine((line, held) -> {
+            if (line.equals(item)) quantity[0] = held;
+        });
+        return quantity[0];
+    }
+
+    /**
+     * Merges every line of {@code other} into this cart in a single pass over
+     * {@code other}, then applies the result the same all-or-nothing way as
+     * {@link #applyAll(List)}. {@code other} is left unchanged.
+     *
+     * @param other the cart to merge in, such as a guest session's cart
+     * @param policy decides the quantity of lines found in both carts
+     * @throws IllegalArgumentException when {@code other} or {@code policy} is null,
+     * {@code other} is this cart, the policy returns a negative quantity, or a
+     * new line is priced in another currency
+     * @throws ArithmeticException when a quantity or the subtotal would overflow
+     */
+    public void mergeFrom(Cart other, MergePolicy policy);
+
+    /**
+     * Merges {@code other} into this cart, adding quantities of lines found
+     * in both. See {@link #mergeFrom(Cart, MergePolicy)}.
+     */
+    public default void mergeFrom(Cart other) {
+        mergeFrom(other, MergePolicy.SUM);
+    }
+
 }
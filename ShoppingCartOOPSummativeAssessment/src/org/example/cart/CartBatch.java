@@ -0,0 +1,201 @@
+package org.example.cart;
+
+import org.example.model.CartLine;
+import org.example.model.Item;
+
+import java.util.Currency;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Validation pass shared by the {@link Cart#applyAll(List)} and
+ * {@link Cart#mergeFrom(Cart, MergePolicy)} implementations.
+ *
+ * <p>Replays the deltas against the cart's current quantities without
+ * touching the cart, with the same rules as one add/remove call per delta
+ * (removes clamp at zero). The result is the final quantity of every
+ * Item the batch touches and the total subtotal change, so the cart can
+ * then apply the whole batch in one pass that cannot fail.</p>
+ */
+final class CartBatch {
+
+    /**
+     * What the batch needs to know about the cart's current lines.
+     */
+    interface Lines {
+        /** @return quantity of {@code item} in the cart, 0 when there is no line */
+        int quantityOf(Item item);
+        /** @return the Item the existing line is priced with, or null when there is no line */
+        Item lineItem(Item item);
+    }
+
+    /**
+     * Anything that can list (Item, quantity) lines, such as
+     * {@code cart::forEachLine}.
+     */
+    interface LineSource {
+        void forEachLine(ObjIntConsumer<Item> action);
+    }
+
+    /**
+     * Net effect of the batch on one Item.
+     */
+    static final class Change {
+        final Item itemBefore;      // item of the existing line, null when there was none
+        final int before;
+        Item item;                  // item the line ends up priced with
+        int after;
+
+        private Change(Item itemBefore, int before) {
+            this.itemBefore = itemBefore;
+            this.before = before;
+            this.item = itemBefore;
+            this.after = before;
+        }
+
+        /**
+         * @return true when the line must be (re)created rather than adjusted,
+         * because it is new or was emptied and re-added with another Item
+         */
+        boolean replacesLine() {
+            return after > 0 && item != itemBefore;
+        }
+
+        long subtotalChange() {
+            long removed = before == 0 ? 0 : Math.multiplyExact(itemBefore.getUnitMoney().getMinorUnits(), (long) before);
+            long added = after == 0 ? 0 : Math.multiplyExact(item.getUnitMoney().getMinorUnits(), (long) after);
+            return Math.subtractExact(added, removed);
+        }
+    }
+
+    /**
+     * Lines view of a map of Item to CartLine, as InMemoryCart and each
+     * ConcurrentCart segment keep them.
+     */
+    static Lines linesOf(Map<Item, CartLine> lines) {
+        return new Lines() {
+            @Override public int quantityOf(Item item) {
+                CartLine line = lines.get(item);
+                return line == null ? 0 : line.getQuantity();
+            }
+            @Override public Item lineItem(Item item) {
+                CartLine line = lines.get(item);
+                return line == null ? null : line.getItem();
+            }
+        };
+    }
+
+    /**
+     * Applies one staged change to a map of Item to CartLine. Cannot fail
+     * once the batch has been staged.
+     */
+    static void apply(Map<Item, CartLine> lines, Change change) {
+        if (change.after == 0) {
+            if (change.before > 0) lines.remove(change.itemBefore);
+        } else if (change.replacesLine()) {
+            lines.remove(change.item);
+            lines.put(change.item, new CartLine(change.item, change.after));
+        } else if (change.after > change.before) {
+            lines.get(change.item).add(change.after - change.before);
+        } else if (change.after < change.before) {
+            lines.get(change.item).remove(change.before - change.after);
+        }
+    }
+
+    final Map<Item, Change> changes;
+    final long subtotalChange;
+
+    private CartBatch(Map<Item, Change> changes, long subtotalChange) {
+        this.changes = changes;
+        this.subtotalChange = subtotalChange;
+    }
+
+    /**
+     * @param deltas the batch, in the order it should apply
+     * @param currency the cart's currency
+     * @param subtotal the cart's current subtotal in minor units
+     * @param lines the cart's current lines
+     * @throws IllegalArgumentException when {@code deltas} or any delta is null, or an added
+     * item is priced in another currency
+     * @throws ArithmeticException when a quantity or the subtotal would overflow
+     */
+    static CartBatch stage(List<CartDelta> deltas, Currency currency, long subtotal, Lines lines) {
+        if (deltas == null) throw new IllegalArgumentException("deltas required");
+        Map<Item, Change> changes = new LinkedHashMap<>();
+        for (CartDelta delta : deltas) {
+            if (delta == null) throw new IllegalArgumentException("delta required, was given null");
+            Item item = delta.getItem();
+            Change change = changeFor(changes, item, lines);
+            if (delta.isRemoval()) {
+                change.after = Math.max(0, change.after - delta.getQuantity());
+            } else {
+                // Same as a single add: an empty line starts over with this delta's item
+                if (change.after == 0) startLine(change, item, currency);
+                change.after = Math.addExact(change.after, delta.getQuantity());
+            }
+        }
+        return finish(changes, subtotal);
+    }
+
+    /**
+     * Stages merging another cart's lines into this one.
+     *
+     * @param source lines of the cart being merged in, each Item at most once
+     * @param policy decides the quantity of every line {@code source} lists
+     * @param currency the cart's currency
+     * @param subtotal the cart's current subtotal in minor units
+     * @param lines the cart's current lines
+     * @throws IllegalArgumentException when {@code policy} returns a negative quantity,
+     * or a new line's item is priced in another currency
+     * @throws ArithmeticException when a quantity or the subtotal would overflow
+     */
+    static CartBatch stageMerge(LineSource source, MergePolicy policy, Currency currency, long subtotal, Lines lines) {
+        Map<Item, Change> changes = new LinkedHashMap<>();
+        source.forEachLine((item, incoming) -> {
+            Change change = changeFor(changes, item, lines);
+            int merged = policy.merge(change.item == null ? item : change.item, change.before, incoming);
+            if (merged < 0) throw new IllegalArgumentException("merge policy returned " + merged + " for " + item.getSku());
+            if (change.before == 0 && merged > 0) startLine(change, item, currency);
+            change.after = merged;
+        });
+        return finish(changes, subtotal);
+    }
+
+    /**
+     * Argument checks shared by the {@link Cart#mergeFrom(Cart, MergePolicy)} implementations.
+     */
+    static void checkMerge(Cart target, Cart other, MergePolicy policy) {
+        if (other == null) throw new IllegalArgumentException("cart to merge required");
+        if (policy == null) throw new IllegalArgumentException("merge policy required");
+        if (other == target) throw new IllegalArgumentException("cannot merge a cart into itself");
+    }
+
+    private static Change changeFor(Map<Item, Change> changes, Item item, Lines lines) {
+        Change change = changes.get(item);
+        if (change == null) {
+            Item existing = lines.lineItem(item);
+            change = new Change(existing, existing == null ? 0 : lines.quantityOf(item));
+            changes.put(item, change);
+        }
+        return change;
+    }
+
+    private static void startLine(Change change, Item item, Currency currency) {
+        if (!item.getUnitMoney().getCurrency().equals(currency)) {
+            throw new IllegalArgumentException("cart is in " + currency + ", item " + item.getSku()
+                    + " is in " + item.getUnitMoney().getCurrency());
+        }
+        change.item = item;
+    }
+
+    private static CartBatch finish(Map<Item, Change> changes, long subtotal) {
+        long total = 0;
+        for (Change change : changes.values()) {
+            total = Math.addExact(total, change.subtotalChange());
+        }
+        Math.addExact(subtotal, total);     // fail now rather than while applying
+        return new CartBatch(changes, total);
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.cart;
+
+import org.example.model.Item;
+
+/**
+ * One change in a batch passed to {@link Cart#applyAll(java.util.List)}:
+ * add or remove some quantity of an Item.
+ */
+public final class CartDelta {
+    private final Item item;
+    private final int quantity;     // always > 0
+    private final boolean removal;
+
+    private CartDelta(Item item, int quantity, boolean removal) {
+        if (item == null) throw new IllegalArgumentException("item required");
+        if (quantity <= 0) throw new IllegalArgumentException("quantity > 0 required");
+        this.item = item;
+        this.quantity = quantity;
+        this.removal = removal;
+    }
+
+    /**
+     * @param item the Item to add
+     * @param quantity how many to add
+     * @throws IllegalArgumentException when {@code item} is null or {@code quantity} is zero or negative
+     */
+    public static CartDelta add(Item item, int quantity) {
+        return new CartDelta(item, quantity, false);
+    }
+
+    /**
+     * @param item the Item to remove
+     * @param quantity how many to remove; removing more than the cart holds empties the line
+     * @throws IllegalArgumentException when {@code item} is null or {@code quantity} is zero or negative
+     */
+    public static CartDelta remove(Item item, int quantity) {
+        return new CartDelta(item, quantity, true);
+    }
+
+    public Item getItem()       { return item; }
+    public int getQuantity()    { return quantity; }
+    public boolean isRemoval()  { return removal; }
+
+    @Override
+    public String toString() {
+        return (removal ? "-" : "+") + quantity + " " + item.getSku();
+    }
+}
@@ -0,0 +1,407 @@
+package org.example.cart;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Holds one cart per shopper session.
+ *
+ * <p>Carts are created lazily the first time a session asks for one. The
+ * store is bounded three ways, all optional:</p>
+ * <p>- idle TTL: carts not touched for {@code idleTtlMillis} are dropped</p>
+ * <p>- cart count: least recently used carts are dropped past {@code maxCarts}</p>
+ * <p>- estimated bytes: least recently used carts are dropped past {@code maxBytes}</p>
+ *
+ * <p>Carts live in a ConcurrentHashMap, so finding an existing cart takes no
+ * lock. A hit only stamps the entry's last access time and queues the entry
+ * in an access buffer. The LRU order is an access-ordered LinkedHashMap
+ * guarded by one lock; whichever caller finds {@value #DRAIN_THRESHOLD}
+ * queued accesses replays them into that order under a try-lock, and never
+ * waits if another thread is already doing it. Creating a cart, and the
+ * explicit sweeps, take the lock and drain the buffer first, so LRU and idle
+ * eviction still see every access, at O(evicted) cost. When the buffer is
+ * full, further accesses are not queued until it drains; those carts still
+ * get their access time, so the TTL stays exact and only the LRU order is
+ * slightly stale.</p>
+ *
+ * <p>The size estimator only ever runs on the thread accessing that cart:
+ * when the cart is created and on each later access, before the cart is
+ * handed back. Replaying the buffer just moves the latest estimate into the
+ * byte total, so one session's lookup never reads another session's cart,
+ * which may be in use on its own thread and need not be thread-safe.</p>
+ *
+ * <p>A caller that uses the same session for a while, such as a connection,
+ * can hold a {@link Handle} instead of looking the cart up every time.</p>
+ */
+public class CartStore {
+    /** Rough heap cost of an empty cart plus its map entry, used when no estimator is given */
+    public static final long DEFAULT_CART_BYTES = 512;
+
+    private static final int DRAIN_THRESHOLD = 64;
+    private static final int BUFFER_CAPACITY = 1024;
+
+    private final Supplier<? extends Cart> cartFactory;
+    private final long idleTtlMillis;
+    private final int maxCarts;
+    private final long maxBytes;
+    private final ToLongFunction<Cart> sizeEstimator;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, Entry> carts = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final LinkedHashMap<String, Entry> order = new LinkedHashMap<>(16, 0.75f, true);   // guarded by evictionLock
+    private long estimatedBytes;                                                                 // guarded by evictionLock
+    private final ConcurrentLinkedQueue<Entry> accesses = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger buffered = new AtomicInteger();
+    private volatile BiConsumer<String, Cart> evictionListener = (id, cart) -> { };
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param cartFactory creates the cart for a new session
+     * @param maxCarts maximum number of carts held, or 0 for no limit
+     * @param idleTtlMillis how long a cart may sit untouched, or 0 to never expire
+     */
+    public CartStore(Supplier<? extends Cart> cartFactory, int maxCarts, long idleTtlMillis) {
+        this(cartFactory, maxCarts, 0, idleTtlMillis, cart -> DEFAULT_CART_BYTES, CartStore::nowMillis);
+    }
+
+    /**
+     * @param cartFactory creates the cart for a new session
+     * @param maxCarts maximum number of carts held, or 0 for no limit
+     * @param maxBytes maximum estimated bytes held, or 0 for no limit
+     * @param idleTtlMillis how long a cart may sit untouched, or 0 to never expire
+     * @param sizeEstimator estimates the heap cost of a cart, re-evaluated on the accessing thread when
+     *                      a cart is created and each time it is looked up again
+     * @param clock current time in milliseconds
+     * @throws IllegalArgumentException when a required argument is null or a limit is negative
+     */
+    public CartStore(Supplier<? extends Cart> cartFactory, int maxCarts, long maxBytes, long idleTtlMillis,
+                     ToLongFunction<Cart> sizeEstimator, LongSupplier clock) {
+        if (cartFactory == null) throw new IllegalArgumentException("cart factory required");
+        if (sizeEstimator == null) throw new IllegalArgumentException("size estimator required");
+        if (clock == null) throw new IllegalArgumentException("clock required");
+        if (maxCarts < 0 || maxBytes < 0 || idleTtlMillis < 0) throw new IllegalArgumentException("limits >= 0");
+        this.cartFactory = cartFactory;
+        this.maxCarts = maxCarts;
+        this.maxBytes = maxBytes;
+        this.idleTtlMillis = idleTtlMillis;
+        this.sizeEstimator = sizeEstimator;
+        this.clock = clock;
+    }
+
+    /**
+     * Registers a callback run for every cart dropped by TTL or size limits.
+     * It is called after the store's lock is released, so it may be slow.
+     *
+     * @param listener receives the session id and the evicted cart
+     */
+    public void setEvictionListener(BiConsumer<String, Cart> listener) {
+        if (listener == null) throw new IllegalArgumentException("listener required");
+        this.evictionListener = listener;
+    }
+
+    /**
+     * Returns the session's cart, creating it if the session has none.
+     *
+     * @param sessionId session or customer id
+     * @return the cart for {@code sessionId}
+     * @throws IllegalArgumentException when {@code sessionId} is null or blank
+     */
+    public Cart getCart(String sessionId) {
+        return entry(sessionId).cart;
+    }
+
+    /**
+     * Returns a handle on the session's cart. The cart is looked up, or
+     * created, on the handle's first use. See {@link Handle}.
+     *
+     * @param sessionId session or customer id
+     * @return a handle on the cart for {@code sessionId}
+     * @throws IllegalArgumentException when {@code sessionId} is null or blank
+     */
+    public Handle getHandle(String sessionId) {
+        requireId(sessionId);
+        return new Handle(sessionId);
+    }
+
+    /**
+     * Returns the session's cart without creating one.
+     *
+     * @param sessionId session or customer id
+     * @return the cart for {@code sessionId} or null if there is none
+     */
+    public Cart getCartIfPresent(String sessionId) {
+        requireId(sessionId);
+        long now = clock.getAsLong();
+        Entry entry = carts.get(sessionId);
+        if (entry != null && touch(entry, now)) {
+            hits.increment();
+            return entry.cart;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Drops a session's cart, e.g. on logout. Not counted as an eviction.
+     *
+     * @param sessionId session or customer id
+     * @return the removed cart or null if there was none
+     */
+    public Cart removeCart(String sessionId) {
+        requireId(sessionId);
+        evictionLock.lock();
+        try {
+            drain();
+            Entry entry = order.remove(sessionId);
+            if (entry == null) return null;
+            carts.remove(sessionId, entry);
+            entry.dropped = true;
+            estimatedBytes -= entry.bytes;
+            return entry.cart;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Drops every cart that has been idle longer than the TTL. Expiry also
+     * happens whenever a cart is created, this is for a periodic sweeper.
+     *
+     * @return number of carts evicted
+     */
+    public int evictExpired() {
+        List<Entry> evicted = new ArrayList<>();
+        evictionLock.lock();
+        try {
+            drain();
+            expire(clock.getAsLong(), evicted);
+        } finally {
+            evictionLock.unlock();
+        }
+        notifyEvicted(evicted);
+        return evicted.size();
+    }
+
+    public int size() { return carts.size(); }
+    public long getHitCount() { return hits.sum(); }
+    public long getMissCount() { return misses.sum(); }
+    public long getEvictionCount() { return evictions.sum(); }
+
+    public long getEstimatedBytes() {
+        evictionLock.lock();
+        try {
+            drain();
+            return estimatedBytes;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    // Lock-free on a hit; creating a cart takes the lock
+    private Entry entry(String sessionId) {
+        requireId(sessionId);
+        long now = clock.getAsLong();
+        Entry entry = carts.get(sessionId);
+        if (entry != null && touch(entry, now)) {
+            hits.increment();
+            return entry;
+        }
+        List<Entry> evicted = new ArrayList<>();
+        evictionLock.lock();
+        try {
+            drain();
+            expire(now, evicted);
+            entry = carts.get(sessionId);
+            if (entry != null && idleTtlMillis > 0 && now - entry.lastAccess >= idleTtlMillis) {
+                order.remove(sessionId);
+                dropped(entry, evicted);
+                entry = null;
+            }
+            if (entry == null) {
+                misses.increment();
+                entry = new Entry(sessionId, cartFactory.get());
+                carts.put(sessionId, entry);
+                order.put(sessionId, entry);
+            } else {
+                hits.increment();
+                order.get(sessionId);
+            }
+            entry.lastAccess = now;
+            entry.size = sizeEstimator.applyAsLong(entry.cart);
+            account(entry);
+            trim(evicted);
+        } finally {
+            evictionLock.unlock();
+        }
+        notifyEvicted(evicted);
+        return entry;
+    }
+
+    // Records an access to a live entry; false if it was dropped or has been idle past the TTL
+    private boolean touch(Entry entry, long now) {
+        if (entry.dropped) return false;
+        if (idleTtlMillis > 0 && now - entry.lastAccess >= idleTtlMillis) {
+            expireOne(entry, now);
+            return false;
+        }
+        entry.lastAccess = now;
+        entry.size = sizeEstimator.applyAsLong(entry.cart);
+        if (buffered.get() < BUFFER_CAPACITY) {
+            accesses.add(entry);
+            if (buffered.incrementAndGet() >= DRAIN_THRESHOLD && evictionLock.tryLock()) {
+                try {
+                    drain();
+                } finally {
+                    evictionLock.unlock();
+                }
+            }
+        }
+        return true;
+    }
+
+    private void expireOne(Entry entry, long now) {
+        List<Entry> evicted = new ArrayList<>();
+        evictionLock.lock();
+        try {
+            drain();
+            if (!entry.dropped && now - entry.lastAccess >= idleTtlMillis) {
+                order.remove(entry.sessionId);
+                dropped(entry, evicted);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+        notifyEvicted(evicted);
+    }
+
+    // Caller holds the lock. Replays queued accesses into the LRU order and the byte total.
+    private void drain() {
+        Entry entry;
+        while ((entry = accesses.poll()) != null) {
+            buffered.decrementAndGet();
+            if (entry.dropped) continue;
+            order.get(entry.sessionId);
+            account(entry);
+        }
+    }
+
+    // Caller holds the lock. The head of the access-ordered map is the idlest cart.
+    private void expire(long now, List<Entry> evicted) {
+        if (idleTtlMillis == 0) return;
+        Iterator<Entry> it = order.values().iterator();
+        while (it.hasNext()) {
+            Entry eldest = it.next();
+            if (now - eldest.lastAccess < idleTtlMillis) break;
+            it.remove();
+            dropped(eldest, evicted);
+        }
+    }
+
+    // Caller holds the lock. Evicts least recently used carts until within limits.
+    private void trim(List<Entry> evicted) {
+        Iterator<Entry> it = order.values().iterator();
+        while (order.size() > 1 && overLimit() && it.hasNext()) {
+            Entry eldest = it.next();
+            it.remove();
+            dropped(eldest, evicted);
+        }
+    }
+
+    private boolean overLimit() {
+        return (maxCarts > 0 && order.size() > maxCarts)
+                || (maxBytes > 0 && estimatedBytes > maxBytes);
+    }
+
+    // Caller holds the lock. Takes the estimate left by the entry's last access; never runs the estimator.
+    private void account(Entry entry) {
+        long bytes = entry.size;
+        estimatedBytes += bytes - entry.bytes;
+        entry.bytes = bytes;
+    }
+
+    // Caller holds the lock and has already removed the entry from order
+    private void dropped(Entry entry, List<Entry> evicted) {
+        carts.remove(entry.sessionId, entry);
+        entry.dropped = true;
+        estimatedBytes -= entry.bytes;
+        evictions.increment();
+        evicted.add(entry);
+    }
+
+    private void notifyEvicted(List<Entry> evicted) {
+        if (evicted.isEmpty()) return;
+        BiConsumer<String, Cart> listener = evictionListener;
+        for (Entry entry : evicted) {
+            listener.accept(entry.sessionId, entry.cart);
+        }
+    }
+
+    private static void requireId(String sessionId) {
+        if (sessionId == null || sessionId.isBlank()) throw new IllegalArgumentException("session id required");
+    }
+
+    private static long nowMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    /**
+     * One session's cart, held onto by a caller that keeps using the same
+     * session, such as a connection. Each {@link #cart()} call counts as an
+     * access, like {@link #getCart(String)}, but skips the map lookup while
+     * the cart it found last is still in the store. Not thread-safe; give
+     * each caller its own handle.
+     */
+    public final class Handle {
+        private final String sessionId;
+        private Entry entry;
+
+        private Handle(String sessionId) {
+            this.sessionId = sessionId;
+        }
+
+        public String getSessionId() {
+            return sessionId;
+        }
+
+        /**
+         * @return the session's cart; a new one if the last one was evicted or removed
+         */
+        public Cart cart() {
+            if (entry != null && touch(entry, clock.getAsLong())) {
+                hits.increment();
+            } else {
+                entry = entry(sessionId);
+            }
+            return entry.cart;
+        }
+    }
+
+    private static final class Entry {
+        private final String sessionId;
+        private final Cart cart;
+        private volatile long lastAccess;
+        private volatile boolean dropped;
+        private volatile long size; // latest estimate, written by whoever accessed this cart
+        private long bytes;         // counted in estimatedBytes; guarded by evictionLock
+
+        private Entry(String sessionId, Cart cart) {
+            this.sessionId = sessionId;
+            this.cart = cart;
+        }
+    }
+}
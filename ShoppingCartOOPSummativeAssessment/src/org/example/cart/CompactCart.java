@@ -0,0 +1,310 @@
+package org.example.cart;
+
+import org.example.model.CartLine;
+import org.example.model.Item;
+import org.example.model.Money;
+import org.example.model.SkuRegistry;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Cart that keeps its lines in parallel arrays instead of CartLine objects.
+ *
+ * <p>Lines live in an open-addressing table keyed by SKU ordinal (see
+ * {@link SkuRegistry}) with linear probing. Unit prices are stored as
+ * long minor units (cents) and the subtotal is kept as a running total, so
+ * add, remove and {@link #getSubtotalCents()} never allocate.</p>
+ *
+ * <p>Not thread-safe, same as {@link InMemoryCart}.</p>
+ */
+public class CompactCart implements Cart {
+    private static final int INITIAL_CAPACITY = 8;
+    private static final int EMPTY = 0;     // keys[] holds ordinal + 1 so 0 can mean "free slot"
+
+    private final SkuRegistry registry;
+    private final Currency currency;
+    private int[] keys;
+    private int[] quantities;
+    private long[] unitCents;
+    private Item[] items;
+    private int size;
+    private long subtotalCents;
+
+    public CompactCart() {
+        this(SkuRegistry.shared(), Money.DEFAULT_CURRENCY);
+    }
+
+    /**
+     * @param registry assigns ordinals to the SKUs added to this cart
+     * @param currency currency every item in this cart is priced in
+     * @throws IllegalArgumentException when {@code registry} or {@code currency} is null
+     */
+    public CompactCart(SkuRegistry registry, Currency currency) {
+        if (registry == null) throw new IllegalArgumentException("registry required");
+        if (currency == null) throw new IllegalArgumentException("currency required");
+        this.registry = registry;
+        this.currency = currency;
+        clear();
+    }
+
+    /**
+     * Builds a CartLine for every line. This is a view for display, it is not
+     * on the add/remove hot path.
+     *
+     * @return the lines currently in the cart
+     */
+    @Override
+    public List<CartLine> getLines() {
+        List<CartLine> lines = new ArrayList<>(size);
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                lines.add(new CartLine(items[slot], quantities[slot]));
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Adds the given Item to the cart. If the Item does not already exist
+     * in the cart then a new line is created.
+     *
+     * @param item the Item to add to the cart
+     * @param quantity the number of items to add to the cart
+     * @throws IllegalArgumentException when {@code quantity} is zero or negative,
+     * or the item is priced in another currency
+     */
+    @Override
+    public void addItemToCart(Item item, int quantity) {
+        if (quantity <= 0) throw new IllegalArgumentException("quantity > 0 required");
+        int key = ordinalOf(item) + 1;
+        int slot = find(key);
+        if (keys[slot] == EMPTY) {
+            Money price = item.getUnitMoney();
+            if (!price.getCurrency().equals(currency)) {
+                throw new IllegalArgumentException("cart is in " + currency + ", item " + item.getSku() + " is in "
+                        + price.getCurrency());
+            }
+            subtotalCents = Math.addExact(subtotalCents, Math.multiplyExact(price.getMinorUnits(), quantity));
+            insert(slot, key, item, quantity);
+        } else {
+            int newQuantity = Math.addExact(quantities[slot], quantity);
+            subtotalCents = Math.addExact(subtotalCents, Math.multiplyExact(unitCents[slot], quantity));
+            quantities[slot] = newQuantity;
+        }
+    }
+
+    /**
+     * Removes the amount of the given Item from the cart. If the Item then
+     * has a quantity of 0 or less then it is removed from the cart
+     *
+     * @param item The item to remove from the cart
+     * @param quantity The quantity of the item to remove from the cart
+     * @throws IllegalArgumentException when {@code quantity} is zero or negative
+     */
+    @Override
+    public void removeItemFromCart(Item item, int quantity) {
+        int key = ordinalOf(item) + 1;
+        int slot = find(key);
+        if (keys[slot] == EMPTY) return;
+        if (quantity <= 0) throw new IllegalArgumentException("delta > 0");
+        int removed = Math.min(quantity, quantities[slot]);
+        subtotalCents -= unitCents[slot] * removed;
+        quantities[slot] -= removed;
+        if (quantities[slot] == 0) {
+            delete(slot);
+        }
+    }
+
+    /**
+     * Applies the whole batch with a single subtotal update.
+     * See {@link Cart#applyAll(List)}.
+     */
+    @Override
+    public List<CartLine> applyAll(List<CartDelta> deltas) {
+        apply(CartBatch.stage(deltas, currency, subtotalCents, lines()));
+        return getLines();
+    }
+
+    /**
+     * See {@link Cart#mergeFrom(Cart, MergePolicy)}. Not safe to call while
+     * other threads use this cart.
+     */
+    @Override
+    public void mergeFrom(Cart other, MergePolicy policy) {
+        CartBatch.checkMerge(this, other, policy);
+        apply(CartBatch.stageMerge(other::forEachLine, policy, currency, subtotalCents, lines()));
+    }
+
+    @Override
+    public int quantityOf(Item item) {
+        int slot = find(ordinalOf(item) + 1);
+        return keys[slot] == EMPTY ? 0 : quantities[slot];
+    }
+
+    @Override
+    public void forEachLine(ObjIntConsumer<Item> action) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                action.accept(items[slot], quantities[slot]);
+            }
+        }
+    }
+
+    /**
+     * BigDecimal adapter for {@link #getSubtotalMoney()}
+     */
+    @Override
+    public BigDecimal getSubtotal() {
+        return getSubtotalMoney().toBigDecimal();
+    }
+
+    /**
+     * @return A subtotal of all items in the cart
+     */
+    @Override
+    public Money getSubtotalMoney() {
+        return Money.ofMinor(subtotalCents, currency);
+    }
+
+    /**
+     * Allocation free version of {@link #getSubtotal()}.
+     *
+     * @return the subtotal in cents
+     */
+    public long getSubtotalCents() {
+        return subtotalCents;
+    }
+
+    /**
+     * BigDecimal adapter for {@link #checkoutMoney()}
+     */
+    @Override
+    public BigDecimal checkout() {
+        return checkoutMoney().toBigDecimal();
+    }
+
+    /**
+     * Clears the cart and returns the subtotal of all items
+     */
+    @Override
+    public Money checkoutMoney() {
+        Money subtotal = getSubtotalMoney();
+        clear();
+        return subtotal;
+    }
+
+    // Items cache their ordinal in the shared registry, so only a private registry needs a lookup
+    private int ordinalOf(Item item) {
+        return registry == SkuRegistry.shared() ? item.getOrdinal() : registry.ordinalOf(item.getSku());
+    }
+
+    // Returns the slot holding key, or the free slot where it would go.
+    private int find(int key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private CartBatch.Lines lines() {
+        return new CartBatch.Lines() {
+            @Override public int quantityOf(Item item) {
+                int slot = find(ordinalOf(item) + 1);
+                return keys[slot] == EMPTY ? 0 : quantities[slot];
+            }
+            @Override public Item lineItem(Item item) {
+                return items[find(ordinalOf(item) + 1)];
+            }
+        };
+    }
+
+    private void apply(CartBatch batch) {
+        for (Map.Entry<Item, CartBatch.Change> e : batch.changes.entrySet()) {
+            CartBatch.Change change = e.getValue();
+            int key = ordinalOf(e.getKey()) + 1;
+            int slot = find(key);
+            if (change.after == 0) {
+                if (keys[slot] != EMPTY) delete(slot);
+            } else if (keys[slot] == EMPTY) {
+                insert(slot, key, change.item, change.after);
+            } else {
+                quantities[slot] = change.after;
+                unitCents[slot] = change.item.getUnitMoney().getMinorUnits();
+                items[slot] = change.item;
+            }
+        }
+        subtotalCents += batch.subtotalChange;
+    }
+
+    private void insert(int slot, int key, Item item, int quantity) {
+        keys[slot] = key;
+        quantities[slot] = quantity;
+        unitCents[slot] = item.getUnitMoney().getMinorUnits();
+        items[slot] = item;
+        if (++size * 2 > keys.length) rehash(keys.length * 2);
+    }
+
+    // Backward-shift deletion: pulls later entries of the probe run into the gap
+    // so lookups never need tombstones.
+    private void delete(int slot) {
+        int mask = keys.length - 1;
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                quantities[gap] = quantities[next];
+                unitCents[gap] = unitCents[next];
+                items[gap] = items[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = EMPTY;
+        quantities[gap] = 0;
+        unitCents[gap] = 0;
+        items[gap] = null;
+        size--;
+    }
+
+    private void clear() {
+        keys = new int[INITIAL_CAPACITY];
+        quantities = new int[INITIAL_CAPACITY];
+        unitCents = new long[INITIAL_CAPACITY];
+        items = new Item[INITIAL_CAPACITY];
+        size = 0;
+        subtotalCents = 0;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldQuantities = quantities;
+        long[] oldCents = unitCents;
+        Item[] oldItems = items;
+        keys = new int[capacity];
+        quantities = new int[capacity];
+        unitCents = new long[capacity];
+        items = new Item[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) continue;
+            int slot = find(oldKeys[i]);
+            keys[slot] = oldKeys[i];
+            quantities[slot] = oldQuantities[i];
+            unitCents[slot] = oldCents[i];
+            items[slot] = oldItems[i];
+        }
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,396 @@
+package org.example.cart;
+
+import org.example.model.CartLine;
+import org.example.model.Item;
+import org.example.model.Money;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Thread-safe cart for services that share carts between threads.
+ *
+ * <p>Lines are split across a fixed number of segments by the Item's cached
+ * SKU hash. Each segment is a plain HashMap of Item to CartLine guarded by
+ * its own lock (lock striping), so adds/removes of different SKUs don't
+ * contend with each other.</p>
+ *
+ * <p>{@link #checkout()}, {@link #applyAll(List)} and {@link #mergeFrom}
+ * take every segment lock (always in the same order) and bump a sequence
+ * number before and after. An add racing with checkout either lands before
+ * it and is charged, or lands after it in the now empty cart. Nothing is
+ * lost or counted twice.</p>
+ *
+ * <p>Reads don't take a cart-wide lock. {@link #getSubtotalMoney()} sums
+ * the per-segment subtotals with no lock at all, and the line reads copy
+ * one segment at a time under that segment's lock. Both check the sequence
+ * number afterwards and retry if a multi-segment write ran meanwhile, so
+ * a read never sees part of a batch. After a few failed tries a read takes
+ * every lock instead, so it can't starve behind a stream of batches.</p>
+ */
+public class ConcurrentCart implements Cart {
+    private static final int DEFAULT_STRIPES = 16;
+    private static final int PAD = 8;                   // longs between segment subtotals, one cache line
+    private static final int OPTIMISTIC_TRIES = 4;
+
+    private final ReentrantLock[] locks;
+    private final Map<Item, CartLine>[] segments;
+    private final AtomicLongArray subtotals;    // running subtotal of segment i at i * PAD, in minor units; written under that segment's lock
+    private final AtomicLong batches = new AtomicLong();    // odd while a multi-segment write is running
+    private final Currency currency;
+    private final int mask;
+
+    public ConcurrentCart() {
+        this(DEFAULT_STRIPES, Money.DEFAULT_CURRENCY);
+    }
+
+    /**
+     * @param stripes number of lock stripes, rounded up to a power of two
+     * @param currency currency every item in this cart is priced in
+     * @throws IllegalArgumentException when {@code stripes} is less than 1 or {@code currency} is null
+     */
+    public ConcurrentCart(int stripes, Currency currency) {
+        if (stripes < 1) throw new IllegalArgumentException("stripes > 0 required");
+        if (currency == null) throw new IllegalArgumentException("currency required");
+        this.currency = currency;
+        int size = Integer.highestOneBit(stripes);
+        if (size < stripes) size <<= 1;
+        mask = size - 1;
+        locks = new ReentrantLock[size];
+        segments = newSegments(size);
+        subtotals = new AtomicLongArray(size * PAD);
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+            segments[i] = new HashMap<>();
+        }
+    }
+
+    /**
+     * Copies every line in the cart. The copies are detached from the cart so
+     * callers can read them while other threads keep mutating it.
+     *
+     * @return a snapshot of the lines currently in the cart
+     */
+    @Override
+    public List<CartLine> getLines() {
+        for (int attempt = 0; attempt < OPTIMISTIC_TRIES; attempt++) {
+            long seq = batches.get();
+            if ((seq & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            List<CartLine> lines = new ArrayList<>();
+            for (int i = 0; i < segments.length; i++) {
+                locks[i].lock();
+                try {
+                    copyLines(segments[i], lines);
+                } finally {
+                    locks[i].unlock();
+                }
+            }
+            if (batches.get() == seq) return lines;
+        }
+        lockAll();
+        try {
+            return copyLines();
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Adds the given Item to the cart. If the Item does not already exist
+     * in the cart then a new CartLine is created and added to the cart.
+     *
+     * @param item the Item to add to the cart
+     * @param quantity the number of items to add to the cart
+     * @throws IllegalArgumentException when the item is priced in another currency
+     */
+    @Override
+    public void addItemToCart(Item item, int quantity) {
+        if (!item.getUnitMoney().getCurrency().equals(currency)) {
+            throw new IllegalArgumentException("cart is in " + currency + ", item " + item.getSku() + " is in "
+                    + item.getUnitMoney().getCurrency());
+        }
+        int stripe = stripeFor(item);
+        locks[stripe].lock();
+        try {
+            Map<Item, CartLine> segment = segments[stripe];
+            CartLine line = segment.get(item);
+            Item priced = line == null ? item : line.getItem();
+            long newSubtotal = Math.addExact(subtotals.get(stripe * PAD),
+                    Math.multiplyExact(priced.getUnitMoney().getMinorUnits(), quantity));
+            if (line == null) {
+                segment.put(item, new CartLine(item, quantity));
+            } else {
+                line.add(quantity);
+            }
+            subtotals.set(stripe * PAD, newSubtotal);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    /**
+     * Removes the amount of the given Item from the cart. If the Item then
+     * has a quantity of 0 or less then it is removed from the cart
+     *
+     * @param item The item to remove from the cart
+     * @param quantity The quantity of the item to remove from the cart
+     */
+    /**
+     * Takes only the lock of the item's segment.
+     */
+    @Override
+    public int quantityOf(Item item) {
+        int stripe = stripeFor(item);
+        locks[stripe].lock();
+        try {
+            CartLine line = segments[stripe].get(item);
+            return line == null ? 0 : line.getQuantity();
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    @Override
+    public void removeItemFromCart(Item item, int quantity) {
+        int stripe = stripeFor(item);
+        locks[stripe].lock();
+        try {
+            Map<Item, CartLine> segment = segments[stripe];
+            CartLine line = segment.get(item);
+            if (line == null) return;
+            int before = line.getQuantity();
+            line.remove(quantity);
+            subtotals.addAndGet(stripe * PAD, -line.getItem().getUnitMoney().getMinorUnits() * (before - line.getQuantity()));
+            if (line.getQuantity() <= 0) {
+                segment.remove(item);
+            }
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    /**
+     * Sums the running subtotal of each segment without locking, retrying
+     * if a multi-segment write ran meanwhile, so the total never includes
+     * part of an {@link #applyAll(List)} batch.
+     *
+     * @return A subtotal of all items in the cart
+     */
+    @Override
+    public Money getSubtotalMoney() {
+        for (int attempt = 0; attempt < OPTIMISTIC_TRIES; attempt++) {
+            long seq = batches.get();
+            if ((seq & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            try {
+                long subtotal = sumSubtotals();
+                if (batches.get() == seq) return Money.ofMinor(subtotal, currency);
+            } catch (ArithmeticException e) {
+                if (batches.get() == seq) throw e;      // a real overflow, not a torn read
+            }
+        }
+        lockAll();
+        try {
+            return Money.ofMinor(sumSubtotals(), currency);
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * BigDecimal adapter for {@link #getSubtotalMoney()}
+     */
+    @Override
+    public BigDecimal getSubtotal() {
+        return getSubtotalMoney().toBigDecimal();
+    }
+
+    /**
+     * BigDecimal adapter for {@link #checkoutMoney()}
+     */
+    @Override
+    public BigDecimal checkout() {
+        return checkoutMoney().toBigDecimal();
+    }
+
+    /**
+     * Applies the whole batch while holding every segment lock, so readers and
+     * other writers see the cart either before or after the batch, never
+     * part way through. See {@link Cart#applyAll(List)}.
+     *
+     * @return copies of the lines right after the batch
+     */
+    @Override
+    public List<CartLine> applyAll(List<CartDelta> deltas) {
+        lockAll();
+        try {
+            CartBatch batch = CartBatch.stage(deltas, currency, sumSubtotals(), lines());
+            beginBatch();
+            try {
+                apply(batch);
+            } finally {
+                endBatch();
+            }
+            return copyLines();
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * See {@link Cart#mergeFrom(Cart, MergePolicy)}. Readers and writers of
+     * this cart see it either before or after the whole merge.
+     *
+     * <p>{@code other} is read before this cart's locks are taken, so two
+     * ConcurrentCarts merging into each other at the same time can't
+     * deadlock; changes made to {@code other} during the merge may or may
+     * not be included.</p>
+     */
+    @Override
+    public void mergeFrom(Cart other, MergePolicy policy) {
+        CartBatch.checkMerge(this, other, policy);
+        Map<Item, Integer> incoming = new LinkedHashMap<>();
+        other.forEachLine(incoming::put);
+        lockAll();
+        try {
+            CartBatch batch = CartBatch.stageMerge(action -> incoming.forEach(action::accept), policy, currency,
+                    sumSubtotals(), lines());
+            beginBatch();
+            try {
+                apply(batch);
+            } finally {
+                endBatch();
+            }
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Calls {@code action} on a snapshot taken as {@link #getLines()} does,
+     * without holding any lock, so the action may itself use this cart.
+     */
+    @Override
+    public void forEachLine(ObjIntConsumer<Item> action) {
+        for (CartLine line : getLines()) {
+            action.accept(line.getItem(), line.getQuantity());
+        }
+    }
+
+    /**
+     * Atomically drains the cart and returns the subtotal of everything drained.
+     */
+    @Override
+    public Money checkoutMoney() {
+        lockAll();
+        try {
+            long subtotal = sumSubtotals();
+            beginBatch();
+            try {
+                for (int i = 0; i < segments.length; i++) {
+                    segments[i].clear();
+                    subtotals.set(i * PAD, 0);
+                }
+            } finally {
+                endBatch();
+            }
+            return Money.ofMinor(subtotal, currency);
+        } finally {
+            unlockAll();
+        }
+    }
+
+    // Caller holds every lock
+    private CartBatch.Lines lines() {
+        return new CartBatch.Lines() {
+            @Override public int quantityOf(Item item) {
+                CartLine line = segments[stripeFor(item)].get(item);
+                return line == null ? 0 : line.getQuantity();
+            }
+            @Override public Item lineItem(Item item) {
+                CartLine line = segments[stripeFor(item)].get(item);
+                return line == null ? null : line.getItem();
+            }
+        };
+    }
+
+    // Caller holds every lock
+    private void apply(CartBatch batch) {
+        for (Map.Entry<Item, CartBatch.Change> e : batch.changes.entrySet()) {
+            int stripe = stripeFor(e.getKey());
+            subtotals.addAndGet(stripe * PAD, e.getValue().subtotalChange());
+            CartBatch.apply(segments[stripe], e.getValue());
+        }
+    }
+
+    // Exact when the caller holds every lock; otherwise checked against the batch sequence
+    private long sumSubtotals() {
+        long subtotal = 0;
+        for (int i = 0; i < segments.length; i++) {
+            subtotal = Math.addExact(subtotal, subtotals.get(i * PAD));
+        }
+        return subtotal;
+    }
+
+    // Caller holds every lock
+    private List<CartLine> copyLines() {
+        List<CartLine> lines = new ArrayList<>();
+        for (Map<Item, CartLine> segment : segments) {
+            copyLines(segment, lines);
+        }
+        return lines;
+    }
+
+    // Caller holds the segment's lock
+    private static void copyLines(Map<Item, CartLine> segment, List<CartLine> into) {
+        for (CartLine line : segment.values()) {
+            into.add(new CartLine(line.getItem(), line.getQuantity()));
+        }
+    }
+
+    // Caller holds every lock; readers retry while the sequence is odd or has moved
+    private void beginBatch() {
+        batches.incrementAndGet();
+    }
+
+    private void endBatch() {
+        batches.incrementAndGet();
+    }
+
+    // Always in index order, so two threads taking every lock can't deadlock
+    private void lockAll() {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (int i = locks.length - 1; i >= 0; i--) {
+            locks[i].unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Item, CartLine>[] newSegments(int size) {
+        return (Map<Item, CartLine>[]) new Map<?, ?>[size];
+    }
+
+    private int stripeFor(Item item) {
+        int h = item.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -2,42 +2,93 @@ package org.example.cart;
 
 import org.example.model.CartLine;
 import org.example.model.Item;
+import org.example.model.Money;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Currency;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.ObjIntConsumer;
 
+/**
+ * Single-threaded cart backed by a HashMap of Item to CartLine. Items hash
+ * and compare by SKU, so two Item instances with the same SKU share a line.
+ *
+ * <p>The subtotal is kept as a running total of minor units (cents) that
+ * add/remove adjust by the change in each line, so {@link #getSubtotal()}
+ * is O(1). All items in a cart must share the cart's currency. Setting the system
+ * property {@code cart.verifySubtotal=true} (or passing {@code true} to the
+ * constructor) makes every {@code getSubtotal()} also recompute the total
+ * from the lines and fail if the two ever differ.</p>
+ */
 public class InMemoryCart implements Cart {
-    private final Map<String, CartLine> itemsInCart;
+    private final Map<Item, CartLine> itemsInCart;
+    private final Currency currency;
+    private final boolean verifySubtotal;
+    private long subtotal;                  // running subtotal in minor units
+    private BigDecimal subtotalView;        // cached BigDecimal of subtotal, null when stale
+
     public InMemoryCart(){
+        this(Boolean.getBoolean("cart.verifySubtotal"));
+    }
+
+    /**
+     * @param verifySubtotal {@code true} to check the running subtotal against
+     * a full recompute on every {@link #getSubtotal()} call
+     */
+    public InMemoryCart(boolean verifySubtotal){
+        this(Money.DEFAULT_CURRENCY, verifySubtotal);
+    }
+
+    /**
+     * @param currency currency every item in this cart is priced in
+     * @param verifySubtotal {@code true} to check the running subtotal against
+     * a full recompute on every {@link #getSubtotal()} call
+     * @throws IllegalArgumentException when {@code currency} is null
+     */
+    public InMemoryCart(Currency currency, boolean verifySubtotal){
+        if (currency == null) throw new IllegalArgumentException("currency required");
         itemsInCart = new HashMap<>();
+        this.currency = currency;
+        this.verifySubtotal = verifySubtotal;
     }
 
+    @Override
     public List<CartLine> getLines(){
         List<CartLine> lines = new ArrayList<>();
-        for(String sku : itemsInCart.keySet()){
-            lines.add(itemsInCart.get(sku));
-        }
+        lines.addAll(itemsInCart.values());
         return lines;
     }
 
+    @Override
+    public int quantityOf(Item item) {
+        CartLine line = itemsInCart.get(item);
+        return line == null ? 0 : line.getQuantity();
+    }
+
     /**
      * Adds the given Item to the cart. If the Item does not already exist
      * in the cart then a new CartLine is created and added to the cart.
      *
      * @param item the Item to add to the cart
      * @param quantity the number of items to add to the cart
+     * @throws IllegalArgumentException when the item is priced in another currency
      */
     @Override
     public void addItemToCart(Item item, int quantity){
-        String itemSKU = item.getSku();
-        if(itemsInCart.containsKey(itemSKU)){
-            itemsInCart.get(itemSKU).add(quantity);
+        CartLine line = itemsInCart.get(item);
+        if(line != null){
+            long newSubtotal = addToSubtotal(line.getItem(), quantity);
+            line.add(quantity);
+            setSubtotal(newSubtotal);
         } else {
-            CartLine newCartItem = new CartLine(item, quantity);
-            itemsInCart.put(itemSKU, newCartItem);
+            requireCurrency(item);
+            long newSubtotal = addToSubtotal(item, quantity);
+            line = new CartLine(item, quantity);
+            itemsInCart.put(item, line);
+            setSubtotal(newSubtotal);
         }
     }
 
@@ -56,13 +107,16 @@ public class InMemoryCart implements Cart {
      */
     @Override
     public void removeItemFromCart(Item item, int quantity) {
-        String itemSKU = item.getSku();
-        if(!itemsInCart.containsKey(itemSKU)){
+        CartLine line = itemsInCart.get(item);
+        if(line == null){
             return;
         }
-        itemsInCart.get(itemSKU).remove(quantity);
-        if(itemsInCart.get(itemSKU).getQuantity() <= 0){
-            itemsInCart.remove(itemSKU);
+        int before = line.getQuantity();
+        line.remove(quantity);
+        int removed = before - line.getQuantity();
+        setSubtotal(subtotal - line.getItem().getUnitMoney().getMinorUnits() * removed);
+        if(line.getQuantity() <= 0){
+            itemsInCart.remove(item);
         }
     }
 
@@ -72,24 +126,117 @@ public class InMemoryCart implements Cart {
     }
 
     /**
+     * Applies the whole batch with a single subtotal update.
+     * See {@link Cart#applyAll(List)}.
+     */
+    @Override
+    public List<CartLine> applyAll(List<CartDelta> deltas) {
+        apply(CartBatch.stage(deltas, currency, subtotal, CartBatch.linesOf(itemsInCart)));
+        return getLines();
+    }
+
+    /**
+     * See {@link Cart#mergeFrom(Cart, MergePolicy)}. Like every other method
+     * here, not safe to call while other threads use this cart.
+     */
+    @Override
+    public void mergeFrom(Cart other, MergePolicy policy) {
+        CartBatch.checkMerge(this, other, policy);
+        apply(CartBatch.stageMerge(other::forEachLine, policy, currency, subtotal, CartBatch.linesOf(itemsInCart)));
+    }
+
+    @Override
+    public void forEachLine(ObjIntConsumer<Item> action) {
+        for(CartLine line : itemsInCart.values()){
+            action.accept(line.getItem(), line.getQuantity());
+        }
+    }
+
+    /**
+     * BigDecimal adapter for {@link #getSubtotalMoney()}. The value is cached
+     * until the cart next changes.
+     *
      * @return A subtotal of all items in the cart
+     * @throws IllegalStateException in verify mode, when the running subtotal
+     * doesn't match the lines
      */
     @Override
     public BigDecimal getSubtotal() {
-        BigDecimal subtotal = new BigDecimal("0");
-        for(String sku : itemsInCart.keySet()){
-            subtotal = subtotal.add(itemsInCart.get(sku).getLineTotal());
+        if(subtotalView == null || verifySubtotal){
+            subtotalView = getSubtotalMoney().toBigDecimal();
         }
-        return subtotal;
+        return subtotalView;
     }
 
     /**
-     * Clears the cart and returns the subtotal of all items
+     * @return A subtotal of all items in the cart
+     * @throws IllegalStateException in verify mode, when the running subtotal
+     * doesn't match the lines
+     */
+    @Override
+    public Money getSubtotalMoney() {
+        if(verifySubtotal){
+            long recomputed = recomputeSubtotal();
+            if(recomputed != subtotal){
+                throw new IllegalStateException("running subtotal " + subtotal + " != recomputed " + recomputed);
+            }
+        }
+        return Money.ofMinor(subtotal, currency);
+    }
+
+    /**
+     * BigDecimal adapter for {@link #checkoutMoney()}
      */
     @Override
     public BigDecimal checkout() {
-        BigDecimal subtotal = getSubtotal();
+        return checkoutMoney().toBigDecimal();
+    }
+
+    /**
+     * Clears the cart and returns the subtotal of all items
+     */
+    @Override
+    public Money checkoutMoney() {
+        Money total = getSubtotalMoney();
         itemsInCart.clear();
-        return subtotal;
+        subtotal = 0;
+        subtotalView = null;
+        return total;
+    }
+
+    // Computed before the line changes so an overflow leaves the cart untouched
+    private long addToSubtotal(Item item, int quantity) {
+        return Math.addExact(subtotal, Math.multiplyExact(item.getUnitMoney().getMinorUnits(), quantity));
+    }
+
+    private void apply(CartBatch batch) {
+        for(CartBatch.Change change : batch.changes.values()){
+            CartBatch.apply(itemsInCart, change);
+        }
+        setSubtotal(subtotal + batch.subtotalChange);
+    }
+
+    private void setSubtotal(long newSubtotal) {
+        subtotal = newSubtotal;
+        subtotalView = null;
+    }
+
+    private void requireCurrency(Item item) {
+        Currency itemCurrency = item.getUnitMoney().getCurrency();
+        if(!itemCurrency.equals(currency)){
+            throw new IllegalArgumentException("cart is in " + currency + ", item " + item.getSku() + " is in " + itemCurrency);
+        }
+    }
+
+    /**
+     * Walks every line to total the cart from scratch. Only used to verify
+     * the running subtotal.
+     */
+    private long recomputeSubtotal() {
+        long total = 0;
+        for(CartLine line : itemsInCart.values()){
+            total = Math.addExact(total, line.getLineTotalMoney().getMinorUnits());
+        }
+        return total;
     }
 }
@@ -0,0 +1,32 @@
+package org.example.cart;
+
+import org.example.model.Item;
+
+/**
+ * Decides the quantity of a line when {@link Cart#mergeFrom(Cart, MergePolicy)}
+ * finds the same Item in both carts. Called once per line of the cart being
+ * merged in; {@code current} is 0 when the target cart has no line for the item.
+ */
+@FunctionalInterface
+public interface MergePolicy {
+
+    /** Adds the two quantities together */
+    MergePolicy SUM = (item, current, incoming) -> Math.addExact(current, incoming);
+
+    /** Keeps whichever quantity is larger */
+    MergePolicy KEEP_MAX = (item, current, incoming) -> Math.max(current, incoming);
+
+    /**
+     * Keeps the incoming quantity. Lines don't record when they were changed,
+     * so the cart being merged in (the guest session) counts as the newer one.
+     */
+    MergePolicy KEEP_NEWEST = (item, current, incoming) -> incoming;
+
+    /**
+     * @param item the Item both carts hold
+     * @param current quantity in the target cart, 0 if it has no line
+     * @param incoming quantity in the cart being merged in, always > 0
+     * @return the quantity the target cart should end with; 0 removes the line
+     */
+    int merge(Item item, int current, int incoming);
+}
@@ -0,0 +1,97 @@
+package org.example.cart.events;
+
+import org.example.model.Item;
+import org.example.model.Money;
+
+/**
+ * Something that happened to a cart. Immutable.
+ *
+ * <p>The concrete events are {@link ItemAdded}, {@link ItemRemoved} and
+ * {@link CheckedOut}.</p>
+ */
+public abstract class CartEvent {
+    private final String cartId;
+    private final long timeMillis;
+
+    private CartEvent(String cartId, long timeMillis) {
+        if (cartId == null) throw new IllegalArgumentException("cart id required");
+        this.cartId = cartId;
+        this.timeMillis = timeMillis;
+    }
+
+    public String getCartId()   { return cartId; }
+    public long getTimeMillis() { return timeMillis; }
+
+    /**
+     * Quantity of an Item added to a cart.
+     */
+    public static final class ItemAdded extends CartEvent {
+        private final Item item;
+        private final int quantity;
+
+        public ItemAdded(String cartId, Item item, int quantity) {
+            this(cartId, item, quantity, System.currentTimeMillis());
+        }
+
+        ItemAdded(String cartId, Item item, int quantity, long timeMillis) {
+            super(cartId, timeMillis);
+            if (item == null) throw new IllegalArgumentException("item required");
+            this.item = item;
+            this.quantity = quantity;
+        }
+
+        public Item getItem()    { return item; }
+        public int getQuantity() { return quantity; }
+
+        @Override public String toString() {
+            return "ItemAdded " + getCartId() + " +" + quantity + " " + item.getSku();
+        }
+    }
+
+    /**
+     * Quantity of an Item actually removed from a cart, which can be less
+     * than was asked for when the cart held less. Never zero: a removal
+     * that removes nothing publishes no event.
+     */
+    public static final class ItemRemoved extends CartEvent {
+        private final Item item;
+        private final int quantity;
+
+        public ItemRemoved(String cartId, Item item, int quantity) {
+            this(cartId, item, quantity, System.currentTimeMillis());
+        }
+
+        ItemRemoved(String cartId, Item item, int quantity, long timeMillis) {
+            super(cartId, timeMillis);
+            if (item == null) throw new IllegalArgumentException("item required");
+            this.item = item;
+            this.quantity = quantity;
+        }
+
+        public Item getItem()    { return item; }
+        public int getQuantity() { return quantity; }
+
+        @Override public String toString() {
+            return "ItemRemoved " + getCartId() + " -" + quantity + " " + item.getSku();
+        }
+    }
+
+    /**
+     * A cart was checked out for {@code total} and is now empty.
+     */
+    public static final class CheckedOut extends CartEvent {
+        private final Money total;
+
+        public CheckedOut(String cartId, Money total) {
+            super(cartId, System.currentTimeMillis());
+            if (total == null) throw new IllegalArgumentException("total required");
+            this.total = total;
+        }
+
+        public Money getTotal() { return total; }
+
+        @Override public String toString() {
+            return "CheckedOut " + getCartId() + " " + total;
+        }
+    }
+}
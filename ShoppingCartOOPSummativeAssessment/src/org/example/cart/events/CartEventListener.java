@@ -0,0 +1,15 @@
+package org.example.cart.events;
+
+import java.util.List;
+
+/**
+ * Receives cart events from a {@link CartEventStream}, in batches and in
+ * publish order, on the stream's delivery thread.
+ */
+@FunctionalInterface
+public interface CartEventListener {
+    /**
+     * @param events one or more events; the list is only valid during the call
+     */
+    void onEvents(List<CartEvent> events);
+}
@@ -0,0 +1,286 @@
+package org.example.cart.events;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Fans cart events out to listeners without making the publishing thread
+ * wait for them.
+ *
+ * <p>{@link #publish} puts the event in a bounded ring buffer and returns.
+ * One delivery thread takes events off the ring in batches of up to
+ * {@code maxBatch} and hands each batch to every listener in turn, so a
+ * slow listener delays other listeners but never the carts. What happens
+ * when the ring is full is up to the {@link Backpressure} policy.</p>
+ *
+ * <p>A listener that throws is skipped for that batch; the others still
+ * get it. Listeners must not publish to the same stream with
+ * {@link Backpressure#BLOCK}, or the delivery thread can wait on itself.</p>
+ */
+public class CartEventStream implements AutoCloseable {
+
+    public enum Backpressure {
+        /** The publisher waits for space */
+        BLOCK,
+        /** The new event is dropped and counted */
+        DROP,
+        /**
+         * The new event is folded into the newest queued event for the same
+         * cart if that has the same item and kind (quantities add up);
+         * dropped otherwise, which is always the case for checkouts. The
+         * stream keeps an index of each cart's newest queued event, so
+         * this is O(1)
+         */
+        COALESCE
+    }
+
+    private final CartEvent[] ring;
+    private final int maxBatch;
+    private final Backpressure backpressure;
+    private final List<CartEventListener> listeners = new CopyOnWriteArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition delivered = lock.newCondition();
+    private final Thread dispatcher;
+    private final Map<String, Long> newestByCart;   // COALESCE only: cart id -> sequence of its newest queued event
+
+    // guarded by lock
+    private int head;               // next slot to take
+    private int size;
+    private long enqueued;          // events that took a slot; the next event's sequence
+    private long completed;         // events handed to every listener
+    private long dropped;
+    private long coalesced;
+    private long listenerFailures;
+    private boolean closed;
+
+    /**
+     * A stream with room for 8192 events, batches of up to 256, that drops
+     * events when full.
+     */
+    public CartEventStream() {
+        this(8192, 256, Backpressure.DROP);
+    }
+
+    /**
+     * @param capacity events the ring can hold
+     * @param maxBatch most events handed to a listener in one call
+     * @param backpressure what {@link #publish} does when the ring is full
+     * @throws IllegalArgumentException when a size is less than 1 or {@code backpressure} is null
+     */
+    public CartEventStream(int capacity, int maxBatch, Backpressure backpressure) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity > 0 required");
+        if (maxBatch < 1) throw new IllegalArgumentException("max batch > 0 required");
+        if (backpressure == null) throw new IllegalArgumentException("backpressure policy required");
+        this.ring = new CartEvent[capacity];
+        this.maxBatch = maxBatch;
+        this.backpressure = backpressure;
+        this.newestByCart = backpressure == Backpressure.COALESCE ? new HashMap<>() : null;
+        this.dispatcher = new Thread(this::dispatch, "cart-events");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    public void subscribe(CartEventListener listener) {
+        if (listener == null) throw new IllegalArgumentException("listener required");
+        listeners.add(listener);
+    }
+
+    public void unsubscribe(CartEventListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Queues an event for delivery.
+     *
+     * @return {@code false} when the event was dropped
+     * @throws IllegalArgumentException when {@code event} is null
+     * @throws IllegalStateException when the stream is closed
+     */
+    public boolean publish(CartEvent event) {
+        if (event == null) throw new IllegalArgumentException("event required");
+        lock.lock();
+        try {
+            if (closed) throw new IllegalStateException("event stream closed");
+            if (size == ring.length) {
+                switch (backpressure) {
+                    case BLOCK:
+                        while (size == ring.length && !closed) {
+                            notFull.awaitUninterruptibly();
+                        }
+                        if (closed) throw new IllegalStateException("event stream closed");
+                        break;
+                    case COALESCE:
+                        if (coalesce(event)) {
+                            coalesced++;
+                            return true;
+                        }
+                        dropped++;
+                        return false;
+                    default:
+                        dropped++;
+                        return false;
+                }
+            }
+            ring[(head + size) % ring.length] = event;
+            if (newestByCart != null) newestByCart.put(event.getCartId(), enqueued);
+            size++;
+            enqueued++;
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until every event queued before this call has been delivered.
+     *
+     * @return {@code false} if the timeout passed first
+     */
+    public boolean awaitDelivery(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        lock.lock();
+        try {
+            long target = enqueued;
+            while (completed < target) {
+                long left = deadline - System.nanoTime();
+                if (left <= 0) return false;
+                delivered.awaitNanos(left);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getEnqueued()  { return read(() -> enqueued); }
+    public long getDelivered() { return read(() -> completed); }
+    public long getDropped()   { return read(() -> dropped); }
+    public long getCoalesced() { return read(() -> coalesced); }
+
+    /**
+     * @return how many times a listener threw while handling a batch
+     */
+    public long getListenerFailures() { return read(() -> listenerFailures); }
+
+    /**
+     * Stops accepting events, delivers what is already queued and stops the
+     * delivery thread. If the calling thread is interrupted while waiting,
+     * returns early with its interrupt flag set; delivery still finishes in
+     * the background.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Only the cart's newest queued event is a candidate: merging across another
+    // event for the same cart would reorder them
+    private boolean coalesce(CartEvent event) {
+        Long newest = newestByCart.get(event.getCartId());
+        if (newest == null) return false;
+        long taken = enqueued - size;
+        int slot = (int) ((head + (newest - taken)) % ring.length);
+        CartEvent queued = ring[slot];
+        if (queued instanceof CartEvent.ItemAdded && event instanceof CartEvent.ItemAdded) {
+            CartEvent.ItemAdded a = (CartEvent.ItemAdded) queued;
+            CartEvent.ItemAdded b = (CartEvent.ItemAdded) event;
+            if (a.getItem().equals(b.getItem())) {
+                ring[slot] = new CartEvent.ItemAdded(a.getCartId(), a.getItem(),
+                        saturatedAdd(a.getQuantity(), b.getQuantity()), b.getTimeMillis());
+                return true;
+            }
+        } else if (queued instanceof CartEvent.ItemRemoved && event instanceof CartEvent.ItemRemoved) {
+            CartEvent.ItemRemoved a = (CartEvent.ItemRemoved) queued;
+            CartEvent.ItemRemoved b = (CartEvent.ItemRemoved) event;
+            if (a.getItem().equals(b.getItem())) {
+                ring[slot] = new CartEvent.ItemRemoved(a.getCartId(), a.getItem(),
+                        saturatedAdd(a.getQuantity(), b.getQuantity()), b.getTimeMillis());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int saturatedAdd(int a, int b) {
+        long sum = (long) a + b;
+        return sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) sum;
+    }
+
+    private void dispatch() {
+        CartEvent[] batch = new CartEvent[Math.min(maxBatch, ring.length)];
+        while (true) {
+            int count;
+            lock.lock();
+            try {
+                while (size == 0 && !closed) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (size == 0) return;
+                count = Math.min(size, batch.length);
+                long taken = enqueued - size;
+                for (int i = 0; i < count; i++) {
+                    batch[i] = ring[head];
+                    ring[head] = null;
+                    head = (head + 1) % ring.length;
+                    if (newestByCart != null) newestByCart.remove(batch[i].getCartId(), taken + i);
+                }
+                size -= count;
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            List<CartEvent> events = Collections.unmodifiableList(Arrays.asList(batch).subList(0, count));
+            int failures = 0;
+            for (CartEventListener listener : listeners) {
+                try {
+                    listener.onEvents(events);
+                } catch (RuntimeException e) {
+                    failures++;         // one broken listener must not starve the others
+                }
+            }
+            Arrays.fill(batch, 0, count, null);
+
+            lock.lock();
+            try {
+                completed += count;
+                listenerFailures += failures;
+                delivered.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private long read(LongSupplier counter) {
+        lock.lock();
+        try {
+            return counter.getAsLong();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package org.example.cart.events;
+
+import org.example.cart.Cart;
+import org.example.cart.CartDelta;
+import org.example.cart.MergePolicy;
+import org.example.model.CartLine;
+import org.example.model.Item;
+import org.example.model.Money;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Wraps a cart and publishes a {@link CartEvent} to a {@link CartEventStream}
+ * after every change that succeeds. Events are published after the wrapped
+ * cart has changed, so a change that throws produces no event.
+ *
+ * <p>Thread-safe exactly when the wrapped cart is. Publishing only queues
+ * the event, so it adds no listener latency to the cart call.</p>
+ */
+public class PublishingCart implements Cart {
+    private final String cartId;
+    private final Cart delegate;
+    private final CartEventStream events;
+
+    /**
+     * @param cartId id put on every event
+     * @param delegate the cart to wrap
+     * @param events stream to publish to
+     * @throws IllegalArgumentException when an argument is null
+     */
+    public PublishingCart(String cartId, Cart delegate, CartEventStream events) {
+        if (cartId == null) throw new IllegalArgumentException("cart id required");
+        if (delegate == null) throw new IllegalArgumentException("cart required");
+        if (events == null) throw new IllegalArgumentException("event stream required");
+        this.cartId = cartId;
+        this.delegate = delegate;
+        this.events = events;
+    }
+
+    public String getCartId() {
+        return cartId;
+    }
+
+    @Override
+    public List<CartLine> getLines() {
+        return delegate.getLines();
+    }
+
+    @Override
+    public void forEachLine(ObjIntConsumer<Item> action) {
+        delegate.forEachLine(action);
+    }
+
+    @Override
+    public int quantityOf(Item item) {
+        return delegate.quantityOf(item);
+    }
+
+    @Override
+    public void addItemToCart(Item item, int quantity) {
+        delegate.addItemToCart(item, quantity);
+        events.publish(new CartEvent.ItemAdded(cartId, item, quantity));
+    }
+
+    /**
+     * Publishes the quantity actually removed, which is less than asked for
+     * when the line held fewer, and nothing when the item wasn't in the
+     * cart. The amount is worked out from two lookups of the line, before
+     * and after, so it is only exact if nothing else changes the line
+     * meanwhile.
+     */
+    @Override
+    public void removeItemFromCart(Item item, int quantity) {
+        int before = delegate.quantityOf(item);
+        delegate.removeItemFromCart(item, quantity);
+        int removed = before - delegate.quantityOf(item);
+        if (removed > 0) events.publish(new CartEvent.ItemRemoved(cartId, item, removed));
+    }
+
+    @Override
+    public BigDecimal getSubtotal() {
+        return delegate.getSubtotal();
+    }
+
+    @Override
+    public Money getSubtotalMoney() {
+        return delegate.getSubtotalMoney();
+    }
+
+    /**
+     * BigDecimal adapter for {@link #checkoutMoney()}
+     */
+    @Override
+    public BigDecimal checkout() {
+        return checkoutMoney().toBigDecimal();
+    }
+
+    @Override
+    public Money checkoutMoney() {
+        Money total = delegate.checkoutMoney();
+        events.publish(new CartEvent.CheckedOut(cartId, total));
+        return total;
+    }
+
+    /**
+     * Publishes one event per delta, in order. Removals carry the quantity
+     * actually removed, worked out by replaying the deltas over the batch's
+     * lines as they were before it; a removal that removed nothing
+     * publishes nothing.
+     */
+    @Override
+    public List<CartLine> applyAll(List<CartDelta> deltas) {
+        if (deltas == null) throw new IllegalArgumentException("deltas required");
+        Map<Item, Integer> quantities = new HashMap<>();
+        for (CartDelta delta : deltas) {
+            if (delta != null) quantities.computeIfAbsent(delta.getItem(), delegate::quantityOf);
+        }
+        List<CartLine> lines = delegate.applyAll(deltas);
+        for (CartDelta delta : deltas) {
+            Item item = delta.getItem();
+            int held = quantities.get(item);
+            if (delta.isRemoval()) {
+                int removed = Math.min(held, delta.getQuantity());
+                quantities.put(item, held - removed);
+                if (removed > 0) events.publish(new CartEvent.ItemRemoved(cartId, item, removed));
+            } else {
+                quantities.put(item, held + delta.getQuantity());
+                events.publish(new CartEvent.ItemAdded(cartId, item, delta.getQuantity()));
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Publishes the net change of every line the merge touched, as adds and
+     * removes. The change is worked out by comparing the lines before and
+     * after, so it is only exact if nothing else changes the cart meanwhile.
+     */
+    @Override
+    public void mergeFrom(Cart other, MergePolicy policy) {
+        if (other == this) throw new IllegalArgumentException("cannot merge a cart into itself");
+        Map<Item, Integer> before = new HashMap<>();
+        delegate.forEachLine(before::put);
+        delegate.mergeFrom(other, policy);
+        delegate.forEachLine((item, quantity) -> {
+            Integer was = before.remove(item);
+            int change = quantity - (was == null ? 0 : was);
+            if (change > 0) events.publish(new CartEvent.ItemAdded(cartId, item, change));
+            else if (change < 0) events.publish(new CartEvent.ItemRemoved(cartId, item, -change));
+        });
+        before.forEach((item, quantity) -> events.publish(new CartEvent.ItemRemoved(cartId, item, quantity)));
+    }
+}
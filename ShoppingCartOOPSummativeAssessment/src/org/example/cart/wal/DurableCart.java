@@ -0,0 +1,196 @@
+package org.example.cart.wal;
+
+import org.example.cart.Cart;
+import org.example.cart.CartDelta;
+import org.example.cart.InMemoryCart;
+import org.example.cart.MergePolicy;
+import org.example.model.CartLine;
+import org.example.model.Item;
+import org.example.model.Money;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Cart whose changes are written to a {@link DurableCartStore}'s log before
+ * the call returns. Get one from {@link DurableCartStore#getCart(String)}.
+ *
+ * <p>Each change is applied to the wrapped cart first, which validates it,
+ * then logged. A change that throws is never logged. Calls are serialized
+ * on this cart; the wait for the disk happens after this cart's lock is
+ * released, so one slow fsync doesn't hold up readers.</p>
+ *
+ * <p>Mutating methods throw {@link java.io.UncheckedIOException} when the
+ * log can't be written. The change has then been applied in memory but is
+ * not durable.</p>
+ */
+public class DurableCart implements Cart {
+    private final String cartId;
+    private final Cart delegate;
+    private final DurableCartStore store;
+
+    DurableCart(String cartId, Cart delegate, DurableCartStore store) {
+        this.cartId = cartId;
+        this.delegate = delegate;
+        this.store = store;
+    }
+
+    public String getCartId() {
+        return cartId;
+    }
+
+    // The wrapped cart, for recovery and snapshots; callers hold this cart's lock or the store's write lock
+    Cart delegate() {
+        return delegate;
+    }
+
+    /**
+     * @return copies of the lines, so they can be read without this cart's lock
+     */
+    @Override
+    public synchronized List<CartLine> getLines() {
+        return copyOf(delegate.getLines());
+    }
+
+    @Override
+    public synchronized void forEachLine(ObjIntConsumer<Item> action) {
+        delegate.forEachLine(action);
+    }
+
+    @Override
+    public synchronized int quantityOf(Item item) {
+        return delegate.quantityOf(item);
+    }
+
+    @Override
+    public void addItemToCart(Item item, int quantity) {
+        long seq;
+        store.beginWrite();
+        try {
+            synchronized (this) {
+                delegate.addItemToCart(item, quantity);
+                seq = store.append(WalRecord.add(cartId, item, quantity));
+            }
+        } finally {
+            store.endWrite();
+        }
+        store.commit(seq);
+    }
+
+    @Override
+    public void removeItemFromCart(Item item, int quantity) {
+        long seq;
+        store.beginWrite();
+        try {
+            synchronized (this) {
+                delegate.removeItemFromCart(item, quantity);
+                seq = store.append(WalRecord.remove(cartId, item, quantity));
+            }
+        } finally {
+            store.endWrite();
+        }
+        store.commit(seq);
+    }
+
+    @Override
+    public synchronized BigDecimal getSubtotal() {
+        return delegate.getSubtotal();
+    }
+
+    @Override
+    public synchronized Money getSubtotalMoney() {
+        return delegate.getSubtotalMoney();
+    }
+
+    /**
+     * BigDecimal adapter for {@link #checkoutMoney()}
+     */
+    @Override
+    public BigDecimal checkout() {
+        return checkoutMoney().toBigDecimal();
+    }
+
+    @Override
+    public Money checkoutMoney() {
+        long seq;
+        Money total;
+        store.beginWrite();
+        try {
+            synchronized (this) {
+                total = delegate.checkoutMoney();
+                seq = store.append(WalRecord.checkout(cartId));
+            }
+        } finally {
+            store.endWrite();
+        }
+        store.commit(seq);
+        return total;
+    }
+
+    /**
+     * Logs the batch as a single record, so recovery applies it all or not at all.
+     */
+    @Override
+    public List<CartLine> applyAll(List<CartDelta> deltas) {
+        long seq;
+        List<CartLine> lines;
+        store.beginWrite();
+        try {
+            synchronized (this) {
+                lines = copyOf(delegate.applyAll(deltas));
+                seq = store.append(WalRecord.batch(cartId, deltas));
+            }
+        } finally {
+            store.endWrite();
+        }
+        store.commit(seq);
+        return lines;
+    }
+
+    /**
+     * Logs the merged cart's full contents, so recovery doesn't depend on the
+     * merge policy or the other cart. {@code other} is copied before this
+     * cart's lock is taken, so two carts merging into each other at the same
+     * time can't deadlock; changes made to {@code other} during the merge
+     * may or may not be included.
+     */
+    @Override
+    public void mergeFrom(Cart other, MergePolicy policy) {
+        if (other == this) throw new IllegalArgumentException("cannot merge a cart into itself");
+        if (policy == null) throw new IllegalArgumentException("merge policy required");
+        Cart incoming = snapshotOf(other.getLines());
+        long seq;
+        store.beginWrite();
+        try {
+            synchronized (this) {
+                delegate.mergeFrom(incoming, policy);
+                seq = store.append(WalRecord.replace(cartId, delegate.getLines()));
+            }
+        } finally {
+            store.endWrite();
+        }
+        store.commit(seq);
+    }
+
+    // A private cart holding the lines, in the currency they are priced in
+    private static Cart snapshotOf(List<CartLine> lines) {
+        Cart snapshot = lines.isEmpty()
+                ? new InMemoryCart()
+                : new InMemoryCart(lines.get(0).getItem().getUnitMoney().getCurrency(), false);
+        for (CartLine line : lines) {
+            snapshot.addItemToCart(line.getItem(), line.getQuantity());
+        }
+        return snapshot;
+    }
+
+    // Some carts hand out their live CartLine objects
+    static List<CartLine> copyOf(List<CartLine> lines) {
+        List<CartLine> copies = new ArrayList<>(lines.size());
+        for (CartLine line : lines) {
+            copies.add(new CartLine(line.getItem(), line.getQuantity()));
+        }
+        return copies;
+    }
+}
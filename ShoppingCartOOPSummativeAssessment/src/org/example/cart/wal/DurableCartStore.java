@@ -0,0 +1,318 @@
+package org.example.cart.wal;
+
+import org.example.cart.Cart;
+import org.example.model.CartLine;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Keeps carts by id and makes every change to them durable with a
+ * write-ahead log, so open carts survive a restart.
+ *
+ * <p>Every add, remove, batch, merge and checkout is appended to the log
+ * as a small binary record (see {@link SegmentLog} for framing and group
+ * commit) before the call returns.</p>
+ *
+ * <p>A checkpoint starts a new log segment, writes the contents of every
+ * non-empty cart to {@code snapshot-<segment>.bin} and then deletes the
+ * older segments and snapshots. Checkpoints run on a background thread
+ * every {@code snapshotEveryRecords} records, or on demand with
+ * {@link #checkpoint()}. Writers are only paused while the segment is
+ * switched and the cart contents copied, not while the snapshot is written.</p>
+ *
+ * <p>{@link #open} recovers by loading the newest snapshot and replaying
+ * only the segments written after it, so startup cost follows the amount
+ * of recent activity rather than the whole history.</p>
+ */
+public class DurableCartStore implements Closeable {
+    private static final int SNAPSHOT_MAGIC = 0x43534E50;      // "CSNP"
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final Path dir;
+    private final Supplier<? extends Cart> cartFactory;
+    private final ConcurrentHashMap<String, DurableCart> carts = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock checkpointLock = new ReentrantReadWriteLock();
+    private final Object checkpointMonitor = new Object();     // one checkpoint at a time
+    private final long snapshotEveryRecords;
+    private final AtomicLong recordsSinceSnapshot = new AtomicLong();
+    private final AtomicBoolean snapshotScheduled = new AtomicBoolean();
+    private final ExecutorService snapshotter;
+    private SegmentLog log;
+    private long recoveredRecords;
+    private volatile IOException lastSnapshotFailure;
+
+    private DurableCartStore(Path dir, Supplier<? extends Cart> cartFactory, long snapshotEveryRecords) {
+        this.dir = dir;
+        this.cartFactory = cartFactory;
+        this.snapshotEveryRecords = snapshotEveryRecords;
+        this.snapshotter = snapshotEveryRecords == 0 ? null : Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "cart-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Opens a store with fsync on and a checkpoint every 100,000 records.
+     *
+     * @see #open(Path, Supplier, boolean, long)
+     */
+    public static DurableCartStore open(Path dir, Supplier<? extends Cart> cartFactory) throws IOException {
+        return open(dir, cartFactory, true, 100_000);
+    }
+
+    /**
+     * Opens the store in {@code dir}, creating it if needed, and recovers every
+     * cart from the newest snapshot plus the log written after it.
+     *
+     * @param dir directory for log segments and snapshots
+     * @param cartFactory creates the in-memory cart behind each durable cart
+     * @param fsync {@code false} to leave flushing to the OS; faster, but a
+     * machine crash can lose the most recent changes
+     * @param snapshotEveryRecords records between automatic checkpoints, or 0 for manual only
+     * @throws IllegalArgumentException when a required argument is null or {@code snapshotEveryRecords} is negative
+     * @throws IOException when the directory or the newest snapshot can't be read
+     */
+    public static DurableCartStore open(Path dir, Supplier<? extends Cart> cartFactory, boolean fsync,
+                                        long snapshotEveryRecords) throws IOException {
+        if (dir == null) throw new IllegalArgumentException("directory required");
+        if (cartFactory == null) throw new IllegalArgumentException("cart factory required");
+        if (snapshotEveryRecords < 0) throw new IllegalArgumentException("snapshot interval >= 0");
+        Files.createDirectories(dir);
+        DurableCartStore store = new DurableCartStore(dir, cartFactory, snapshotEveryRecords);
+        long nextSegment = store.recover();
+        store.log = new SegmentLog(dir, nextSegment, fsync);
+        return store;
+    }
+
+    /**
+     * @param cartId the cart's id, such as a session or customer id
+     * @return the cart with that id, created empty if there is none
+     * @throws IllegalArgumentException when {@code cartId} is null or blank
+     */
+    public DurableCart getCart(String cartId) {
+        if (cartId == null || cartId.isBlank()) throw new IllegalArgumentException("cart id required");
+        return cartFor(cartId);
+    }
+
+    /**
+     * @return ids of every cart the store holds, including recovered ones
+     */
+    public Set<String> getCartIds() {
+        return Collections.unmodifiableSet(carts.keySet());
+    }
+
+    /**
+     * @return how many log records were replayed when the store was opened
+     */
+    public long getRecoveredRecords() {
+        return recoveredRecords;
+    }
+
+    /**
+     * @return why the last background checkpoint failed, or null. A failed
+     * checkpoint loses nothing; the log is simply not truncated.
+     */
+    public IOException getLastSnapshotFailure() {
+        return lastSnapshotFailure;
+    }
+
+    /**
+     * Starts a new log segment, snapshots every non-empty cart and deletes
+     * the log and snapshots the new snapshot replaces.
+     */
+    public void checkpoint() throws IOException {
+        synchronized (checkpointMonitor) {
+            long segment;
+            Map<String, List<CartLine>> state = new LinkedHashMap<>();
+            checkpointLock.writeLock().lock();
+            try {
+                segment = log.roll();
+                for (DurableCart cart : carts.values()) {
+                    List<CartLine> lines = DurableCart.copyOf(cart.delegate().getLines());
+                    if (!lines.isEmpty()) state.put(cart.getCartId(), lines);
+                }
+                recordsSinceSnapshot.set(0);
+            } finally {
+                checkpointLock.writeLock().unlock();
+            }
+            writeSnapshot(segment, state);
+            for (long old : SegmentLog.listSegments(dir)) {
+                if (old < segment) Files.deleteIfExists(SegmentLog.segmentPath(dir, old));
+            }
+            for (long old : listSnapshots()) {
+                if (old < segment) Files.deleteIfExists(snapshotPath(old));
+            }
+        }
+    }
+
+    /**
+     * Flushes the log and stops background checkpoints. Carts must not be
+     * changed afterwards.
+     */
+    @Override
+    public void close() throws IOException {
+        if (snapshotter != null) snapshotter.shutdown();
+        synchronized (checkpointMonitor) {
+            log.close();
+        }
+    }
+
+    // Mutations run between beginWrite and endWrite so a checkpoint sees no half-logged change
+
+    void beginWrite() {
+        checkpointLock.readLock().lock();
+    }
+
+    void endWrite() {
+        checkpointLock.readLock().unlock();
+    }
+
+    long append(byte[] record) {
+        return log.append(record);
+    }
+
+    /**
+     * Waits for record {@code seq} to be durable and schedules a checkpoint
+     * when enough records have piled up since the last one.
+     */
+    void commit(long seq) {
+        try {
+            log.awaitDurable(seq);
+        } catch (IOException e) {
+            throw new UncheckedIOException("cart change applied but not logged", e);
+        }
+        if (snapshotter != null && recordsSinceSnapshot.incrementAndGet() >= snapshotEveryRecords
+                && snapshotScheduled.compareAndSet(false, true)) {
+            snapshotter.execute(() -> {
+                try {
+                    checkpoint();
+                } catch (IOException e) {
+                    lastSnapshotFailure = e;
+                } finally {
+                    snapshotScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    private DurableCart cartFor(String cartId) {
+        return carts.computeIfAbsent(cartId, id -> new DurableCart(id, cartFactory.get(), this));
+    }
+
+    /**
+     * Loads the newest snapshot and replays the segments after it.
+     *
+     * @return the number the next segment should get
+     */
+    private long recover() throws IOException {
+        List<Long> snapshots = listSnapshots();
+        long fromSegment = 0;
+        if (!snapshots.isEmpty()) {
+            fromSegment = snapshots.get(snapshots.size() - 1);
+            readSnapshot(fromSegment);
+        }
+        long lastSegment = fromSegment;
+        for (long segment : SegmentLog.listSegments(dir)) {
+            if (segment < fromSegment) {
+                Files.deleteIfExists(SegmentLog.segmentPath(dir, segment));    // left over from an interrupted checkpoint
+                continue;
+            }
+            IOException[] bad = new IOException[1];
+            recoveredRecords += SegmentLog.read(SegmentLog.segmentPath(dir, segment), payload -> {
+                if (bad[0] != null) return;
+                try {
+                    WalRecord.replay(payload, id -> cartFor(id).delegate());
+                } catch (IOException e) {
+                    bad[0] = e;
+                }
+            });
+            if (bad[0] != null) throw new IOException("unreadable record in segment " + segment, bad[0]);
+            lastSegment = segment;
+        }
+        return lastSegment + 1;
+    }
+
+    private Path snapshotPath(long segment) {
+        return dir.resolve(String.format("snapshot-%016d.bin", segment));
+    }
+
+    private List<Long> listSnapshots() throws IOException {
+        List<Long> snapshots = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.map(p -> p.getFileName().toString())
+                    .filter(name -> name.matches("snapshot-\\d{16}\\.bin"))
+                    .forEach(name -> snapshots.add(Long.parseLong(name.substring(9, 25))));
+        }
+        snapshots.sort(null);
+        return snapshots;
+    }
+
+    // Written to a temp file, fsynced, then renamed, so a snapshot file is always complete
+    private void writeSnapshot(long segment, Map<String, List<CartLine>> state) throws IOException {
+        Path tmp = dir.resolve("snapshot.tmp");
+        CRC32 crc = new CRC32();
+        try (FileOutputStream file = new FileOutputStream(tmp.toFile())) {
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new CheckedOutputStream(file, crc), 1 << 16));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(segment);
+            out.writeInt(state.size());
+            for (Map.Entry<String, List<CartLine>> cart : state.entrySet()) {
+                out.writeUTF(cart.getKey());
+                WalRecord.writeLines(out, cart.getValue());
+            }
+            out.flush();
+            file.write(ByteBuffer.allocate(4).putInt((int) crc.getValue()).array());
+            file.getFD().sync();
+        }
+        Files.move(tmp, snapshotPath(segment), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void readSnapshot(long segment) throws IOException {
+        byte[] bytes = Files.readAllBytes(snapshotPath(segment));
+        if (bytes.length < 4) throw new IOException("truncated snapshot " + segment);
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - 4);
+        if ((int) crc.getValue() != ByteBuffer.wrap(bytes, bytes.length - 4, 4).getInt()) {
+            throw new IOException("corrupt snapshot " + segment);
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - 4));
+        if (in.readInt() != SNAPSHOT_MAGIC) throw new IOException("not a cart snapshot");
+        if (in.readInt() != SNAPSHOT_VERSION) throw new IOException("unsupported snapshot version");
+        if (in.readLong() != segment) throw new IOException("snapshot " + segment + " names another segment");
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String cartId = in.readUTF();
+            WalRecord.setLines(cartFor(cartId).delegate(), WalRecord.readLines(in));
+        }
+    }
+}
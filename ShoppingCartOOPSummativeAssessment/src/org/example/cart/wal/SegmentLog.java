@@ -0,0 +1,199 @@
+package org.example.cart.wal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log split into numbered segment files
+ * ({@code wal-0000000000000001.log}, ...), with group commit.
+ *
+ * <p>Each record is framed as payload length, CRC32 of the payload, payload.
+ * {@link #append} only copies the framed record into an in-memory buffer
+ * and returns its sequence number. {@link #awaitDurable} then makes sure
+ * it is on disk: the first waiter to get the flush lock writes and fsyncs
+ * everything appended so far, and the threads queued behind it usually
+ * find their records already covered by that one fsync. The more
+ * threads write at once, the more records share each fsync.</p>
+ */
+final class SegmentLog implements Closeable {
+    static final int FRAME_BYTES = 8;
+
+    private final Path dir;
+    private final boolean fsync;
+    private final Object appendLock = new Object();
+    private final Object flushLock = new Object();      // always taken before appendLock
+
+    private ByteBuffer pending = ByteBuffer.allocate(64 * 1024);    // guarded by appendLock
+    private ByteBuffer spare = ByteBuffer.allocate(64 * 1024);      // guarded by flushLock
+    private long appended;                                          // guarded by appendLock
+    private volatile long durable;
+    private FileChannel channel;                                    // guarded by flushLock
+    private long segment;                                           // guarded by flushLock
+    private IOException failure;                                    // guarded by flushLock; a failed write is final
+
+    /**
+     * Opens a new, empty segment for writing.
+     *
+     * @param dir directory holding the segments
+     * @param segment number of the first segment to write
+     * @param fsync {@code false} to skip fsync and leave flushing to the OS (tests, benchmarks)
+     */
+    SegmentLog(Path dir, long segment, boolean fsync) throws IOException {
+        this.dir = dir;
+        this.fsync = fsync;
+        this.segment = segment;
+        this.channel = openSegment(dir, segment);
+    }
+
+    static Path segmentPath(Path dir, long segment) {
+        return dir.resolve(String.format("wal-%016d.log", segment));
+    }
+
+    /**
+     * @return the numbers of the segments in {@code dir}, in ascending order
+     */
+    static List<Long> listSegments(Path dir) throws IOException {
+        List<Long> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.map(p -> p.getFileName().toString())
+                    .filter(name -> name.matches("wal-\\d{16}\\.log"))
+                    .forEach(name -> segments.add(Long.parseLong(name.substring(4, 20))));
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    /**
+     * Reads every intact record of one segment. A torn or corrupt record
+     * (a crash mid-write) ends the segment: it and anything after it are
+     * cut off the file.
+     *
+     * @return the number of records read
+     */
+    static long read(Path file, Consumer<byte[]> records) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer data = ByteBuffer.allocate((int) Math.min(in.size(), Integer.MAX_VALUE));
+            while (data.hasRemaining() && in.read(data) >= 0) { }
+            data.flip();
+            long count = 0;
+            CRC32 crc = new CRC32();
+            while (data.remaining() >= FRAME_BYTES) {
+                int start = data.position();
+                int length = data.getInt();
+                int checksum = data.getInt();
+                if (length < 0 || length > data.remaining()) {
+                    data.position(start);
+                    break;
+                }
+                byte[] payload = new byte[length];
+                data.get(payload);
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    data.position(start);
+                    break;
+                }
+                records.accept(payload);
+                count++;
+            }
+            if (data.position() < in.size()) in.truncate(data.position());
+            return count;
+        }
+    }
+
+    /**
+     * Buffers a record. It is not durable until {@link #awaitDurable} returns
+     * for its sequence number.
+     *
+     * @return the record's sequence number
+     */
+    long append(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        synchronized (appendLock) {
+            if (pending.remaining() < FRAME_BYTES + payload.length) {
+                ByteBuffer bigger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + FRAME_BYTES + payload.length));
+                pending.flip();
+                bigger.put(pending);
+                pending = bigger;
+            }
+            pending.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+            return ++appended;
+        }
+    }
+
+    /**
+     * Returns once the record with sequence number {@code seq}, and every
+     * record before it, has been written (and fsynced, unless disabled).
+     */
+    void awaitDurable(long seq) throws IOException {
+        if (durable >= seq) return;
+        synchronized (flushLock) {
+            if (durable >= seq) return;
+            flushLocked();
+        }
+    }
+
+    /**
+     * Flushes everything appended so far and continues in a new segment.
+     *
+     * @return the number of the new segment; all earlier records are in lower-numbered ones
+     */
+    long roll() throws IOException {
+        synchronized (flushLock) {
+            flushLocked();
+            channel.close();
+            segment++;
+            channel = openSegment(dir, segment);
+            return segment;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (flushLock) {
+            flushLocked();
+            channel.close();
+        }
+    }
+
+    // Once a write fails the buffered records are gone, so every later call fails too
+    private void flushLocked() throws IOException {
+        if (failure != null) throw new IOException("log unusable after an earlier write failed", failure);
+        ByteBuffer batch;
+        long upTo;
+        synchronized (appendLock) {
+            batch = pending;
+            upTo = appended;
+            spare.clear();
+            pending = spare;
+        }
+        batch.flip();
+        try {
+            while (batch.hasRemaining()) {
+                channel.write(batch);
+            }
+            if (fsync) channel.force(false);
+        } catch (IOException e) {
+            failure = e;
+            throw e;
+        }
+        spare = batch;
+        durable = upTo;
+    }
+
+    private static FileChannel openSegment(Path dir, long segment) throws IOException {
+        return FileChannel.open(segmentPath(dir, segment),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+}
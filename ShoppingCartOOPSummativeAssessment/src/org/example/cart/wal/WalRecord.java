@@ -0,0 +1,177 @@
+package org.example.cart.wal;
+
+import org.example.cart.Cart;
+import org.example.cart.CartDelta;
+import org.example.model.CartLine;
+import org.example.model.Item;
+import org.example.model.Money;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Encodes cart mutations as log record payloads and replays them.
+ *
+ * <p>Payload: type byte, cart id, then the type's fields. Items are written
+ * in full (SKU, name, price in minor units, currency) so a log can be
+ * replayed without a catalog. Framing and checksums are the log's job.</p>
+ */
+final class WalRecord {
+    static final byte ADD = 1;
+    static final byte REMOVE = 2;
+    static final byte CHECKOUT = 3;
+    static final byte BATCH = 4;        // applyAll: count, then (removal flag, item, quantity) per delta
+    static final byte REPLACE = 5;      // whole cart contents: count, then (item, quantity) per line
+
+    private WalRecord() { }
+
+    static byte[] add(String cartId, Item item, int quantity) {
+        return encode(ADD, cartId, out -> {
+            writeItem(out, item);
+            out.writeInt(quantity);
+        });
+    }
+
+    static byte[] remove(String cartId, Item item, int quantity) {
+        return encode(REMOVE, cartId, out -> {
+            writeItem(out, item);
+            out.writeInt(quantity);
+        });
+    }
+
+    static byte[] checkout(String cartId) {
+        return encode(CHECKOUT, cartId, out -> { });
+    }
+
+    static byte[] batch(String cartId, List<CartDelta> deltas) {
+        return encode(BATCH, cartId, out -> {
+            out.writeInt(deltas.size());
+            for (CartDelta delta : deltas) {
+                out.writeBoolean(delta.isRemoval());
+                writeItem(out, delta.getItem());
+                out.writeInt(delta.getQuantity());
+            }
+        });
+    }
+
+    static byte[] replace(String cartId, List<CartLine> lines) {
+        return encode(REPLACE, cartId, out -> writeLines(out, lines));
+    }
+
+    /**
+     * Applies one record to the cart it names.
+     *
+     * @param payload a payload produced by this class
+     * @param carts returns the cart for an id, creating it if needed
+     * @throws IOException when the payload is malformed
+     */
+    static void replay(byte[] payload, Function<String, Cart> carts) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte type = in.readByte();
+        Cart cart = carts.apply(in.readUTF());
+        switch (type) {
+            case ADD:
+                cart.addItemToCart(readItem(in), in.readInt());
+                break;
+            case REMOVE:
+                cart.removeItemFromCart(readItem(in), in.readInt());
+                break;
+            case CHECKOUT:
+                cart.checkoutMoney();
+                break;
+            case BATCH: {
+                int count = in.readInt();
+                List<CartDelta> deltas = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    boolean removal = in.readBoolean();
+                    Item item = readItem(in);
+                    int quantity = in.readInt();
+                    deltas.add(removal ? CartDelta.remove(item, quantity) : CartDelta.add(item, quantity));
+                }
+                cart.applyAll(deltas);
+                break;
+            }
+            case REPLACE:
+                setLines(cart, readLines(in));
+                break;
+            default:
+                throw new IOException("unknown record type " + type);
+        }
+    }
+
+    /**
+     * Empties {@code cart} and fills it with exactly {@code lines}.
+     */
+    static void setLines(Cart cart, List<CartLine> lines) {
+        cart.checkoutMoney();
+        List<CartDelta> deltas = new ArrayList<>(lines.size());
+        for (CartLine line : lines) {
+            deltas.add(CartDelta.add(line.getItem(), line.getQuantity()));
+        }
+        cart.applyAll(deltas);
+    }
+
+    static void writeLines(DataOutput out, List<CartLine> lines) throws IOException {
+        out.writeInt(lines.size());
+        for (CartLine line : lines) {
+            writeItem(out, line.getItem());
+            out.writeInt(line.getQuantity());
+        }
+    }
+
+    static List<CartLine> readLines(DataInput in) throws IOException {
+        int count = in.readInt();
+        if (count < 0) throw new IOException("negative line count");
+        List<CartLine> lines = new ArrayList<>(Math.min(count, 1024));
+        for (int i = 0; i < count; i++) {
+            lines.add(new CartLine(readItem(in), in.readInt()));
+        }
+        return lines;
+    }
+
+    private static void writeItem(DataOutput out, Item item) throws IOException {
+        out.writeUTF(item.getSku());
+        out.writeUTF(item.getName());
+        out.writeLong(item.getUnitMoney().getMinorUnits());
+        out.writeUTF(item.getUnitMoney().getCurrency().getCurrencyCode());
+    }
+
+    private static Item readItem(DataInput in) throws IOException {
+        String sku = in.readUTF();
+        String name = in.readUTF();
+        long minorUnits = in.readLong();
+        String currency = in.readUTF();
+        try {
+            return Item.of(sku, name, Money.ofMinor(minorUnits, Currency.getInstance(currency)));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("bad item in record: " + e.getMessage(), e);
+        }
+    }
+
+    private interface Body {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static byte[] encode(byte type, String cartId, Body body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeByte(type);
+            out.writeUTF(cartId);
+            body.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);      // ByteArrayOutputStream doesn't throw
+        }
+        return bytes.toByteArray();
+    }
+}
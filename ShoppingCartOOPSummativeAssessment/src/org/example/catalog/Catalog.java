@@ -2,6 +2,7 @@ package org.example.catalog;
 
 import org.example.model.Item;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface Catalog {
@@ -9,7 +10,21 @@ public interface Catalog {
     public List<Item> getCatalogItems();
     public void addItemToCatalog(Item item);
     public void removeItemFromCatalog(Item item);
+    public void upsertAll(Collection<Item> items);
     public Item findItemByName(String itemName);
     public Item findItemBySKU(String sku);
+    public Page<Item> searchByName(String query, int offset, int limit);
+
+    /**
+     * Pages through the whole catalog in SKU order. Pass the SKU of the last
+     * item on one page to get the next, so no page costs more than the
+     * items it returns, however deep into the catalog it is.
+     *
+     * @param afterSku SKU the page starts after, or null for the first page
+     * @param limit maximum number of items to return
+     * @return up to {@code limit} items; the offset is the first item's position in SKU order
+     * @throws IllegalArgumentException when {@code limit} isn't positive
+     */
+    public Page<Item> browse(String afterSku, int limit);
 
 }
@@ -0,0 +1,211 @@
+package org.example.catalog;
+
+import org.example.model.Item;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Streams a large CSV or JSON-lines feed into a catalog.
+ *
+ * <p>The feed is read in chunks of {@code chunkSize} lines. Each chunk is
+ * parsed and validated on a worker thread (rows go through the Item
+ * constructor, so the rules are the same as everywhere else), while the
+ * reader moves on to the next chunk. At most two chunks per worker are in
+ * flight, so the raw lines held at once are bounded by the chunk size
+ * rather than the feed.</p>
+ *
+ * <p>Valid items, one per SKU, are staged until the whole feed has been
+ * read and then applied with a single {@link Catalog#upsertAll} call, so
+ * readers never see a half-imported catalog and a feed that fails part way
+ * applies nothing. The staged items grow with the number of distinct SKUs
+ * in the feed, not with its lines. Under ALL_OR_NOTHING, staging stops at
+ * the first invalid row since nothing will be applied. When a SKU appears
+ * more than once, the last row wins.</p>
+ */
+public class CatalogImporter {
+
+    public enum Format { CSV, JSON_LINES }
+
+    public enum ErrorPolicy {
+        /** Any invalid row aborts the import and nothing is applied */
+        ALL_OR_NOTHING,
+        /** Invalid rows are reported and skipped; valid rows are applied */
+        SKIP_INVALID
+    }
+
+    private static final int MAX_REPORTED_ERRORS = 1_000;
+
+    private final int chunkSize;
+    private final int parallelism;
+
+    public CatalogImporter() {
+        this(10_000, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param chunkSize lines per parse task
+     * @param parallelism number of parser threads
+     * @throws IllegalArgumentException when either argument is less than 1
+     */
+    public CatalogImporter(int chunkSize, int parallelism) {
+        if (chunkSize < 1) throw new IllegalArgumentException("chunk size > 0 required");
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism > 0 required");
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Reads, validates and applies a whole feed.
+     *
+     * @param feed source of rows; read to the end but not closed
+     * @param format row format
+     * @param policy what to do with invalid rows
+     * @param target catalog to upsert into
+     * @return counts, errors and throughput of the import
+     * @throws IllegalArgumentException when a required argument is null
+     */
+    public ImportResult importFeed(Reader feed, Format format, ErrorPolicy policy, Catalog target) throws IOException {
+        if (feed == null || format == null || policy == null || target == null) {
+            throw new IllegalArgumentException("feed, format, policy and target required");
+        }
+        long start = System.nanoTime();
+        BufferedReader reader = feed instanceof BufferedReader ? (BufferedReader) feed : new BufferedReader(feed, 1 << 16);
+        Map<String, Item> upserts = new LinkedHashMap<>();
+        List<ImportResult.RowError> errors = new ArrayList<>();
+        long[] errorCount = {0};
+        long rows = 0;
+
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism);
+        try {
+            Deque<Future<Chunk>> inFlight = new ArrayDeque<>();
+            String[] lines = new String[chunkSize];
+            int filled = 0;
+            long firstLine = 1;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                lines[filled++] = line;
+                if (filled == chunkSize) {
+                    submit(workers, inFlight, lines, filled, firstLine, format);
+                    lines = new String[chunkSize];
+                    filled = 0;
+                    firstLine = lineNumber + 1;
+                    if (inFlight.size() >= parallelism * 2) {
+                        Chunk chunk = collect(inFlight.removeFirst(), errors, errorCount);
+                        rows += chunk.rows();
+                        stage(chunk, policy, errorCount[0], upserts);
+                    }
+                }
+            }
+            if (filled > 0) submit(workers, inFlight, lines, filled, firstLine, format);
+            while (!inFlight.isEmpty()) {
+                Chunk chunk = collect(inFlight.removeFirst(), errors, errorCount);
+                rows += chunk.rows();
+                stage(chunk, policy, errorCount[0], upserts);
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        boolean committed = policy == ErrorPolicy.SKIP_INVALID || errorCount[0] == 0;
+        if (committed && !upserts.isEmpty()) {
+            target.upsertAll(upserts.values());
+        }
+        return new ImportResult(rows, committed ? upserts.size() : 0, errorCount[0], errors,
+                committed, System.nanoTime() - start);
+    }
+
+    // Keeps a parsed chunk's items for the final upsert; under ALL_OR_NOTHING, only until the first error
+    private static void stage(Chunk chunk, ErrorPolicy policy, long errorsSoFar, Map<String, Item> upserts) {
+        if (policy == ErrorPolicy.ALL_OR_NOTHING && errorsSoFar > 0) {
+            upserts.clear();            // nothing will be applied
+            return;
+        }
+        for (Item item : chunk.items) upserts.put(item.getSku(), item);
+    }
+
+    private void submit(ExecutorService workers, Deque<Future<Chunk>> inFlight, String[] lines, int count,
+                        long firstLine, Format format) {
+        String[] chunkLines = count == lines.length ? lines : Arrays.copyOf(lines, count);
+        inFlight.addLast(workers.submit(() -> parse(chunkLines, firstLine, format)));
+    }
+
+    private static Chunk collect(Future<Chunk> pending, List<ImportResult.RowError> errors,
+                                 long[] errorCount) throws IOException {
+        Chunk chunk;
+        try {
+            chunk = pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("parser failed", e.getCause());
+        }
+        errorCount[0] += chunk.errors.size();
+        for (ImportResult.RowError error : chunk.errors) {
+            if (errors.size() >= MAX_REPORTED_ERRORS) break;
+            errors.add(error);
+        }
+        return chunk;
+    }
+
+    // Runs on a worker thread
+    private static Chunk parse(String[] lines, long firstLine, Format format) {
+        Chunk chunk = new Chunk(lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i];
+            long lineNumber = firstLine + i;
+            if (line.isBlank()) continue;
+            try {
+                List<String> fields;
+                if (format == Format.CSV) {
+                    fields = Csv.split(line);
+                    if (lineNumber == 1 && Csv.isHeader(fields)) continue;
+                } else {
+                    fields = jsonFields(JsonLine.parse(line));
+                }
+                chunk.items.add(Csv.toItem(fields));
+            } catch (IllegalArgumentException e) {
+                chunk.errors.add(new ImportResult.RowError(lineNumber, e.getMessage()));
+            }
+        }
+        return chunk;
+    }
+
+    private static List<String> jsonFields(Map<String, String> json) {
+        List<String> fields = new ArrayList<>(4);
+        fields.add(json.get("sku"));
+        fields.add(json.get("name"));
+        fields.add(json.get("price"));
+        if (json.get("currency") != null) fields.add(json.get("currency"));
+        if (fields.get(2) == null) throw new IllegalArgumentException("price required");
+        return fields;
+    }
+
+    private static final class Chunk {
+        private final List<Item> items;
+        private final List<ImportResult.RowError> errors = new ArrayList<>();
+
+        private Chunk(int capacity) {
+            items = new ArrayList<>(capacity);
+        }
+
+        private int rows() {
+            return items.size() + errors.size();
+        }
+    }
+}
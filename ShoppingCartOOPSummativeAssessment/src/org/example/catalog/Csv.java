@@ -0,0 +1,87 @@
+package org.example.catalog;
+
+import org.example.model.Item;
+import org.example.model.Money;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+
+/**
+ * Minimal CSV handling for catalog feeds: comma separated, fields may be
+ * wrapped in double quotes, and {@code ""} inside quotes is a literal quote.
+ * Rows are {@code sku,name,price[,currency]}; currency defaults to USD.
+ */
+final class Csv {
+
+    private Csv() { }
+
+    /**
+     * @param line one CSV record without its line terminator
+     * @return the fields of {@code line}
+     * @throws IllegalArgumentException when a quoted field is not closed
+     */
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) throw new IllegalArgumentException("unterminated quote");
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * @return {@code true} if {@code fields} look like a "sku,name,price" header row
+     */
+    static boolean isHeader(List<String> fields) {
+        return !fields.isEmpty() && fields.get(0).trim().equalsIgnoreCase("sku");
+    }
+
+    /**
+     * Builds an Item from one row, using the Item constructor's validation.
+     *
+     * @param fields fields of one CSV record
+     * @return the item the row describes
+     * @throws IllegalArgumentException when the row is malformed or fails Item validation
+     */
+    static Item toItem(List<String> fields) {
+        if (fields.size() < 3 || fields.size() > 4) {
+            throw new IllegalArgumentException("expected sku,name,price[,currency] but got " + fields.size() + " fields");
+        }
+        BigDecimal price;
+        try {
+            price = new BigDecimal(fields.get(2).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("price is not a number: " + fields.get(2));
+        }
+        if (fields.size() == 3) return new Item(fields.get(0), fields.get(1), price);
+        Currency currency;
+        try {
+            currency = Currency.getInstance(fields.get(3).trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown currency: " + fields.get(3));
+        }
+        return Item.of(fields.get(0), fields.get(1), Money.of(price, currency));
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.catalog;
+
+import java.util.List;
+
+/**
+ * Outcome of one {@link CatalogImporter} run.
+ */
+public final class ImportResult {
+    private final long rowsRead;
+    private final long itemsApplied;
+    private final long errorCount;
+    private final List<RowError> errors;
+    private final boolean committed;
+    private final long elapsedNanos;
+
+    ImportResult(long rowsRead, long itemsApplied, long errorCount, List<RowError> errors,
+                 boolean committed, long elapsedNanos) {
+        this.rowsRead = rowsRead;
+        this.itemsApplied = itemsApplied;
+        this.errorCount = errorCount;
+        this.errors = List.copyOf(errors);
+        this.committed = committed;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // getters
+    public long getRowsRead()      { return rowsRead; }
+    public long getErrorCount()    { return errorCount; }
+    public boolean isCommitted()   { return committed; }
+    public long getElapsedNanos()  { return elapsedNanos; }
+
+    /**
+     * @return distinct SKUs upserted
+     */
+    public long getItemsApplied()  { return itemsApplied; }
+
+    /**
+     * @return the first invalid rows (at most 1000, see {@link #getErrorCount()} for the total)
+     */
+    public List<RowError> getErrors() { return errors; }
+
+    /**
+     * @return rows read per second over the whole import, including the commit
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rowsRead * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d rows, %d applied, %d errors, %s in %d ms (%.0f rows/s)",
+                rowsRead, itemsApplied, errorCount, committed ? "committed" : "rolled back",
+                elapsedNanos / 1_000_000, getRowsPerSecond());
+    }
+
+    /**
+     * One row that failed to parse or validate.
+     */
+    public static final class RowError {
+        private final long line;
+        private final String message;
+
+        RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine()      { return line; }
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() {
+            return "line " + line + ": " + message;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.example.catalog;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parses one flat JSON object per line, e.g.
+ * {@code {"sku":"APL","name":"Apple","price":0.89}}. Values may be strings,
+ * numbers, booleans or null; nested objects and arrays aren't supported
+ * since catalog rows don't need them.
+ */
+final class JsonLine {
+    private final String text;
+    private int pos;
+
+    private JsonLine(String text) {
+        this.text = text;
+    }
+
+    /**
+     * @param line one JSON object
+     * @return its fields, with every value as its literal text (strings unescaped)
+     * @throws IllegalArgumentException when the line isn't a flat JSON object
+     */
+    static Map<String, String> parse(String line) {
+        return new JsonLine(line).object();
+    }
+
+    private Map<String, String> object() {
+        Map<String, String> fields = new HashMap<>();
+        expect('{');
+        if (peek() == '}') {
+            pos++;
+        } else {
+            do {
+                String key = string();
+                expect(':');
+                fields.put(key, value());
+            } while (consume(','));
+            expect('}');
+        }
+        if (peek() != 0) throw error("trailing characters");
+        return fields;
+    }
+
+    private String value() {
+        char c = peek();
+        if (c == '"') return string();
+        if (c == '{' || c == '[') throw error("nested values not supported");
+        int start = pos;
+        while (pos < text.length() && ",} \t".indexOf(text.charAt(pos)) < 0) pos++;
+        if (start == pos) throw error("value expected");
+        String literal = text.substring(start, pos);
+        return literal.equals("null") ? null : literal;
+    }
+
+    private String string() {
+        expect('"');
+        StringBuilder out = new StringBuilder();
+        while (pos < text.length()) {
+            char c = text.charAt(pos++);
+            if (c == '"') return out.toString();
+            if (c != '\\') {
+                out.append(c);
+                continue;
+            }
+            if (pos >= text.length()) break;
+            char escaped = text.charAt(pos++);
+            switch (escaped) {
+                case 'n': out.append('\n'); break;
+                case 't': out.append('\t'); break;
+                case 'r': out.append('\r'); break;
+                case 'b': out.append('\b'); break;
+                case 'f': out.append('\f'); break;
+                case 'u':
+                    if (pos + 4 > text.length()) throw error("bad unicode escape");
+                    try {
+                        out.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("bad unicode escape");
+                    }
+                    pos += 4;
+                    break;
+                default: out.append(escaped);      // \" \\ \/
+            }
+        }
+        throw error("unterminated string");
+    }
+
+    private void expect(char c) {
+        if (peek() != c) throw error("expected '" + c + "'");
+        pos++;
+    }
+
+    private boolean consume(char c) {
+        if (peek() != c) return false;
+        pos++;
+        return true;
+    }
+
+    // Next non-whitespace character, or 0 at the end of the line
+    private char peek() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) pos++;
+        return pos < text.length() ? text.charAt(pos) : 0;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("bad JSON at column " + (pos + 1) + ": " + message);
+    }
+}
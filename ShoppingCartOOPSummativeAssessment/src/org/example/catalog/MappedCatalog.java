@@ -0,0 +1,312 @@
+package org.example.catalog;
+
+import org.example.model.Item;
+import org.example.model.Money;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.List;
+
+/**
+ * Read-only catalog served straight from a memory-mapped file built by
+ * {@link MappedCatalogWriter}.
+ *
+ * <p>Opening the catalog maps the file and checks its header; no record is
+ * parsed up front, so startup cost doesn't grow with the SKU count. Lookups
+ * by SKU binary-search a sorted index inside the mapping and only decode
+ * the record they land on. Items are built on demand and not cached; only
+ * each record's SKU string is kept once it has been read, so later lookups
+ * reuse the same interned String.</p>
+ *
+ * <p>File layout (big-endian):</p>
+ * <p>- header: magic, format version, record count, reserved, index offset, heap offset</p>
+ * <p>- records, {@value #RECORD_BYTES} bytes each in file order: sku offset/length,
+ * name offset/length, price in minor units, currency code</p>
+ * <p>- SKU index: record numbers sorted by SKU bytes</p>
+ * <p>- string heap: UTF-8 SKUs and names</p>
+ *
+ * <p>Safe for concurrent readers: only absolute reads are used on the mapping.</p>
+ *
+ * <p>The file has no name index, so {@link #findItemByName} and
+ * {@link #searchByName} decode and fold every name on every call: O(n) in
+ * the SKU count. Keep them off hot paths; a caller that searches names
+ * often should load the items into a StaticCatalog or SnapshotCatalog,
+ * which index names.</p>
+ */
+public class MappedCatalog implements Catalog, AutoCloseable {
+    static final int MAGIC = 0x53434154;           // "SCAT"
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int RECORD_BYTES = 24;
+    static final int MAX_STRING_BYTES = 0xFFFF;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int count;
+    private final int indexOffset;
+    private final int heapOffset;
+    private final String[] skus;        // record -> interned SKU once read; racy, but every thread stores the same String
+
+    private MappedCatalog(FileChannel channel, MappedByteBuffer buffer) {
+        this.channel = channel;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("not a catalog file");
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IllegalArgumentException("unsupported catalog format version " + buffer.getInt(4));
+        }
+        this.count = buffer.getInt(8);
+        this.indexOffset = (int) buffer.getLong(16);
+        this.heapOffset = (int) buffer.getLong(24);
+        if (indexOffset != HEADER_BYTES + (long) count * RECORD_BYTES || heapOffset != indexOffset + 4L * count
+                || heapOffset > buffer.capacity()) {
+            throw new IllegalArgumentException("corrupt catalog header");
+        }
+        this.skus = new String[count];
+    }
+
+    /**
+     * Maps a catalog file read-only.
+     *
+     * @param file file written by {@link MappedCatalogWriter}
+     * @return the catalog backed by {@code file}
+     * @throws IllegalArgumentException when the file isn't a catalog file of a supported version
+     */
+    public static MappedCatalog open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            if (channel.size() > Integer.MAX_VALUE) throw new IllegalArgumentException("catalog file larger than 2 GB");
+            return new MappedCatalog(channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (RuntimeException | IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return number of items in the catalog
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return read-only view of catalog items in file order; each item is decoded when read
+     */
+    @Override
+    public List<Item> getCatalogItems() {
+        return new AbstractList<>() {
+            @Override public Item get(int index) {
+                if (index < 0 || index >= count) throw new IndexOutOfBoundsException(index);
+                return readItem(index);
+            }
+            @Override public int size() { return count; }
+        };
+    }
+
+    /**
+     * @throws UnsupportedOperationException always, the file is read-only
+     */
+    @Override
+    public void addItemToCatalog(Item item) {
+        throw new UnsupportedOperationException("mapped catalog is read-only, rebuild the file with MappedCatalogWriter");
+    }
+
+    /**
+     * @throws UnsupportedOperationException always, the file is read-only
+     */
+    @Override
+    public void removeItemFromCatalog(Item item) {
+        throw new UnsupportedOperationException("mapped catalog is read-only, rebuild the file with MappedCatalogWriter");
+    }
+
+    /**
+     * @throws UnsupportedOperationException always, the file is read-only
+     */
+    @Override
+    public void upsertAll(Collection<Item> items) {
+        throw new UnsupportedOperationException("mapped catalog is read-only, rebuild the file with MappedCatalogWriter");
+    }
+
+    /**
+     * Finds an item from the catalog by name. Scans and decodes every
+     * record's name, so it is O(n); not for hot paths.
+     *
+     * @param itemName name of the item to find
+     * @return first item with the name {@code itemName} or null if it doesn't exist
+     */
+    @Override
+    public Item findItemByName(String itemName) {
+        if (itemName == null || itemName.isBlank()) return null;
+        String wanted = NameIndex.fold(itemName);
+        for (int record = 0; record < count; record++) {
+            if (NameIndex.fold(readName(record)).equals(wanted)) return readItem(record);
+        }
+        return null;
+    }
+
+    /**
+     * Finds an item from the catalog by SKU id with a binary search of the
+     * mapped SKU index.
+     *
+     * @param sku Item sku id to find
+     * @return Item with sku value {@code sku} or null if it doesn't exist
+     */
+    @Override
+    public Item findItemBySKU(String sku) {
+        if (sku == null || sku.isBlank()) return null;
+        byte[] key = sku.trim().toUpperCase().getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int record = buffer.getInt(indexOffset + 4 * mid);
+            int cmp = compareSku(record, key);
+            if (cmp < 0) low = mid + 1;
+            else if (cmp > 0) high = mid - 1;
+            else return readItem(record);
+        }
+        return null;
+    }
+
+    /**
+     * Ranked, paged name search. Scans and decodes every record's name and
+     * sorts the matches, so it is O(n log n); not for hot paths. See
+     * {@link StaticCatalog#searchByName(String, int, int)} for the ranking.
+     */
+    @Override
+    public Page<Item> searchByName(String query, int offset, int limit) {
+        Page.checkWindow(offset, limit);
+        if (query == null || query.isBlank()) return new Page<>(List.of(), offset, false);
+        String q = NameIndex.fold(query);
+        List<Match> matches = new ArrayList<>();
+        for (int record = 0; record < count; record++) {
+            String name = NameIndex.fold(readName(record));
+            int rank = NameIndex.rank(name, q);
+            if (rank >= 0) matches.add(new Match(rank, name, record));
+        }
+        matches.sort(Comparator.comparingInt((Match m) -> m.rank)
+                .thenComparing(m -> m.name)
+                .thenComparingInt(m -> m.record));
+        if (offset >= matches.size()) return new Page<>(List.of(), offset, false);
+        int end = (int) Math.min(matches.size(), (long) offset + limit);
+        List<Item> items = new ArrayList<>(end - offset);
+        for (int i = offset; i < end; i++) {
+            items.add(readItem(matches.get(i).record));
+        }
+        return new Page<>(items, offset, matches.size() > end);
+    }
+
+    /**
+     * Pages through the catalog in the order of the mapped SKU index, which
+     * is SKU order for ASCII SKUs. Binary-searches the index for the cursor
+     * and decodes only the returned records.
+     * See {@link Catalog#browse(String, int)}.
+     */
+    @Override
+    public Page<Item> browse(String afterSku, int limit) {
+        Page.checkWindow(0, limit);
+        String key = SkuOrder.cursor(afterSku);
+        int start = 0;
+        if (key != null) {
+            byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+            int high = count - 1;
+            while (start <= high) {
+                int mid = (start + high) >>> 1;
+                if (compareSku(buffer.getInt(indexOffset + 4 * mid), bytes) <= 0) start = mid + 1;
+                else high = mid - 1;
+            }
+        }
+        int end = (int) Math.min(count, (long) start + limit);
+        List<Item> items = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            items.add(readItem(buffer.getInt(indexOffset + 4 * i)));
+        }
+        return new Page<>(items, start, end < count);
+    }
+
+    /**
+     * Closes the file. The mapping itself is released when it is garbage collected.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private Item readItem(int record) {
+        int at = HEADER_BYTES + record * RECORD_BYTES;
+        String name = readString(buffer.getInt(at + 6), buffer.getShort(at + 10) & 0xFFFF);
+        long minorUnits = buffer.getLong(at + 12);
+        String code = readAscii(at + 20, 3);
+        return Item.ofCanonicalSku(sku(record), name, Money.ofMinor(minorUnits, Currency.getInstance(code)));
+    }
+
+    // Normalized and interned the way Item does it, once per record
+    private String sku(int record) {
+        String sku = skus[record];
+        if (sku == null) {
+            int at = HEADER_BYTES + record * RECORD_BYTES;
+            sku = readString(buffer.getInt(at), buffer.getShort(at + 4) & 0xFFFF).trim().toUpperCase().intern();
+            skus[record] = sku;
+        }
+        return sku;
+    }
+
+    private String readName(int record) {
+        int at = HEADER_BYTES + record * RECORD_BYTES;
+        return readString(buffer.getInt(at + 6), buffer.getShort(at + 10) & 0xFFFF);
+    }
+
+    // Unsigned byte-wise comparison of a record's SKU against key, the same
+    // order the writer sorted the index in.
+    private int compareSku(int record, byte[] key) {
+        int at = HEADER_BYTES + record * RECORD_BYTES;
+        int start = heapOffset + buffer.getInt(at);
+        int length = buffer.getShort(at + 4) & 0xFFFF;
+        int n = Math.min(length, key.length);
+        for (int i = 0; i < n; i++) {
+            int cmp = Integer.compare(buffer.get(start + i) & 0xFF, key[i] & 0xFF);
+            if (cmp != 0) return cmp;
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private String readString(int heapPosition, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position(heapOffset + heapPosition);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private String readAscii(int at, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) buffer.get(at + i);
+        }
+        return new String(chars);
+    }
+
+    private static final class Match {
+        private final int rank;
+        private final String name;
+        private final int record;
+
+        private Match(int rank, String name, int record) {
+            this.rank = rank;
+            this.name = name;
+            this.record = record;
+        }
+    }
+}
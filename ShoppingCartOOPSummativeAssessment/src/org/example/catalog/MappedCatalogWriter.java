@@ -0,0 +1,137 @@
+package org.example.catalog;
+
+import org.example.model.Item;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builds the binary file read by {@link MappedCatalog}.
+ *
+ * <p>Usage: {@code java org.example.catalog.MappedCatalogWriter catalog.csv catalog.bin}</p>
+ *
+ * <p>The CSV is {@code sku,name,price[,currency]} with an optional header
+ * row. Items keep their CSV order; the SKU index is sorted here, once, so
+ * opening the catalog never has to.</p>
+ */
+public final class MappedCatalogWriter {
+
+    private MappedCatalogWriter() { }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: MappedCatalogWriter <catalog.csv> <catalog.bin>");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        int count = fromCsv(Paths.get(args[0]), Paths.get(args[1]));
+        System.out.println("Wrote " + count + " items to " + args[1] + " in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    /**
+     * @param csv catalog feed to read
+     * @param out binary catalog file to write
+     * @return number of items written
+     * @throws IllegalArgumentException when a row is invalid (message includes the line number)
+     * or a SKU appears twice
+     */
+    public static int fromCsv(Path csv, Path out) throws IOException {
+        List<Item> items = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) continue;
+                try {
+                    List<String> fields = Csv.split(line);
+                    if (lineNumber == 1 && Csv.isHeader(fields)) continue;
+                    items.add(Csv.toItem(fields));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("line " + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        write(items, out);
+        return items.size();
+    }
+
+    /**
+     * @param items catalog contents, in display order
+     * @param out binary catalog file to write
+     * @throws IllegalArgumentException when an item is null or two items share a SKU
+     */
+    public static void write(Collection<Item> items, Path out) throws IOException {
+        int count = items.size();
+        byte[][] skus = new byte[count][];
+        byte[][] names = new byte[count][];
+        Item[] byRecord = items.toArray(new Item[0]);
+        Set<String> seen = new HashSet<>();
+        long heapSize = 0;
+        for (int i = 0; i < count; i++) {
+            Item item = byRecord[i];
+            if (item == null) throw new IllegalArgumentException("Item required, was given null");
+            if (!seen.add(item.getSku())) throw new IllegalArgumentException("SKU already exists in catalog: " + item.getSku());
+            skus[i] = item.getSku().getBytes(StandardCharsets.UTF_8);
+            names[i] = item.getName().getBytes(StandardCharsets.UTF_8);
+            if (skus[i].length > MappedCatalog.MAX_STRING_BYTES || names[i].length > MappedCatalog.MAX_STRING_BYTES) {
+                throw new IllegalArgumentException("sku or name too long: " + item.getSku());
+            }
+            heapSize += skus[i].length + names[i].length;
+        }
+
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(skus[a], skus[b]));
+
+        long indexOffset = MappedCatalog.HEADER_BYTES + (long) count * MappedCatalog.RECORD_BYTES;
+        long heapOffset = indexOffset + 4L * count;
+        if (heapOffset + heapSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("catalog too large for a single mapping: " + (heapOffset + heapSize) + " bytes");
+        }
+
+        try (OutputStream file = Files.newOutputStream(out);
+             DataOutputStream data = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            data.writeInt(MappedCatalog.MAGIC);
+            data.writeInt(MappedCatalog.FORMAT_VERSION);
+            data.writeInt(count);
+            data.writeInt(0);
+            data.writeLong(indexOffset);
+            data.writeLong(heapOffset);
+
+            int heapPos = 0;
+            for (int i = 0; i < count; i++) {
+                data.writeInt(heapPos);
+                data.writeShort(skus[i].length);
+                heapPos += skus[i].length;
+                data.writeInt(heapPos);
+                data.writeShort(names[i].length);
+                heapPos += names[i].length;
+                data.writeLong(byRecord[i].getUnitMoney().getMinorUnits());
+                data.write(byRecord[i].getUnitMoney().getCurrency().getCurrencyCode().getBytes(StandardCharsets.US_ASCII));
+                data.writeByte(0);
+            }
+            for (Integer record : order) {
+                data.writeInt(record);
+            }
+            for (int i = 0; i < count; i++) {
+                data.write(skus[i]);
+                data.write(names[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package org.example.catalog;
+
+import org.example.model.Item;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Secondary index of catalog items by case-folded name.
+ *
+ * <p>- exact lookups go through a hash map of folded name to items</p>
+ * <p>- prefix lookups walk a sorted map of folded names</p>
+ * <p>- substring lookups use a trigram index: each gram maps to the ids of
+ * the names containing it, and only the names in the shortest posting
+ * list are checked. A query shorter than a gram has no posting list, so
+ * for its word-prefix and substring matches only the first
+ * {@value #SHORT_QUERY_SCAN} live names in alphabetical order are
+ * checked; exact and prefix matches are always complete</p>
+ *
+ * <p>A page only ranks as many names as it needs: word-prefix and substring
+ * matches go through heaps bounded by {@code offset + limit}, so a search
+ * costs O(candidates * log(offset + limit)) and never sorts every match.</p>
+ *
+ * <p>Every distinct folded name gets a small int id that is never reused,
+ * so posting lists never need to be rewritten when items are removed; a
+ * name with no items left is simply skipped. Not thread-safe.</p>
+ */
+final class NameIndex {
+    private static final int GRAM = 3;
+    static final int SHORT_QUERY_SCAN = 4096;
+
+    private final Map<String, Integer> idsByName = new HashMap<>();
+    private final List<String> names = new ArrayList<>();              // id -> folded name
+    private final List<List<Item>> itemsById = new ArrayList<>();      // id -> items with that name, insertion order
+    private final NavigableMap<String, Integer> liveNames = new TreeMap<>();
+    private final Map<String, int[]> postings = new HashMap<>();       // gram -> ids, slot 0 holds the count
+
+    /**
+     * Folds a name or query the same way for indexing and lookup.
+     */
+    static String fold(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Rank of a folded name for a folded query, using the same order as
+     * {@link #search}: 0 exact, 1 prefix, 2 word prefix, 3 substring.
+     *
+     * @return the rank, or -1 if the name doesn't contain the query
+     */
+    static int rank(String name, String q) {
+        if (name.equals(q)) return 0;
+        if (name.startsWith(q)) return 1;
+        if (!name.contains(q)) return -1;
+        return name.contains(" " + q) ? 2 : 3;
+    }
+
+    void add(Item item) {
+        String name = fold(item.getName());
+        Integer id = idsByName.get(name);
+        if (id == null) {
+            id = names.size();
+            idsByName.put(name, id);
+            names.add(name);
+            itemsById.add(new ArrayList<>(1));
+            indexGrams(name, id);
+        }
+        List<Item> items = itemsById.get(id);
+        items.add(item);
+        if (items.size() == 1) liveNames.put(name, id);
+    }
+
+    void remove(Item item) {
+        String name = fold(item.getName());
+        Integer id = idsByName.get(name);
+        if (id == null) return;
+        List<Item> items = itemsById.get(id);
+        items.remove(item);
+        if (items.isEmpty()) liveNames.remove(name);
+    }
+
+    /**
+     * @param query name to look up, already trimmed and non-blank
+     * @return the first item added with that name, or null
+     */
+    Item findFirst(String query) {
+        Integer id = idsByName.get(fold(query));
+        if (id == null) return null;
+        List<Item> items = itemsById.get(id);
+        return items.isEmpty() ? null : items.get(0);
+    }
+
+    /**
+     * Ranked name search. Results are ordered exact match, then name starts
+     * with the query, then a word in the name starts with it, then the name
+     * merely contains it; alphabetically within each rank.
+     */
+    Page<Item> search(String query, int offset, int limit) {
+        Page.checkWindow(offset, limit);
+        List<Item> results = new ArrayList<>();
+        if (query == null || query.isBlank()) return new Page<>(results, offset, false);
+        String q = fold(query);
+        // One extra to know if there is another page; long so a huge window doesn't wrap
+        int wanted = (int) Math.min((long) offset + limit + 1, Integer.MAX_VALUE);
+
+        Integer exact = idsByName.get(q);
+        if (exact != null) results.addAll(itemsById.get(exact));
+
+        for (Map.Entry<String, Integer> e : liveNames.subMap(q, false, q + Character.MAX_VALUE, false).entrySet()) {
+            if (results.size() >= wanted) break;
+            results.addAll(itemsById.get(e.getValue()));
+        }
+
+        if (results.size() < wanted) {
+            // Every live name holds at least one item, so the page needs at most this many names per rank
+            int need = Math.min(wanted - results.size(), liveNames.size());
+            PriorityQueue<String> wordPrefix = new PriorityQueue<>(Comparator.reverseOrder());
+            PriorityQueue<String> contains = new PriorityQueue<>(Comparator.reverseOrder());
+            for (String name : substringCandidates(q)) {
+                int rank = rank(name, q);
+                if (rank == 2) keepSmallest(wordPrefix, name, need);
+                else if (rank == 3) keepSmallest(contains, name, need);
+            }
+            addInOrder(wordPrefix, results, wanted);
+            addInOrder(contains, results, wanted);
+        }
+
+        if (offset >= results.size()) return new Page<>(List.of(), offset, false);
+        int end = (int) Math.min(results.size(), (long) offset + limit);
+        return new Page<>(results.subList(offset, end), offset, results.size() > end);
+    }
+
+    // Keeps the cap alphabetically smallest names in a max-heap
+    private static void keepSmallest(PriorityQueue<String> heap, String name, int cap) {
+        if (heap.size() < cap) {
+            heap.add(name);
+        } else if (name.compareTo(heap.peek()) < 0) {
+            heap.poll();
+            heap.add(name);
+        }
+    }
+
+    private void addInOrder(PriorityQueue<String> heap, List<Item> results, int wanted) {
+        if (results.size() >= wanted) return;
+        String[] sorted = heap.toArray(new String[0]);
+        Arrays.sort(sorted);
+        for (String name : sorted) {
+            if (results.size() >= wanted) return;
+            results.addAll(itemsById.get(idsByName.get(name)));
+        }
+    }
+
+    // Names that might contain q: the shortest posting list of q's grams, or the
+    // first SHORT_QUERY_SCAN live names when q is shorter than a gram.
+    private Iterable<String> substringCandidates(String q) {
+        if (q.length() < GRAM) {
+            List<String> candidates = new ArrayList<>(Math.min(liveNames.size(), SHORT_QUERY_SCAN));
+            for (String name : liveNames.keySet()) {
+                if (candidates.size() == SHORT_QUERY_SCAN) break;
+                candidates.add(name);
+            }
+            return candidates;
+        }
+        int[] shortest = null;
+        for (int i = 0; i + GRAM <= q.length(); i++) {
+            int[] posting = postings.get(q.substring(i, i + GRAM));
+            if (posting == null) return List.of();
+            if (shortest == null || posting[0] < shortest[0]) shortest = posting;
+        }
+        List<String> candidates = new ArrayList<>(shortest[0]);
+        for (int i = 1; i <= shortest[0]; i++) {
+            int id = shortest[i];
+            if (!itemsById.get(id).isEmpty()) candidates.add(names.get(id));
+        }
+        return candidates;
+    }
+
+    private void indexGrams(String name, int id) {
+        for (int i = 0; i + GRAM <= name.length(); i++) {
+            String gram = name.substring(i, i + GRAM);
+            int[] posting = postings.get(gram);
+            if (posting == null) {
+                posting = new int[4];
+            } else if (posting[posting[0]] == id) {
+                continue;                    // gram repeats within this name
+            } else if (posting[0] + 1 == posting.length) {
+                posting = Arrays.copyOf(posting, posting.length * 2);
+            }
+            posting[++posting[0]] = id;
+            postings.put(gram, posting);
+        }
+    }
+}
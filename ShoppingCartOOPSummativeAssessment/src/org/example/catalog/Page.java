@@ -0,0 +1,59 @@
+package org.example.catalog;
+
+import java.util.List;
+
+/**
+ * One window of results from a larger, ordered result set.
+ *
+ * <p>Pages don't carry a total count: counting every match would cost as
+ * much as returning them. {@link #hasMore()} says whether asking for the
+ * next page can return anything.</p>
+ *
+ * @param <T> type of the results
+ */
+public final class Page<T> {
+    private final List<T> items;
+    private final int offset;
+    private final boolean hasMore;
+
+    /**
+     * @param items results in this page, in order
+     * @param offset position of the first result in the whole result set
+     * @param hasMore {@code true} if results exist past this page
+     */
+    public Page(List<T> items, int offset, boolean hasMore) {
+        if (items == null) throw new IllegalArgumentException("items required");
+        if (offset < 0) throw new IllegalArgumentException("offset >= 0");
+        this.items = List.copyOf(items);
+        this.offset = offset;
+        this.hasMore = hasMore;
+    }
+
+    // getters
+    public List<T> getItems() { return items; }
+    public int getOffset()    { return offset; }
+    public boolean hasMore()  { return hasMore; }
+    public boolean isEmpty()  { return items.isEmpty(); }
+
+    /**
+     * @return offset to pass to get the page after this one
+     */
+    public int nextOffset() {
+        return offset + items.size();
+    }
+
+    /**
+     * Checks paging arguments the same way for every catalog.
+     *
+     * @throws IllegalArgumentException when {@code offset} is negative or {@code limit} isn't positive
+     */
+    static void checkWindow(int offset, int limit) {
+        if (offset < 0) throw new IllegalArgumentException("offset >= 0");
+        if (limit <= 0) throw new IllegalArgumentException("limit > 0");
+    }
+
+    @Override
+    public String toString() {
+        return "Page[offset=" + offset + ", size=" + items.size() + ", hasMore=" + hasMore + "]";
+    }
+}
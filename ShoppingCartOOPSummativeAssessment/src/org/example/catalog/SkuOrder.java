@@ -0,0 +1,58 @@
+package org.example.catalog;
+
+import org.example.model.Item;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Items sorted by SKU, for the keyset paging behind {@link Catalog#browse(String, int)}.
+ *
+ * <p>A page starts with a binary search for the cursor SKU and copies only
+ * the items it returns, so every page costs O(log n + limit) whatever its
+ * position. The cursor doesn't have to be in the catalog, so paging carries
+ * on correctly when the item it points at has since been removed.</p>
+ */
+final class SkuOrder {
+    private static final Comparator<Item> BY_SKU = Comparator.comparing(Item::getSku);
+
+    private SkuOrder() {
+    }
+
+    static Item[] sort(Collection<Item> items) {
+        Item[] sorted = items.toArray(new Item[0]);
+        Arrays.sort(sorted, BY_SKU);
+        return sorted;
+    }
+
+    /**
+     * @param sorted items sorted with {@link #sort}
+     * @param afterSku SKU the page starts after, or null for the first page
+     * @param limit maximum number of items to return
+     * @throws IllegalArgumentException when {@code limit} isn't positive
+     */
+    static Page<Item> page(Item[] sorted, String afterSku, int limit) {
+        Page.checkWindow(0, limit);
+        String key = cursor(afterSku);
+        int start = 0;
+        if (key != null) {
+            int high = sorted.length - 1;
+            while (start <= high) {
+                int mid = (start + high) >>> 1;
+                if (sorted[mid].getSku().compareTo(key) <= 0) start = mid + 1;
+                else high = mid - 1;
+            }
+        }
+        int end = (int) Math.min(sorted.length, (long) start + limit);
+        return new Page<>(List.of(Arrays.copyOfRange(sorted, start, end)), start, end < sorted.length);
+    }
+
+    /**
+     * @return the cursor normalized like a SKU lookup, or null for the first page
+     */
+    static String cursor(String afterSku) {
+        return afterSku == null || afterSku.isBlank() ? null : afterSku.trim().toUpperCase();
+    }
+}
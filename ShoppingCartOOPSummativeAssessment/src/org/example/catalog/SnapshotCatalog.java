@@ -0,0 +1,245 @@
+package org.example.catalog;
+
+import org.example.model.Item;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Copy-on-write catalog for many concurrent readers and rare writers.
+ *
+ * <p>Readers work off an immutable {@link Snapshot} read from an
+ * AtomicReference, so lookups take no locks and {@link #getCatalogItems()}
+ * returns the snapshot's list without copying it. Writers are serialized,
+ * build the next snapshot from the current one and publish it in a single
+ * reference swap; readers holding the old snapshot keep seeing it unchanged.</p>
+ *
+ * <p>Every published snapshot gets the next version number, so callers can
+ * cache anything derived from the catalog and rebuild it only when
+ * {@link #getVersion()} moves.</p>
+ */
+public class SnapshotCatalog implements Catalog {
+
+    private final AtomicReference<Snapshot> current;
+
+    public SnapshotCatalog() {
+        this(List.of());
+    }
+
+    /**
+     * @param items initial catalog contents, in display order
+     * @throws IllegalArgumentException when an item is null or two items share a SKU
+     */
+    public SnapshotCatalog(Collection<Item> items) {
+        if (items == null) throw new IllegalArgumentException("items required");
+        Map<String, Item> bySku = new HashMap<>();
+        for (Item item : items) {
+            if (item == null) throw new IllegalArgumentException("Item required, was given null");
+            if (bySku.putIfAbsent(item.getSku(), item) != null) {
+                throw new IllegalArgumentException("SKU already exists in catalog: " + item.getSku());
+            }
+        }
+        current = new AtomicReference<>(new Snapshot(0, new ArrayList<>(items), bySku));
+    }
+
+    /**
+     * @return the snapshot readers currently see
+     */
+    public Snapshot snapshot() {
+        return current.get();
+    }
+
+    /**
+     * @return version of the current snapshot; increases by one on every write
+     */
+    public long getVersion() {
+        return current.get().version;
+    }
+
+    /**
+     * @return read-only catalog items in insertion order, shared rather than copied
+     */
+    @Override
+    public List<Item> getCatalogItems() {
+        return current.get().items;
+    }
+
+    /**
+     * Adds an item to the catalog of items which the user can purchase
+     *
+     * @param item the item to add
+     * @throws IllegalArgumentException if {@code item} is null or {@code SKU} already exists
+     */
+    @Override
+    public synchronized void addItemToCatalog(Item item) {
+        if (item == null) throw new IllegalArgumentException("Item required, was given null");
+        Snapshot snap = current.get();
+        if (snap.bySku.containsKey(item.getSku())) {
+            throw new IllegalArgumentException("SKU already exists in catalog: " + item.getSku());
+        }
+        List<Item> items = new ArrayList<>(snap.items.size() + 1);
+        items.addAll(snap.items);
+        items.add(item);
+        Map<String, Item> bySku = new HashMap<>(snap.bySku);
+        bySku.put(item.getSku(), item);
+        current.set(new Snapshot(snap.version + 1, items, bySku));
+    }
+
+    /**
+     * Adds or replaces many items and publishes the result as a single new
+     * snapshot, so readers see either none or all of the changes. Replaced
+     * items keep their position; new SKUs are appended in the order given.
+     *
+     * @param items the items to add or replace
+     * @throws IllegalArgumentException if {@code items} or any item in it is null
+     */
+    @Override
+    public synchronized void upsertAll(Collection<Item> items) {
+        StaticCatalog.requireNoNulls(items);
+        Snapshot snap = current.get();
+        Map<String, Item> bySku = new HashMap<>(snap.bySku);
+        List<String> appended = new ArrayList<>();
+        for (Item item : items) {
+            if (bySku.put(item.getSku(), item) == null) appended.add(item.getSku());
+        }
+        List<Item> next = new ArrayList<>(snap.items.size() + appended.size());
+        for (Item old : snap.items) {
+            next.add(bySku.get(old.getSku()));
+        }
+        for (String sku : appended) {
+            next.add(bySku.get(sku));
+        }
+        current.set(new Snapshot(snap.version + 1, next, bySku));
+    }
+
+    /**
+     * Removes the given item from the catalog
+     *
+     * @param item Item to remove
+     * @throws IllegalArgumentException if {@code item} is null
+     */
+    @Override
+    public synchronized void removeItemFromCatalog(Item item) {
+        if (item == null) throw new IllegalArgumentException("item required");
+        Snapshot snap = current.get();
+        if (!snap.bySku.containsKey(item.getSku())) return;
+        List<Item> items = new ArrayList<>(snap.items);
+        items.remove(item);
+        Map<String, Item> bySku = new HashMap<>(snap.bySku);
+        bySku.remove(item.getSku());
+        current.set(new Snapshot(snap.version + 1, items, bySku));
+    }
+
+    /**
+     * Finds an item from the catalog by name
+     *
+     * @param itemName name of the item to find
+     * @return first item with the name {@code itemName} or null if it doesn't exist
+     */
+    @Override
+    public Item findItemByName(String itemName) {
+        if (itemName == null || itemName.isBlank()) return null;
+        return current.get().names().findFirst(itemName);
+    }
+
+    /**
+     * Finds an item from the catalog by SKU id
+     *
+     * @param sku Item sku id to find
+     * @return Item with sku value {@code sku} or null if it doesn't exist
+     */
+    @Override
+    public Item findItemBySKU(String sku) {
+        return current.get().findItemBySKU(sku);
+    }
+
+    /**
+     * Ranked, paged name search against the current snapshot.
+     * See {@link StaticCatalog#searchByName(String, int, int)} for the ranking.
+     */
+    @Override
+    public Page<Item> searchByName(String query, int offset, int limit) {
+        return current.get().names().search(query, offset, limit);
+    }
+
+    /**
+     * Pages through the current snapshot in SKU order.
+     * See {@link Catalog#browse(String, int)}.
+     */
+    @Override
+    public Page<Item> browse(String afterSku, int limit) {
+        return current.get().browse(afterSku, limit);
+    }
+
+    /**
+     * An immutable, versioned view of the catalog. Safe to hold on to and
+     * share between threads.
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final List<Item> items;
+        private final Map<String, Item> bySku;
+        private volatile NameIndex names;       // built on first name lookup, read-only afterwards
+        private volatile Item[] inSkuOrder;     // built on first browse, read-only afterwards
+
+        private Snapshot(long version, List<Item> items, Map<String, Item> bySku) {
+            this.version = version;
+            this.items = Collections.unmodifiableList(items);
+            this.bySku = bySku;
+        }
+
+        public long getVersion()      { return version; }
+        public List<Item> getItems()  { return items; }
+
+        /**
+         * @param sku Item sku id to find
+         * @return Item with sku value {@code sku} or null if it doesn't exist
+         */
+        public Item findItemBySKU(String sku) {
+            if (sku == null || sku.isBlank()) return null;
+            return bySku.get(sku.trim().toUpperCase());
+        }
+
+        /**
+         * Pages through this snapshot in SKU order. A client paging with the
+         * same snapshot sees a stable listing even while the catalog changes.
+         * See {@link Catalog#browse(String, int)}.
+         */
+        public Page<Item> browse(String afterSku, int limit) {
+            Item[] sorted = inSkuOrder;
+            if (sorted == null) {
+                synchronized (this) {
+                    sorted = inSkuOrder;
+                    if (sorted == null) {
+                        sorted = SkuOrder.sort(items);
+                        inSkuOrder = sorted;
+                    }
+                }
+            }
+            return SkuOrder.page(sorted, afterSku, limit);
+        }
+
+        // Each index is built once per snapshot. Every write publishes a cold snapshot,
+        // so without the lock all readers arriving together would each build their own.
+        // Writes stay cheap: nothing is built until a reader needs it.
+        private NameIndex names() {
+            NameIndex index = names;
+            if (index == null) {
+                synchronized (this) {
+                    index = names;
+                    if (index == null) {
+                        index = new NameIndex();
+                        for (Item item : items) index.add(item);
+                        names = index;
+                    }
+                }
+            }
+            return index;
+        }
+    }
+}
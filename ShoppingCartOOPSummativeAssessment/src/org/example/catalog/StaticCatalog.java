@@ -3,6 +3,7 @@ package org.example.catalog;
 import org.example.model.Item;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -11,11 +12,15 @@ import java.util.Map;
  * in memory catalog
  * Used Map<SKU, Item> so we can look up SKU quickly
  * Keeps insertion order (LinkedHashMap)
+ * Keeps a secondary index by case-folded name (see NameIndex) so name
+ * lookups and type-ahead search don't scan the whole catalog
  * Provides basic add/remove/find operations
  */
 public class StaticCatalog implements Catalog{
 
     private final Map<String, Item> itemsBySku = new LinkedHashMap<>();
+    private final NameIndex itemsByName = new NameIndex();
+    private Item[] itemsInSkuOrder;         // built on first browse, null after any change
 
     public StaticCatalog() {
         // Sample Items to use
@@ -48,6 +53,28 @@ public class StaticCatalog implements Catalog{
             throw new IllegalArgumentException("SKU already exists in catalog: " + key);
         }
         itemsBySku.put(key, item);
+        itemsByName.add(item);
+        itemsInSkuOrder = null;
+    }
+
+    /**
+     * Adds or replaces many items at once. An item whose SKU is already in the
+     * catalog replaces the existing one and keeps its position; new SKUs are
+     * appended in the order given.
+     *
+     * @param items the items to add or replace
+     * @throws IllegalArgumentException if {@code items} or any item in it is null;
+     * the catalog is left unchanged
+     */
+    @Override
+    public void upsertAll(Collection<Item> items) {
+        requireNoNulls(items);
+        for (Item item : items) {
+            Item replaced = itemsBySku.put(normalizeSku(item.getSku()), item);
+            if (replaced != null) itemsByName.remove(replaced);
+            itemsByName.add(item);
+        }
+        itemsInSkuOrder = null;
     }
 
     /**
@@ -59,7 +86,11 @@ public class StaticCatalog implements Catalog{
     @Override
     public void removeItemFromCatalog(Item item) {
         if (item == null) throw new IllegalArgumentException("item required");
-        itemsBySku.remove(normalizeSku(item.getSku()));
+        Item removed = itemsBySku.remove(normalizeSku(item.getSku()));
+        if (removed != null) {
+            itemsByName.remove(removed);
+            itemsInSkuOrder = null;
+        }
     }
 
     /**
@@ -71,10 +102,36 @@ public class StaticCatalog implements Catalog{
     @Override
     public Item findItemByName(String itemName) {
         if (itemName == null || itemName.isBlank()) return null;
-        for(Item i : itemsBySku.values()) {
-            if (i.getName().equalsIgnoreCase(itemName.trim())) return i;
-        }
-        return null;
+        return itemsByName.findFirst(itemName);
+    }
+
+    /**
+     * Searches item names for {@code query}, ranked exact match first, then
+     * names starting with it, then names with a word starting with it, then
+     * names containing it. A query shorter than three characters only finds
+     * word and substring matches among the first 4096 names alphabetically.
+     *
+     * @param query text typed by the user, case-insensitive
+     * @param offset number of ranked results to skip
+     * @param limit maximum number of results to return
+     * @return one page of matching items
+     * @throws IllegalArgumentException when {@code offset} is negative or {@code limit} isn't positive
+     */
+    @Override
+    public Page<Item> searchByName(String query, int offset, int limit) {
+        return itemsByName.search(query, offset, limit);
+    }
+
+    /**
+     * Pages through the catalog in SKU order. The sorted order is built on
+     * the first call after the catalog changes and reused until the next
+     * change, so only that first call is O(n log n).
+     * See {@link Catalog#browse(String, int)}.
+     */
+    @Override
+    public Page<Item> browse(String afterSku, int limit) {
+        if (itemsInSkuOrder == null) itemsInSkuOrder = SkuOrder.sort(itemsBySku.values());
+        return SkuOrder.page(itemsInSkuOrder, afterSku, limit);
     }
 
     /**
@@ -89,6 +146,18 @@ public class StaticCatalog implements Catalog{
         return itemsBySku.get(normalizeSku(sku));
     }
 
+    /**
+     * Checks a batch up front so a bad element can't leave a half-applied batch
+     *
+     * @throws IllegalArgumentException if {@code items} or any item in it is null
+     */
+    static void requireNoNulls(Collection<Item> items) {
+        if (items == null) throw new IllegalArgumentException("Items required, was given null");
+        for (Item item : items) {
+            if (item == null) throw new IllegalArgumentException("Item required, was given null");
+        }
+    }
+
     /**
      * Normalizes a sku value to remove leading/trailing whitespace and sets all
      * character to uppercase
@@ -0,0 +1,221 @@
+package org.example.codec;
+
+import org.example.cart.Cart;
+import org.example.model.Item;
+import org.example.model.Money;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Currency;
+import java.util.function.IntFunction;
+
+/**
+ * Compact, versioned binary format for carts and items, written straight
+ * into and read straight out of caller-supplied ByteBuffers. Callers are
+ * expected to keep and reuse their buffers; the codec itself allocates
+ * nothing while encoding ASCII text.
+ *
+ * <p>Cart layout: magic {@code 0xCA}, version, flags, 3-byte ISO currency
+ * code, line count (4 bytes), then per line:</p>
+ * <p>- {@link SkuEncoding#STRING}: SKU and name as varint length + UTF-8,
+ * price in minor units as a zigzag varint, quantity as a varint</p>
+ * <p>- {@link SkuEncoding#ORDINAL}: SKU ordinal as a varint, price, quantity</p>
+ *
+ * <p>STRING is self-contained. ORDINAL is several times smaller but only
+ * works between processes that agree on ordinals, and needs a way to turn
+ * an ordinal back into an Item when decoding.</p>
+ *
+ * <p>Not thread-safe; use one codec per thread.</p>
+ */
+public final class CartCodec {
+    static final byte MAGIC = (byte) 0xCA;
+    public static final byte VERSION = 1;
+    private static final int FLAG_ORDINALS = 1;
+
+    public enum SkuEncoding { STRING, ORDINAL }
+
+    private final SkuEncoding skuEncoding;
+    private final IntFunction<Item> itemsByOrdinal;
+    private Currency lastCurrency = Money.DEFAULT_CURRENCY;    // saves a lookup when every line is the same currency
+
+    /**
+     * Codec that writes SKUs and names in full.
+     */
+    public CartCodec() {
+        this.skuEncoding = SkuEncoding.STRING;
+        this.itemsByOrdinal = null;
+    }
+
+    /**
+     * Codec that writes {@link Item#getOrdinal()} in place of SKU and name.
+     *
+     * @param itemsByOrdinal returns the Item for an ordinal when decoding, or null if unknown
+     * @throws IllegalArgumentException when {@code itemsByOrdinal} is null
+     */
+    public CartCodec(IntFunction<Item> itemsByOrdinal) {
+        if (itemsByOrdinal == null) throw new IllegalArgumentException("ordinal lookup required");
+        this.skuEncoding = SkuEncoding.ORDINAL;
+        this.itemsByOrdinal = itemsByOrdinal;
+    }
+
+    public SkuEncoding getSkuEncoding() {
+        return skuEncoding;
+    }
+
+    /**
+     * Writes every line of {@code cart} at the buffer's position.
+     *
+     * @return number of bytes written
+     * @throws BufferOverflowException when {@code out} is too small; its position is then undefined
+     */
+    public int encode(Cart cart, ByteBuffer out) {
+        int start = out.position();
+        Currency currency = cart.getSubtotalMoney().getCurrency();
+        out.put(MAGIC).put(VERSION).put((byte) (skuEncoding == SkuEncoding.ORDINAL ? FLAG_ORDINALS : 0));
+        writeCurrency(out, currency);
+        int countAt = out.position();
+        out.putInt(0);
+        int[] count = {0};
+        cart.forEachLine((item, quantity) -> {
+            if (skuEncoding == SkuEncoding.ORDINAL) {
+                Varint.writeUnsigned(out, item.getOrdinal());
+            } else {
+                writeString(out, item.getSku());
+                writeString(out, item.getName());
+            }
+            Varint.writeSigned(out, item.getUnitMoney().getMinorUnits());
+            Varint.writeUnsigned(out, quantity);
+            count[0]++;
+        });
+        out.putInt(countAt, count[0]);
+        return out.position() - start;
+    }
+
+    /**
+     * Reads a cart written by {@link #encode} and adds its lines to
+     * {@code target}, normally an empty cart. Lines are added one at a
+     * time, so if the data turns out to be bad part way through, the lines
+     * before it have already been added.
+     *
+     * @return number of lines read
+     * @throws IllegalArgumentException when the data is truncated or malformed, was
+     * written with the other SKU encoding, or is priced in a currency {@code target} doesn't use
+     */
+    public int decode(ByteBuffer in, Cart target) {
+        try {
+            if (in.get() != MAGIC) throw new IllegalArgumentException("not cart data");
+            byte version = in.get();
+            if (version != VERSION) throw new IllegalArgumentException("unsupported cart format version " + version);
+            boolean ordinals = (in.get() & FLAG_ORDINALS) != 0;
+            if (ordinals != (skuEncoding == SkuEncoding.ORDINAL)) {
+                throw new IllegalArgumentException("cart data uses " + (ordinals ? "ordinal" : "string")
+                        + " SKUs, codec expects " + skuEncoding);
+            }
+            Currency currency = readCurrency(in);
+            int count = in.getInt();
+            if (count < 0) throw new IllegalArgumentException("negative line count");
+            for (int i = 0; i < count; i++) {
+                Item item;
+                if (ordinals) {
+                    int ordinal = Varint.readUnsignedInt(in);
+                    long price = Varint.readSigned(in);
+                    item = itemsByOrdinal.apply(ordinal);
+                    if (item == null) throw new IllegalArgumentException("unknown SKU ordinal " + ordinal);
+                    if (item.getUnitMoney().getMinorUnits() != price || !item.getUnitMoney().getCurrency().equals(currency)) {
+                        // keep the price the cart was encoded with
+                        item = Item.of(item.getSku(), item.getName(), Money.ofMinor(price, currency));
+                    }
+                } else {
+                    String sku = readString(in);
+                    String name = readString(in);
+                    item = Item.of(sku, name, Money.ofMinor(Varint.readSigned(in), currency));
+                }
+                int quantity = Varint.readUnsignedInt(in);
+                target.addItemToCart(item, quantity);
+            }
+            return count;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("truncated cart data", e);
+        }
+    }
+
+    /**
+     * Writes one Item in full: SKU, name, currency, price.
+     *
+     * @throws BufferOverflowException when {@code out} is too small
+     */
+    public void writeItem(Item item, ByteBuffer out) {
+        writeString(out, item.getSku());
+        writeString(out, item.getName());
+        writeCurrency(out, item.getUnitMoney().getCurrency());
+        Varint.writeSigned(out, item.getUnitMoney().getMinorUnits());
+    }
+
+    /**
+     * @throws IllegalArgumentException when the data is truncated or isn't a valid Item
+     */
+    public Item readItem(ByteBuffer in) {
+        try {
+            String sku = readString(in);
+            String name = readString(in);
+            Currency currency = readCurrency(in);
+            return Item.of(sku, name, Money.ofMinor(Varint.readSigned(in), currency));
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("truncated item data", e);
+        }
+    }
+
+    // ASCII, which SKUs and most names are, is written char by char with no byte[] copy
+    private static void writeString(ByteBuffer out, String s) {
+        int length = s.length();
+        for (int i = 0; i < length; i++) {
+            if (s.charAt(i) >= 0x80) {
+                byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+                Varint.writeUnsigned(out, utf8.length);
+                out.put(utf8);
+                return;
+            }
+        }
+        Varint.writeUnsigned(out, length);
+        for (int i = 0; i < length; i++) {
+            out.put((byte) s.charAt(i));
+        }
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = Varint.readUnsignedInt(in);
+        if (length > in.remaining()) throw new BufferUnderflowException();
+        String s;
+        if (in.hasArray()) {
+            s = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            s = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return s;
+    }
+
+    private static void writeCurrency(ByteBuffer out, Currency currency) {
+        String code = currency.getCurrencyCode();
+        out.put((byte) code.charAt(0)).put((byte) code.charAt(1)).put((byte) code.charAt(2));
+    }
+
+    private Currency readCurrency(ByteBuffer in) {
+        char a = (char) in.get();
+        char b = (char) in.get();
+        char c = (char) in.get();
+        String last = lastCurrency.getCurrencyCode();
+        if (last.charAt(0) != a || last.charAt(1) != b || last.charAt(2) != c) {
+            try {
+                lastCurrency = Currency.getInstance(new String(new char[]{a, b, c}));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("unknown currency in cart data", e);
+            }
+        }
+        return lastCurrency;
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.codec;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * LEB128 variable-length integers: 7 bits per byte, low bits first, high bit
+ * set on every byte but the last. Small values (quantities, ordinals, string
+ * lengths) take one or two bytes instead of four or eight.
+ *
+ * <p>Signed values go through zigzag encoding first so small negative
+ * numbers stay short too.</p>
+ */
+public final class Varint {
+    /** Most bytes a long can take */
+    public static final int MAX_LONG_BYTES = 10;
+
+    private Varint() { }
+
+    /**
+     * Writes {@code value} as an unsigned varint.
+     *
+     * @throws BufferOverflowException when {@code out} is too small
+     */
+    public static void writeUnsigned(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    /**
+     * @throws IllegalArgumentException when the varint is longer than 10 bytes
+     * @throws java.nio.BufferUnderflowException when {@code in} ends mid-varint
+     */
+    public static long readUnsigned(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalArgumentException("varint longer than " + MAX_LONG_BYTES + " bytes");
+    }
+
+    /**
+     * Reads an unsigned varint that must fit in a non-negative int, such as
+     * a length or a count.
+     *
+     * @throws IllegalArgumentException when the value is larger than {@link Integer#MAX_VALUE}
+     */
+    public static int readUnsignedInt(ByteBuffer in) {
+        long value = readUnsigned(in);
+        if (value > Integer.MAX_VALUE) throw new IllegalArgumentException("varint " + value + " out of int range");
+        return (int) value;
+    }
+
+    public static void writeSigned(ByteBuffer out, long value) {
+        writeUnsigned(out, (value << 1) ^ (value >> 63));
+    }
+
+    public static long readSigned(ByteBuffer in) {
+        long zigzag = readUnsigned(in);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    /**
+     * @return how many bytes {@link #writeUnsigned} uses for {@code value}
+     */
+    public static int sizeOfUnsigned(long value) {
+        int bytes = 1;
+        while ((value & ~0x7FL) != 0) {
+            bytes++;
+            value >>>= 7;
+        }
+        return bytes;
+    }
+}
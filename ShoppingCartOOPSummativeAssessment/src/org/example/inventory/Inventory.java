@@ -0,0 +1,157 @@
+package org.example.inventory;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stock levels per SKU: how many units are available, reserved by carts
+ * and sold.
+ *
+ * <p>A cart reserves stock when an item is added, releases it when the item
+ * is removed or the cart is evicted, and commits it at checkout, which
+ * turns the reservation into a sale. Available stock never goes below
+ * zero, so two carts can't both reserve the last unit.</p>
+ *
+ * <p>Every operation is lock-free on the common path (see {@link StockLevel}).
+ * SKUs expected to see flash-sale traffic should be tracked with
+ * {@link #trackHot(String, long)}, which splits their stock across several
+ * counters so that concurrent reservations don't all fight over one.</p>
+ *
+ * <p>Only tracked SKUs are limited: reserving an untracked SKU always
+ * succeeds, so stock control can be turned on one SKU at a time. SKUs are
+ * matched as {@link org.example.model.Item#getSku()} returns them.</p>
+ */
+public class Inventory {
+    private final ConcurrentHashMap<String, StockLevel> levels = new ConcurrentHashMap<>();
+    private final int hotStripes;
+
+    public Inventory() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param hotStripes number of counters a hot SKU's stock is split across,
+     * rounded up to a power of two
+     * @throws IllegalArgumentException when {@code hotStripes} is less than 1
+     */
+    public Inventory(int hotStripes) {
+        if (hotStripes < 1) throw new IllegalArgumentException("stripes > 0 required");
+        int size = Integer.highestOneBit(hotStripes);
+        this.hotStripes = size < hotStripes ? size << 1 : size;
+    }
+
+    /**
+     * Starts tracking stock of a SKU with a single counter.
+     *
+     * @param sku SKU to track
+     * @param available units on hand
+     * @throws IllegalArgumentException when {@code sku} is blank or already tracked,
+     * or {@code available} is negative
+     */
+    public void track(String sku, long available) {
+        track(sku, available, 1);
+    }
+
+    /**
+     * Starts tracking stock of a SKU that many carts will reserve at once.
+     *
+     * @param sku SKU to track
+     * @param available units on hand
+     * @throws IllegalArgumentException when {@code sku} is blank or already tracked,
+     * or {@code available} is negative
+     */
+    public void trackHot(String sku, long available) {
+        track(sku, available, hotStripes);
+    }
+
+    public boolean isTracked(String sku) {
+        return sku != null && levels.containsKey(sku);
+    }
+
+    /**
+     * Adds units to a tracked SKU.
+     *
+     * @throws IllegalArgumentException when {@code sku} isn't tracked or {@code quantity} is negative
+     */
+    public void restock(String sku, long quantity) {
+        if (quantity < 0) throw new IllegalArgumentException("quantity >= 0");
+        level(sku).restock(quantity);
+    }
+
+    /**
+     * Reserves units for a cart if enough are available.
+     *
+     * @param sku SKU to reserve
+     * @param quantity units to reserve
+     * @return true when the units were reserved or the SKU isn't tracked,
+     * false when too few are available; nothing is reserved then
+     * @throws IllegalArgumentException when {@code quantity} is less than 1
+     */
+    public boolean tryReserve(String sku, int quantity) {
+        if (quantity < 1) throw new IllegalArgumentException("quantity > 0 required");
+        StockLevel level = sku == null ? null : levels.get(sku);
+        return level == null || level.tryReserve(quantity);
+    }
+
+    /**
+     * Hands reserved units back so other carts can reserve them. The caller
+     * must hold at least {@code quantity} units of this SKU in reserve.
+     *
+     * @throws IllegalArgumentException when {@code quantity} is less than 1
+     */
+    public void release(String sku, int quantity) {
+        if (quantity < 1) throw new IllegalArgumentException("quantity > 0 required");
+        StockLevel level = sku == null ? null : levels.get(sku);
+        if (level != null) level.release(quantity);
+    }
+
+    /**
+     * Turns reserved units into sold units at checkout. The caller must hold
+     * at least {@code quantity} units of this SKU in reserve.
+     *
+     * @throws IllegalArgumentException when {@code quantity} is less than 1
+     */
+    public void commit(String sku, int quantity) {
+        if (quantity < 1) throw new IllegalArgumentException("quantity > 0 required");
+        StockLevel level = sku == null ? null : levels.get(sku);
+        if (level != null) level.commit(quantity);
+    }
+
+    /**
+     * @return units that can still be reserved; a sum over the SKU's
+     * counters, so only exact when nothing is reserving at the same time
+     * @throws IllegalArgumentException when {@code sku} isn't tracked
+     */
+    public long getAvailable(String sku) {
+        return level(sku).available();
+    }
+
+    /**
+     * @throws IllegalArgumentException when {@code sku} isn't tracked
+     */
+    public long getReserved(String sku) {
+        return level(sku).reserved();
+    }
+
+    /**
+     * @throws IllegalArgumentException when {@code sku} isn't tracked
+     */
+    public long getSold(String sku) {
+        return level(sku).sold();
+    }
+
+    private void track(String sku, long available, int stripes) {
+        if (sku == null || sku.isBlank()) throw new IllegalArgumentException("sku required");
+        if (available < 0) throw new IllegalArgumentException("available >= 0");
+        StockLevel level = new StockLevel(stripes);
+        level.restock(available);
+        if (levels.putIfAbsent(sku, level) != null) {
+            throw new IllegalArgumentException("SKU already tracked: " + sku);
+        }
+    }
+
+    private StockLevel level(String sku) {
+        StockLevel level = sku == null ? null : levels.get(sku);
+        if (level == null) throw new IllegalArgumentException("SKU not tracked: " + sku);
+        return level;
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.inventory;
+
+/**
+ * Thrown when a cart asks for more of a SKU than is available to reserve.
+ */
+public class OutOfStockException extends IllegalStateException {
+    private static final long serialVersionUID = 1L;
+
+    private final String sku;
+    private final int requested;
+
+    /**
+     * @param sku the SKU that ran out
+     * @param requested quantity the cart asked for
+     */
+    public OutOfStockException(String sku, int requested) {
+        super("not enough stock of " + sku + " to reserve " + requested);
+        this.sku = sku;
+        this.requested = requested;
+    }
+
+    public String getSku() { return sku; }
+    public int getRequested() { return requested; }
+}
@@ -0,0 +1,266 @@
+package org.example.inventory;
+
+import org.example.cart.Cart;
+import org.example.cart.CartDelta;
+import org.example.cart.MergePolicy;
+import org.example.model.CartLine;
+import org.example.model.Item;
+import org.example.model.Money;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Wraps a cart so that everything in it is reserved in an {@link Inventory}.
+ *
+ * <p>Stock is reserved before an item goes into the wrapped cart and
+ * released when it comes out; checkout commits the reservations as sales.
+ * A change that can't be fully reserved throws {@link OutOfStockException}
+ * and leaves both the cart and the inventory as they were.</p>
+ *
+ * <p>The cart keeps its own count of what it holds per Item, which always
+ * matches the wrapped cart's lines, so it never has to ask the wrapped cart
+ * what a remove actually took out. All changes must go through this
+ * wrapper. Every method is synchronized; reads go straight to the wrapped
+ * cart.</p>
+ *
+ * <p>A cart dropped from a {@link org.example.cart.CartStore} keeps its
+ * reservations until {@link #releaseAll()} is called; register
+ * {@link #releaseEvicted(String, Cart)} as the store's eviction listener to
+ * do that automatically. Carts removed with {@code removeCart} must be
+ * released by the caller.</p>
+ */
+public class ReservingCart implements Cart {
+    private final Cart delegate;
+    private final Inventory inventory;
+    private final Map<Item, Integer> held = new HashMap<>();
+
+    /**
+     * Wraps a cart, reserving whatever is already in it.
+     *
+     * @param delegate the cart to wrap
+     * @param inventory inventory to reserve from
+     * @throws IllegalArgumentException when an argument is null
+     * @throws OutOfStockException when the cart's current lines can't all be reserved
+     */
+    public ReservingCart(Cart delegate, Inventory inventory) {
+        if (delegate == null) throw new IllegalArgumentException("cart required");
+        if (inventory == null) throw new IllegalArgumentException("inventory required");
+        this.delegate = delegate;
+        this.inventory = inventory;
+        Map<Item, Integer> existing = new LinkedHashMap<>();
+        delegate.forEachLine(existing::put);
+        reserveChanges(existing);
+        held.putAll(existing);
+    }
+
+    /**
+     * Eviction listener for a {@link org.example.cart.CartStore}: releases the
+     * evicted cart's stock when it is a ReservingCart.
+     */
+    public static void releaseEvicted(String sessionId, Cart cart) {
+        if (cart instanceof ReservingCart) ((ReservingCart) cart).releaseAll();
+    }
+
+    @Override
+    public List<CartLine> getLines() {
+        return delegate.getLines();
+    }
+
+    @Override
+    public void forEachLine(ObjIntConsumer<Item> action) {
+        delegate.forEachLine(action);
+    }
+
+    @Override
+    public int quantityOf(Item item) {
+        return delegate.quantityOf(item);
+    }
+
+    /**
+     * Reserves {@code quantity} units, then adds them to the cart.
+     *
+     * @throws OutOfStockException when the units can't be reserved
+     */
+    @Override
+    public synchronized void addItemToCart(Item item, int quantity) {
+        if (item == null) throw new IllegalArgumentException("Item required, was given null");
+        if (quantity < 1) throw new IllegalArgumentException("quantity > 0 required");
+        reserve(item, quantity);
+        try {
+            delegate.addItemToCart(item, quantity);
+        } catch (RuntimeException e) {
+            inventory.release(item.getSku(), quantity);
+            throw e;
+        }
+        held.merge(item, quantity, Integer::sum);
+    }
+
+    /**
+     * Removes up to {@code quantity} units and releases what was removed.
+     */
+    @Override
+    public synchronized void removeItemFromCart(Item item, int quantity) {
+        delegate.removeItemFromCart(item, quantity);
+        Integer holding = item == null ? null : held.get(item);
+        if (holding == null || quantity < 1) return;
+        int removed = Math.min(holding, quantity);
+        inventory.release(item.getSku(), removed);
+        if (removed == holding) held.remove(item);
+        else held.put(item, holding - removed);
+    }
+
+    @Override
+    public BigDecimal getSubtotal() {
+        return delegate.getSubtotal();
+    }
+
+    @Override
+    public Money getSubtotalMoney() {
+        return delegate.getSubtotalMoney();
+    }
+
+    /**
+     * BigDecimal adapter for {@link #checkoutMoney()}
+     */
+    @Override
+    public BigDecimal checkout() {
+        return checkoutMoney().toBigDecimal();
+    }
+
+    /**
+     * Checks out the wrapped cart, then commits every reservation as sold.
+     */
+    @Override
+    public synchronized Money checkoutMoney() {
+        Money total = delegate.checkoutMoney();
+        held.forEach((item, quantity) -> inventory.commit(item.getSku(), quantity));
+        held.clear();
+        return total;
+    }
+
+    /**
+     * Reserves the batch's net additions up front, so a batch that can't be
+     * reserved leaves the cart untouched, like any other failed batch.
+     *
+     * @throws OutOfStockException when the net additions can't be reserved
+     */
+    @Override
+    public synchronized List<CartLine> applyAll(List<CartDelta> deltas) {
+        if (deltas == null) throw new IllegalArgumentException("deltas required");
+        Map<Item, Integer> after = new LinkedHashMap<>();
+        for (CartDelta delta : deltas) {
+            if (delta == null) throw new IllegalArgumentException("delta required, was given null");
+            int quantity = after.computeIfAbsent(delta.getItem(), this::holding);
+            after.put(delta.getItem(), delta.isRemoval()
+                    ? Math.max(0, quantity - delta.getQuantity())
+                    : Math.addExact(quantity, delta.getQuantity()));
+        }
+        return applyChanges(after, () -> delegate.applyAll(deltas));
+    }
+
+    /**
+     * Reads {@code other} once and works out the merged quantities with
+     * {@code policy}, reserves the increases, then applies the differences
+     * to the wrapped cart as one batch. A change made to {@code other}
+     * meanwhile can't make the reservations and the lines disagree.
+     *
+     * @throws OutOfStockException when the increases can't be reserved
+     */
+    @Override
+    public synchronized void mergeFrom(Cart other, MergePolicy policy) {
+        if (other == null) throw new IllegalArgumentException("cart to merge required");
+        if (policy == null) throw new IllegalArgumentException("merge policy required");
+        if (other == this) throw new IllegalArgumentException("cannot merge a cart into itself");
+        Map<Item, Integer> after = new LinkedHashMap<>();
+        other.forEachLine((item, incoming) -> after.put(item, incoming));
+        List<CartDelta> deltas = new ArrayList<>(after.size());
+        for (Map.Entry<Item, Integer> e : after.entrySet()) {
+            Item item = e.getKey();
+            int before = holding(item);
+            int merged = policy.merge(item, before, e.getValue());
+            if (merged < 0) throw new IllegalArgumentException("merge policy returned " + merged + " for " + item.getSku());
+            e.setValue(merged);
+            if (merged > before) deltas.add(CartDelta.add(item, merged - before));
+            else if (merged < before) deltas.add(CartDelta.remove(item, before - merged));
+        }
+        applyChanges(after, () -> delegate.applyAll(deltas));
+    }
+
+    /**
+     * Empties the cart and releases everything it had reserved. Used when the
+     * cart is abandoned, e.g. evicted from a CartStore.
+     */
+    public synchronized void releaseAll() {
+        List<CartDelta> removals = new ArrayList<>(held.size());
+        held.forEach((item, quantity) -> removals.add(CartDelta.remove(item, quantity)));
+        delegate.applyAll(removals);
+        held.forEach((item, quantity) -> inventory.release(item.getSku(), quantity));
+        held.clear();
+    }
+
+    /**
+     * @return units of {@code item} this cart holds in reserve
+     */
+    public synchronized int getReserved(Item item) {
+        return holding(item);
+    }
+
+    private int holding(Item item) {
+        Integer quantity = held.get(item);
+        return quantity == null ? 0 : quantity;
+    }
+
+    // Reserves increases, runs the change, then releases decreases. If the change
+    // throws, the increases are released again and held is left as it was.
+    private <T> T applyChanges(Map<Item, Integer> after, Supplier<T> change) {
+        Map<Item, Integer> increases = new LinkedHashMap<>();
+        after.forEach((item, quantity) -> {
+            int diff = quantity - holding(item);
+            if (diff > 0) increases.put(item, diff);
+        });
+        reserveChanges(increases);
+        T result;
+        try {
+            result = change.get();
+        } catch (RuntimeException e) {
+            increases.forEach((item, diff) -> inventory.release(item.getSku(), diff));
+            throw e;
+        }
+        after.forEach((item, quantity) -> {
+            int diff = quantity - holding(item);
+            if (diff < 0) inventory.release(item.getSku(), -diff);
+            if (quantity == 0) held.remove(item);
+            else held.put(item, quantity);
+        });
+        return result;
+    }
+
+    // All or nothing: on the first shortfall, everything reserved so far is released
+    private void reserveChanges(Map<Item, Integer> quantities) {
+        Map<Item, Integer> reserved = new LinkedHashMap<>();
+        try {
+            quantities.forEach((item, quantity) -> {
+                if (quantity > 0) {
+                    reserve(item, quantity);
+                    reserved.put(item, quantity);
+                }
+            });
+        } catch (OutOfStockException e) {
+            reserved.forEach((item, quantity) -> inventory.release(item.getSku(), quantity));
+            throw e;
+        }
+    }
+
+    private void reserve(Item item, int quantity) {
+        if (!inventory.tryReserve(item.getSku(), quantity)) {
+            throw new OutOfStockException(item.getSku(), quantity);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.example.inventory;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Available, reserved and sold counts of one SKU.
+ *
+ * <p>Available stock is split across one or more cells of an
+ * AtomicLongArray, each padded onto its own cache line. A reservation takes
+ * from the calling thread's home cell with a compare-and-set and never
+ * blocks. With one cell this is a plain CAS counter; with several, threads
+ * hammering the same SKU mostly hit different cells and stop invalidating
+ * each other's cache line.</p>
+ *
+ * <p>When the home cell can't cover a reservation on its own, the slow path
+ * takes a lock and gathers the quantity from every cell, handing it all
+ * back if the cells together fall short. Only one thread gathers at a time,
+ * so two gatherers can't each hold half of the last units and both fail.</p>
+ */
+final class StockLevel {
+    private static final int PAD = 8;       // longs per cell, 64 bytes apart
+
+    private final AtomicLongArray cells;
+    private final int mask;
+    private final LongAdder reserved = new LongAdder();
+    private final LongAdder sold = new LongAdder();
+    private final Object gatherLock = new Object();
+
+    /**
+     * @param stripes number of cells, a power of two
+     */
+    StockLevel(int stripes) {
+        cells = new AtomicLongArray(stripes * PAD);
+        mask = stripes - 1;
+    }
+
+    int stripes() {
+        return mask + 1;
+    }
+
+    boolean tryReserve(int quantity) {
+        int home = home();
+        if (!takeFrom(home, quantity) && !gather(home, quantity)) return false;
+        reserved.add(quantity);
+        return true;
+    }
+
+    void release(int quantity) {
+        reserved.add(-quantity);
+        cells.getAndAdd(home() * PAD, quantity);
+    }
+
+    void commit(int quantity) {
+        reserved.add(-quantity);
+        sold.add(quantity);
+    }
+
+    /**
+     * Spreads new stock evenly over the cells so every thread's home cell gets a share.
+     */
+    void restock(long quantity) {
+        int stripes = stripes();
+        long share = quantity / stripes;
+        long rest = quantity % stripes;
+        for (int i = 0; i < stripes; i++) {
+            cells.getAndAdd(i * PAD, i < rest ? share + 1 : share);
+        }
+    }
+
+    long available() {
+        long total = 0;
+        for (int i = 0; i <= mask; i++) {
+            total += cells.get(i * PAD);
+        }
+        return total;
+    }
+
+    long reserved() {
+        return reserved.sum();
+    }
+
+    long sold() {
+        return sold.sum();
+    }
+
+    private boolean takeFrom(int cell, long quantity) {
+        int at = cell * PAD;
+        long current = cells.get(at);
+        while (current >= quantity) {
+            if (cells.compareAndSet(at, current, current - quantity)) return true;
+            current = cells.get(at);
+        }
+        return false;
+    }
+
+    private boolean gather(int home, int quantity) {
+        if (mask == 0) return false;
+        synchronized (gatherLock) {
+            long needed = quantity;
+            long[] taken = new long[mask + 1];
+            for (int i = 0; i <= mask && needed > 0; i++) {
+                int cell = (home + i) & mask;
+                int at = cell * PAD;
+                long current = cells.get(at);
+                while (current > 0) {
+                    long take = Math.min(current, needed);
+                    if (cells.compareAndSet(at, current, current - take)) {
+                        taken[cell] = take;
+                        needed -= take;
+                        break;
+                    }
+                    current = cells.get(at);
+                }
+            }
+            if (needed == 0) return true;
+            for (int cell = 0; cell <= mask; cell++) {
+                if (taken[cell] > 0) cells.getAndAdd(cell * PAD, taken[cell]);
+            }
+            return false;
+        }
+    }
+
+    // Fixed per thread, so a thread keeps releasing into and reserving from the same cell
+    private int home() {
+        int h = (int) Thread.currentThread().getId() * 0x9E3779B9;
+        return (h >>> 16) & mask;
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.metrics;
+
+import org.example.model.Money;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of every {@link MeteredCart} sharing this instance: operation
+ * counts, latencies, the number of lines carts hold at checkout, and the
+ * amounts checked out. Amounts are in minor units (cents) whatever the
+ * currency.
+ */
+public final class CartMetrics extends Subsystem {
+    private final LongAdder adds = counter("adds");
+    private final LongAdder removes = counter("removes");
+    private final LongAdder batches = counter("batches");
+    private final LongAdder merges = counter("merges");
+    private final LongAdder subtotals = counter("subtotals");
+    private final LongAdder checkouts = counter("checkouts");
+    private final LongAdder checkoutTotal = counter("checkout.total");
+    private final Histogram checkoutAmount = histogram("checkout.amount");
+    private final Histogram checkoutLines = histogram("checkout.lines");
+    private final Histogram addNanos = histogram("add.nanos");
+    private final Histogram removeNanos = histogram("remove.nanos");
+    private final Histogram checkoutNanos = histogram("checkout.nanos");
+
+    public CartMetrics() {
+        super("cart");
+    }
+
+    // getters
+    public long getAdds()           { return adds.sum(); }
+    public long getRemoves()        { return removes.sum(); }
+    public long getCheckouts()      { return checkouts.sum(); }
+
+    /**
+     * @return sum of every checked-out amount, in minor units
+     */
+    public long getCheckoutTotal()  { return checkoutTotal.sum(); }
+
+    /**
+     * @return distribution of the number of lines in a cart at checkout
+     */
+    public Histogram getCheckoutLines()  { return checkoutLines; }
+
+    /**
+     * @return distribution of checked-out amounts, in minor units
+     */
+    public Histogram getCheckoutAmounts() { return checkoutAmount; }
+
+    public Histogram getAddNanos()       { return addNanos; }
+    public Histogram getRemoveNanos()    { return removeNanos; }
+    public Histogram getCheckoutNanos()  { return checkoutNanos; }
+
+    void added(long start) {
+        if (!counting()) return;
+        adds.increment();
+        stopTimer(addNanos, start);
+    }
+
+    void removed(long start) {
+        if (!counting()) return;
+        removes.increment();
+        stopTimer(removeNanos, start);
+    }
+
+    void batchApplied() {
+        if (counting()) batches.increment();
+    }
+
+    void merged() {
+        if (counting()) merges.increment();
+    }
+
+    void subtotalRead() {
+        if (counting()) subtotals.increment();
+    }
+
+    void checkedOut(int lines, Money total, long start) {
+        if (!counting()) return;
+        checkouts.increment();
+        checkoutTotal.add(total.getMinorUnits());
+        checkoutAmount.record(total.getMinorUnits());
+        checkoutLines.record(lines);
+        stopTimer(checkoutNanos, start);
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of every {@link MeteredCatalog} sharing this instance: SKU and
+ * name lookups split into hits and misses, searches, browses, writes and
+ * lookup latencies.
+ */
+public final class CatalogMetrics extends Subsystem {
+    private final LongAdder skuHits = counter("sku.hits");
+    private final LongAdder skuMisses = counter("sku.misses");
+    private final LongAdder nameHits = counter("name.hits");
+    private final LongAdder nameMisses = counter("name.misses");
+    private final LongAdder searches = counter("searches");
+    private final LongAdder browses = counter("browses");
+    private final LongAdder writes = counter("writes");
+    private final Histogram skuNanos = histogram("sku.nanos");
+    private final Histogram searchNanos = histogram("search.nanos");
+
+    public CatalogMetrics() {
+        super("catalog");
+        gauge("sku.hitRatio", this::getSkuHitRatio);
+    }
+
+    // getters
+    public long getSkuHits()     { return skuHits.sum(); }
+    public long getSkuMisses()   { return skuMisses.sum(); }
+    public long getNameHits()    { return nameHits.sum(); }
+    public long getNameMisses()  { return nameMisses.sum(); }
+    public long getSearches()    { return searches.sum(); }
+    public long getBrowses()     { return browses.sum(); }
+    public long getWrites()      { return writes.sum(); }
+
+    public Histogram getSkuNanos()     { return skuNanos; }
+    public Histogram getSearchNanos()  { return searchNanos; }
+
+    /**
+     * @return share of SKU lookups that found an item, 0 to 1; 0 before any lookup
+     */
+    public double getSkuHitRatio() {
+        long hits = skuHits.sum();
+        long lookups = hits + skuMisses.sum();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    void skuLookup(boolean hit, long start) {
+        if (!counting()) return;
+        (hit ? skuHits : skuMisses).increment();
+        stopTimer(skuNanos, start);
+    }
+
+    void nameLookup(boolean hit) {
+        if (counting()) (hit ? nameHits : nameMisses).increment();
+    }
+
+    void searched(long start) {
+        if (!counting()) return;
+        searches.increment();
+        stopTimer(searchNanos, start);
+    }
+
+    void browsed() {
+        if (counting()) browses.increment();
+    }
+
+    void written() {
+        if (counting()) writes.increment();
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear histogram of non-negative longs, in the style of
+ * HdrHistogram: each power of two is split into 64 buckets, so any recorded
+ * value is reported within about 1.6% whatever its size.
+ *
+ * <p>Any number of threads may record at once. Recording is one atomic
+ * increment of the value's bucket, plus a compare-and-set on the rare call
+ * that raises the maximum; it never allocates or blocks. Reads scan the
+ * buckets and may see some of the recordings that happen meanwhile.</p>
+ */
+public final class Histogram {
+    private static final int SUB_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    /** Number of buckets, enough to cover every non-negative long */
+    public static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param value value to record; negative values are recorded as 0
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts.getAndIncrement(bucketOf(v));
+        long seen = max.get();
+        while (v > seen && !max.compareAndSet(seen, v)) {
+            seen = max.get();
+        }
+    }
+
+    /**
+     * @return number of values recorded
+     */
+    public long count() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * @return largest value recorded, exactly; 0 when empty
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * @param percentile 0 to 100
+     * @return the value at that percentile, the upper end of its bucket; 0 when empty
+     * @throws IllegalArgumentException when {@code percentile} is outside 0 to 100
+     */
+    public long valueAt(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) throw new IllegalArgumentException("percentile 0 to 100 required");
+        long total = count();
+        if (total == 0) return 0;
+        long top = max.get();
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(top, bucketMax(i));
+        }
+        return top;
+    }
+
+    /**
+     * Empties the histogram. Values recorded while this runs may or may not survive.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        max.set(0);
+    }
+
+    /**
+     * Values below 64 get a bucket each; above that, bucket = 64 * (magnitude - 5) + next 6 bits.
+     *
+     * @param value a non-negative value
+     * @return the bucket {@code value} is counted in
+     */
+    public static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (magnitude - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (magnitude - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * @param bucket 0 to {@link #BUCKETS} - 1
+     * @return the largest value counted in {@code bucket}
+     */
+    public static long bucketMax(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int magnitude = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long sub = bucket & (SUB_BUCKETS - 1);
+        long low = (1L << magnitude) | (sub << (magnitude - SUB_BITS));
+        return low + (1L << (magnitude - SUB_BITS)) - 1;
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.metrics;
+
+/**
+ * How much a {@link Subsystem} records, switchable at runtime.
+ */
+public enum Level {
+    /** Nothing is recorded; instrumented calls only read the level */
+    OFF,
+    /** Counters, hit/miss and size/amount distributions, but no clock reads */
+    COUNT,
+    /** Everything in COUNT plus latency histograms, two System.nanoTime() reads per call */
+    TIME;
+
+    /**
+     * @param text level name, in any case
+     * @return the matching level
+     * @throws IllegalArgumentException when {@code text} names no level
+     */
+    public static Level parse(String text) {
+        if (text != null) {
+            for (Level level : values()) {
+                if (level.name().equalsIgnoreCase(text.trim())) return level;
+            }
+        }
+        throw new IllegalArgumentException("unknown metrics level " + text + ", expected off, count or time");
+    }
+}
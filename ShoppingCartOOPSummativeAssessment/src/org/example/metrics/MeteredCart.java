@@ -0,0 +1,122 @@
+package org.example.metrics;
+
+import org.example.cart.Cart;
+import org.example.cart.CartDelta;
+import org.example.cart.MergePolicy;
+import org.example.model.CartLine;
+import org.example.model.Item;
+import org.example.model.Money;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Wraps a cart and records its operations into a {@link CartMetrics}.
+ * Only calls that succeed are recorded.
+ *
+ * <p>At {@link Level#COUNT} an operation costs one extra counter increment;
+ * at {@link Level#OFF} it costs one volatile read. Thread-safe exactly when
+ * the wrapped cart is.</p>
+ */
+public class MeteredCart implements Cart {
+    private final Cart delegate;
+    private final CartMetrics metrics;
+
+    /**
+     * @param delegate the cart to wrap
+     * @param metrics where to record, usually shared by many carts
+     * @throws IllegalArgumentException when an argument is null
+     */
+    public MeteredCart(Cart delegate, CartMetrics metrics) {
+        if (delegate == null) throw new IllegalArgumentException("cart required");
+        if (metrics == null) throw new IllegalArgumentException("metrics required");
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public List<CartLine> getLines() {
+        return delegate.getLines();
+    }
+
+    @Override
+    public void forEachLine(ObjIntConsumer<Item> action) {
+        delegate.forEachLine(action);
+    }
+
+    @Override
+    public int quantityOf(Item item) {
+        return delegate.quantityOf(item);
+    }
+
+    @Override
+    public void addItemToCart(Item item, int quantity) {
+        long start = metrics.startTimer();
+        delegate.addItemToCart(item, quantity);
+        metrics.added(start);
+    }
+
+    @Override
+    public void removeItemFromCart(Item item, int quantity) {
+        long start = metrics.startTimer();
+        delegate.removeItemFromCart(item, quantity);
+        metrics.removed(start);
+    }
+
+    @Override
+    public BigDecimal getSubtotal() {
+        BigDecimal subtotal = delegate.getSubtotal();
+        metrics.subtotalRead();
+        return subtotal;
+    }
+
+    @Override
+    public Money getSubtotalMoney() {
+        Money subtotal = delegate.getSubtotalMoney();
+        metrics.subtotalRead();
+        return subtotal;
+    }
+
+    /**
+     * BigDecimal adapter for {@link #checkoutMoney()}
+     */
+    @Override
+    public BigDecimal checkout() {
+        return checkoutMoney().toBigDecimal();
+    }
+
+    /**
+     * Records the amount and the number of lines checked out. The lines are
+     * counted just before the wrapped checkout, so if another thread changes
+     * the cart in between the count can be off by its change.
+     */
+    @Override
+    public Money checkoutMoney() {
+        int lines = metrics.counting() ? countLines() : 0;
+        long start = metrics.startTimer();
+        Money total = delegate.checkoutMoney();
+        metrics.checkedOut(lines, total, start);
+        return total;
+    }
+
+    @Override
+    public List<CartLine> applyAll(List<CartDelta> deltas) {
+        List<CartLine> lines = delegate.applyAll(deltas);
+        metrics.batchApplied();
+        return lines;
+    }
+
+    @Override
+    public void mergeFrom(Cart other, MergePolicy policy) {
+        if (other == this) throw new IllegalArgumentException("cannot merge a cart into itself");
+        delegate.mergeFrom(other, policy);
+        metrics.merged();
+    }
+
+    private int countLines() {
+        int[] lines = {0};
+        delegate.forEachLine((item, quantity) -> lines[0]++);
+        return lines[0];
+    }
+}
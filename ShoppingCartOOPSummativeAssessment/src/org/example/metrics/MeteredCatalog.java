@@ -0,0 +1,85 @@
+package org.example.metrics;
+
+import org.example.catalog.Catalog;
+import org.example.catalog.Page;
+import org.example.model.Item;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Wraps a catalog and records its lookups into a {@link CatalogMetrics}.
+ * A lookup that returns null counts as a miss. Listing the whole catalog
+ * isn't recorded.
+ *
+ * <p>Thread-safe exactly when the wrapped catalog is.</p>
+ */
+public class MeteredCatalog implements Catalog {
+    private final Catalog delegate;
+    private final CatalogMetrics metrics;
+
+    /**
+     * @param delegate the catalog to wrap
+     * @param metrics where to record
+     * @throws IllegalArgumentException when an argument is null
+     */
+    public MeteredCatalog(Catalog delegate, CatalogMetrics metrics) {
+        if (delegate == null) throw new IllegalArgumentException("catalog required");
+        if (metrics == null) throw new IllegalArgumentException("metrics required");
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public List<Item> getCatalogItems() {
+        return delegate.getCatalogItems();
+    }
+
+    @Override
+    public void addItemToCatalog(Item item) {
+        delegate.addItemToCatalog(item);
+        metrics.written();
+    }
+
+    @Override
+    public void removeItemFromCatalog(Item item) {
+        delegate.removeItemFromCatalog(item);
+        metrics.written();
+    }
+
+    @Override
+    public void upsertAll(Collection<Item> items) {
+        delegate.upsertAll(items);
+        metrics.written();
+    }
+
+    @Override
+    public Item findItemByName(String itemName) {
+        Item item = delegate.findItemByName(itemName);
+        metrics.nameLookup(item != null);
+        return item;
+    }
+
+    @Override
+    public Item findItemBySKU(String sku) {
+        long start = metrics.startTimer();
+        Item item = delegate.findItemBySKU(sku);
+        metrics.skuLookup(item != null, start);
+        return item;
+    }
+
+    @Override
+    public Page<Item> searchByName(String query, int offset, int limit) {
+        long start = metrics.startTimer();
+        Page<Item> page = delegate.searchByName(query, offset, limit);
+        metrics.searched(start);
+        return page;
+    }
+
+    @Override
+    public Page<Item> browse(String afterSku, int limit) {
+        Page<Item> page = delegate.browse(afterSku, limit);
+        metrics.browsed();
+        return page;
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The application's metrics: one {@link CartMetrics} and one
+ * {@link CatalogMetrics}, each with its own runtime level. Published as
+ * JMX MBeans named {@code <domain>:type=Metrics,subsystem=<name>} and
+ * readable as plain text through {@link #dump(Appendable)}.
+ */
+public class Metrics {
+    public static final String DEFAULT_DOMAIN = "org.example";
+
+    private final CartMetrics cart = new CartMetrics();
+    private final CatalogMetrics catalog = new CatalogMetrics();
+
+    public CartMetrics cart()        { return cart; }
+    public CatalogMetrics catalog()  { return catalog; }
+
+    /**
+     * @return every subsystem, in dump order
+     */
+    public List<Subsystem> subsystems() {
+        return List.of(cart, catalog);
+    }
+
+    /**
+     * @param name subsystem name, such as {@code cart}
+     * @return the subsystem called {@code name}
+     * @throws IllegalArgumentException when there is no such subsystem
+     */
+    public Subsystem subsystem(String name) {
+        for (Subsystem subsystem : subsystems()) {
+            if (subsystem.getName().equals(name)) return subsystem;
+        }
+        throw new IllegalArgumentException("no metrics subsystem " + name);
+    }
+
+    /**
+     * Sets the level of every subsystem.
+     */
+    public void setLevel(Level level) {
+        for (Subsystem subsystem : subsystems()) subsystem.setLevel(level);
+    }
+
+    /**
+     * Registers one MBean per subsystem.
+     *
+     * @param server usually {@code ManagementFactory.getPlatformMBeanServer()}
+     * @param domain ObjectName domain, such as {@link #DEFAULT_DOMAIN}
+     * @throws JMException when a name is taken or invalid
+     */
+    public void registerMBeans(MBeanServer server, String domain) throws JMException {
+        for (Subsystem subsystem : subsystems()) {
+            server.registerMBean(new SubsystemMBean(subsystem), objectName(domain, subsystem));
+        }
+    }
+
+    /**
+     * Unregisters the MBeans {@link #registerMBeans} registered.
+     */
+    public void unregisterMBeans(MBeanServer server, String domain) throws JMException {
+        for (Subsystem subsystem : subsystems()) {
+            ObjectName name = objectName(domain, subsystem);
+            if (server.isRegistered(name)) server.unregisterMBean(name);
+        }
+    }
+
+    /**
+     * Writes every subsystem's level and values, one value per line.
+     */
+    public void dump(Appendable out) throws IOException {
+        for (Subsystem subsystem : subsystems()) {
+            out.append(subsystem.getName()).append(" [").append(subsystem.getLevel().name().toLowerCase()).append("]\n");
+            for (Map.Entry<String, Number> value : subsystem.values().entrySet()) {
+                out.append("  ").append(value.getKey());
+                for (int pad = value.getKey().length(); pad < 24; pad++) out.append(' ');
+                Number number = value.getValue();
+                out.append(number instanceof Double ? String.format("%.4f", number.doubleValue()) : number.toString());
+                out.append('\n');
+            }
+        }
+    }
+
+    /**
+     * @return {@link #dump(Appendable)} as a string
+     */
+    public String dump() {
+        StringBuilder out = new StringBuilder();
+        try {
+            dump(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);      // StringBuilder doesn't throw
+        }
+        return out.toString();
+    }
+
+    private static ObjectName objectName(String domain, Subsystem subsystem) throws JMException {
+        return new ObjectName(domain + ":type=Metrics,subsystem=" + subsystem.getName());
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * The metrics of one part of the application, with a {@link Level} that can
+ * be changed at runtime without touching the instrumented objects.
+ *
+ * <p>The starting level comes from the system property
+ * {@code metrics.<name>} ({@code off}, {@code count} or {@code time}) and
+ * defaults to {@code count}. Subclasses create their counters and
+ * histograms through this class, so every value shows up, in creation
+ * order, in {@link #values()}, the text dump and JMX.</p>
+ */
+public abstract class Subsystem {
+    private final String name;
+    private final Map<String, Supplier<? extends Number>> values = new LinkedHashMap<>();
+    private final List<LongAdder> counters = new ArrayList<>();
+    private final List<Histogram> histograms = new ArrayList<>();
+    private volatile Level level;
+
+    Subsystem(String name) {
+        this.name = name;
+        this.level = Level.parse(System.getProperty("metrics." + name, "count"));
+    }
+
+    public String getName()  { return name; }
+    public Level getLevel()  { return level; }
+
+    /**
+     * @param level how much to record from now on
+     * @throws IllegalArgumentException when {@code level} is null
+     */
+    public void setLevel(Level level) {
+        if (level == null) throw new IllegalArgumentException("level required");
+        this.level = level;
+    }
+
+    /**
+     * @return current value of every counter, gauge and histogram summary, by name
+     */
+    public Map<String, Number> values() {
+        Map<String, Number> snapshot = new LinkedHashMap<>();
+        for (Map.Entry<String, Supplier<? extends Number>> value : values.entrySet()) {
+            snapshot.put(value.getKey(), value.getValue().get());
+        }
+        return snapshot;
+    }
+
+    /**
+     * @return names of the values, in the order {@link #values()} lists them
+     */
+    public List<String> valueNames() {
+        return Collections.unmodifiableList(new ArrayList<>(values.keySet()));
+    }
+
+    /**
+     * @param valueName name from {@link #valueNames()}
+     * @return the value's current reading, or null when there is no such value
+     */
+    public Number value(String valueName) {
+        Supplier<? extends Number> value = values.get(valueName);
+        return value == null ? null : value.get();
+    }
+
+    /**
+     * Zeroes every counter and histogram. The level is left as it is.
+     */
+    public void reset() {
+        for (LongAdder counter : counters) counter.reset();
+        for (Histogram histogram : histograms) histogram.reset();
+    }
+
+    final LongAdder counter(String valueName) {
+        LongAdder counter = new LongAdder();
+        counters.add(counter);
+        values.put(valueName, counter::sum);
+        return counter;
+    }
+
+    final Histogram histogram(String valueName) {
+        Histogram histogram = new Histogram();
+        histograms.add(histogram);
+        values.put(valueName + ".count", histogram::count);
+        values.put(valueName + ".p50", () -> histogram.valueAt(50));
+        values.put(valueName + ".p99", () -> histogram.valueAt(99));
+        values.put(valueName + ".p999", () -> histogram.valueAt(99.9));
+        values.put(valueName + ".max", histogram::max);
+        return histogram;
+    }
+
+    final void gauge(String valueName, Supplier<? extends Number> gauge) {
+        values.put(valueName, gauge);
+    }
+
+    // Hot path helpers. A zero start means the call wasn't timed.
+
+    final boolean counting() {
+        return level != Level.OFF;
+    }
+
+    final long startTimer() {
+        return level == Level.TIME ? System.nanoTime() : 0;
+    }
+
+    static void stopTimer(Histogram latency, long start) {
+        if (start != 0) latency.record(System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.metrics;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.InvalidAttributeValueException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.ReflectionException;
+import java.util.List;
+
+/**
+ * Exposes a {@link Subsystem} over JMX: a writable {@code Level} attribute,
+ * one read-only attribute per value and a {@code reset} operation.
+ */
+final class SubsystemMBean implements DynamicMBean {
+    static final String LEVEL = "Level";
+
+    private final Subsystem subsystem;
+
+    SubsystemMBean(Subsystem subsystem) {
+        this.subsystem = subsystem;
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        if (LEVEL.equals(attribute)) return subsystem.getLevel().name();
+        Number value = subsystem.value(attribute);
+        if (value == null) throw new AttributeNotFoundException(attribute);
+        return value;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException, InvalidAttributeValueException {
+        if (!LEVEL.equals(attribute.getName())) throw new AttributeNotFoundException(attribute.getName() + " is read-only");
+        try {
+            subsystem.setLevel(Level.parse(String.valueOf(attribute.getValue())));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidAttributeValueException(e.getMessage());
+        }
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        AttributeList list = new AttributeList();
+        for (String name : attributes) {
+            try {
+                list.add(new Attribute(name, getAttribute(name)));
+            } catch (AttributeNotFoundException e) {
+                // left out, as the DynamicMBean contract asks
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        AttributeList set = new AttributeList();
+        for (Attribute attribute : attributes.asList()) {
+            try {
+                setAttribute(attribute);
+                set.add(attribute);
+            } catch (AttributeNotFoundException | InvalidAttributeValueException e) {
+                // left out, as the DynamicMBean contract asks
+            }
+        }
+        return set;
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        if (!"reset".equals(actionName) || (params != null && params.length > 0)) {
+            throw new ReflectionException(new NoSuchMethodException(actionName));
+        }
+        subsystem.reset();
+        return null;
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        List<String> names = subsystem.valueNames();
+        MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[names.size() + 1];
+        attributes[0] = new MBeanAttributeInfo(LEVEL, String.class.getName(),
+                "off, count or time", true, true, false);
+        for (int i = 0; i < names.size(); i++) {
+            Number value = subsystem.value(names.get(i));
+            String type = value instanceof Double ? Double.class.getName() : Long.class.getName();
+            attributes[i + 1] = new MBeanAttributeInfo(names.get(i), type, names.get(i), true, false, false);
+        }
+        MBeanOperationInfo reset = new MBeanOperationInfo("reset", "zero every counter and histogram",
+                null, "void", MBeanOperationInfo.ACTION);
+        return new MBeanInfo(Subsystem.class.getName(), subsystem.getName() + " metrics",
+                attributes, null, new MBeanOperationInfo[] {reset}, null);
+    }
+}
@@ -10,6 +10,9 @@ import java.math.BigDecimal;
  *
  * <p>Quantity is mutable (changes when you add/remove).</p>
  * <p>Item is immutable (price/name/sku don't change).</p>
+ *
+ * <p>Not thread-safe. To display a whole cart without building a string per
+ * line, use CartRenderer.</p>
  */
 public class CartLine {
     private final Item item;   // product (immutable)
@@ -59,7 +62,15 @@ public class CartLine {
      * @return The total price of the item and its quantity
      */
     public BigDecimal getLineTotal() {
-        return item.getUnitPrice().multiply(BigDecimal.valueOf(quantity));
+        return getLineTotalMoney().toBigDecimal();
+    }
+
+    /**
+     * @return The total price of the item and its quantity as fixed-point Money
+     * @throws ArithmeticException if the total overflows
+     */
+    public Money getLineTotalMoney() {
+        return item.getUnitMoney().times(quantity);
     }
 
     @Override
@@ -4,9 +4,12 @@ import java.math.BigDecimal;
 import java.util.Objects;
 
 public class Item {
-    private final String sku;                   // Unique Code, e.g. "MRC"
+    private final String sku;                   // Unique Code, e.g. "MRC"; interned unless built by ofCanonicalSku
     private final String name;
     private final BigDecimal unitPrice;         // Price per unit
+    private final Money unitMoney;              // Same price as fixed-point minor units, used for cart math
+    private final int hash;                     // sku.hashCode(), computed once
+    private int ordinal = -1;                   // shared SkuRegistry ordinal, assigned on first use
 
     /**
      *
@@ -14,24 +17,83 @@ public class Item {
      * @param name Item Name
      * @param unitPrice Price of item
      *
-     * @throws IllegalArgumentException when a parameter is null are the equivalent of "empty"
+     * @throws IllegalArgumentException when a parameter is null are the equivalent of "empty",
+     * or the price has fractions of a cent
      */
     public Item(String sku, String name, BigDecimal unitPrice) {
+        this(sku, name, unitPrice, unitPrice == null ? null : Money.of(unitPrice, Money.DEFAULT_CURRENCY));
+    }
+
+    /**
+     * Builds an Item priced in any currency. A factory rather than a constructor
+     * so {@code new Item(sku, name, null)} stays unambiguous.
+     *
+     * @param sku Identifier code for this Item
+     * @param name Item Name
+     * @param unitPrice Price of item
+     *
+     * @throws IllegalArgumentException when a parameter is null are the equivalent of "empty"
+     */
+    public static Item of(String sku, String name, Money unitPrice) {
+        return new Item(sku, name, unitPrice == null ? null : unitPrice.toBigDecimal(), unitPrice);
+    }
+
+    /**
+     * Like {@link #of(String, String, Money)} for a SKU that is already in
+     * canonical form, e.g. {@link #getSku()} of another Item: trimmed and
+     * upper-case. Skips normalizing and interning it again, which matters to
+     * stores that rebuild Items on every lookup. The SKU is kept as given, so
+     * pass an interned String to keep equality on its identity fast path.
+     *
+     * @throws IllegalArgumentException when a parameter is null are the equivalent of "empty",
+     * or the SKU has surrounding whitespace or lower-case letters
+     */
+    public static Item ofCanonicalSku(String sku, String name, Money unitPrice) {
+        return new Item(sku, name, unitPrice == null ? null : unitPrice.toBigDecimal(), unitPrice, true);
+    }
+
+    private Item(String sku, String name, BigDecimal unitPrice, Money unitMoney) {
+        this(sku, name, unitPrice, unitMoney, false);
+    }
+
+    private Item(String sku, String name, BigDecimal unitPrice, Money unitMoney, boolean canonicalSku) {
         // Basic validation so we don't build bad item
         if (sku == null || sku.isBlank()) throw new IllegalArgumentException("sku required");
         if (name == null || name.isBlank()) throw new IllegalArgumentException("name required");
         if (unitPrice == null || unitPrice.signum() < 0) throw new IllegalArgumentException("price >= 0");
+        if (canonicalSku && !sku.equals(sku.trim().toUpperCase())) {
+            throw new IllegalArgumentException("sku not in canonical form: " + sku);
+        }
 
         // Normalize : SKU upper-case, name trimmed
-        this.sku = sku.trim().toUpperCase();
+        this.sku = canonicalSku ? sku : sku.trim().toUpperCase().intern();
         this.name = name.trim();
         this.unitPrice = unitPrice;
+        this.unitMoney = unitMoney;
+        this.hash = this.sku.hashCode();
     }
 
     // Getters (no setters = immutable)
     public String getSku() { return sku; }
     public String getName() {return name; }
     public BigDecimal getUnitPrice() { return unitPrice; }
+    public Money getUnitMoney() { return unitMoney; }
+
+    /**
+     * Dense ordinal of this Item's SKU in {@link SkuRegistry#shared()}, for
+     * structures that key by int instead of hashing.
+     *
+     * @return the SKU's ordinal; the same for every Item with this SKU
+     */
+    public int getOrdinal() {
+        // Racy single-check: every thread computes the same value, and int writes are atomic
+        int o = ordinal;
+        if (o < 0) {
+            o = SkuRegistry.shared().ordinalOf(sku);
+            ordinal = o;
+        }
+        return o;
+    }
 
     /**
      * Identifies an Item's equivalency by SKU value as it is unique and
@@ -43,7 +105,16 @@ public class Item {
     @Override public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof Item)) return false;
-        return sku.equals(((Item) o).sku);
+        Item other = (Item) o;
+        return hash == other.hash && (sku == other.sku || sku.equals(other.sku));
+    }
+
+    /**
+     * Consistent with {@link #equals(Object)}, so Items can key HashMaps and
+     * HashSets directly. Precomputed from the SKU.
+     */
+    @Override public int hashCode() {
+        return hash;
     }
 
     @Override public String toString() {
@@ -0,0 +1,137 @@
+package org.example.model;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+/**
+ * An amount of money held as a long count of minor units (cents for USD)
+ * plus its currency.
+ *
+ * <p>Immutable. Arithmetic is exact: {@link #plus}, {@link #minus} and
+ * {@link #times} throw ArithmeticException on long overflow instead of
+ * wrapping, and amounts in different currencies can't be combined.</p>
+ */
+public final class Money implements Comparable<Money> {
+    /** Currency used by the sample catalog and by carts unless told otherwise */
+    public static final Currency DEFAULT_CURRENCY = Currency.getInstance("USD");
+
+    private static final Money ZERO_DEFAULT = new Money(0, DEFAULT_CURRENCY);
+
+    private final long minorUnits;
+    private final Currency currency;
+
+    private Money(long minorUnits, Currency currency) {
+        this.minorUnits = minorUnits;
+        this.currency = currency;
+    }
+
+    /**
+     * @param minorUnits amount in the currency's smallest unit, e.g. cents
+     * @param currency currency of the amount
+     * @return the amount as Money
+     * @throws IllegalArgumentException when {@code currency} is null or has no minor unit
+     */
+    public static Money ofMinor(long minorUnits, Currency currency) {
+        if (currency == null) throw new IllegalArgumentException("currency required");
+        if (currency.getDefaultFractionDigits() < 0) throw new IllegalArgumentException("currency has no minor unit: " + currency);
+        if (minorUnits == 0 && currency == DEFAULT_CURRENCY) return ZERO_DEFAULT;
+        return new Money(minorUnits, currency);
+    }
+
+    /**
+     * @param amount amount in major units, e.g. dollars
+     * @param currency currency of the amount
+     * @return the amount as Money
+     * @throws IllegalArgumentException when {@code amount} is null or has more decimal
+     * places than the currency allows (e.g. 0.899 USD)
+     */
+    public static Money of(BigDecimal amount, Currency currency) {
+        if (amount == null) throw new IllegalArgumentException("amount required");
+        if (currency == null) throw new IllegalArgumentException("currency required");
+        try {
+            return ofMinor(amount.movePointRight(currency.getDefaultFractionDigits()).longValueExact(), currency);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("amount doesn't fit in " + currency + " minor units: " + amount);
+        }
+    }
+
+    /**
+     * @param currency currency of the amount
+     * @return zero in {@code currency}
+     */
+    public static Money zero(Currency currency) {
+        return ofMinor(0, currency);
+    }
+
+    // getters
+    public long getMinorUnits() { return minorUnits; }
+    public Currency getCurrency() { return currency; }
+
+    /**
+     * @throws ArithmeticException on overflow
+     * @throws IllegalArgumentException when {@code other} is in another currency
+     */
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    /**
+     * @throws ArithmeticException on overflow
+     * @throws IllegalArgumentException when {@code other} is in another currency
+     */
+    public Money minus(Money other) {
+        requireSameCurrency(other);
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    /**
+     * @param quantity how many of this amount
+     * @throws ArithmeticException on overflow
+     */
+    public Money times(long quantity) {
+        return ofMinor(Math.multiplyExact(minorUnits, quantity), currency);
+    }
+
+    public boolean isZero() { return minorUnits == 0; }
+
+    /**
+     * Adapter for code that still works in BigDecimal.
+     *
+     * @return this amount in major units with the currency's scale, e.g. 5.27
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, currency.getDefaultFractionDigits());
+    }
+
+    /**
+     * @throws IllegalArgumentException when {@code other} is in another currency
+     */
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Money)) return false;
+        Money other = (Money) o;
+        return minorUnits == other.minorUnits && currency.equals(other.currency);
+    }
+
+    @Override public int hashCode() {
+        return Long.hashCode(minorUnits) * 31 + currency.hashCode();
+    }
+
+    @Override public String toString() {
+        return toBigDecimal().toPlainString() + " " + currency.getCurrencyCode();
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (other == null) throw new IllegalArgumentException("money required");
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("currency mismatch: " + currency + " vs " + other.currency);
+        }
+    }
+}
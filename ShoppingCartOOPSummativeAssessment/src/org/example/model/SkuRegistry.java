@@ -0,0 +1,43 @@
+package org.example.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out a dense int ordinal (0, 1, 2, ...) for every SKU it sees.
+ *
+ * <p>Ordinals let compact data structures key by an int instead of hashing
+ * a String on every call. Once assigned, an ordinal never changes.</p>
+ */
+public final class SkuRegistry {
+    private static final SkuRegistry SHARED = new SkuRegistry();
+
+    private final ConcurrentHashMap<String, Integer> ordinals = new ConcurrentHashMap<>();
+
+    /**
+     * @return the registry shared by the whole process
+     */
+    public static SkuRegistry shared() {
+        return SHARED;
+    }
+
+    /**
+     * @param sku normalized SKU, as returned by {@link Item#getSku()}
+     * @return the ordinal for {@code sku}, assigning the next free one if it is new
+     * @throws IllegalArgumentException when {@code sku} is null
+     */
+    public int ordinalOf(String sku) {
+        if (sku == null) throw new IllegalArgumentException("sku required");
+        Integer ordinal = ordinals.get(sku);
+        if (ordinal != null) return ordinal;
+        synchronized (this) {
+            return ordinals.computeIfAbsent(sku, key -> ordinals.size());
+        }
+    }
+
+    /**
+     * @return how many SKUs have been assigned an ordinal
+     */
+    public int size() {
+        return ordinals.size();
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.order;
+
+import org.example.cart.Cart;
+import org.example.catalog.Catalog;
+import org.example.model.Item;
+import org.example.model.Money;
+
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+
+/**
+ * Immutable snapshot of one checkout: who placed it, when, and every line
+ * with the price paid. Orders get their id from the {@link OrderHistory}
+ * that records them.
+ */
+public final class Order {
+    private final long orderId;
+    private final String customerId;
+    private final long placedAt;
+    private final List<OrderLine> lines;
+    private final Money subtotal;
+
+    /**
+     * @param orderId id given by the order history, greater than 0
+     * @param customerId who placed the order
+     * @param placedAt epoch milliseconds
+     * @param lines what was bought; must all be priced in the same currency
+     * @throws IllegalArgumentException when the id isn't positive, the
+     * customer is blank, there are no lines or they mix currencies
+     */
+    public Order(long orderId, String customerId, long placedAt, List<OrderLine> lines) {
+        if (orderId < 1) throw new IllegalArgumentException("order id > 0 required");
+        if (customerId == null || customerId.isBlank()) throw new IllegalArgumentException("customer id required");
+        if (lines == null || lines.isEmpty()) throw new IllegalArgumentException("an order needs at least one line");
+        Currency currency = lines.get(0).getUnitPrice().getCurrency();
+        Money total = Money.zero(currency);
+        for (OrderLine line : lines) {
+            if (!line.getUnitPrice().getCurrency().equals(currency)) {
+                throw new IllegalArgumentException("order lines mix " + currency + " and " + line.getUnitPrice().getCurrency());
+            }
+            total = total.plus(line.getLineTotal());
+        }
+        this.orderId = orderId;
+        this.customerId = customerId;
+        this.placedAt = placedAt;
+        this.lines = List.copyOf(lines);
+        this.subtotal = total;
+    }
+
+    // getters
+    public long getOrderId()          { return orderId; }
+    public String getCustomerId()     { return customerId; }
+    public long getPlacedAt()         { return placedAt; }
+    public List<OrderLine> getLines() { return lines; }
+    public Money getSubtotal()        { return subtotal; }
+    public Currency getCurrency()     { return subtotal.getCurrency(); }
+
+    /**
+     * @return number of units across every line
+     */
+    public int getItemCount() {
+        int count = 0;
+        for (OrderLine line : lines) count += line.getQuantity();
+        return count;
+    }
+
+    /**
+     * Puts this order's basket back into a cart at today's catalog prices.
+     *
+     * @param cart cart to add to
+     * @param catalog where to look up each SKU's current item
+     * @return the lines whose SKU the catalog no longer has; they weren't added
+     */
+    public List<OrderLine> addTo(Cart cart, Catalog catalog) {
+        if (cart == null) throw new IllegalArgumentException("cart required");
+        if (catalog == null) throw new IllegalArgumentException("catalog required");
+        List<OrderLine> missing = new ArrayList<>();
+        for (OrderLine line : lines) {
+            Item item = catalog.findItemBySKU(line.getSku());
+            if (item == null) missing.add(line);
+            else cart.addItemToCart(item, line.getQuantity());
+        }
+        return missing;
+    }
+
+    @Override public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Order)) return false;
+        Order other = (Order) o;
+        return orderId == other.orderId && placedAt == other.placedAt && customerId.equals(other.customerId)
+                && lines.equals(other.lines);
+    }
+
+    @Override public int hashCode() {
+        return Long.hashCode(orderId);
+    }
+
+    @Override public String toString() {
+        return "order " + orderId + " for " + customerId + ": " + lines.size() + " lines, " + subtotal;
+    }
+}
@@ -0,0 +1,373 @@
+package org.example.order;
+
+import org.example.codec.Varint;
+import org.example.model.Money;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+/**
+ * Header of one block of the order log, plus the columnar encoding of the
+ * orders in it.
+ *
+ * <p>Block layout (big-endian):</p>
+ * <p>- header, {@value #HEADER_BYTES} bytes: magic, format version, order count,
+ * first order id, earliest and latest placedAt, then length, uncompressed
+ * length and CRC32 of the keys section, and the same three for the lines section</p>
+ * <p>- keys section, deflated: customer dictionary, a column of customer
+ * numbers and a column of placedAt deltas</p>
+ * <p>- lines section, deflated: currency and item dictionaries, columns of
+ * currency number and line count per order, then columns of item number,
+ * unit price and quantity per line</p>
+ *
+ * <p>Order ids in a block run on from the first without gaps. Integers are
+ * varints and repeated strings go through per-block dictionaries, so each
+ * column holds small, similar numbers that deflate well. Customers and
+ * times have a section of their own so {@link OrderHistory} can rebuild
+ * its indexes without inflating any lines.</p>
+ */
+final class OrderBlock {
+    static final int MAGIC = 0x4F524442;           // "ORDB"
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 60;
+
+    final long offset;
+    final int count;
+    final long firstOrderId;
+    final long minPlacedAt;
+    final long maxPlacedAt;
+    private final int keysLength;
+    private final int keysRawLength;
+    private final int keysCrc;
+    private final int linesLength;
+    private final int linesRawLength;
+    private final int linesCrc;
+
+    private OrderBlock(long offset, ByteBuffer header) {
+        int at = header.position();
+        if (header.getInt(at) != MAGIC) throw new IllegalArgumentException("not an order block");
+        if (header.getInt(at + 4) != FORMAT_VERSION) {
+            throw new IllegalArgumentException("unsupported order block version " + header.getInt(at + 4));
+        }
+        this.offset = offset;
+        this.count = header.getInt(at + 8);
+        this.firstOrderId = header.getLong(at + 12);
+        this.minPlacedAt = header.getLong(at + 20);
+        this.maxPlacedAt = header.getLong(at + 28);
+        this.keysLength = header.getInt(at + 36);
+        this.keysRawLength = header.getInt(at + 40);
+        this.keysCrc = header.getInt(at + 44);
+        this.linesLength = header.getInt(at + 48);
+        this.linesRawLength = header.getInt(at + 52);
+        this.linesCrc = header.getInt(at + 56);
+        if (count < 1 || firstOrderId < 1 || keysLength < 0 || keysRawLength < 0 || linesLength < 0 || linesRawLength < 0) {
+            throw new IllegalArgumentException("corrupt order block header");
+        }
+    }
+
+    /**
+     * @param offset where the block starts in the log
+     * @param header at least {@value #HEADER_BYTES} bytes from the buffer's position
+     * @throws IllegalArgumentException when the bytes aren't a block header of a supported version
+     */
+    static OrderBlock readHeader(long offset, ByteBuffer header) {
+        if (header.remaining() < HEADER_BYTES) throw new IllegalArgumentException("truncated order block header");
+        return new OrderBlock(offset, header);
+    }
+
+    /**
+     * @return bytes the whole block takes in the log
+     */
+    long length() {
+        return HEADER_BYTES + (long) keysLength + linesLength;
+    }
+
+    int keysLength() {
+        return keysLength;
+    }
+
+    int sectionsLength() {
+        return keysLength + linesLength;
+    }
+
+    /**
+     * Encodes orders with consecutive ids into one block.
+     *
+     * @param orders at least one order, ids ascending by one
+     * @return the block, positioned at 0 and ready to write
+     */
+    static ByteBuffer encode(List<Order> orders) {
+        byte[] keys = encodeKeys(orders);
+        byte[] lines = encodeLines(orders);
+        byte[] keysDeflated = deflate(keys);
+        byte[] linesDeflated = deflate(lines);
+
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (Order order : orders) {
+            min = Math.min(min, order.getPlacedAt());
+            max = Math.max(max, order.getPlacedAt());
+        }
+        ByteBuffer block = ByteBuffer.allocate(HEADER_BYTES + keysDeflated.length + linesDeflated.length);
+        block.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(orders.size())
+                .putLong(orders.get(0).getOrderId()).putLong(min).putLong(max)
+                .putInt(keysDeflated.length).putInt(keys.length).putInt(crc(keysDeflated))
+                .putInt(linesDeflated.length).putInt(lines.length).putInt(crc(linesDeflated))
+                .put(keysDeflated).put(linesDeflated);
+        return block.flip();
+    }
+
+    /**
+     * Decodes the keys section alone.
+     *
+     * @param keys the deflated keys section, which follows the header
+     * @param customers receives the customer id of each order, in id order
+     * @param placedAt receives the placedAt of each order, in id order
+     * @throws IllegalArgumentException when the section is corrupt
+     */
+    void decodeKeys(ByteBuffer keys, String[] customers, long[] placedAt) {
+        ByteBuffer in = inflate(keys, keysLength, keysRawLength, keysCrc, "keys");
+        String[] dictionary = new String[Varint.readUnsignedInt(in)];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = readString(in);
+        }
+        for (int i = 0; i < count; i++) {
+            customers[i] = dictionary[Varint.readUnsignedInt(in)];
+        }
+        long previous = minPlacedAt;
+        for (int i = 0; i < count; i++) {
+            previous += Varint.readSigned(in);
+            placedAt[i] = previous;
+        }
+    }
+
+    /**
+     * Decodes both sections into columns; orders are only built when asked for.
+     *
+     * @param sections the deflated keys section followed by the deflated lines section
+     * @throws IllegalArgumentException when either section is corrupt
+     */
+    Columns decode(ByteBuffer sections) {
+        Columns columns = new Columns(this);
+        ByteBuffer keys = sections.duplicate();
+        keys.limit(keys.position() + keysLength);
+        decodeKeys(keys, columns.customers, columns.placedAt);
+
+        ByteBuffer linesSection = sections.duplicate();
+        linesSection.position(sections.position() + keysLength);
+        ByteBuffer in = inflate(linesSection, linesLength, linesRawLength, linesCrc, "lines");
+        Currency[] currencies = new Currency[Varint.readUnsignedInt(in)];
+        for (int i = 0; i < currencies.length; i++) {
+            currencies[i] = Currency.getInstance(readString(in));
+        }
+        int itemCount = Varint.readUnsignedInt(in);
+        columns.skus = new String[itemCount];
+        columns.names = new String[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            columns.skus[i] = readString(in);
+            columns.names[i] = readString(in);
+        }
+        for (int i = 0; i < count; i++) {
+            columns.currency[i] = currencies[Varint.readUnsignedInt(in)];
+        }
+        for (int i = 0; i < count; i++) {
+            columns.lineStart[i + 1] = Math.addExact(columns.lineStart[i], Varint.readUnsignedInt(in));
+        }
+        int totalLines = columns.lineStart[count];
+        columns.itemOf = new int[totalLines];
+        for (int i = 0; i < totalLines; i++) columns.itemOf[i] = Varint.readUnsignedInt(in);
+        columns.prices = new long[totalLines];
+        for (int i = 0; i < totalLines; i++) columns.prices[i] = Varint.readSigned(in);
+        columns.quantities = new int[totalLines];
+        for (int i = 0; i < totalLines; i++) columns.quantities[i] = Varint.readUnsignedInt(in);
+        return columns;
+    }
+
+    /**
+     * A decoded block, still in columns. Building an Order from it only
+     * touches that order's rows, so a query that needs one order out of a
+     * block doesn't pay for the rest.
+     */
+    static final class Columns {
+        private final long firstOrderId;
+        private final String[] customers;
+        private final long[] placedAt;
+        private final Currency[] currency;
+        private final int[] lineStart;          // lines of order i are lineStart[i] until lineStart[i + 1]
+        private String[] skus;
+        private String[] names;
+        private int[] itemOf;
+        private long[] prices;
+        private int[] quantities;
+
+        private Columns(OrderBlock block) {
+            this.firstOrderId = block.firstOrderId;
+            this.customers = new String[block.count];
+            this.placedAt = new long[block.count];
+            this.currency = new Currency[block.count];
+            this.lineStart = new int[block.count + 1];
+        }
+
+        int size() {
+            return customers.length;
+        }
+
+        long placedAt(int index) {
+            return placedAt[index];
+        }
+
+        Order order(int index) {
+            List<OrderLine> lines = new ArrayList<>(lineStart[index + 1] - lineStart[index]);
+            for (int line = lineStart[index]; line < lineStart[index + 1]; line++) {
+                int item = itemOf[line];
+                lines.add(new OrderLine(skus[item], names[item], Money.ofMinor(prices[line], currency[index]),
+                        quantities[line]));
+            }
+            return new Order(firstOrderId + index, customers[index], placedAt[index], lines);
+        }
+    }
+
+    private static byte[] encodeKeys(List<Order> orders) {
+        Map<String, Integer> customers = new LinkedHashMap<>();
+        int[] customerOf = new int[orders.size()];
+        for (int i = 0; i < orders.size(); i++) {
+            customerOf[i] = customers.computeIfAbsent(orders.get(i).getCustomerId(), c -> customers.size());
+        }
+        List<byte[]> dictionary = utf8(customers.keySet());
+        ByteBuffer out = ByteBuffer.allocate(Varint.MAX_LONG_BYTES * (1 + 2 * orders.size()) + byteCount(dictionary));
+        Varint.writeUnsigned(out, dictionary.size());
+        for (byte[] customer : dictionary) writeBytes(out, customer);
+        for (int customer : customerOf) Varint.writeUnsigned(out, customer);
+        long previous = Long.MAX_VALUE;
+        for (Order order : orders) previous = Math.min(previous, order.getPlacedAt());
+        for (Order order : orders) {
+            Varint.writeSigned(out, order.getPlacedAt() - previous);
+            previous = order.getPlacedAt();
+        }
+        return trimmed(out);
+    }
+
+    private static byte[] encodeLines(List<Order> orders) {
+        Map<Currency, Integer> currencies = new LinkedHashMap<>();
+        Map<String, Integer> items = new LinkedHashMap<>();
+        List<byte[]> itemStrings = new ArrayList<>();
+        int lineCount = 0;
+        for (Order order : orders) {
+            currencies.computeIfAbsent(order.getCurrency(), c -> currencies.size());
+            for (OrderLine line : order.getLines()) {
+                lineCount++;
+                if (items.putIfAbsent(line.getSku() + '\n' + line.getName(), items.size()) == null) {
+                    itemStrings.add(line.getSku().getBytes(StandardCharsets.UTF_8));
+                    itemStrings.add(line.getName().getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+        ByteBuffer out = ByteBuffer.allocate(Varint.MAX_LONG_BYTES * (2 + currencies.size() * 2 + orders.size() * 2
+                + lineCount * 3) + byteCount(itemStrings));
+        Varint.writeUnsigned(out, currencies.size());
+        for (Currency currency : currencies.keySet()) {
+            writeBytes(out, currency.getCurrencyCode().getBytes(StandardCharsets.US_ASCII));
+        }
+        Varint.writeUnsigned(out, items.size());
+        for (byte[] string : itemStrings) writeBytes(out, string);
+        for (Order order : orders) Varint.writeUnsigned(out, currencies.get(order.getCurrency()));
+        for (Order order : orders) Varint.writeUnsigned(out, order.getLines().size());
+        for (Order order : orders) {
+            for (OrderLine line : order.getLines()) Varint.writeUnsigned(out, items.get(line.getSku() + '\n' + line.getName()));
+        }
+        for (Order order : orders) {
+            for (OrderLine line : order.getLines()) Varint.writeSigned(out, line.getUnitPrice().getMinorUnits());
+        }
+        for (Order order : orders) {
+            for (OrderLine line : order.getLines()) Varint.writeUnsigned(out, line.getQuantity());
+        }
+        return trimmed(out);
+    }
+
+    private static List<byte[]> utf8(Iterable<String> strings) {
+        List<byte[]> bytes = new ArrayList<>();
+        for (String string : strings) bytes.add(string.getBytes(StandardCharsets.UTF_8));
+        return bytes;
+    }
+
+    // Room for each string plus its varint length
+    private static int byteCount(List<byte[]> strings) {
+        int total = 0;
+        for (byte[] string : strings) total = Math.addExact(total, string.length + 5);
+        return total;
+    }
+
+    private static void writeBytes(ByteBuffer out, byte[] bytes) {
+        Varint.writeUnsigned(out, bytes.length);
+        out.put(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = Varint.readUnsignedInt(in);
+        if (length > in.remaining()) throw new IllegalArgumentException("string runs past the end of the section");
+        String string = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return string;
+    }
+
+    private static byte[] trimmed(ByteBuffer out) {
+        byte[] bytes = new byte[out.position()];
+        System.arraycopy(out.array(), 0, bytes, 0, bytes.length);
+        return bytes;
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 3 + 64);
+        Deflater deflater = new Deflater();
+        try (DeflaterOutputStream deflating = new DeflaterOutputStream(out, deflater, 8192)) {
+            deflating.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);      // ByteArrayOutputStream doesn't throw
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    private static ByteBuffer inflate(ByteBuffer deflated, int length, int rawLength, int crc, String section) {
+        if (deflated.remaining() < length) throw new IllegalArgumentException("truncated " + section + " section");
+        ByteBuffer input = deflated.duplicate();
+        input.limit(input.position() + length);
+        CRC32 check = new CRC32();
+        check.update(input.duplicate());
+        if ((int) check.getValue() != crc) throw new IllegalArgumentException("CRC mismatch in " + section + " section");
+        byte[] raw = new byte[rawLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            int inflated = inflater.inflate(raw);
+            if (inflated != rawLength || !inflater.finished()) {
+                throw new IllegalArgumentException(section + " section inflates to the wrong length");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("corrupt " + section + " section: " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+        return ByteBuffer.wrap(raw);
+    }
+
+    private static int crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+}
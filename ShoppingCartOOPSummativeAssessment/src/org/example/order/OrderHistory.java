@@ -0,0 +1,377 @@
+package org.example.order;
+
+import org.example.cart.Cart;
+import org.example.catalog.Catalog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Append-only store of every placed order, kept in one log file of
+ * columnar, compressed blocks (see {@link OrderBlock} for the layout).
+ *
+ * <p>{@link #record} gives each order the next id and keeps it in memory
+ * until {@code blockSize} orders have built up; they are then encoded and
+ * written as one block. {@link #flush()} writes the partial block and forces
+ * the file to disk, so orders recorded since the last flush or full block
+ * are lost if the process dies.</p>
+ *
+ * <p>Indexes live in memory and are rebuilt on {@link #open} from the keys
+ * section of every block, without inflating any order lines:</p>
+ * <p>- by customer: the ids of each customer's orders, oldest first, so the
+ * last N orders are found without a scan</p>
+ * <p>- by time: the earliest and latest placedAt of every block, so a time
+ * range only decodes the blocks it overlaps</p>
+ * <p>- by id: ids within a block are consecutive, so finding the block of
+ * an id is a binary search of the block table</p>
+ *
+ * <p>Decoded blocks are kept, still in columns, in a small LRU cache. A
+ * torn or corrupt block at the end of the file, from a crash mid-write, is
+ * cut off on open along with anything after it. Every method is
+ * synchronized.</p>
+ */
+public class OrderHistory implements Closeable {
+    public static final int DEFAULT_BLOCK_SIZE = 256;
+    private static final int CACHED_BLOCKS = 64;
+    private static final int MAX_PENDING_BLOCKS = 8;   // unwritten blocks' worth of orders before record() gives up
+
+    private final FileChannel channel;
+    private final int blockSize;
+    private final LongSupplier clock;
+    private final List<OrderBlock> blocks = new ArrayList<>();
+    private final Map<String, OrderIds> byCustomer = new HashMap<>();
+    private final List<Order> pending = new ArrayList<>();
+    private final Map<Integer, OrderBlock.Columns> decoded = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override protected boolean removeEldestEntry(Map.Entry<Integer, OrderBlock.Columns> eldest) {
+            return size() > CACHED_BLOCKS;
+        }
+    };
+    private long nextOrderId = 1;
+    private long fileBytes;
+    private long truncatedBytes;
+
+    private OrderHistory(FileChannel channel, int blockSize, LongSupplier clock) {
+        this.channel = channel;
+        this.blockSize = blockSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Opens or creates an order log with the default block size and the system clock.
+     */
+    public static OrderHistory open(Path file) throws IOException {
+        return open(file, DEFAULT_BLOCK_SIZE, System::currentTimeMillis);
+    }
+
+    /**
+     * Opens or creates an order log and rebuilds its indexes.
+     *
+     * @param file log file
+     * @param blockSize orders per block; bigger blocks compress better but cost more to decode
+     * @param clock epoch milliseconds to stamp new orders with
+     * @throws IllegalArgumentException when {@code blockSize} is less than 1 or {@code clock} is null
+     */
+    public static OrderHistory open(Path file, int blockSize, LongSupplier clock) throws IOException {
+        if (blockSize < 1) throw new IllegalArgumentException("block size > 0 required");
+        if (clock == null) throw new IllegalArgumentException("clock required");
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            OrderHistory history = new OrderHistory(channel, blockSize, clock);
+            history.load();
+            return history;
+        } catch (RuntimeException | IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Stamps and stores a new order. It is written to disk with the next
+     * full block or {@link #flush()}. A failed block write isn't thrown
+     * here: the orders stay in memory and are retried, all in one block,
+     * each time another {@code blockSize} orders have built up. Once
+     * {@value #MAX_PENDING_BLOCKS} blocks' worth are waiting, a new order is
+     * only accepted if that retry succeeds, so memory stays bounded while
+     * the log can't be written.
+     *
+     * @param customerId who placed the order
+     * @param lines what was bought
+     * @return the order, with its id and placedAt
+     * @throws IllegalArgumentException when the order is invalid, see {@link Order}
+     * @throws UncheckedIOException when too many orders are waiting and the log still can't be written
+     */
+    public synchronized Order record(String customerId, List<OrderLine> lines) {
+        ensureRoom();
+        return recordAccepted(customerId, lines);
+    }
+
+    /**
+     * Makes sure {@link #record} will take another order: when the cap of
+     * waiting orders has been reached, writes them now. Call it before an
+     * action that can't be undone once the order exists, such as emptying a
+     * cart at checkout.
+     *
+     * @throws UncheckedIOException when the cap has been reached and the log can't be written
+     */
+    public synchronized void ensureRoom() {
+        if (pending.size() < MAX_PENDING_BLOCKS * blockSize) return;
+        try {
+            writePending();
+        } catch (IOException e) {
+            throw new UncheckedIOException("order log can't be written, " + pending.size() + " orders waiting", e);
+        }
+    }
+
+    /**
+     * Like {@link #record} but never refused for the cap, for a caller that
+     * already called {@link #ensureRoom()} and can no longer back out. Only
+     * orders racing in between can take the waiting orders past the cap.
+     */
+    synchronized Order recordAccepted(String customerId, List<OrderLine> lines) {
+        Order order = new Order(nextOrderId, customerId, clock.getAsLong(), lines);
+        nextOrderId++;
+        pending.add(order);
+        index(order.getCustomerId(), order.getOrderId());
+        if (pending.size() % blockSize == 0) {
+            try {
+                writePending();
+            } catch (IOException e) {
+                // kept in pending; retried at the next full block, by flush() or by the cap above
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Writes any orders still held in memory and forces the log to disk.
+     */
+    public synchronized void flush() throws IOException {
+        if (!pending.isEmpty()) writePending();
+        channel.force(false);
+    }
+
+    /**
+     * @return the order with that id, or null when there isn't one
+     * @throws IllegalStateException when the block holding it is corrupt
+     */
+    public synchronized Order getOrder(long orderId) {
+        if (orderId < 1 || orderId >= nextOrderId) return null;
+        long firstPending = nextOrderId - pending.size();
+        if (orderId >= firstPending) return pending.get((int) (orderId - firstPending));
+        int block = blockOf(orderId);
+        return decode(block).order((int) (orderId - blocks.get(block).firstOrderId));
+    }
+
+    /**
+     * @param customerId whose orders to return
+     * @param limit most orders to return
+     * @return the customer's newest orders, newest first; empty for an unknown customer
+     * @throws IllegalArgumentException when {@code limit} is less than 1
+     */
+    public synchronized List<Order> lastOrders(String customerId, int limit) {
+        if (limit < 1) throw new IllegalArgumentException("limit > 0 required");
+        OrderIds ids = byCustomer.get(customerId);
+        if (ids == null) return List.of();
+        List<Order> orders = new ArrayList<>(Math.min(limit, ids.size));
+        for (int i = ids.size - 1; i >= 0 && orders.size() < limit; i--) {
+            orders.add(getOrder(ids.values[i]));
+        }
+        return orders;
+    }
+
+    /**
+     * @return the customer's newest order, or null when they haven't placed one
+     */
+    public synchronized Order lastOrder(String customerId) {
+        List<Order> last = lastOrders(customerId, 1);
+        return last.isEmpty() ? null : last.get(0);
+    }
+
+    /**
+     * @param customerId whose orders to count
+     * @return how many orders the customer has placed
+     */
+    public synchronized int getOrderCount(String customerId) {
+        OrderIds ids = byCustomer.get(customerId);
+        return ids == null ? 0 : ids.size;
+    }
+
+    /**
+     * Orders placed at or after {@code fromMillis} and before {@code toMillis},
+     * in id order. Only blocks whose time range overlaps are decoded.
+     *
+     * @param limit most orders to return
+     * @throws IllegalArgumentException when {@code limit} is less than 1
+     */
+    public synchronized List<Order> placedBetween(long fromMillis, long toMillis, int limit) {
+        if (limit < 1) throw new IllegalArgumentException("limit > 0 required");
+        List<Order> found = new ArrayList<>();
+        for (int b = 0; b < blocks.size() && found.size() < limit; b++) {
+            OrderBlock block = blocks.get(b);
+            if (block.maxPlacedAt < fromMillis || block.minPlacedAt >= toMillis) continue;
+            OrderBlock.Columns columns = decode(b);
+            for (int i = 0; i < columns.size() && found.size() < limit; i++) {
+                if (columns.placedAt(i) >= fromMillis && columns.placedAt(i) < toMillis) found.add(columns.order(i));
+            }
+        }
+        for (int i = 0; i < pending.size() && found.size() < limit; i++) {
+            Order order = pending.get(i);
+            if (order.getPlacedAt() >= fromMillis && order.getPlacedAt() < toMillis) found.add(order);
+        }
+        return found;
+    }
+
+    /**
+     * Adds the customer's previous basket to a cart at current catalog prices.
+     *
+     * @return lines whose SKU is no longer in the catalog; they weren't added
+     * @throws IllegalArgumentException when the customer has no orders
+     */
+    public List<OrderLine> reorder(String customerId, Cart cart, Catalog catalog) {
+        Order last = lastOrder(customerId);
+        if (last == null) throw new IllegalArgumentException("no orders for customer " + customerId);
+        return last.addTo(cart, catalog);
+    }
+
+    // getters
+    public synchronized long getOrderCount()     { return nextOrderId - 1; }
+    public synchronized int getCustomerCount()   { return byCustomer.size(); }
+    public synchronized int getBlockCount()      { return blocks.size(); }
+    public synchronized int getPendingCount()    { return pending.size(); }
+    public synchronized long getFileBytes()      { return fileBytes; }
+
+    /**
+     * @return bytes cut off the end of the log by {@link #open} because they weren't a whole, intact block
+     */
+    public synchronized long getTruncatedBytes() { return truncatedBytes; }
+
+    /**
+     * Flushes, then closes the log.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void load() throws IOException {
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(OrderBlock.HEADER_BYTES);
+        long position = 0;
+        while (position < size) {
+            OrderBlock block = null;
+            if (size - position >= OrderBlock.HEADER_BYTES) {
+                header.clear();
+                readFully(header, position);
+                try {
+                    block = OrderBlock.readHeader(position, header.flip());
+                    if (block.firstOrderId != nextOrderId || position + block.length() > size) block = null;
+                    else indexKeys(block);
+                } catch (IllegalArgumentException e) {
+                    block = null;
+                }
+            }
+            if (block == null) {
+                truncatedBytes = size - position;
+                channel.truncate(position);
+                break;
+            }
+            blocks.add(block);
+            nextOrderId += block.count;
+            position += block.length();
+        }
+        fileBytes = position;
+    }
+
+    private void indexKeys(OrderBlock block) throws IOException {
+        ByteBuffer keys = ByteBuffer.allocate(block.keysLength());
+        readFully(keys, block.offset + OrderBlock.HEADER_BYTES);
+        String[] customers = new String[block.count];
+        long[] placedAt = new long[block.count];
+        block.decodeKeys(keys.flip(), customers, placedAt);
+        for (int i = 0; i < block.count; i++) {
+            index(customers[i], block.firstOrderId + i);
+        }
+    }
+
+    private void index(String customerId, long orderId) {
+        byCustomer.computeIfAbsent(customerId, c -> new OrderIds()).add(orderId);
+    }
+
+    private void writePending() throws IOException {
+        ByteBuffer bytes = OrderBlock.encode(pending);
+        OrderBlock block = OrderBlock.readHeader(fileBytes, bytes.duplicate());
+        long position = fileBytes;
+        while (bytes.hasRemaining()) {
+            position += channel.write(bytes, position);
+        }
+        blocks.add(block);
+        fileBytes = position;
+        pending.clear();
+    }
+
+    private int blockOf(long orderId) {
+        int low = 0;
+        int high = blocks.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (blocks.get(mid).firstOrderId <= orderId) low = mid;
+            else high = mid - 1;
+        }
+        return low;
+    }
+
+    private OrderBlock.Columns decode(int index) {
+        OrderBlock.Columns columns = decoded.get(index);
+        if (columns != null) return columns;
+        OrderBlock block = blocks.get(index);
+        ByteBuffer sections = ByteBuffer.allocate(block.sectionsLength());
+        try {
+            readFully(sections, block.offset + OrderBlock.HEADER_BYTES);
+            columns = block.decode(sections.flip());
+        } catch (IOException e) {
+            throw new UncheckedIOException("reading order block " + index, e);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("order block " + index + " is corrupt: " + e.getMessage(), e);
+        }
+        decoded.put(index, columns);
+        return columns;
+    }
+
+    private void readFully(ByteBuffer into, long position) throws IOException {
+        while (into.hasRemaining()) {
+            int read = channel.read(into, position);
+            if (read < 0) throw new IOException("order log ends early at " + position);
+            position += read;
+        }
+    }
+
+    /**
+     * Growable list of order ids, ascending.
+     */
+    private static final class OrderIds {
+        private long[] values = new long[2];
+        private int size;
+
+        private void add(long id) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = id;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.order;
+
+import org.example.model.Item;
+import org.example.model.Money;
+
+/**
+ * One line of a placed order: the SKU, name and unit price as they were at
+ * checkout, and the quantity bought. Immutable, and independent of later
+ * catalog changes.
+ */
+public final class OrderLine {
+    private final String sku;
+    private final String name;
+    private final Money unitPrice;
+    private final int quantity;
+
+    /**
+     * @throws IllegalArgumentException when a value is missing or blank, the
+     * price is negative or the quantity is less than 1
+     */
+    public OrderLine(String sku, String name, Money unitPrice, int quantity) {
+        if (sku == null || sku.isBlank()) throw new IllegalArgumentException("sku required");
+        if (name == null || name.isBlank()) throw new IllegalArgumentException("name required");
+        if (unitPrice == null || unitPrice.getMinorUnits() < 0) throw new IllegalArgumentException("price >= 0");
+        if (quantity < 1) throw new IllegalArgumentException("quantity > 0 required");
+        this.sku = sku;
+        this.name = name;
+        this.unitPrice = unitPrice;
+        this.quantity = quantity;
+    }
+
+    /**
+     * @return a line for {@code quantity} of {@code item} at its current price
+     */
+    public static OrderLine of(Item item, int quantity) {
+        if (item == null) throw new IllegalArgumentException("item required");
+        return new OrderLine(item.getSku(), item.getName(), item.getUnitMoney(), quantity);
+    }
+
+    // getters
+    public String getSku()       { return sku; }
+    public String getName()      { return name; }
+    public Money getUnitPrice()  { return unitPrice; }
+    public int getQuantity()     { return quantity; }
+
+    public Money getLineTotal() {
+        return unitPrice.times(quantity);
+    }
+
+    @Override public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof OrderLine)) return false;
+        OrderLine other = (OrderLine) o;
+        return quantity == other.quantity && sku.equals(other.sku) && name.equals(other.name)
+                && unitPrice.equals(other.unitPrice);
+    }
+
+    @Override public int hashCode() {
+        return (sku.hashCode() * 31 + unitPrice.hashCode()) * 31 + quantity;
+    }
+
+    @Override public String toString() {
+        return sku + " - " + name + " x" + quantity + " @ " + unitPrice;
+    }
+}
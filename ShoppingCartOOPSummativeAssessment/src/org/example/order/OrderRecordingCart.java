@@ -0,0 +1,128 @@
+package org.example.order;
+
+import org.example.cart.Cart;
+import org.example.cart.CartDelta;
+import org.example.cart.MergePolicy;
+import org.example.model.CartLine;
+import org.example.model.Item;
+import org.example.model.Money;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Wraps a customer's cart and records an {@link Order} in an
+ * {@link OrderHistory} on every checkout that has lines in it.
+ *
+ * <p>The lines are copied just before the wrapped checkout, so the order
+ * only matches what was checked out if nothing else changes the cart
+ * during the checkout. Thread-safe exactly when the wrapped cart is.</p>
+ *
+ * <p>A checkout first makes sure the history will take the order, so when
+ * the order log can't be written the checkout fails before the cart is
+ * emptied and nothing is charged without an order.</p>
+ */
+public class OrderRecordingCart implements Cart {
+    private final String customerId;
+    private final Cart delegate;
+    private final OrderHistory history;
+    private volatile Order lastOrder;
+
+    /**
+     * @param customerId customer every order is recorded for
+     * @param delegate the cart to wrap
+     * @param history where orders are recorded
+     * @throws IllegalArgumentException when an argument is null or the customer id is blank
+     */
+    public OrderRecordingCart(String customerId, Cart delegate, OrderHistory history) {
+        if (customerId == null || customerId.isBlank()) throw new IllegalArgumentException("customer id required");
+        if (delegate == null) throw new IllegalArgumentException("cart required");
+        if (history == null) throw new IllegalArgumentException("order history required");
+        this.customerId = customerId;
+        this.delegate = delegate;
+        this.history = history;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    /**
+     * @return the order recorded by this cart's latest checkout, or null before the first
+     */
+    public Order getLastOrder() {
+        return lastOrder;
+    }
+
+    @Override
+    public List<CartLine> getLines() {
+        return delegate.getLines();
+    }
+
+    @Override
+    public void forEachLine(ObjIntConsumer<Item> action) {
+        delegate.forEachLine(action);
+    }
+
+    @Override
+    public int quantityOf(Item item) {
+        return delegate.quantityOf(item);
+    }
+
+    @Override
+    public void addItemToCart(Item item, int quantity) {
+        delegate.addItemToCart(item, quantity);
+    }
+
+    @Override
+    public void removeItemFromCart(Item item, int quantity) {
+        delegate.removeItemFromCart(item, quantity);
+    }
+
+    @Override
+    public BigDecimal getSubtotal() {
+        return delegate.getSubtotal();
+    }
+
+    @Override
+    public Money getSubtotalMoney() {
+        return delegate.getSubtotalMoney();
+    }
+
+    /**
+     * BigDecimal adapter for {@link #checkoutMoney()}
+     */
+    @Override
+    public BigDecimal checkout() {
+        return checkoutMoney().toBigDecimal();
+    }
+
+    /**
+     * Checks out the wrapped cart and records what was in it. An empty
+     * checkout records nothing.
+     *
+     * @throws java.io.UncheckedIOException when the history can't take the order; the cart is left as it was
+     */
+    @Override
+    public Money checkoutMoney() {
+        List<OrderLine> lines = new ArrayList<>();
+        delegate.forEachLine((item, quantity) -> lines.add(OrderLine.of(item, quantity)));
+        if (!lines.isEmpty()) history.ensureRoom();
+        Money total = delegate.checkoutMoney();
+        if (!lines.isEmpty()) lastOrder = history.recordAccepted(customerId, lines);
+        return total;
+    }
+
+    @Override
+    public List<CartLine> applyAll(List<CartDelta> deltas) {
+        return delegate.applyAll(deltas);
+    }
+
+    @Override
+    public void mergeFrom(Cart other, MergePolicy policy) {
+        if (other == this) throw new IllegalArgumentException("cannot merge a cart into itself");
+        delegate.mergeFrom(other, policy);
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.pricing;
+
+import org.example.model.Item;
+import org.example.model.Money;
+
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Itemized pricing of a cart, with running totals.
+ *
+ * <p>When one line of the cart changes, {@link #reprice(Item, int)} prices
+ * just that line again and adjusts the totals by the difference, instead
+ * of pricing the whole cart. Not thread-safe.</p>
+ */
+public class PricedCart {
+    private final PricingEngine engine;
+    private final Currency currency;
+    private final Map<Item, PricedLine> lines = new LinkedHashMap<>();
+    private long gross;
+    private long discount;
+    private long tax;
+
+    PricedCart(PricingEngine engine, Currency currency) {
+        this.engine = engine;
+        this.currency = currency;
+    }
+
+    /**
+     * Sets a line's quantity and reprices only that line.
+     *
+     * @param item the line's item
+     * @param quantity the line's new quantity, or 0 to drop the line
+     * @return the repriced line, or null when it was dropped
+     * @throws IllegalArgumentException when {@code item} is null or in another
+     * currency, or {@code quantity} is negative
+     * @throws ArithmeticException when an amount overflows
+     */
+    public PricedLine reprice(Item item, int quantity) {
+        if (item == null) throw new IllegalArgumentException("item required");
+        if (quantity < 0) throw new IllegalArgumentException("quantity >= 0");
+        if (!item.getUnitMoney().getCurrency().equals(currency)) {
+            throw new IllegalArgumentException("cart is in " + currency + ", item " + item.getSku()
+                    + " is in " + item.getUnitMoney().getCurrency());
+        }
+        PricedLine next = quantity == 0 ? null : engine.price(item, quantity);
+        long nextGross = gross;
+        long nextDiscount = discount;
+        long nextTax = tax;
+        PricedLine previous = lines.get(item);
+        if (previous != null) {
+            nextGross -= previous.grossMinor();
+            nextDiscount -= previous.discountMinor();
+            nextTax -= previous.taxMinor();
+        }
+        if (next != null) {
+            nextGross = Math.addExact(nextGross, next.grossMinor());
+            nextDiscount = Math.addExact(nextDiscount, next.discountMinor());
+            nextTax = Math.addExact(nextTax, next.taxMinor());
+            lines.put(item, next);
+        } else {
+            lines.remove(item);
+        }
+        gross = nextGross;
+        discount = nextDiscount;
+        tax = nextTax;
+        return next;
+    }
+
+    /**
+     * @return the priced line for {@code item}, or null if the cart has none
+     */
+    public PricedLine getLine(Item item) {
+        return lines.get(item);
+    }
+
+    /**
+     * @return a copy of the priced lines, in the order they were first priced
+     */
+    public List<PricedLine> getLines() {
+        return new ArrayList<>(lines.values());
+    }
+
+    /** @return total before any rule */
+    public Money getSubtotal() { return Money.ofMinor(gross, currency); }
+    /** @return everything promotions and discounts took off */
+    public Money getDiscount() { return Money.ofMinor(discount, currency); }
+    public Money getTax()      { return Money.ofMinor(tax, currency); }
+    /** @return what the customer pays: subtotal less discounts plus tax */
+    public Money getTotal()    { return Money.ofMinor(gross - discount + tax, currency); }
+}
@@ -0,0 +1,71 @@
+package org.example.pricing;
+
+import org.example.model.Item;
+import org.example.model.Money;
+
+/**
+ * One priced cart line: what it would cost before any rule, what each rule
+ * took off, and the tax on the rest. Immutable.
+ */
+public final class PricedLine {
+    private final Item item;
+    private final int quantity;
+    private final long gross;
+    private final PricingRule promotion;
+    private final long promotionDiscount;
+    private final PricingRule categoryDiscount;
+    private final long categoryDiscountAmount;
+    private final long tax;
+
+    PricedLine(Item item, int quantity, long gross, PricingRule promotion, long promotionDiscount,
+               PricingRule categoryDiscount, long categoryDiscountAmount, long tax) {
+        this.item = item;
+        this.quantity = quantity;
+        this.gross = gross;
+        this.promotion = promotion;
+        this.promotionDiscount = promotionDiscount;
+        this.categoryDiscount = categoryDiscount;
+        this.categoryDiscountAmount = categoryDiscountAmount;
+        this.tax = tax;
+    }
+
+    public Item getItem()      { return item; }
+    public int getQuantity()   { return quantity; }
+
+    /** @return the promotion applied, or null */
+    public PricingRule getPromotion()        { return promotion; }
+    /** @return the category discount applied, or null */
+    public PricingRule getCategoryDiscount() { return categoryDiscount; }
+
+    /** @return unit price times quantity */
+    public Money getGross()    { return money(gross); }
+    /** @return everything the promotion and category discount took off */
+    public Money getDiscount() { return money(discountMinor()); }
+    /** @return gross less discounts */
+    public Money getNet()      { return money(netMinor()); }
+    public Money getTax()      { return money(tax); }
+    /** @return net plus tax */
+    public Money getTotal()    { return money(netMinor() + tax); }
+
+    long grossMinor()    { return gross; }
+    long discountMinor() { return promotionDiscount + categoryDiscountAmount; }
+    long taxMinor()      { return tax; }
+
+    private long netMinor() {
+        return gross - discountMinor();
+    }
+
+    private Money money(long minorUnits) {
+        return Money.ofMinor(minorUnits, item.getUnitMoney().getCurrency());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder()
+                .append(item.getSku()).append(" | qty=").append(quantity)
+                .append(" | ").append(getGross());
+        if (promotion != null) out.append(" | ").append(promotion).append(" -").append(money(promotionDiscount));
+        if (categoryDiscount != null) out.append(" | ").append(categoryDiscount).append(" -").append(money(categoryDiscountAmount));
+        return out.append(" | tax ").append(getTax()).append(" | ").append(getTotal()).toString();
+    }
+}
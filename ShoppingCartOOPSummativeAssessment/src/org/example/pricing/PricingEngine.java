@@ -0,0 +1,149 @@
+package org.example.pricing;
+
+import org.example.cart.Cart;
+import org.example.model.Item;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prices carts against a ruleset.
+ *
+ * <p>The ruleset is compiled once, up front, into one plan per SKU: the
+ * promotions for that SKU plus the category discount and tax rate that
+ * apply to it. Pricing a line is then a single hash lookup and only runs
+ * that SKU's own promotions, however many rules there are. SKUs no rule
+ * mentions share one plan that only charges the default tax.</p>
+ *
+ * <p>How a line is priced:</p>
+ * <p>- promotions for the SKU don't stack; the one that takes off the most wins</p>
+ * <p>- the best category discount is then taken off what is left</p>
+ * <p>- tax is charged on the discounted amount, rounded half up per line</p>
+ *
+ * <p>Immutable and safe to share between threads.</p>
+ */
+public class PricingEngine {
+    private static final PricingRule[] NO_PROMOTIONS = new PricingRule[0];
+
+    private final Map<String, Plan> plans = new HashMap<>();
+    private final Plan defaultPlan;
+
+    /**
+     * @param rules the ruleset
+     * @param categoryBySku category of each SKU that has one
+     * @throws IllegalArgumentException when an argument or rule is null, or a
+     * category (or the default) is given two tax rates
+     */
+    public PricingEngine(Collection<PricingRule> rules, Map<String, String> categoryBySku) {
+        if (rules == null) throw new IllegalArgumentException("rules required");
+        if (categoryBySku == null) throw new IllegalArgumentException("categories required");
+        Map<String, List<PricingRule>> promotions = new HashMap<>();
+        Map<String, PricingRule> discounts = new HashMap<>();
+        Map<String, PricingRule> taxes = new HashMap<>();
+        PricingRule defaultTax = null;
+        for (PricingRule rule : rules) {
+            if (rule == null) throw new IllegalArgumentException("rule required, was given null");
+            switch (rule.kind) {
+                case BUY_GET_FREE:
+                case BULK_PRICE:
+                    promotions.computeIfAbsent(rule.key, sku -> new ArrayList<>()).add(rule);
+                    break;
+                case CATEGORY_DISCOUNT:
+                    discounts.merge(rule.key, rule, (a, b) -> a.basisPoints >= b.basisPoints ? a : b);
+                    break;
+                default:
+                    if (rule.key == null) {
+                        if (defaultTax != null) throw new IllegalArgumentException("default tax given twice");
+                        defaultTax = rule;
+                    } else if (taxes.putIfAbsent(rule.key, rule) != null) {
+                        throw new IllegalArgumentException("tax for " + rule.key + " given twice");
+                    }
+            }
+        }
+        defaultPlan = new Plan(NO_PROMOTIONS, null, defaultTax);
+
+        Map<String, String> categories = new HashMap<>();
+        categoryBySku.forEach((sku, category) -> {
+            if (sku == null || category == null) throw new IllegalArgumentException("sku and category required");
+            categories.put(sku.trim().toUpperCase(), category.trim());
+        });
+        List<String> skus = new ArrayList<>(categories.keySet());
+        skus.addAll(promotions.keySet());
+        for (String sku : skus) {
+            if (plans.containsKey(sku)) continue;
+            String category = categories.get(sku);
+            List<PricingRule> own = promotions.get(sku);
+            PricingRule tax = category == null ? null : taxes.get(category);
+            plans.put(sku, new Plan(own == null ? NO_PROMOTIONS : own.toArray(NO_PROMOTIONS),
+                    category == null ? null : discounts.get(category),
+                    tax == null ? defaultTax : tax));
+        }
+    }
+
+    /**
+     * Prices every line of a cart.
+     *
+     * @param cart the cart to price; not changed
+     * @return the itemized result, which can then be repriced line by line
+     * @throws IllegalArgumentException when {@code cart} is null
+     * @throws ArithmeticException when an amount overflows
+     */
+    public PricedCart price(Cart cart) {
+        if (cart == null) throw new IllegalArgumentException("cart required");
+        PricedCart priced = new PricedCart(this, cart.getSubtotalMoney().getCurrency());
+        cart.forEachLine(priced::reprice);
+        return priced;
+    }
+
+    /**
+     * Prices one line.
+     *
+     * @param item the line's item
+     * @param quantity the line's quantity
+     * @throws IllegalArgumentException when {@code item} is null or {@code quantity} is less than 1
+     * @throws ArithmeticException when an amount overflows
+     */
+    public PricedLine price(Item item, int quantity) {
+        if (item == null) throw new IllegalArgumentException("item required");
+        if (quantity < 1) throw new IllegalArgumentException("quantity > 0 required");
+        Plan plan = plans.getOrDefault(item.getSku(), defaultPlan);
+        long gross = Math.multiplyExact(item.getUnitMoney().getMinorUnits(), (long) quantity);
+
+        PricingRule promotion = null;
+        long promotionOff = 0;
+        for (PricingRule rule : plan.promotions) {
+            long off = Math.min(gross, rule.promotionDiscount(item, quantity));
+            if (off > promotionOff) {
+                promotionOff = off;
+                promotion = rule;
+            }
+        }
+        long categoryOff = plan.discount == null ? 0 : plan.discount.percentOf(gross - promotionOff);
+        long net = gross - promotionOff - categoryOff;
+        long tax = plan.tax == null ? 0 : plan.tax.percentOf(net);
+        return new PricedLine(item, quantity, gross, promotion, promotionOff,
+                categoryOff == 0 ? null : plan.discount, categoryOff, tax);
+    }
+
+    /**
+     * @return number of SKUs with a plan of their own
+     */
+    public int getPlanCount() {
+        return plans.size();
+    }
+
+    private static final class Plan {
+        private final PricingRule[] promotions;
+        private final PricingRule discount;     // null when the SKU's category has none
+        private final PricingRule tax;          // null when untaxed
+
+        private Plan(PricingRule[] promotions, PricingRule discount, PricingRule tax) {
+            this.promotions = promotions;
+            this.discount = discount;
+            this.tax = tax;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package org.example.pricing;
+
+import org.example.model.Item;
+import org.example.model.Money;
+
+import java.math.BigDecimal;
+
+/**
+ * One promotion, discount or tax rate, built with the static factories.
+ *
+ * <p>- {@link #buyGetFree}: for every {@code buy + free} units of a SKU, {@code free} are free (BOGO is 1 + 1)</p>
+ * <p>- {@link #bulkPrice}: a lower unit price once a line reaches a quantity; several make a tiered price</p>
+ * <p>- {@link #categoryDiscount}: percent off every line in a category</p>
+ * <p>- {@link #tax} and {@link #defaultTax}: tax rate for a category, or for lines without one</p>
+ *
+ * <p>Every rule prices one line on its own, which is what lets
+ * {@link PricedCart#reprice(Item, int)} reprice a single line. Immutable.</p>
+ */
+public final class PricingRule {
+
+    enum Kind { BUY_GET_FREE, BULK_PRICE, CATEGORY_DISCOUNT, TAX }
+
+    final Kind kind;
+    final String key;               // SKU, category, or null for the default tax
+    final int buy;
+    final int free;
+    final int minQuantity;
+    final Money unitPrice;
+    final int basisPoints;          // hundredths of a percent
+
+    private PricingRule(Kind kind, String key, int buy, int free, int minQuantity, Money unitPrice, int basisPoints) {
+        this.kind = kind;
+        this.key = key;
+        this.buy = buy;
+        this.free = free;
+        this.minQuantity = minQuantity;
+        this.unitPrice = unitPrice;
+        this.basisPoints = basisPoints;
+    }
+
+    /**
+     * @param sku SKU the promotion is for
+     * @param buy units paid for in each group
+     * @param free units given free in each group
+     * @throws IllegalArgumentException when {@code sku} is blank or a count is less than 1
+     */
+    public static PricingRule buyGetFree(String sku, int buy, int free) {
+        if (buy < 1 || free < 1) throw new IllegalArgumentException("buy and free > 0 required");
+        return new PricingRule(Kind.BUY_GET_FREE, sku(sku), buy, free, 0, null, 0);
+    }
+
+    /**
+     * Buy one, get one free.
+     */
+    public static PricingRule bogo(String sku) {
+        return buyGetFree(sku, 1, 1);
+    }
+
+    /**
+     * @param sku SKU the price is for
+     * @param minQuantity line quantity the price starts at
+     * @param unitPrice price of every unit in the line from then on
+     * @throws IllegalArgumentException when {@code sku} is blank, {@code minQuantity}
+     * is less than 1 or {@code unitPrice} is null or negative
+     */
+    public static PricingRule bulkPrice(String sku, int minQuantity, Money unitPrice) {
+        if (minQuantity < 1) throw new IllegalArgumentException("minimum quantity > 0 required");
+        if (unitPrice == null || unitPrice.getMinorUnits() < 0) throw new IllegalArgumentException("price >= 0");
+        return new PricingRule(Kind.BULK_PRICE, sku(sku), 0, 0, minQuantity, unitPrice, 0);
+    }
+
+    /**
+     * @param category category the discount applies to
+     * @param percent percent off, e.g. 12.5, at most two decimal places
+     * @throws IllegalArgumentException when {@code category} is blank or
+     * {@code percent} isn't between 0 and 100
+     */
+    public static PricingRule categoryDiscount(String category, BigDecimal percent) {
+        int basisPoints = basisPoints(percent);
+        if (basisPoints > 10_000) throw new IllegalArgumentException("percent <= 100");
+        return new PricingRule(Kind.CATEGORY_DISCOUNT, category(category), 0, 0, 0, null, basisPoints);
+    }
+
+    /**
+     * @param category category taxed at this rate
+     * @param percent tax rate, e.g. 8.25, at most two decimal places
+     * @throws IllegalArgumentException when {@code category} is blank or {@code percent} is negative
+     */
+    public static PricingRule tax(String category, BigDecimal percent) {
+        return new PricingRule(Kind.TAX, category(category), 0, 0, 0, null, basisPoints(percent));
+    }
+
+    /**
+     * @param percent tax rate for lines whose category has no rate of its own
+     * @throws IllegalArgumentException when {@code percent} is negative
+     */
+    public static PricingRule defaultTax(BigDecimal percent) {
+        return new PricingRule(Kind.TAX, null, 0, 0, 0, null, basisPoints(percent));
+    }
+
+    /**
+     * @return how much this promotion takes off a line, in minor units
+     * @throws IllegalArgumentException when a bulk price is in another currency than the item
+     */
+    long promotionDiscount(Item item, int quantity) {
+        Money unit = item.getUnitMoney();
+        if (kind == Kind.BUY_GET_FREE) {
+            long groups = quantity / (buy + free);
+            return Math.multiplyExact(unit.getMinorUnits(), Math.multiplyExact(groups, (long) free));
+        }
+        if (!unitPrice.getCurrency().equals(unit.getCurrency())) {
+            throw new IllegalArgumentException("bulk price for " + key + " is in " + unitPrice.getCurrency()
+                    + ", item is in " + unit.getCurrency());
+        }
+        if (quantity < minQuantity || unitPrice.getMinorUnits() >= unit.getMinorUnits()) return 0;
+        return Math.multiplyExact(unit.getMinorUnits() - unitPrice.getMinorUnits(), (long) quantity);
+    }
+
+    /**
+     * @return {@code amount} times this rule's rate, rounded half up
+     */
+    long percentOf(long amount) {
+        return Math.addExact(Math.multiplyExact(amount, (long) basisPoints), 5_000) / 10_000;
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case BUY_GET_FREE: return "buy " + buy + " get " + free + " free " + key;
+            case BULK_PRICE:   return minQuantity + "+ " + key + " at " + unitPrice;
+            case CATEGORY_DISCOUNT: return percent() + "% off " + key;
+            default: return percent() + "% tax" + (key == null ? "" : " on " + key);
+        }
+    }
+
+    private String percent() {
+        return BigDecimal.valueOf(basisPoints, 2).stripTrailingZeros().toPlainString();
+    }
+
+    private static String sku(String sku) {
+        if (sku == null || sku.isBlank()) throw new IllegalArgumentException("sku required");
+        return sku.trim().toUpperCase();
+    }
+
+    private static String category(String category) {
+        if (category == null || category.isBlank()) throw new IllegalArgumentException("category required");
+        return category.trim();
+    }
+
+    private static int basisPoints(BigDecimal percent) {
+        if (percent == null || percent.signum() < 0) throw new IllegalArgumentException("percent >= 0");
+        try {
+            return percent.movePointRight(2).intValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("percent has more than two decimal places or is too large: " + percent);
+        }
+    }
+}
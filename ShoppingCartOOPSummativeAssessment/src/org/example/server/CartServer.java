@@ -0,0 +1,307 @@
+package org.example.server;
+
+import org.example.cart.Cart;
+import org.example.cart.CartStore;
+import org.example.cart.ConcurrentCart;
+import org.example.catalog.Catalog;
+import org.example.catalog.CatalogImporter;
+import org.example.catalog.SnapshotCatalog;
+import org.example.catalog.StaticCatalog;
+import org.example.metrics.MeteredCart;
+import org.example.metrics.MeteredCatalog;
+import org.example.metrics.Metrics;
+import org.example.model.Item;
+import org.example.model.Money;
+
+import javax.management.JMException;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serves the catalog and per-session carts over a line protocol on a local socket.
+ *
+ * <p>Every request is one line and gets one reply line, {@code OK ...} or
+ * {@code ERR message}:</p>
+ * <p>- {@code SESSION id}: use the cart of session {@code id}; each connection starts in a session of its own</p>
+ * <p>- {@code FIND sku}: {@code OK sku price name}</p>
+ * <p>- {@code ADD sku [qty]} and {@code REMOVE sku [qty]}: {@code OK subtotal}</p>
+ * <p>- {@code SUBTOTAL}: {@code OK subtotal}</p>
+ * <p>- {@code CHECKOUT}: {@code OK total}, and the cart is emptied</p>
+ * <p>- {@code PING}: {@code OK}</p>
+ * <p>- {@code QUIT}: {@code OK bye}, then the server closes the connection</p>
+ *
+ * <p>Each connection runs blocking I/O on a thread of its own, a virtual
+ * thread where the JDK has them (see {@link ConnectionThreads}). Replies are
+ * flushed only once no more requests are waiting to be read, so a client
+ * may pipeline requests. All connections share one catalog and one
+ * {@link CartStore}; several connections may use the same session at once,
+ * so the store should hand out thread-safe carts such as ConcurrentCart.</p>
+ */
+public class CartServer implements Closeable {
+    private static final String BYE = "OK bye";
+
+    private final Catalog catalog;
+    private final CartStore carts;
+    private final ExecutorService connections;
+    private final Set<Socket> open = ConcurrentHashMap.newKeySet();
+    private final AtomicLong nextConnection = new AtomicLong();
+    private final LongAdder requests = new LongAdder();
+    private ServerSocket server;
+    private Thread acceptor;
+
+    /**
+     * @param catalog catalog shared by every connection; must be safe for concurrent reads
+     * @param carts where each session's cart lives
+     * @throws IllegalArgumentException when an argument is null
+     */
+    public CartServer(Catalog catalog, CartStore carts) {
+        if (catalog == null) throw new IllegalArgumentException("catalog required");
+        if (carts == null) throw new IllegalArgumentException("cart store required");
+        this.catalog = catalog;
+        this.carts = carts;
+        this.connections = ConnectionThreads.newPerTaskExecutor("cart-conn");
+    }
+
+    /**
+     * Starts listening on the loopback address.
+     *
+     * @param port port to listen on, or 0 for any free port
+     * @throws IllegalStateException when the server was already started
+     */
+    public synchronized void start(int port) throws IOException {
+        if (server != null) throw new IllegalStateException("server already started");
+        server = new ServerSocket(port, 4096, InetAddress.getLoopbackAddress());
+        acceptor = new Thread(this::acceptLoop, "cart-server-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * @return the port the server listens on
+     * @throws IllegalStateException when the server hasn't been started
+     */
+    public synchronized int getPort() {
+        if (server == null) throw new IllegalStateException("server not started");
+        return server.getLocalPort();
+    }
+
+    public long getConnectionCount()  { return nextConnection.get(); }
+    public int getOpenConnections()   { return open.size(); }
+    public long getRequestCount()     { return requests.sum(); }
+
+    /**
+     * @return true when connections run on virtual threads
+     */
+    public boolean usesVirtualThreads() {
+        return ConnectionThreads.usesVirtualThreads(connections);
+    }
+
+    /**
+     * Stops accepting, closes every open connection and waits briefly for
+     * their threads to finish.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (server != null) server.close();
+        }
+        for (Socket socket : open) {
+            socket.close();
+        }
+        connections.shutdown();
+        try {
+            connections.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void acceptLoop() {
+        while (true) {
+            Socket socket;
+            try {
+                socket = server.accept();
+            } catch (IOException e) {
+                return;         // closed
+            }
+            open.add(socket);
+            String session = "conn-" + nextConnection.incrementAndGet();
+            try {
+                connections.execute(() -> serve(socket, session));
+            } catch (RuntimeException e) {
+                open.remove(socket);
+                closeQuietly(socket);
+            }
+        }
+    }
+
+    private void serve(Socket socket, String firstSession) {
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            CartStore.Handle[] session = {carts.getHandle(firstSession)};
+            String line;
+            while ((line = in.readLine()) != null) {
+                requests.increment();
+                String reply = handle(line, session);
+                out.write(reply);
+                out.write('\n');
+                if (reply == BYE) break;
+                if (!in.ready()) out.flush();
+            }
+            out.flush();
+        } catch (SocketException e) {
+            // client went away or the server is closing
+        } catch (IOException e) {
+            // nothing to tell the client on a broken connection
+        } finally {
+            open.remove(socket);
+        }
+    }
+
+    /**
+     * @param session one-element holder for the connection's cart handle, replaced by SESSION;
+     *                the handle looks the cart up again only after it is evicted
+     */
+    String handle(String line, CartStore.Handle[] session) {
+        String[] words = line.trim().split("\\s+");
+        String command = words[0].toUpperCase();
+        try {
+            switch (command) {
+                case "PING":
+                    return "OK";
+                case "QUIT":
+                    return BYE;
+                case "SESSION":
+                    if (words.length != 2) return "ERR SESSION needs an id";
+                    if (!words[1].equals(session[0].getSessionId())) session[0] = carts.getHandle(words[1]);
+                    return "OK " + words[1];
+                case "FIND": {
+                    if (words.length != 2) return "ERR FIND needs a SKU";
+                    Item item = catalog.findItemBySKU(words[1]);
+                    if (item == null) return "ERR no item with SKU " + words[1];
+                    return "OK " + item.getSku() + " " + item.getUnitPrice().toPlainString() + " " + item.getName();
+                }
+                case "ADD":
+                case "REMOVE": {
+                    if (words.length < 2 || words.length > 3) return "ERR " + command + " needs a SKU and an optional quantity";
+                    Item item = catalog.findItemBySKU(words[1]);
+                    if (item == null) return "ERR no item with SKU " + words[1];
+                    int quantity = words.length == 3 ? Integer.parseInt(words[2]) : 1;
+                    if (quantity < 1) return "ERR quantity > 0 required";
+                    Cart cart = session[0].cart();
+                    if (command.equals("ADD")) cart.addItemToCart(item, quantity);
+                    else cart.removeItemFromCart(item, quantity);
+                    return ok(cart.getSubtotalMoney());
+                }
+                case "SUBTOTAL":
+                    return ok(session[0].cart().getSubtotalMoney());
+                case "CHECKOUT":
+                    return ok(session[0].cart().checkoutMoney());
+                default:
+                    return "ERR unknown command " + words[0];
+            }
+        } catch (NumberFormatException e) {
+            return "ERR quantity is not a whole number";
+        } catch (RuntimeException e) {
+            return "ERR " + e.getMessage();
+        }
+    }
+
+    private static String ok(Money amount) {
+        return "OK " + amount.toBigDecimal().toPlainString();
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // already closing
+        }
+    }
+
+    /**
+     * Runs a server until the process is stopped:
+     * {@code App --server [--port N] [--catalog items.csv] [--max-carts N] [--idle-ttl-ms N]}.
+     * Carts and catalog are metered; the metrics are published over JMX
+     * while the server runs and printed when it stops.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = 7070;
+        int maxCarts = 100_000;
+        long idleTtlMillis = TimeUnit.MINUTES.toMillis(30);
+        Catalog catalog = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (arg.equals("--port")) port = Integer.parseInt(value(args, ++i));
+                else if (arg.equals("--max-carts")) maxCarts = Integer.parseInt(value(args, ++i));
+                else if (arg.equals("--idle-ttl-ms")) idleTtlMillis = Long.parseLong(value(args, ++i));
+                else if (arg.equals("--catalog")) catalog = importCatalog(Path.of(value(args, ++i)));
+                else throw new IllegalArgumentException("unexpected argument " + arg);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("usage: --server [--port N] [--catalog items.csv] [--max-carts N] [--idle-ttl-ms N]");
+            System.exit(2);
+            return;
+        }
+        if (catalog == null) catalog = new SnapshotCatalog(new StaticCatalog().getCatalogItems());
+
+        Metrics metrics = new Metrics();
+        try {
+            metrics.registerMBeans(ManagementFactory.getPlatformMBeanServer(), Metrics.DEFAULT_DOMAIN);
+        } catch (JMException e) {
+            System.err.println("metrics not published over JMX: " + e.getMessage());
+        }
+        CartServer server = new CartServer(new MeteredCatalog(catalog, metrics.catalog()),
+                new CartStore(() -> new MeteredCart(new ConcurrentCart(), metrics.cart()), maxCarts, idleTtlMillis));
+        server.start(port);
+        System.out.println("cart server listening on " + InetAddress.getLoopbackAddress().getHostAddress()
+                + ":" + server.getPort() + (server.usesVirtualThreads() ? " (virtual threads)" : " (platform threads)"));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException e) {
+                // exiting anyway
+            }
+            System.out.print(metrics.dump());
+        }));
+        Thread.currentThread().join();
+    }
+
+    static String value(String[] args, int i) {
+        if (i >= args.length) throw new IllegalArgumentException(args[i - 1] + " needs a value");
+        return args[i];
+    }
+
+    private static Catalog importCatalog(Path file) throws IOException {
+        SnapshotCatalog catalog = new SnapshotCatalog();
+        try (Reader in = Files.newBufferedReader(file)) {
+            System.err.println("catalog: " + new CatalogImporter().importFeed(in, CatalogImporter.Format.CSV,
+                    CatalogImporter.ErrorPolicy.SKIP_INVALID, catalog));
+        }
+        return catalog;
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.server;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor that runs each connection on a thread of its own.
+ *
+ * <p>On a JDK with virtual threads (21 and later) this is
+ * {@code Executors.newVirtualThreadPerTaskExecutor()}, looked up by
+ * reflection so the code still compiles and runs on 17. Elsewhere it falls
+ * back to a cached pool of daemon platform threads with a small stack, which
+ * handles thousands of connections but costs an OS thread each.</p>
+ */
+final class ConnectionThreads {
+    private static final long PLATFORM_STACK_BYTES = 256 * 1024;
+
+    private ConnectionThreads() {
+    }
+
+    /**
+     * @param name prefix for platform thread names
+     * @return a new thread-per-task executor
+     */
+    static ExecutorService newPerTaskExecutor(String name) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (NoSuchMethodException e) {
+            // JDK without virtual threads
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            // e.g. a preview JDK without --enable-preview
+        }
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory threads = task -> {
+            Thread thread = new Thread(null, task, name + "-" + count.incrementAndGet(), PLATFORM_STACK_BYTES);
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newCachedThreadPool(threads);
+    }
+
+    /**
+     * @return true when {@code executor} came from the virtual thread branch of {@link #newPerTaskExecutor}
+     */
+    static boolean usesVirtualThreads(ExecutorService executor) {
+        return !(executor instanceof ThreadPoolExecutor);
+    }
+}
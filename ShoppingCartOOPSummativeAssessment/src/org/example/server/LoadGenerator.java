@@ -0,0 +1,212 @@
+package org.example.server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drives a {@link CartServer} with many concurrent connections.
+ *
+ * <p>Every connection is opened before any request is sent, so the server
+ * really holds {@code connections} sockets at once. Each connection then
+ * runs a closed loop of {@code ADD}, {@code SUBTOTAL} and, every tenth
+ * round, {@code CHECKOUT}, waiting for each reply before sending the next
+ * request. Connections run on the same kind of threads as the server's.</p>
+ */
+public class LoadGenerator {
+    private final int port;
+    private final List<String> skus;
+
+    /**
+     * @param port loopback port the server listens on
+     * @param skus SKUs the connections add to their carts
+     * @throws IllegalArgumentException when {@code skus} is null or empty
+     */
+    public LoadGenerator(int port, List<String> skus) {
+        if (skus == null || skus.isEmpty()) throw new IllegalArgumentException("at least one SKU required");
+        this.port = port;
+        this.skus = List.copyOf(skus);
+    }
+
+    /**
+     * @param connections number of connections held open together
+     * @param requestsPerConnection requests each connection sends once all are open
+     * @return what the run measured
+     * @throws IllegalArgumentException when either count is less than 1
+     */
+    public Result run(int connections, int requestsPerConnection) throws InterruptedException {
+        if (connections < 1) throw new IllegalArgumentException("connections > 0 required");
+        if (requestsPerConnection < 1) throw new IllegalArgumentException("requests > 0 required");
+        CountDownLatch opened = new CountDownLatch(connections);
+        CountDownLatch go = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(connections);
+        Counters counters = new Counters();
+
+        ExecutorService clients = ConnectionThreads.newPerTaskExecutor("cart-load");
+        long start;
+        try {
+            for (int c = 0; c < connections; c++) {
+                int id = c;
+                clients.execute(() -> {
+                    try {
+                        client(id, requestsPerConnection, opened, go, counters);
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            opened.await();
+            start = System.nanoTime();
+            go.countDown();
+            done.await();
+        } finally {
+            go.countDown();
+            clients.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+        clients.awaitTermination(5, TimeUnit.SECONDS);
+        return new Result(connections, counters.connected.sum(), counters.requests.sum(), counters.errors.sum(),
+                elapsed, counters.latencyNanos.sum(), counters.maxLatency.get());
+    }
+
+    // Counts down opened exactly once, however setup ends, so run() never waits on a failed client
+    private void client(int id, int requests, CountDownLatch opened, CountDownLatch go, Counters counters) {
+        boolean signalled = false;
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setTcpNoDelay(true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            counters.connected.increment();
+            signalled = true;
+            opened.countDown();
+            go.await();
+            for (int r = 0; r < requests; r++) {
+                String request;
+                if (r % 20 == 19) request = "CHECKOUT";
+                else if (r % 2 == 1) request = "SUBTOTAL";
+                else request = "ADD " + skus.get((id + r) % skus.size());
+                long sent = System.nanoTime();
+                out.write(request);
+                out.write('\n');
+                out.flush();
+                String reply = in.readLine();
+                long latency = System.nanoTime() - sent;
+                if (reply == null) {
+                    counters.errors.increment();
+                    return;
+                }
+                if (!reply.startsWith("OK")) counters.errors.increment();
+                counters.requests.increment();
+                counters.latencyNanos.add(latency);
+                counters.maxLatency.accumulate(latency);
+            }
+            out.write("QUIT\n");
+            out.flush();
+            in.readLine();
+        } catch (IOException e) {
+            counters.errors.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (!signalled) opened.countDown();
+        }
+    }
+
+    private static final class Counters {
+        private final LongAdder connected = new LongAdder();
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder latencyNanos = new LongAdder();
+        private final LongAccumulator maxLatency = new LongAccumulator(Math::max, 0);
+    }
+
+    /**
+     * Outcome of one {@link LoadGenerator#run} call.
+     */
+    public static final class Result {
+        private final int connections;
+        private final long connected;
+        private final long requests;
+        private final long errors;
+        private final long elapsedNanos;
+        private final long totalLatencyNanos;
+        private final long maxLatencyNanos;
+
+        Result(int connections, long connected, long requests, long errors, long elapsedNanos,
+               long totalLatencyNanos, long maxLatencyNanos) {
+            this.connections = connections;
+            this.connected = connected;
+            this.requests = requests;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+            this.totalLatencyNanos = totalLatencyNanos;
+            this.maxLatencyNanos = maxLatencyNanos;
+        }
+
+        // getters
+        public int getConnections()      { return connections; }
+        public long getConnected()       { return connected; }
+        public long getRequests()        { return requests; }
+        public long getErrors()          { return errors; }
+        public long getElapsedNanos()    { return elapsedNanos; }
+        public long getMaxLatencyNanos() { return maxLatencyNanos; }
+
+        public long getMeanLatencyNanos() {
+            return requests == 0 ? 0 : totalLatencyNanos / requests;
+        }
+
+        /**
+         * @return replies received per second, from the moment every connection was open
+         */
+        public double getRequestsPerSecond() {
+            return elapsedNanos == 0 ? 0 : requests * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d/%d connections, %d requests, %d errors in %d ms (%.0f req/s), "
+                            + "latency mean %d us, max %d us",
+                    connected, connections, requests, errors, elapsedNanos / 1_000_000, getRequestsPerSecond(),
+                    getMeanLatencyNanos() / 1_000, maxLatencyNanos / 1_000);
+        }
+    }
+
+    /**
+     * Runs one load test against a server that is already running:
+     * {@code App --loadgen [--port N] [--connections N] [--requests N] [--skus A,B,C]}
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int port = 7070;
+        int connections = 1_000;
+        int requests = 100;
+        List<String> skus = List.of("APL", "MLK", "BRD");
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (arg.equals("--port")) port = Integer.parseInt(CartServer.value(args, ++i));
+                else if (arg.equals("--connections")) connections = Integer.parseInt(CartServer.value(args, ++i));
+                else if (arg.equals("--requests")) requests = Integer.parseInt(CartServer.value(args, ++i));
+                else if (arg.equals("--skus")) skus = List.of(CartServer.value(args, ++i).split(","));
+                else throw new IllegalArgumentException("unexpected argument " + arg);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("usage: --loadgen [--port N] [--connections N] [--requests N] [--skus A,B,C]");
+            System.exit(2);
+            return;
+        }
+        System.out.println(new LoadGenerator(port, skus).run(connections, requests));
+    }
+}
@@ -0,0 +1,137 @@
+package org.example.view;
+
+import org.example.cart.Cart;
+import org.example.model.Item;
+import org.example.model.Money;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Writes a cart's lines to any Appendable in the same format as
+ * {@code CartLine.toString()}:
+ * {@code SKU | ITEM_NAME | qty=QUANTITY | $LINE_TOTAL}, one line per row.
+ *
+ * <p>Reads the cart through {@link Cart#forEachLine} and formats numbers
+ * into a scratch buffer, so rendering builds no CartLine copies, Strings or
+ * BigDecimals: with a reused StringBuilder a whole receipt costs no
+ * allocation per line. Keep one renderer per thread; it is not thread-safe.</p>
+ */
+public class CartRenderer {
+    private final String lineSeparator;
+    private final char[] digits = new char[20];         // fits any long
+    private final LineWriter lineWriter = new LineWriter();
+
+    public CartRenderer() {
+        this(System.lineSeparator());
+    }
+
+    /**
+     * @param lineSeparator written between lines
+     * @throws IllegalArgumentException when {@code lineSeparator} is null
+     */
+    public CartRenderer(String lineSeparator) {
+        if (lineSeparator == null) throw new IllegalArgumentException("line separator required");
+        this.lineSeparator = lineSeparator;
+    }
+
+    /**
+     * Appends every line of the cart, with a separator between lines but
+     * not after the last. Appends nothing for an empty cart.
+     *
+     * @param cart the cart to render
+     * @param out where to write
+     * @return number of lines written
+     * @throws IllegalArgumentException when an argument is null
+     * @throws IOException when {@code out} fails
+     */
+    public int render(Cart cart, Appendable out) throws IOException {
+        if (cart == null) throw new IllegalArgumentException("cart required");
+        if (out == null) throw new IllegalArgumentException("output required");
+        lineWriter.out = out;
+        lineWriter.lines = 0;
+        try {
+            cart.forEachLine(lineWriter);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            lineWriter.out = null;
+        }
+        return lineWriter.lines;
+    }
+
+    /**
+     * {@link #render(Cart, Appendable)} for a StringBuilder, which never throws IOException.
+     */
+    public int render(Cart cart, StringBuilder out) {
+        try {
+            return render(cart, (Appendable) out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Appends an amount the way BigDecimal prints it, e.g. {@code 11.85}.
+     *
+     * @throws IOException when {@code out} fails
+     */
+    public void appendMoney(Money money, Appendable out) throws IOException {
+        appendAmount(money.getMinorUnits(), money.getCurrency().getDefaultFractionDigits(), out);
+    }
+
+    private void appendLine(Item item, int quantity, Appendable out) throws IOException {
+        out.append(item.getSku()).append(" | ").append(item.getName()).append(" | qty=");
+        appendDigits(quantity, 0, out);
+        out.append(" | $");
+        Money unit = item.getUnitMoney();
+        appendAmount(Math.multiplyExact(unit.getMinorUnits(), (long) quantity),
+                unit.getCurrency().getDefaultFractionDigits(), out);
+    }
+
+    private void appendAmount(long minorUnits, int fractionDigits, Appendable out) throws IOException {
+        if (minorUnits < 0) out.append('-');
+        appendDigits(minorUnits, fractionDigits, out);
+    }
+
+    // Writes |value| with a decimal point fractionDigits from the right, padding
+    // with zeros so there is always a digit before the point. Works on the
+    // negative value so Long.MIN_VALUE needs no special case.
+    private void appendDigits(long value, int fractionDigits, Appendable out) throws IOException {
+        long negative = value < 0 ? value : -value;
+        int at = digits.length;
+        int written = 0;
+        do {
+            digits[--at] = (char) ('0' - negative % 10);
+            negative /= 10;
+            written++;
+        } while (negative != 0 || written <= fractionDigits);
+        int integerDigits = written - fractionDigits;
+        if (out instanceof StringBuilder) {
+            StringBuilder builder = (StringBuilder) out;
+            builder.append(digits, at, integerDigits);
+            if (fractionDigits > 0) builder.append('.').append(digits, at + integerDigits, fractionDigits);
+            return;
+        }
+        for (int i = 0; i < written; i++) {
+            if (i == integerDigits) out.append('.');
+            out.append(digits[at + i]);
+        }
+    }
+
+    private final class LineWriter implements ObjIntConsumer<Item> {
+        private Appendable out;
+        private int lines;
+
+        @Override
+        public void accept(Item item, int quantity) {
+            try {
+                if (lines++ > 0) out.append(lineSeparator);
+                appendLine(item, quantity, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
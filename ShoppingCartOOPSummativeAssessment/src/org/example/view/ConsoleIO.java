@@ -1,13 +1,51 @@
 package org.example.view;
 
-import java.util.Scanner;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.NoSuchElementException;
 
+/**
+ * Console input and output.
+ *
+ * <p>Output is buffered: messages collect in one writer and are written out
+ * when the next prompt is shown or {@link #flush()} is called, so a whole
+ * screen goes to the terminal in a single write instead of one
+ * synchronized println per line. With {@code autoFlush} every message is
+ * written straight away instead. Input is read a line at a time through a
+ * BufferedReader.</p>
+ *
+ * <p>Every ConsoleIO made with the no-argument constructor shares one reader
+ * on System.in and one writer on System.out, so several of them can be used
+ * at once without stealing each other's buffered input or reordering output.</p>
+ */
 public class ConsoleIO {
 
-    private Scanner console;
+    private final BufferedReader in;
+    private final Writer out;
+    private final boolean autoFlush;
 
     public ConsoleIO(){
-        console = new Scanner(System.in);
+        this(StandardStreams.IN, StandardStreams.OUT, false);
+    }
+
+    /**
+     * @param in where input lines are read from
+     * @param out where messages are written
+     * @param autoFlush {@code true} to flush after every message rather than once per prompt
+     * @throws IllegalArgumentException when {@code in} or {@code out} is null
+     */
+    public ConsoleIO(Reader in, Writer out, boolean autoFlush){
+        if (in == null) throw new IllegalArgumentException("input required");
+        if (out == null) throw new IllegalArgumentException("output required");
+        this.in = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+        this.out = out;
+        this.autoFlush = autoFlush;
     }
 
     /**
@@ -15,20 +53,51 @@ public class ConsoleIO {
      * This is a simple replacement for System.out.println()
      *
      * @param message The string to be displayed
+     * @throws UncheckedIOException when the output fails
      */
     public void writeMessage(String message){
-        System.out.println(message);
+        try {
+            out.write(message);
+            out.write(System.lineSeparator());
+            if (autoFlush) out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes out every buffered message. Call before exiting.
+     *
+     * @throws UncheckedIOException when the output fails
+     */
+    public void flush(){
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     /**
-     * Gets a string input from the user
+     * Gets a string input from the user. The prompt and everything written
+     * before it are flushed first.
      *
      * @param prompt Message to be displayed to the user
      * @return A String inputted by the user
+     * @throws NoSuchElementException when the input has ended
+     * @throws UncheckedIOException when reading fails
      */
     public String getInput(String prompt){
         writeMessage(prompt);
-        return console.nextLine();
+        flush();
+        String line;
+        try {
+            line = in.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (line == null) throw new NoSuchElementException("end of input");
+        return line;
     }
 
     /**
@@ -51,9 +120,9 @@ public class ConsoleIO {
                 }
                 break;
             } catch (NumberFormatException e) {
-                System.out.println("Please enter a proper positive whole number integer.");
+                writeMessage("Please enter a proper positive whole number integer.");
             } catch (Exception e) {
-                System.out.println("Please enter a valid response.");
+                writeMessage("Please enter a valid response.");
             }
         }
         return input;
@@ -73,7 +142,7 @@ public class ConsoleIO {
         while(true){
             input = getIntegerInput(prompt);
             if(input < minimum || input > maximum){
-                System.out.println("Please enter a valid number within the range " + minimum + " - " + maximum);
+                writeMessage("Please enter a valid number within the range " + minimum + " - " + maximum);
             } else{
                 break;
             }
@@ -81,4 +150,10 @@ public class ConsoleIO {
         return input;
     }
 
+    // One reader and writer for the process's standard streams, made on first use
+    private static final class StandardStreams {
+        private static final BufferedReader IN = new BufferedReader(new InputStreamReader(System.in), 1 << 16);
+        private static final Writer OUT = new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16);
+    }
+
 }
@@ -1,24 +1,46 @@
 package org.example.view;
 
+import org.example.cart.Cart;
 import org.example.cart.InMemoryCart;
+import org.example.catalog.Catalog;
+import org.example.catalog.Page;
 import org.example.catalog.StaticCatalog;
 import org.example.model.CartLine;
 import org.example.model.Item;
 
 import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 
 public class MenuController {
 
-    private final InMemoryCart myCart;
-    private final StaticCatalog catalog;
+    private static final int PAGE_SIZE = 10;
+
+    private final Cart myCart;
+    private final Catalog catalog;
     private final ConsoleIO console;
+    private final CartRenderer renderer = new CartRenderer();
+    private final StringBuilder screen = new StringBuilder();     // reused for every cart display
 
     // Constructor
     public MenuController(){
-        myCart = new InMemoryCart();
-        catalog = new StaticCatalog();
-        console = new ConsoleIO();
+        this(new InMemoryCart(), new StaticCatalog(), new ConsoleIO());
+    }
+
+    /**
+     * @param cart the shopper's cart
+     * @param catalog items the shopper can add
+     * @param console where the menu reads and writes
+     * @throws IllegalArgumentException when an argument is null
+     */
+    public MenuController(Cart cart, Catalog catalog, ConsoleIO console){
+        if(cart == null) throw new IllegalArgumentException("cart required");
+        if(catalog == null) throw new IllegalArgumentException("catalog required");
+        if(console == null) throw new IllegalArgumentException("console required");
+        this.myCart = cart;
+        this.catalog = catalog;
+        this.console = console;
     }
 
     /**
@@ -55,32 +77,107 @@ public class MenuController {
      * {@code SKU} | {@code ITEM_NAME} | {@code QUANTITY} | {@code PRICE}
      */
     private void displayCart(){
-        List<CartLine> items = myCart.getLines();
-        for(CartLine item : items){
-            console.writeMessage(item.toString());
+        screen.setLength(0);
+        if(renderer.render(myCart, screen) > 0){
+            console.writeMessage(screen.toString());
         }
-
     }
 
     /**
-     * Prints a list of all items in the catalog then prompts user for
-     * the Item and quantity. Then inputted amount is then added to the cart.
+     * Lets the user pick an item (see {@link #chooseItem()}) then prompts
+     * for the quantity, which is then added to the cart.
      */
     private void addItemToCart(){
-        // Get purchasable items and display to user
-        List<Item> catalogItems = catalog.getCatalogItems();
-        printOrderedItems(catalogItems);
-
-        // Get selected item from user
-        int itemIndex = console.getIntegerInputInRange("What item would you like to add to your cart:", 1, catalogItems.size());
-        itemIndex--; // adjust for 0-index
-        Item itemToAdd = catalogItems.get(itemIndex);
+        Item itemToAdd = chooseItem();
+        if(itemToAdd == null) return;
 
         // Get quantity and add to cart
         int quantity = console.getIntegerInput("How much " + itemToAdd.getName() + " would you like to add: ");
         myCart.addItemToCart(itemToAdd, quantity);
     }
 
+    /**
+     * Shows the catalog one page at a time and lets the user page through
+     * it, search it by name, and pick an item by its number on the page or
+     * by SKU. Only the page on screen is loaded, so this costs the same for
+     * a five item catalog as for a million item one.
+     *
+     * @return the chosen item, or null if the user cancelled
+     */
+    private Item chooseItem(){
+        Deque<String> earlierPages = new ArrayDeque<>();    // cursor of each page before this one
+        String cursor = null;
+        String query = null;
+        int searchOffset = 0;
+        while(true){
+            Page<Item> page = query == null
+                    ? catalog.browse(cursor, PAGE_SIZE)
+                    : catalog.searchByName(query, searchOffset, PAGE_SIZE);
+            List<Item> items = page.getItems();
+            if(items.isEmpty()){
+                console.writeMessage(query == null ? "The catalog is empty." : "No items match \"" + query + "\".");
+            }
+            printOrderedItems(items);
+            String answer = console.getInput("What item would you like to add to your cart (number or SKU; "
+                    + "n = next page, p = previous page, /name = search, q = cancel):").trim();
+
+            if(answer.equalsIgnoreCase("q")){
+                return null;
+            } else if(answer.equalsIgnoreCase("n")){
+                if(!page.hasMore()){
+                    console.writeMessage("This is the last page.");
+                } else if(query == null){
+                    earlierPages.push(cursor == null ? "" : cursor);
+                    cursor = items.get(items.size() - 1).getSku();
+                } else{
+                    searchOffset = page.nextOffset();
+                }
+            } else if(answer.equalsIgnoreCase("p")){
+                if(query == null ? earlierPages.isEmpty() : searchOffset == 0){
+                    console.writeMessage("This is the first page.");
+                } else if(query == null){
+                    cursor = earlierPages.pop();
+                } else{
+                    searchOffset = Math.max(0, searchOffset - PAGE_SIZE);
+                }
+            } else if(answer.startsWith("/")){
+                String text = answer.substring(1).trim();
+                query = text.isEmpty() ? null : text;    // "/" alone goes back to browsing
+                searchOffset = 0;
+            } else if(!answer.isEmpty()){
+                Item chosen = resolve(answer, items);
+                if(chosen != null) return chosen;
+            }
+        }
+    }
+
+    /**
+     * Turns the user's answer into an item. A number picks from the page on
+     * screen, anything else is looked up as a SKU. Either way the item is
+     * fetched from the catalog by SKU, so an item removed since the page was
+     * shown isn't added.
+     *
+     * @return the item, or null after telling the user why there is none
+     */
+    private Item resolve(String answer, List<Item> items){
+        String sku = answer;
+        try{
+            int number = Integer.parseInt(answer);
+            if(number < 1 || number > items.size()){
+                console.writeMessage("Please enter a number between 1 and " + items.size() + " or a SKU.");
+                return null;
+            }
+            sku = items.get(number - 1).getSku();
+        } catch (NumberFormatException e) {
+            // not a number, so it's a SKU
+        }
+        Item item = catalog.findItemBySKU(sku);
+        if(item == null){
+            console.writeMessage("No item with SKU " + sku.trim().toUpperCase() + " is available.");
+        }
+        return item;
+    }
+
     /**
      * Removes an item and quantity from the cart
      *
@@ -118,17 +215,18 @@ public class MenuController {
     }
 
     /**
-     * Prints all Items to the screen with numbering
+     * Prints all Items to the screen with numbering and their SKU
      * to ease user input
      *
-     * <p>Ex: 1. Bread   2. Milk   3. Watermelon   etc.</p>
+     * <p>Ex: 1. Bread (BRD)   2. Milk (MLK)   3. Watermelon (WTR)   etc.</p>
      *
      * @param items The items to be numbered and printed
      */
     private void printOrderedItems(List<Item> items){
         if(items == null) return;
         for (int i = 0; i < items.size(); i++) {
-            console.writeMessage((i + 1) + ". " + items.get(i).getName());  // EX: 1. Milk
+            Item item = items.get(i);
+            console.writeMessage((i + 1) + ". " + item.getName() + " (" + item.getSku() + ")");  // EX: 1. Milk (MLK)
         }
     }
 
@@ -0,0 +1,69 @@
+package org.example.batch;
+
+import org.example.cart.Cart;
+import org.example.cart.InMemoryCart;
+import org.example.catalog.SnapshotCatalog;
+import org.example.catalog.StaticCatalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchDriverTest {
+
+    private List<Cart> carts;
+    private BatchDriver driver;
+
+    @BeforeEach
+    public void setup(){
+        carts = new CopyOnWriteArrayList<>();
+        driver = new BatchDriver(new SnapshotCatalog(new StaticCatalog().getCatalogItems()), () -> {
+            Cart cart = new InMemoryCart();
+            carts.add(cart);
+            return cart;
+        });
+    }
+
+    @Test
+    public void everySessionRunsTheWholeScriptOnItsOwnCart() throws IOException, InterruptedException {
+        BatchScript script = BatchScript.parse(new StringReader("add APL 3\nadd MLK\nremove APL 1\nadd NOPE\n"));
+        BatchReport report = driver.run(script, 50, 4);
+
+        assertEquals(50, carts.size());
+        for (Cart cart : carts) {
+            assertEquals("5.27", cart.getSubtotal().toPlainString());
+        }
+        assertEquals(200, report.getOperations());
+        assertEquals(50, report.getErrors());           // the unknown SKU, once per session
+        assertEquals(0, report.getCheckouts());
+        assertEquals(4, report.getThreads());
+        assertTrue(report.getOpsPerSecond() > 0);
+        assertTrue(report.getP50Nanos() <= report.getP99Nanos());
+        assertTrue(report.getP99Nanos() <= report.getMaxNanos());
+    }
+
+    @Test
+    public void checkoutEmptiesTheSessionCart() throws IOException, InterruptedException {
+        BatchScript script = BatchScript.parse(new StringReader("add BRD 2\ncheckout\nadd EGG\n"));
+        BatchReport report = driver.run(script, 3, 8);
+        assertEquals(3, report.getCheckouts());
+        assertEquals(3, report.getThreads());             // never more threads than sessions
+        for (Cart cart : carts) {
+            assertEquals("2.99", cart.getSubtotal().toPlainString());
+        }
+    }
+
+    @Test
+    public void rejectsBadArguments() throws IOException {
+        BatchScript script = BatchScript.parse(new StringReader("checkout"));
+        assertThrows(IllegalArgumentException.class, () -> driver.run(null, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> driver.run(script, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> driver.run(script, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BatchDriver(null, InMemoryCart::new));
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.batch;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchScriptTest {
+
+    @Test
+    public void parsesCommandsAndSkipsCommentsAndBlankLines() throws IOException {
+        BatchScript script = BatchScript.parse(new StringReader("# warm up\nadd apl 3\n\n  REMOVE Apl\ncheckout\n"));
+        assertEquals(3, script.size());
+        assertEquals("add APL 3", script.commands().get(0).toString());
+        assertEquals("remove APL 1", script.commands().get(1).toString());
+        assertEquals(ScriptCommand.Kind.CHECKOUT, script.commands().get(2).kind);
+    }
+
+    @Test
+    public void badLinesAreReportedWithTheirLineNumber() {
+        assertMessage("line 2: unknown command \"buy\"", "add APL\nbuy APL 1\n");
+        assertMessage("line 1: quantity > 0 required", "add APL 0");
+        assertMessage("line 1: quantity is not a whole number: x", "remove APL x");
+        assertMessage("line 3: checkout takes no arguments", "\n\ncheckout now");
+        assertMessage("line 1: add needs a SKU and an optional quantity", "add");
+    }
+
+    private static void assertMessage(String expected, String script) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> BatchScript.parse(new StringReader(script)));
+        assertEquals(expected, e.getMessage());
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.batch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void percentilesAreWithinTheBucketPrecision(){
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 100_000; v++) {
+            histogram.record(v * 1_000);
+        }
+        assertEquals(100_000, histogram.count());
+        assertEquals(100_000_000, histogram.max());
+        assertWithin(50_000_000, histogram.valueAt(50));
+        assertWithin(99_000_000, histogram.valueAt(99));
+        assertEquals(100_000_000, histogram.valueAt(100));
+    }
+
+    @Test
+    public void bucketsCoverEveryLongWithoutGaps(){
+        for (long v : new long[] {0, 1, 63, 64, 65, 127, 128, 1_000_003, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.indexOf(v);
+            assertTrue(LatencyHistogram.highestValueAt(index) >= v);
+            if (index > 0) assertTrue(LatencyHistogram.highestValueAt(index - 1) < v);
+        }
+    }
+
+    @Test
+    public void addMergesWorkers(){
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram();
+        a.record(10);
+        b.record(5_000);
+        a.add(b);
+        assertEquals(2, a.count());
+        assertEquals(5_000, a.max());
+        assertEquals(10, a.valueAt(50));
+        assertEquals(0, new LatencyHistogram().valueAt(99));
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / 60, "expected ~" + expected + " but was " + actual);
+    }
+}
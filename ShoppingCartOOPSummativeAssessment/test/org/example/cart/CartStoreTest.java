@@ -0,0 +1,154 @@
+package org.example.cart;
+
+import org.example.model.Item;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CartStoreTest {
+
+    private long now;
+    private CartStore store;
+    final private Item APPLE = new Item("APL", "Apple", new BigDecimal("0.89"));
+
+    @BeforeEach
+    public void setup(){
+        now = 0;
+        store = new CartStore(InMemoryCart::new, 3, 0, 1_000, cart -> 100, () -> now);
+    }
+
+    @Test
+    public void createsCartLazilyAndReusesIt(){
+        Cart first = store.getCart("alice");
+        first.addItemToCart(APPLE, 2);
+        assertSame(first, store.getCart("alice"));
+        assertEquals(1, store.getMissCount());
+        assertEquals(1, store.getHitCount());
+    }
+
+    @Test
+    public void getCartIfPresentDoesNotCreate(){
+        assertNull(store.getCartIfPresent("bob"));
+        assertEquals(0, store.size());
+        assertEquals(1, store.getMissCount());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedPastMaxCarts(){
+        store.getCart("a");
+        store.getCart("b");
+        store.getCart("c");
+        store.getCart("a");      // b is now least recently used
+        store.getCart("d");
+        assertEquals(3, store.size());
+        assertNull(store.getCartIfPresent("b"));
+        assertNotNull(store.getCartIfPresent("a"));
+        assertEquals(1, store.getEvictionCount());
+    }
+
+    @Test
+    public void evictsIdleCartsAfterTtl(){
+        store.getCart("a");
+        now = 500;
+        store.getCart("b");
+        now = 1_200;
+        assertEquals(1, store.evictExpired());
+        assertNull(store.getCartIfPresent("a"));
+        assertNotNull(store.getCartIfPresent("b"));
+    }
+
+    @Test
+    public void evictsPastMaxBytes(){
+        CartStore bytesBound = new CartStore(InMemoryCart::new, 0, 250, 0, cart -> 100, () -> now);
+        bytesBound.getCart("a");
+        bytesBound.getCart("b");
+        bytesBound.getCart("c");
+        assertEquals(2, bytesBound.size());
+        assertEquals(200, bytesBound.getEstimatedBytes());
+    }
+
+    @Test
+    public void evictionListenerSeesEvictedCarts(){
+        List<String> evicted = new ArrayList<>();
+        store.setEvictionListener((id, cart) -> evicted.add(id));
+        store.getCart("a");
+        now = 2_000;
+        store.getCart("b");
+        assertEquals(List.of("a"), evicted);
+    }
+
+    @Test
+    public void removeCartIsNotAnEviction(){
+        store.getCart("a");
+        assertNotNull(store.removeCart("a"));
+        assertEquals(0, store.size());
+        assertEquals(0, store.getEstimatedBytes());
+        assertEquals(0, store.getEvictionCount());
+    }
+
+    @Test
+    public void handleKeepsItsCartUntilEvicted(){
+        CartStore.Handle handle = store.getHandle("a");
+        Cart cart = handle.cart();
+        assertSame(store.getCart("a"), cart);
+        now = 900;
+        assertSame(cart, handle.cart());        // counts as an access, so the TTL restarts
+        now = 1_500;
+        assertEquals(0, store.evictExpired());
+        assertEquals(1, store.getMissCount());
+        assertEquals(2, store.getHitCount());
+        now = 3_000;
+        Cart replacement = handle.cart();
+        assertNotSame(cart, replacement);
+        assertSame(replacement, store.getCartIfPresent("a"));
+        assertEquals(1, store.getEvictionCount());
+    }
+
+    @Test
+    public void concurrentHitsKeepTheStoreWithinItsLimits() throws Exception {
+        CartStore bounded = new CartStore(InMemoryCart::new, 50, 0, 0, cart -> 100, () -> now);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int seed = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    bounded.getCart("s" + ((i * 31 + seed) % 200));
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) thread.join();
+        assertTrue(bounded.size() <= 50);
+        assertEquals(100L * bounded.size(), bounded.getEstimatedBytes());
+        assertEquals(80_000, bounded.getHitCount() + bounded.getMissCount());
+    }
+
+    @Test
+    public void sizeIsEstimatedOnlyByTheCartsOwnAccesses(){
+        List<Cart> estimated = new ArrayList<>();
+        CartStore sized = new CartStore(InMemoryCart::new, 0, 0, 0, cart -> {
+            estimated.add(cart);
+            return 100 + 10L * cart.getLines().size();
+        }, () -> now);
+        Cart alice = sized.getCart("alice");
+        Cart bob = sized.getCart("bob");
+        alice.addItemToCart(APPLE, 1);
+        sized.getCart("alice");                 // queued, with alice's new size
+
+        estimated.clear();
+        for (int i = 0; i < 100; i++) sized.getCart("bob");     // bob's lookups replay alice's access
+        assertTrue(estimated.stream().allMatch(cart -> cart == bob));
+        assertEquals(210, sized.getEstimatedBytes());
+    }
+
+    @Test
+    public void blankSessionIdThrows(){
+        assertThrows(IllegalArgumentException.class, () -> store.getCart(" "));
+        assertThrows(IllegalArgumentException.class, () -> store.getCart(null));
+    }
+}
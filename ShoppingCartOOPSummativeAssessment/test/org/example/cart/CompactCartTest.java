@@ -0,0 +1,146 @@
+package org.example.cart;
+
+import org.example.model.CartLine;
+import org.example.model.Item;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactCartTest {
+
+    private CompactCart cart;
+    final private Item APPLE = new Item("APL", "Apple", new BigDecimal("0.89"));
+    final private Item MILK = new Item("MLK", "Milk (1 gal)", new BigDecimal("3.49"));
+
+    @BeforeEach
+    public void setup(){
+        cart = new CompactCart();
+    }
+
+    @Test
+    public void emptyCartSubtotalIsZero(){
+        assertEquals(0, cart.getSubtotalCents());
+        assertTrue(cart.getLines().isEmpty());
+    }
+
+    @Test
+    public void addThenSubtotalAccumulates(){
+        cart.addItemToCart(APPLE, 2);
+        cart.addItemToCart(MILK, 1);
+        assertEquals(527, cart.getSubtotalCents());
+        assertEquals(new BigDecimal("5.27"), cart.getSubtotal());
+    }
+
+    @Test
+    public void addSameItemMergesQuantity(){
+        cart.addItemToCart(APPLE, 1);
+        cart.addItemToCart(APPLE, 2);
+        List<CartLine> lines = cart.getLines();
+        assertEquals(1, lines.size());
+        assertEquals(3, lines.get(0).getQuantity());
+        assertSame(APPLE, lines.get(0).getItem());
+    }
+
+    @Test
+    public void removeMoreThanExistingDeletesLine(){
+        cart.addItemToCart(APPLE, 2);
+        cart.removeItemFromCart(APPLE, 5);
+        assertTrue(cart.getLines().isEmpty());
+        assertEquals(0, cart.getSubtotalCents());
+    }
+
+    @Test
+    public void invalidQuantitiesThrow(){
+        assertThrows(IllegalArgumentException.class, () -> cart.addItemToCart(APPLE, 0));
+        cart.addItemToCart(APPLE, 1);
+        assertThrows(IllegalArgumentException.class, () -> cart.removeItemFromCart(APPLE, -1));
+    }
+
+    @Test
+    public void checkoutReturnsTotalAndEmptiesCart(){
+        cart.addItemToCart(APPLE, 2);
+        cart.addItemToCart(MILK, 1);
+        assertEquals(new BigDecimal("5.27"), cart.checkout());
+        assertTrue(cart.getLines().isEmpty());
+        assertEquals(0, cart.getSubtotalCents());
+    }
+
+    @Test
+    public void matchesInMemoryCartUnderRandomAddsAndRemoves(){
+        Random random = new Random(42);
+        InMemoryCart reference = new InMemoryCart();
+        Item[] items = new Item[200];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = new Item("R" + i, "Random " + i, BigDecimal.valueOf(random.nextInt(1000), 2));
+        }
+        for (int i = 0; i < 20_000; i++) {
+            Item item = items[random.nextInt(items.length)];
+            int quantity = 1 + random.nextInt(5);
+            if (random.nextBoolean()) {
+                cart.addItemToCart(item, quantity);
+                reference.addItemToCart(item, quantity);
+            } else {
+                cart.removeItemFromCart(item, quantity);
+                reference.removeItemFromCart(item, quantity);
+            }
+        }
+        assertEquals(0, reference.getSubtotal().compareTo(cart.getSubtotal()));
+        assertEquals(reference.getLines().size(), cart.getLines().size());
+        for (CartLine line : cart.getLines()) {
+            CartLine expected = reference.getLines().stream()
+                    .filter(l -> l.getItem().equals(line.getItem()))
+                    .findFirst()
+                    .orElseThrow();
+            assertEquals(expected.getQuantity(), line.getQuantity());
+        }
+    }
+
+    @Test
+    public void applyAllMatchesInMemoryCart(){
+        Random random = new Random(3);
+        InMemoryCart reference = new InMemoryCart();
+        Item[] items = new Item[50];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = new Item("B" + i, "Batch " + i, BigDecimal.valueOf(random.nextInt(1000), 2));
+        }
+        for (int round = 0; round < 500; round++) {
+            List<CartDelta> deltas = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                Item item = items[random.nextInt(items.length)];
+                int quantity = 1 + random.nextInt(5);
+                deltas.add(random.nextBoolean() ? CartDelta.add(item, quantity) : CartDelta.remove(item, quantity));
+            }
+            cart.applyAll(deltas);
+            reference.applyAll(deltas);
+        }
+        assertEquals(0, reference.getSubtotal().compareTo(cart.getSubtotal()));
+        assertEquals(reference.getLines().size(), cart.getLines().size());
+    }
+
+    @Test
+    public void mergeFromAnotherCartType(){
+        cart.addItemToCart(APPLE, 1);
+        InMemoryCart guest = new InMemoryCart();
+        guest.addItemToCart(APPLE, 2);
+        guest.addItemToCart(MILK, 1);
+        cart.mergeFrom(guest);
+        assertEquals(2, cart.getLines().size());
+        assertEquals(0, new BigDecimal("6.16").compareTo(cart.getSubtotal()));
+    }
+
+    @Test
+    public void quantityOfLooksUpOneLine(){
+        cart.addItemToCart(APPLE, 3);
+        cart.removeItemFromCart(APPLE, 1);
+        assertEquals(2, cart.quantityOf(APPLE));
+        assertEquals(0, cart.quantityOf(new Item("MLK", "Milk (1 gal)", new BigDecimal("3.49"))));
+        cart.removeItemFromCart(APPLE, 5);
+        assertEquals(0, cart.quantityOf(APPLE));
+    }
+}
@@ -0,0 +1,196 @@
+package org.example.cart;
+
+import org.example.model.CartLine;
+import org.example.model.Item;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentCartTest {
+
+    private ConcurrentCart cart;
+    final private Item ONE_DOLLAR = new Item("ONE", "One Dollar Item", new BigDecimal("1.00"));
+    final private Item APPLE = new Item("APL", "Apple", new BigDecimal("0.89"));
+
+    @BeforeEach
+    public void setup(){
+        cart = new ConcurrentCart();
+    }
+
+    @Test
+    public void addThenSubtotalAccumulates(){
+        cart.addItemToCart(APPLE, 2);
+        cart.addItemToCart(ONE_DOLLAR, 1);
+        assertEquals(0, new BigDecimal("2.78").compareTo(cart.getSubtotal()));
+    }
+
+    @Test
+    public void addSameItemMergesQuantity(){
+        cart.addItemToCart(APPLE, 1);
+        cart.addItemToCart(APPLE, 2);
+        List<CartLine> lines = cart.getLines();
+        assertEquals(1, lines.size());
+        assertEquals(3, lines.get(0).getQuantity());
+    }
+
+    @Test
+    public void removeDeletesLineWhenZero(){
+        cart.addItemToCart(APPLE, 2);
+        cart.removeItemFromCart(APPLE, 5);
+        assertTrue(cart.getLines().isEmpty());
+        assertEquals(0, BigDecimal.ZERO.compareTo(cart.getSubtotal()));
+    }
+
+    @Test
+    public void invalidQuantitiesThrow(){
+        assertThrows(IllegalArgumentException.class, () -> cart.addItemToCart(APPLE, 0));
+        cart.addItemToCart(APPLE, 1);
+        assertThrows(IllegalArgumentException.class, () -> cart.removeItemFromCart(APPLE, -1));
+    }
+
+    @Test
+    public void checkoutReturnsTotalAndEmptiesCart(){
+        cart.addItemToCart(APPLE, 2);
+        cart.addItemToCart(ONE_DOLLAR, 1);
+        assertEquals(0, new BigDecimal("2.78").compareTo(cart.checkout()));
+        assertTrue(cart.getLines().isEmpty());
+    }
+
+    @Test
+    public void concurrentAddsAreNotLost() throws Exception {
+        int threads = 8;
+        int addsPerThread = 10_000;
+        runConcurrently(threads, () -> {
+            for (int i = 0; i < addsPerThread; i++) {
+                cart.addItemToCart(ONE_DOLLAR, 1);
+            }
+        });
+        assertEquals(threads * addsPerThread, cart.getLines().get(0).getQuantity());
+    }
+
+    @Test
+    public void addsRacingCheckoutAreChargedExactlyOnce() throws Exception {
+        int threads = 4;
+        int addsPerThread = 20_000;
+        AtomicReference<BigDecimal> checkedOut = new AtomicReference<>(BigDecimal.ZERO);
+        CountDownLatch addersDone = new CountDownLatch(threads);
+
+        Thread cashier = new Thread(() -> {
+            while (addersDone.getCount() > 0) {
+                checkedOut.accumulateAndGet(cart.checkout(), BigDecimal::add);
+            }
+        });
+        cashier.start();
+        runConcurrently(threads, () -> {
+            for (int i = 0; i < addsPerThread; i++) {
+                cart.addItemToCart(ONE_DOLLAR, 1);
+            }
+            addersDone.countDown();
+        });
+        cashier.join();
+
+        BigDecimal total = checkedOut.get().add(cart.checkout());
+        assertEquals(0, new BigDecimal(threads * addsPerThread).compareTo(total));
+    }
+
+    @Test
+    public void readersNeverSeeHalfABatch() throws Exception {
+        int batches = 20_000;
+        List<CartDelta> batch = List.of(CartDelta.add(ONE_DOLLAR, 1), CartDelta.add(APPLE, 1));
+        AtomicReference<BigDecimal> torn = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < batches; i++) {
+                cart.applyAll(batch);
+            }
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            BigDecimal subtotal = cart.getSubtotal();
+            if (subtotal.remainder(new BigDecimal("1.89")).signum() != 0) torn.set(subtotal);
+        }
+        writer.join();
+        assertNull(torn.get());
+        assertEquals(0, new BigDecimal("1.89").multiply(BigDecimal.valueOf(batches)).compareTo(cart.getSubtotal()));
+    }
+
+    @Test
+    public void lineReadersNeverSeeHalfABatch() throws Exception {
+        int batches = 20_000;
+        List<CartDelta> batch = List.of(CartDelta.add(ONE_DOLLAR, 1), CartDelta.add(APPLE, 1));
+        AtomicReference<List<CartLine>> torn = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < batches; i++) {
+                cart.applyAll(batch);
+            }
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            List<CartLine> lines = cart.getLines();
+            if (lines.size() == 1 || (lines.size() == 2 && lines.get(0).getQuantity() != lines.get(1).getQuantity())) {
+                torn.set(lines);
+            }
+        }
+        writer.join();
+        assertNull(torn.get());
+    }
+
+    @Test
+    public void readersSeeAWholeMergeOrNone() throws Exception {
+        InMemoryCart guest = new InMemoryCart();
+        for (int i = 0; i < 100; i++) {
+            guest.addItemToCart(new Item("G" + i, "Guest item " + i, new BigDecimal("1.00")), 1);
+        }
+        AtomicReference<BigDecimal> torn = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            BigDecimal subtotal;
+            do {
+                subtotal = cart.getSubtotal();
+                if (subtotal.signum() != 0 && subtotal.compareTo(new BigDecimal("100.00")) != 0) torn.set(subtotal);
+            } while (subtotal.signum() == 0);
+        });
+        reader.start();
+        cart.mergeFrom(guest);
+        reader.join();
+        assertNull(torn.get());
+        assertEquals(100, cart.getLines().size());
+    }
+
+    private static void runConcurrently(int threads, Runnable task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Thread t = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                task.run();
+            });
+            t.start();
+            workers.add(t);
+        }
+        start.countDown();
+        for (Thread t : workers) {
+            t.join();
+        }
+    }
+
+    @Test
+    public void quantityOfLooksUpOneLine(){
+        cart.addItemToCart(APPLE, 3);
+        cart.removeItemFromCart(APPLE, 1);
+        assertEquals(2, cart.quantityOf(APPLE));
+        assertEquals(0, cart.quantityOf(ONE_DOLLAR));
+        cart.removeItemFromCart(APPLE, 5);
+        assertEquals(0, cart.quantityOf(APPLE));
+    }
+}
@@ -3,10 +3,14 @@ package org.example.cart;
 import org.example.catalog.StaticCatalog;
 import org.example.model.CartLine;
 import org.example.model.Item;
+import org.example.model.Money;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Currency;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -162,4 +166,115 @@ import static org.junit.jupiter.api.Assertions.*;
             // current code dereferences item.getSku() without null check
             assertThrows(NullPointerException.class, () -> cart.addItemToCart(null, 1));
         }
-    }
\ No newline at end of file
+
+        @Test
+        void runningSubtotalMatchesRecomputeInVerifyMode() {
+            StaticCatalog cat = new StaticCatalog();
+            List<Item> items = cat.getCatalogItems();
+
+            InMemoryCart cart = new InMemoryCart(true); // verify mode throws on any drift
+            Random random = new Random(7);
+            for (int i = 0; i < 5_000; i++) {
+                Item item = items.get(random.nextInt(items.size()));
+                if (random.nextBoolean()) {
+                    cart.addItemToCart(item, 1 + random.nextInt(4));
+                } else {
+                    cart.removeItemFromCart(item, 1 + random.nextInt(4));
+                }
+                assertDoesNotThrow(cart::getSubtotal);
+            }
+            BigDecimal expected = BigDecimal.ZERO;
+            for (CartLine line : cart.getLines()) {
+                expected = expected.add(line.getLineTotal());
+            }
+            assertBigEq(expected.toPlainString(), cart.checkout());
+            assertBigEq("0.00", cart.getSubtotal());
+        }
+
+        @Test
+        void applyAllMatchesOneCallPerDelta() {
+            StaticCatalog cat = new StaticCatalog();
+            List<Item> items = cat.getCatalogItems();
+            InMemoryCart batched = new InMemoryCart(true);
+            InMemoryCart reference = new InMemoryCart();
+            Random random = new Random(11);
+            for (int round = 0; round < 200; round++) {
+                List<CartDelta> deltas = new ArrayList<>();
+                for (int i = 0; i < 20; i++) {
+                    Item item = items.get(random.nextInt(items.size()));
+                    int quantity = 1 + random.nextInt(4);
+                    if (random.nextBoolean()) {
+                        deltas.add(CartDelta.add(item, quantity));
+                        reference.addItemToCart(item, quantity);
+                    } else {
+                        deltas.add(CartDelta.remove(item, quantity));
+                        reference.removeItemFromCart(item, quantity);
+                    }
+                }
+                List<CartLine> lines = batched.applyAll(deltas);
+                assertEquals(reference.getLines().size(), lines.size());
+                for (CartLine line : lines) {
+                    CartLine expected = findBySku(reference.getLines(), line.getItem().getSku());
+                    assertNotNull(expected);
+                    assertEquals(expected.getQuantity(), line.getQuantity());
+                }
+                assertBigEq(reference.getSubtotal().toPlainString(), batched.getSubtotal());
+            }
+        }
+
+        @Test
+        void applyAllIsAllOrNothing() {
+            InMemoryCart cart = new InMemoryCart();
+            Item apple = new Item("APL", "Apple", new BigDecimal("0.89"));
+            Item croissant = Item.of("CRS", "Croissant", Money.ofMinor(250, Currency.getInstance("EUR")));
+            cart.addItemToCart(apple, 1);
+
+            assertThrows(IllegalArgumentException.class,
+                    () -> cart.applyAll(List.of(CartDelta.add(apple, 5), CartDelta.add(croissant, 1))));
+            assertEquals(1, cart.getLines().size());
+            assertEquals(1, cart.getLines().get(0).getQuantity());
+            assertBigEq("0.89", cart.getSubtotal());
+        }
+
+        @Test
+        void mergeFromAppliesPolicyToSharedLines() {
+            Item apple = new Item("APL", "Apple", new BigDecimal("0.89"));
+            Item milk = new Item("MLK", "Milk", new BigDecimal("3.49"));
+            Item bread = new Item("BRD", "Bread", new BigDecimal("2.50"));
+
+            InMemoryCart guest = new InMemoryCart();
+            guest.addItemToCart(apple, 2);
+            guest.addItemToCart(bread, 1);
+
+            InMemoryCart summed = new InMemoryCart();
+            summed.addItemToCart(apple, 3);
+            summed.addItemToCart(milk, 1);
+            summed.mergeFrom(guest);
+            assertEquals(5, findBySku(summed.getLines(), "APL").getQuantity());
+            assertEquals(1, findBySku(summed.getLines(), "BRD").getQuantity());
+            assertBigEq("10.44", summed.getSubtotal());      // 5*0.89 + 3.49 + 2.50
+
+            InMemoryCart max = new InMemoryCart();
+            max.addItemToCart(apple, 3);
+            max.mergeFrom(guest, MergePolicy.KEEP_MAX);
+            assertEquals(3, findBySku(max.getLines(), "APL").getQuantity());
+
+            InMemoryCart newest = new InMemoryCart();
+            newest.addItemToCart(apple, 3);
+            newest.mergeFrom(guest, MergePolicy.KEEP_NEWEST);
+            assertEquals(2, findBySku(newest.getLines(), "APL").getQuantity());
+            assertBigEq("4.28", newest.getSubtotal());
+
+            // The guest cart is only read
+            assertEquals(2, guest.getLines().size());
+            assertBigEq("4.28", guest.getSubtotal());
+        }
+
+        @Test
+        void mergeFromRejectsBadArguments() {
+            InMemoryCart cart = new InMemoryCart();
+            assertThrows(IllegalArgumentException.class, () -> cart.mergeFrom(null));
+            assertThrows(IllegalArgumentException.class, () -> cart.mergeFrom(cart));
+            assertThrows(IllegalArgumentException.class, () -> cart.mergeFrom(new InMemoryCart(), null));
+        }
+    }
@@ -0,0 +1,198 @@
+package org.example.cart.events;
+
+import org.example.cart.CartDelta;
+import org.example.cart.InMemoryCart;
+import org.example.model.Item;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CartEventStreamTest {
+
+    private CartEventStream stream;
+    final private Item APPLE = new Item("APL", "Apple", new BigDecimal("0.89"));
+    final private Item MILK = new Item("MLK", "Milk (1 gal)", new BigDecimal("3.49"));
+
+    @AfterEach
+    public void close() {
+        if (stream != null) stream.close();
+    }
+
+    // Records every event it gets; handy for asserting order
+    private static List<CartEvent> recordInto(CartEventStream stream) {
+        List<CartEvent> seen = Collections.synchronizedList(new ArrayList<>());
+        stream.subscribe(seen::addAll);
+        return seen;
+    }
+
+    @Test
+    public void publishingCartEventsReachEveryListenerInOrder() throws InterruptedException {
+        stream = new CartEventStream();
+        List<CartEvent> first = recordInto(stream);
+        List<CartEvent> second = recordInto(stream);
+        PublishingCart cart = new PublishingCart("alice", new InMemoryCart(), stream);
+
+        cart.addItemToCart(APPLE, 2);
+        cart.applyAll(List.of(CartDelta.add(MILK, 1), CartDelta.remove(APPLE, 1)));
+        cart.checkout();
+        assertTrue(stream.awaitDelivery(5, TimeUnit.SECONDS));
+
+        assertEquals(4, first.size());
+        assertEquals(first, second);
+        assertTrue(first.get(0) instanceof CartEvent.ItemAdded);
+        assertTrue(first.get(2) instanceof CartEvent.ItemRemoved);
+        CartEvent.CheckedOut checkout = (CartEvent.CheckedOut) first.get(3);
+        assertEquals(0, new BigDecimal("4.38").compareTo(checkout.getTotal().toBigDecimal()));
+        assertEquals("alice", checkout.getCartId());
+    }
+
+    @Test
+    public void removalsPublishTheQuantityActuallyRemoved() throws InterruptedException {
+        stream = new CartEventStream();
+        List<CartEvent> seen = recordInto(stream);
+        PublishingCart cart = new PublishingCart("alice", new InMemoryCart(), stream);
+
+        cart.removeItemFromCart(MILK, 2);                   // not in the cart
+        cart.addItemToCart(APPLE, 2);
+        cart.removeItemFromCart(APPLE, 5);                  // more than the line holds
+        cart.applyAll(List.of(CartDelta.add(MILK, 1), CartDelta.remove(MILK, 3), CartDelta.remove(APPLE, 1)));
+        assertTrue(stream.awaitDelivery(5, TimeUnit.SECONDS));
+
+        assertEquals(4, seen.size());                       // add APL, remove APL, add MLK, remove MLK
+        assertEquals(2, ((CartEvent.ItemRemoved) seen.get(1)).getQuantity());
+        assertEquals(1, ((CartEvent.ItemAdded) seen.get(2)).getQuantity());
+        assertEquals(1, ((CartEvent.ItemRemoved) seen.get(3)).getQuantity());
+        assertTrue(cart.getLines().isEmpty());
+    }
+
+    @Test
+    public void failedCartChangesPublishNothing() throws InterruptedException {
+        stream = new CartEventStream();
+        List<CartEvent> seen = recordInto(stream);
+        PublishingCart cart = new PublishingCart("alice", new InMemoryCart(), stream);
+        assertThrows(IllegalArgumentException.class, () -> cart.addItemToCart(APPLE, 0));
+        assertTrue(stream.awaitDelivery(5, TimeUnit.SECONDS));
+        assertTrue(seen.isEmpty());
+    }
+
+    @Test
+    public void dropPolicyNeverBlocksThePublisher() throws InterruptedException {
+        stream = new CartEventStream(4, 4, CartEventStream.Backpressure.DROP);
+        CountDownLatch release = new CountDownLatch(1);
+        stream.subscribe(events -> awaitQuietly(release));
+
+        int accepted = 0;
+        for (int i = 0; i < 100; i++) {
+            if (stream.publish(new CartEvent.ItemAdded("alice", APPLE, 1))) accepted++;
+        }
+        release.countDown();
+        assertTrue(stream.awaitDelivery(5, TimeUnit.SECONDS));
+        assertEquals(100, accepted + stream.getDropped());
+        assertEquals(accepted, stream.getDelivered());
+    }
+
+    @Test
+    public void coalescePolicyFoldsQuantitiesInsteadOfDropping() throws InterruptedException {
+        stream = new CartEventStream(2, 1, CartEventStream.Backpressure.COALESCE);
+        CountDownLatch release = new CountDownLatch(1);
+        List<CartEvent> seen = Collections.synchronizedList(new ArrayList<>());
+        stream.subscribe(events -> {
+            awaitQuietly(release);
+            seen.addAll(events);
+        });
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(stream.publish(new CartEvent.ItemAdded("alice", APPLE, 1)));
+        }
+        release.countDown();
+        assertTrue(stream.awaitDelivery(5, TimeUnit.SECONDS));
+
+        int total = 0;
+        for (CartEvent event : seen) {
+            total += ((CartEvent.ItemAdded) event).getQuantity();
+        }
+        assertEquals(50, total);
+        assertTrue(stream.getCoalesced() > 0);
+        assertEquals(0, stream.getDropped());
+    }
+
+    @Test
+    public void coalesceOnlyFoldsIntoTheCartsNewestEvent() throws InterruptedException {
+        stream = new CartEventStream(4, 1, CartEventStream.Backpressure.COALESCE);
+        CountDownLatch taken = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<CartEvent> seen = Collections.synchronizedList(new ArrayList<>());
+        stream.subscribe(events -> {
+            taken.countDown();
+            awaitQuietly(release);
+            seen.addAll(events);
+        });
+
+        stream.publish(new CartEvent.ItemAdded("warmup", MILK, 1));        // held by the blocked listener
+        assertTrue(taken.await(5, TimeUnit.SECONDS));
+        stream.publish(new CartEvent.ItemAdded("alice", APPLE, 1));
+        stream.publish(new CartEvent.ItemAdded("bob", APPLE, 1));
+        stream.publish(new CartEvent.ItemRemoved("alice", MILK, 1));
+        stream.publish(new CartEvent.ItemAdded("bob", MILK, 1));            // ring full from here
+        assertTrue(stream.publish(new CartEvent.ItemAdded("bob", MILK, 2)));
+        assertFalse(stream.publish(new CartEvent.ItemAdded("alice", APPLE, 1)), "would jump alice's removal");
+        assertTrue(stream.publish(new CartEvent.ItemRemoved("alice", MILK, 4)));
+        release.countDown();
+        assertTrue(stream.awaitDelivery(5, TimeUnit.SECONDS));
+
+        assertEquals(5, seen.size());
+        assertEquals(3, ((CartEvent.ItemAdded) seen.get(4)).getQuantity());
+        assertEquals(5, ((CartEvent.ItemRemoved) seen.get(3)).getQuantity());
+        assertEquals(2, stream.getCoalesced());
+        assertEquals(1, stream.getDropped());
+    }
+
+    @Test
+    public void blockPolicyLosesNothing() throws InterruptedException {
+        stream = new CartEventStream(8, 2, CartEventStream.Backpressure.BLOCK);
+        List<CartEvent> seen = recordInto(stream);
+        stream.subscribe(events -> sleepQuietly(1));
+        for (int i = 0; i < 200; i++) {
+            stream.publish(new CartEvent.ItemRemoved("alice", MILK, 1));
+        }
+        assertTrue(stream.awaitDelivery(5, TimeUnit.SECONDS));
+        assertEquals(200, seen.size());
+        assertEquals(0, stream.getDropped());
+    }
+
+    @Test
+    public void aThrowingListenerDoesNotStopTheOthers() throws InterruptedException {
+        stream = new CartEventStream();
+        stream.subscribe(events -> { throw new IllegalStateException("broken listener"); });
+        List<CartEvent> seen = recordInto(stream);
+        stream.publish(new CartEvent.ItemAdded("alice", APPLE, 1));
+        stream.publish(new CartEvent.ItemAdded("alice", APPLE, 1));
+        assertTrue(stream.awaitDelivery(5, TimeUnit.SECONDS));
+        assertEquals(2, seen.size());
+        assertTrue(stream.getListenerFailures() > 0);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
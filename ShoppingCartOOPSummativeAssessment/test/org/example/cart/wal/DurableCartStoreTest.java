@@ -0,0 +1,173 @@
+package org.example.cart.wal;
+
+import org.example.cart.CartDelta;
+import org.example.cart.InMemoryCart;
+import org.example.cart.MergePolicy;
+import org.example.model.CartLine;
+import org.example.model.Item;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DurableCartStoreTest {
+
+    @TempDir
+    Path dir;
+
+    final private Item APPLE = new Item("APL", "Apple", new BigDecimal("0.89"));
+    final private Item MILK = new Item("MLK", "Milk (1 gal)", new BigDecimal("3.49"));
+
+    private DurableCartStore open() throws IOException {
+        return DurableCartStore.open(dir, InMemoryCart::new, true, 0);
+    }
+
+    private static int quantityOf(DurableCart cart, Item item) {
+        for (CartLine line : cart.getLines()) {
+            if (line.getItem().equals(item)) return line.getQuantity();
+        }
+        return 0;
+    }
+
+    @Test
+    public void changesSurviveReopen() throws IOException {
+        try (DurableCartStore store = open()) {
+            DurableCart alice = store.getCart("alice");
+            alice.addItemToCart(APPLE, 3);
+            alice.removeItemFromCart(APPLE, 1);
+            alice.applyAll(List.of(CartDelta.add(MILK, 2), CartDelta.remove(APPLE, 1)));
+
+            DurableCart bob = store.getCart("bob");
+            bob.addItemToCart(MILK, 1);
+            bob.checkout();
+
+            InMemoryCart guest = new InMemoryCart();
+            guest.addItemToCart(APPLE, 5);
+            store.getCart("carol").mergeFrom(guest, MergePolicy.KEEP_MAX);
+        }
+        try (DurableCartStore store = open()) {
+            DurableCart alice = store.getCart("alice");
+            assertEquals(1, quantityOf(alice, APPLE));
+            assertEquals(2, quantityOf(alice, MILK));
+            assertEquals(0, new BigDecimal("7.87").compareTo(alice.getSubtotal()));
+            assertTrue(store.getCart("bob").getLines().isEmpty());
+            assertEquals(5, quantityOf(store.getCart("carol"), APPLE));
+            assertEquals(6, store.getRecoveredRecords());
+        }
+    }
+
+    @Test
+    public void checkpointTruncatesLogAndRecoveryReplaysOnlyTheTail() throws IOException {
+        try (DurableCartStore store = open()) {
+            DurableCart cart = store.getCart("alice");
+            for (int i = 0; i < 100; i++) {
+                cart.addItemToCart(APPLE, 1);
+            }
+            store.checkpoint();
+            cart.addItemToCart(MILK, 1);
+        }
+        List<Path> segments = new ArrayList<>();
+        try (var files = Files.list(dir)) {
+            files.filter(p -> p.getFileName().toString().startsWith("wal-")).forEach(segments::add);
+        }
+        assertEquals(1, segments.size());
+
+        try (DurableCartStore store = open()) {
+            assertEquals(1, store.getRecoveredRecords());
+            assertEquals(100, quantityOf(store.getCart("alice"), APPLE));
+            assertEquals(1, quantityOf(store.getCart("alice"), MILK));
+        }
+    }
+
+    @Test
+    public void tornRecordAtTheEndOfTheLogIsDropped() throws IOException {
+        try (DurableCartStore store = open()) {
+            store.getCart("alice").addItemToCart(APPLE, 2);
+        }
+        Path segment = SegmentLog.segmentPath(dir, 1);
+        Files.write(segment, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (DurableCartStore store = open()) {
+            assertEquals(2, quantityOf(store.getCart("alice"), APPLE));
+            store.getCart("alice").addItemToCart(APPLE, 1);
+        }
+        try (DurableCartStore store = open()) {
+            assertEquals(3, quantityOf(store.getCart("alice"), APPLE));
+        }
+    }
+
+    @Test
+    public void concurrentWritersShareCommitsWithoutLosingRecords() throws Exception {
+        int threads = 8;
+        int addsPerThread = 200;
+        try (DurableCartStore store = DurableCartStore.open(dir, InMemoryCart::new, true, 500)) {
+            List<Thread> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                DurableCart cart = store.getCart("cart-" + (t % 2));
+                Thread worker = new Thread(() -> {
+                    for (int i = 0; i < addsPerThread; i++) {
+                        cart.addItemToCart(APPLE, 1);
+                    }
+                });
+                worker.start();
+                workers.add(worker);
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            assertNull(store.getLastSnapshotFailure());
+        }
+        try (DurableCartStore store = open()) {
+            assertEquals(threads / 2 * addsPerThread, quantityOf(store.getCart("cart-0"), APPLE));
+            assertEquals(threads / 2 * addsPerThread, quantityOf(store.getCart("cart-1"), APPLE));
+        }
+    }
+
+    @Test
+    public void cartsMergingIntoEachOtherDoNotDeadlock() throws Exception {
+        try (DurableCartStore store = DurableCartStore.open(dir, InMemoryCart::new, false, 0)) {
+            DurableCart a = store.getCart("a");
+            DurableCart b = store.getCart("b");
+            a.addItemToCart(APPLE, 1);
+            b.addItemToCart(MILK, 1);
+            Thread aIntoB = mergeRepeatedly(a, b);
+            Thread bIntoA = mergeRepeatedly(b, a);
+            aIntoB.join(10_000);
+            bIntoA.join(10_000);
+            assertFalse(aIntoB.isAlive() || bIntoA.isAlive(), "merges deadlocked");
+            assertEquals(1, quantityOf(a, MILK));
+            assertEquals(1, quantityOf(b, APPLE));
+        }
+    }
+
+    private static Thread mergeRepeatedly(DurableCart from, DurableCart into) {
+        Thread merger = new Thread(() -> {
+            for (int i = 0; i < 5_000; i++) {
+                into.mergeFrom(from, MergePolicy.KEEP_MAX);
+            }
+        });
+        merger.setDaemon(true);
+        merger.start();
+        return merger;
+    }
+
+    @Test
+    public void invalidChangesAreNotLogged() throws IOException {
+        try (DurableCartStore store = open()) {
+            DurableCart cart = store.getCart("alice");
+            assertThrows(IllegalArgumentException.class, () -> cart.addItemToCart(APPLE, 0));
+            assertThrows(IllegalArgumentException.class, () -> store.getCart(" "));
+        }
+        try (DurableCartStore store = open()) {
+            assertEquals(0, store.getRecoveredRecords());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.catalog;
+
+import org.example.model.Item;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CatalogImporterTest {
+
+    private StaticCatalog catalog;
+    private CatalogImporter importer;
+
+    @BeforeEach
+    public void setup(){
+        catalog = new StaticCatalog();
+        importer = new CatalogImporter(2, 3);     // tiny chunks so every test crosses chunk boundaries
+    }
+
+    @Test
+    public void csvFeedUpdatesExistingAndAddsNewItems() throws IOException {
+        String feed = "sku,name,price\nAPL,Apple,0.99\nKIW,Kiwi,0.45\n\nMNG,\"Mango, ripe\",1.75\n";
+        ImportResult result = importer.importFeed(new StringReader(feed), CatalogImporter.Format.CSV,
+                CatalogImporter.ErrorPolicy.ALL_OR_NOTHING, catalog);
+
+        assertTrue(result.isCommitted());
+        assertEquals(3, result.getRowsRead());
+        assertEquals(3, result.getItemsApplied());
+        assertEquals(new BigDecimal("0.99"), catalog.findItemBySKU("APL").getUnitPrice());
+        assertEquals(0, catalog.getCatalogItems().indexOf(catalog.findItemBySKU("APL")), "upsert keeps position");
+        assertEquals("Mango, ripe", catalog.findItemBySKU("MNG").getName());
+        assertEquals(7, catalog.getCatalogItems().size());
+    }
+
+    @Test
+    public void allOrNothingAppliesNothingOnAnyError() throws IOException {
+        String feed = "APL,Apple,0.99\nBAD,,1.00\nKIW,Kiwi,-1\n";
+        ImportResult result = importer.importFeed(new StringReader(feed), CatalogImporter.Format.CSV,
+                CatalogImporter.ErrorPolicy.ALL_OR_NOTHING, catalog);
+
+        assertFalse(result.isCommitted());
+        assertEquals(2, result.getErrorCount());
+        assertEquals(2, result.getErrors().get(0).getLine());
+        assertEquals(3, result.getErrors().get(1).getLine());
+        assertEquals(new BigDecimal("0.89"), catalog.findItemBySKU("APL").getUnitPrice());
+    }
+
+    @Test
+    public void skipInvalidAppliesValidRows() throws IOException {
+        String feed = "APL,Apple,0.99\nBAD,Bad,abc\nKIW,Kiwi,0.45\n";
+        ImportResult result = importer.importFeed(new StringReader(feed), CatalogImporter.Format.CSV,
+                CatalogImporter.ErrorPolicy.SKIP_INVALID, catalog);
+
+        assertTrue(result.isCommitted());
+        assertEquals(1, result.getErrorCount());
+        assertEquals(2, result.getItemsApplied());
+        assertNotNull(catalog.findItemBySKU("KIW"));
+        assertNull(catalog.findItemBySKU("BAD"));
+    }
+
+    @Test
+    public void jsonLinesFeedIsParsed() throws IOException {
+        String feed = "{\"sku\":\"kiw\",\"name\":\"Kiwi \\\"gold\\\"\",\"price\":0.45}\n"
+                + "{\"sku\":\"CRS\",\"name\":\"Croissant\",\"price\":\"2.50\",\"currency\":\"EUR\"}\n"
+                + "{\"sku\":\"NOP\",\"name\":\"No price\"}\n";
+        ImportResult result = importer.importFeed(new StringReader(feed), CatalogImporter.Format.JSON_LINES,
+                CatalogImporter.ErrorPolicy.SKIP_INVALID, catalog);
+
+        assertEquals(1, result.getErrorCount());
+        assertEquals("Kiwi \"gold\"", catalog.findItemBySKU("KIW").getName());
+        assertEquals("EUR", catalog.findItemBySKU("CRS").getUnitMoney().getCurrency().getCurrencyCode());
+    }
+
+    @Test
+    public void lastRowWinsForRepeatedSku() throws IOException {
+        StringBuilder feed = new StringBuilder();
+        for (int i = 0; i < 1_000; i++) {
+            feed.append("REP,Repeated,").append(i).append(".00\n");
+        }
+        SnapshotCatalog snapshot = new SnapshotCatalog();
+        ImportResult result = importer.importFeed(new StringReader(feed.toString()), CatalogImporter.Format.CSV,
+                CatalogImporter.ErrorPolicy.ALL_OR_NOTHING, snapshot);
+
+        assertEquals(1_000, result.getRowsRead());
+        assertEquals(1, snapshot.getCatalogItems().size());
+        assertEquals(new BigDecimal("999.00"), snapshot.findItemBySKU("REP").getUnitPrice());
+        assertEquals(1, snapshot.getVersion(), "whole feed is one published snapshot");
+        assertTrue(result.getRowsPerSecond() > 0);
+    }
+
+    @Test
+    public void skipInvalidAppliesEveryChunkInOneUpsert() throws IOException {
+        String feed = "AAA,A,1.00\nBBB,B,2.00\nBAD,Bad,abc\nCCC,C,3.00\nAAA,A again,4.00\n";
+        SnapshotCatalog snapshot = new SnapshotCatalog();
+        ImportResult result = importer.importFeed(new StringReader(feed), CatalogImporter.Format.CSV,
+                CatalogImporter.ErrorPolicy.SKIP_INVALID, snapshot);
+
+        assertEquals(1, snapshot.getVersion(), "whole feed is one published snapshot");
+        assertEquals(3, result.getItemsApplied());
+        assertEquals(3, snapshot.getCatalogItems().size());
+        assertEquals(new BigDecimal("4.00"), snapshot.findItemBySKU("AAA").getUnitPrice());
+    }
+
+    @Test
+    public void upsertAllRejectsNullsWithoutApplyingAnything(){
+        List<Item> batch = new ArrayList<>();
+        batch.add(new Item("KIW", "Kiwi", new BigDecimal("0.45")));
+        batch.add(null);
+        assertThrows(IllegalArgumentException.class, () -> catalog.upsertAll(batch));
+        assertNull(catalog.findItemBySKU("KIW"));
+    }
+}
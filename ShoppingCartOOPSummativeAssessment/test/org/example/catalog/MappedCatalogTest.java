@@ -0,0 +1,138 @@
+package org.example.catalog;
+
+import org.example.model.Item;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedCatalogTest {
+
+    @TempDir
+    Path dir;
+
+    private MappedCatalog catalog;
+    final private Item TEST_ITEM = new Item("CHP", "Chips", new BigDecimal("1.99"));
+
+    @BeforeEach
+    public void setup() throws IOException {
+        Path file = dir.resolve("catalog.bin");
+        MappedCatalogWriter.write(new StaticCatalog().getCatalogItems(), file);
+        catalog = MappedCatalog.open(file);
+    }
+
+    @AfterEach
+    public void teardown() throws IOException {
+        catalog.close();
+    }
+
+    @Test
+    public void getCatalogItemsKeepsFileOrder(){
+        assertEquals(new StaticCatalog().getCatalogItems(), catalog.getCatalogItems());
+    }
+
+    @Test
+    public void canGetItemBySKU(){
+        Item actual = catalog.findItemBySKU(" chp ");
+        assertEquals(TEST_ITEM, actual);
+        assertEquals("Chips", actual.getName());
+        assertEquals(0, new BigDecimal("1.99").compareTo(actual.getUnitPrice()));
+        assertNull(catalog.findItemBySKU("NOPE"));
+    }
+
+    @Test
+    public void lookupsReuseTheInternedSku(){
+        Item first = catalog.findItemBySKU("chp");
+        Item second = catalog.getCatalogItems().get(catalog.getCatalogItems().indexOf(TEST_ITEM));
+        assertSame(TEST_ITEM.getSku(), first.getSku());
+        assertSame(first.getSku(), second.getSku());
+        assertNotSame(first, second);
+    }
+
+    @Test
+    public void canGetItemByName(){
+        assertEquals(TEST_ITEM, catalog.findItemByName("chips"));
+        assertEquals(1, catalog.searchByName("chi", 0, 5).getItems().size());
+    }
+
+    @Test
+    public void searchWithAHugeWindowReturnsEveryMatch(){
+        Page<Item> all = catalog.searchByName("e", 0, 100);
+        Page<Item> rest = catalog.searchByName("e", 1, Integer.MAX_VALUE);
+        assertEquals(all.getItems().subList(1, all.getItems().size()), rest.getItems());
+        assertFalse(rest.hasMore());
+    }
+
+    @Test
+    public void isReadOnly(){
+        assertThrows(UnsupportedOperationException.class, () -> catalog.addItemToCatalog(TEST_ITEM));
+        assertThrows(UnsupportedOperationException.class, () -> catalog.removeItemFromCatalog(TEST_ITEM));
+    }
+
+    @Test
+    public void everySkuIsFoundInALargeCatalog() throws IOException {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            items.add(new Item("SKU" + (i * 7919 % 10_000), "Item " + i, BigDecimal.valueOf(i, 2)));
+        }
+        Path file = dir.resolve("large.bin");
+        MappedCatalogWriter.write(items, file);
+        try (MappedCatalog large = MappedCatalog.open(file)) {
+            assertEquals(items.size(), large.size());
+            for (Item item : items) {
+                assertEquals(item.getName(), large.findItemBySKU(item.getSku()).getName());
+            }
+        }
+    }
+
+    @Test
+    public void buildsFromCsvWithHeaderAndQuotes() throws IOException {
+        Path csv = dir.resolve("catalog.csv");
+        Files.writeString(csv, "sku,name,price\nabc,\"Chips, \"\"Salted\"\"\",1.25\nEUR1,Croissant,2.50,eur\n");
+        Path file = dir.resolve("fromCsv.bin");
+        assertEquals(2, MappedCatalogWriter.fromCsv(csv, file));
+        try (MappedCatalog fromCsv = MappedCatalog.open(file)) {
+            assertEquals("Chips, \"Salted\"", fromCsv.findItemBySKU("ABC").getName());
+            assertEquals("EUR", fromCsv.findItemBySKU("EUR1").getUnitMoney().getCurrency().getCurrencyCode());
+        }
+    }
+
+    @Test
+    public void invalidCsvRowReportsLineNumber() throws IOException {
+        Path csv = dir.resolve("bad.csv");
+        Files.writeString(csv, "ABC,Good,1.00\nDEF,,2.00\n");
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> MappedCatalogWriter.fromCsv(csv, dir.resolve("bad.bin")));
+        assertTrue(e.getMessage().startsWith("line 2"));
+    }
+
+    @Test
+    public void rejectsFilesThatAreNotCatalogs() throws IOException {
+        Path junk = dir.resolve("junk.bin");
+        Files.write(junk, new byte[64]);
+        assertThrows(IllegalArgumentException.class, () -> MappedCatalog.open(junk));
+    }
+
+    @Test
+    public void browseWalksTheSkuIndex(){
+        List<String> skus = new ArrayList<>();
+        String cursor = null;
+        Page<Item> page;
+        do {
+            page = catalog.browse(cursor, 2);
+            for (Item item : page.getItems()) skus.add(item.getSku());
+            cursor = skus.get(skus.size() - 1);
+        } while (page.hasMore());
+        assertEquals(List.of("APL", "BRD", "CHP", "EGG", "MLK"), skus);
+        assertEquals(3, catalog.browse("DOG", 3).getOffset());      // EGG, the first SKU after DOG
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.catalog;
+
+import org.example.model.Item;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotCatalogTest {
+
+    private SnapshotCatalog catalog;
+    final private Item APPLE = new Item("APL", "Apple", new BigDecimal("0.89"));
+    final private Item MILK = new Item("MLK", "Milk (1 gal)", new BigDecimal("3.49"));
+
+    @BeforeEach
+    public void setup(){
+        catalog = new SnapshotCatalog(List.of(APPLE, MILK));
+    }
+
+    @Test
+    public void readsDoNotCopy(){
+        assertSame(catalog.getCatalogItems(), catalog.getCatalogItems());
+        assertThrows(UnsupportedOperationException.class, () -> catalog.getCatalogItems().add(APPLE));
+    }
+
+    @Test
+    public void writesPublishNewVersion(){
+        long before = catalog.getVersion();
+        catalog.addItemToCatalog(new Item("BRD", "Bread", new BigDecimal("2.79")));
+        assertEquals(before + 1, catalog.getVersion());
+        catalog.removeItemFromCatalog(APPLE);
+        assertEquals(before + 2, catalog.getVersion());
+    }
+
+    @Test
+    public void oldSnapshotIsUnchangedByWrites(){
+        SnapshotCatalog.Snapshot old = catalog.snapshot();
+        catalog.removeItemFromCatalog(APPLE);
+        assertEquals(List.of(APPLE, MILK), old.getItems());
+        assertEquals(APPLE, old.findItemBySKU("apl"));
+        assertNull(catalog.findItemBySKU("APL"));
+    }
+
+    @Test
+    public void duplicateSkuThrows(){
+        assertThrows(IllegalArgumentException.class, () -> catalog.addItemToCatalog(new Item("apl", "Other", BigDecimal.ONE)));
+        assertThrows(IllegalArgumentException.class, () -> new SnapshotCatalog(List.of(APPLE, APPLE)));
+    }
+
+    @Test
+    public void nameLookupsFollowWrites(){
+        assertEquals(MILK, catalog.findItemByName("milk (1 GAL)"));
+        catalog.removeItemFromCatalog(MILK);
+        assertNull(catalog.findItemByName("Milk (1 gal)"));
+        assertTrue(catalog.searchByName("milk", 0, 5).isEmpty());
+    }
+
+    @Test
+    public void readersAlwaysSeeACompleteSnapshot() throws InterruptedException {
+        AtomicBoolean failed = new AtomicBoolean();
+        AtomicBoolean done = new AtomicBoolean();
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 4; r++) {
+            Thread t = new Thread(() -> {
+                while (!done.get()) {
+                    SnapshotCatalog.Snapshot snap = catalog.snapshot();
+                    for (Item item : snap.getItems()) {
+                        if (snap.findItemBySKU(item.getSku()) == null) failed.set(true);
+                    }
+                }
+            });
+            t.start();
+            readers.add(t);
+        }
+        for (int i = 0; i < 500; i++) {
+            Item item = new Item("T" + i, "Temp " + i, BigDecimal.ONE);
+            catalog.addItemToCatalog(item);
+            if (i % 2 == 0) catalog.removeItemFromCatalog(item);
+        }
+        done.set(true);
+        for (Thread t : readers) t.join();
+        assertFalse(failed.get());
+    }
+
+    @Test
+    public void browseOfAHeldSnapshotIgnoresLaterWrites(){
+        SnapshotCatalog.Snapshot snapshot = catalog.snapshot();
+        catalog.addItemToCatalog(new Item("BRD", "Bread", new BigDecimal("2.79")));
+        assertEquals(List.of(APPLE, MILK), snapshot.browse(null, 5).getItems());
+        assertEquals("BRD", catalog.browse("APL", 1).getItems().get(0).getSku());
+        assertTrue(catalog.browse("APL", 1).hasMore());
+    }
+}
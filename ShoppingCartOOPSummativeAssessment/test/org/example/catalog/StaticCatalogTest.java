@@ -63,4 +63,113 @@ public class StaticCatalogTest {
         assertEquals(TEST_ITEM, actual);
     }
 
+    @Test
+    public void findItemByNameIgnoresCaseAndWhitespace(){
+        assertEquals(TEST_ITEM, catalog.findItemByName("  cHiPs "));
+    }
+
+    @Test
+    public void findItemByNameReturnsNullAfterRemove(){
+        catalog.removeItemFromCatalog(TEST_ITEM);
+        assertNull(catalog.findItemByName("Chips"));
+    }
+
+    @Test
+    public void findItemByNameReturnsFirstAddedOfDuplicateNames(){
+        catalog.addItemToCatalog(new Item("CH2", "Chips", new BigDecimal("2.49")));
+        assertEquals("CHP", catalog.findItemByName("chips").getSku());
+        catalog.removeItemFromCatalog(TEST_ITEM);
+        assertEquals("CH2", catalog.findItemByName("chips").getSku());
+    }
+
+    @Test
+    public void searchRanksExactThenPrefixThenWordThenSubstring(){
+        catalog.addItemToCatalog(new Item("BRS", "Bread Sticks", new BigDecimal("3.29")));
+        catalog.addItemToCatalog(new Item("RYE", "Rye Bread", new BigDecimal("3.99")));
+        catalog.addItemToCatalog(new Item("SWB", "Shortbread", new BigDecimal("4.49")));
+
+        List<String> skus = new ArrayList<>();
+        for (Item i : catalog.searchByName("bread", 0, 10).getItems()) skus.add(i.getSku());
+        assertEquals(List.of("BRD", "BRS", "RYE", "SWB"), skus);
+    }
+
+    @Test
+    public void searchPagesThroughResults(){
+        Page<Item> first = catalog.searchByName("e", 0, 2);
+        assertEquals(2, first.getItems().size());
+        assertTrue(first.hasMore());
+
+        Page<Item> second = catalog.searchByName("e", first.nextOffset(), 10);
+        assertFalse(second.hasMore());
+        assertFalse(second.getItems().contains(first.getItems().get(0)));
+    }
+
+    @Test
+    public void searchPagesKeepAlphabeticalOrderWithinARank(){
+        for (int i = 99; i >= 0; i--) {
+            catalog.addItemToCatalog(new Item(String.format("S%02d", i), String.format("x%02d salt", i), BigDecimal.ONE));
+        }
+        List<String> seen = new ArrayList<>();
+        Page<Item> page = catalog.searchByName("salt", 0, 7);
+        while (true) {
+            seen.addAll(skus(page));
+            if (!page.hasMore()) break;
+            page = catalog.searchByName("salt", page.nextOffset(), 7);
+        }
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) expected.add(String.format("S%02d", i));
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    public void shortQueriesOnlyScanTheFirstNamesForSubstrings(){
+        for (int i = 0; i < NameIndex.SHORT_QUERY_SCAN; i++) {
+            catalog.addItemToCatalog(new Item("A" + i, "aaa " + i, BigDecimal.ONE));
+        }
+        catalog.addItemToCatalog(new Item("LATE", "zz q", BigDecimal.ONE));
+        catalog.addItemToCatalog(new Item("QQ", "q", BigDecimal.ONE));
+        // The exact match is always found; the word match sorts past the scan cap
+        assertEquals(List.of("QQ"), skus(catalog.searchByName("q", 0, 10)));
+        assertEquals(List.of("LATE"), skus(catalog.searchByName("zz q", 0, 10)));
+    }
+
+    @Test
+    public void searchWithAHugeWindowReturnsEveryMatch(){
+        assertEquals(List.of("MLK"), skus(catalog.searchByName("ilk", 0, Integer.MAX_VALUE)));
+        assertEquals(List.of("MLK"), skus(catalog.searchByName("ilk", 0, 1_000_000_000)));
+        assertTrue(catalog.searchByName("ilk", Integer.MAX_VALUE, Integer.MAX_VALUE).isEmpty());
+        assertFalse(catalog.searchByName("e", 0, Integer.MAX_VALUE).hasMore());
+    }
+
+    @Test
+    public void searchWithNoMatchesIsEmpty(){
+        assertTrue(catalog.searchByName("zzz", 0, 5).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> catalog.searchByName("a", 0, 0));
+    }
+
+    @Test
+    public void browsePagesInSkuOrderByCursor(){
+        Page<Item> first = catalog.browse(null, 2);
+        assertEquals(List.of("APL", "BRD"), skus(first));
+        assertEquals(0, first.getOffset());
+        assertTrue(first.hasMore());
+
+        Page<Item> second = catalog.browse("brd", 2);
+        assertEquals(List.of("CHP", "EGG"), skus(second));
+        assertEquals(2, second.getOffset());
+
+        // The cursor item may be gone; paging carries on after where it was
+        catalog.removeItemFromCatalog(TEST_ITEM);
+        catalog.addItemToCatalog(new Item("ZZZ", "Last", BigDecimal.ONE));
+        Page<Item> last = catalog.browse("CHP", 5);
+        assertEquals(List.of("EGG", "MLK", "ZZZ"), skus(last));
+        assertFalse(last.hasMore());
+        assertThrows(IllegalArgumentException.class, () -> catalog.browse(null, 0));
+    }
+
+    private static List<String> skus(Page<Item> page){
+        List<String> skus = new ArrayList<>();
+        for (Item item : page.getItems()) skus.add(item.getSku());
+        return skus;
+    }
 }
@@ -0,0 +1,157 @@
+package org.example.codec;
+
+import org.example.cart.CompactCart;
+import org.example.cart.InMemoryCart;
+import org.example.model.CartLine;
+import org.example.model.Item;
+import org.example.model.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CartCodecTest {
+
+    private ByteBuffer buffer;
+    private InMemoryCart cart;
+    final private Item APPLE = new Item("APL", "Apple", new BigDecimal("0.89"));
+    final private Item CREPE = new Item("CRP", "Crêpe au chocolat", new BigDecimal("4.50"));
+
+    @BeforeEach
+    public void setup(){
+        buffer = ByteBuffer.allocate(4096);
+        cart = new InMemoryCart();
+        cart.addItemToCart(APPLE, 3);
+        cart.addItemToCart(CREPE, 1);
+    }
+
+    private static void assertSameLines(List<CartLine> expected, List<CartLine> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (CartLine line : expected) {
+            CartLine match = actual.stream()
+                    .filter(l -> l.getItem().equals(line.getItem()))
+                    .findFirst()
+                    .orElseThrow();
+            assertEquals(line.getQuantity(), match.getQuantity());
+            assertEquals(line.getItem().getName(), match.getItem().getName());
+            assertEquals(line.getItem().getUnitMoney(), match.getItem().getUnitMoney());
+        }
+    }
+
+    @Test
+    public void stringEncodingRoundTrips(){
+        CartCodec codec = new CartCodec();
+        int written = codec.encode(cart, buffer);
+        assertEquals(written, buffer.position());
+
+        buffer.flip();
+        CompactCart copy = new CompactCart();
+        assertEquals(2, codec.decode(buffer, copy));
+        assertFalse(buffer.hasRemaining());
+        assertSameLines(cart.getLines(), copy.getLines());
+        assertEquals(cart.getSubtotalMoney(), copy.getSubtotalMoney());
+    }
+
+    @Test
+    public void ordinalEncodingRoundTripsAndIsSmaller(){
+        Map<Integer, Item> byOrdinal = new HashMap<>();
+        byOrdinal.put(APPLE.getOrdinal(), APPLE);
+        byOrdinal.put(CREPE.getOrdinal(), CREPE);
+        CartCodec ordinals = new CartCodec(byOrdinal::get);
+
+        int ordinalBytes = ordinals.encode(cart, buffer);
+        buffer.flip();
+        InMemoryCart copy = new InMemoryCart();
+        ordinals.decode(buffer, copy);
+        assertSameLines(cart.getLines(), copy.getLines());
+
+        buffer.clear();
+        int stringBytes = new CartCodec().encode(cart, buffer);
+        assertTrue(ordinalBytes < stringBytes, ordinalBytes + " vs " + stringBytes);
+    }
+
+    @Test
+    public void ordinalDecodingKeepsTheEncodedPrice(){
+        Item repriced = new Item("APL", "Apple", new BigDecimal("0.99"));
+        CartCodec codec = new CartCodec(ordinal -> ordinal == APPLE.getOrdinal() ? repriced : CREPE);
+        codec.encode(cart, buffer);
+        buffer.flip();
+        InMemoryCart copy = new InMemoryCart();
+        codec.decode(buffer, copy);
+        assertEquals(cart.getSubtotalMoney(), copy.getSubtotalMoney());
+    }
+
+    @Test
+    public void bufferCanBeReused(){
+        CartCodec codec = new CartCodec();
+        for (int i = 0; i < 3; i++) {
+            buffer.clear();
+            codec.encode(cart, buffer);
+            buffer.flip();
+            InMemoryCart copy = new InMemoryCart();
+            codec.decode(buffer, copy);
+            assertEquals(cart.getSubtotalMoney(), copy.getSubtotalMoney());
+        }
+    }
+
+    @Test
+    public void itemRoundTrips(){
+        CartCodec codec = new CartCodec();
+        Item euro = Item.of("EUR1", "Croissant", Money.ofMinor(250, Currency.getInstance("EUR")));
+        codec.writeItem(euro, buffer);
+        codec.writeItem(CREPE, buffer);
+        buffer.flip();
+        Item first = codec.readItem(buffer);
+        Item second = codec.readItem(buffer);
+        assertEquals(euro.getUnitMoney(), first.getUnitMoney());
+        assertEquals("Croissant", first.getName());
+        assertEquals(CREPE.getName(), second.getName());
+    }
+
+    @Test
+    public void badDataIsRejected(){
+        CartCodec codec = new CartCodec();
+        codec.encode(cart, buffer);
+        buffer.flip();
+
+        ByteBuffer truncated = buffer.duplicate();
+        truncated.limit(truncated.limit() - 2);
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(truncated, new InMemoryCart()));
+
+        ByteBuffer wrongVersion = buffer.duplicate();
+        wrongVersion.put(1, (byte) 99);
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(wrongVersion, new InMemoryCart()));
+
+        CartCodec ordinals = new CartCodec(ordinal -> null);
+        assertThrows(IllegalArgumentException.class, () -> ordinals.decode(buffer.duplicate(), new InMemoryCart()));
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(ByteBuffer.wrap(new byte[]{1, 2, 3}), new InMemoryCart()));
+    }
+
+    @Test
+    public void varintsRoundTripAtTheEdges(){
+        long[] values = {0, 1, 127, 128, 16_383, 16_384, Integer.MAX_VALUE, Long.MAX_VALUE, -1, Long.MIN_VALUE};
+        for (long value : values) {
+            buffer.clear();
+            Varint.writeSigned(buffer, value);
+            if (value >= 0) Varint.writeUnsigned(buffer, value);
+            buffer.flip();
+            assertEquals(value, Varint.readSigned(buffer));
+            if (value >= 0) {
+                int before = buffer.position();
+                assertEquals(value, Varint.readUnsigned(buffer));
+                assertEquals(Varint.sizeOfUnsigned(value), buffer.position() - before);
+            }
+        }
+        buffer.clear();
+        Varint.writeUnsigned(buffer, 127);
+        assertEquals(1, buffer.position());
+    }
+}
@@ -0,0 +1,110 @@
+package org.example.inventory;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InventoryTest {
+
+    private Inventory inventory;
+
+    @BeforeEach
+    public void setup(){
+        inventory = new Inventory(8);
+        inventory.track("APL", 10);
+        inventory.trackHot("TV", 100);
+    }
+
+    @Test
+    public void reserveReleaseAndCommitMoveUnitsBetweenCounts(){
+        assertTrue(inventory.tryReserve("APL", 4));
+        assertEquals(6, inventory.getAvailable("APL"));
+        assertEquals(4, inventory.getReserved("APL"));
+
+        inventory.release("APL", 1);
+        inventory.commit("APL", 3);
+        assertEquals(7, inventory.getAvailable("APL"));
+        assertEquals(0, inventory.getReserved("APL"));
+        assertEquals(3, inventory.getSold("APL"));
+    }
+
+    @Test
+    public void neverReservesMoreThanIsAvailable(){
+        assertFalse(inventory.tryReserve("APL", 11));
+        assertEquals(10, inventory.getAvailable("APL"));
+        assertTrue(inventory.tryReserve("APL", 10));
+        assertFalse(inventory.tryReserve("APL", 1));
+        inventory.restock("APL", 1);
+        assertTrue(inventory.tryReserve("APL", 1));
+    }
+
+    @Test
+    public void hotSkuGathersStockSpreadOverEveryCounter(){
+        // 100 units over 8 counters; one reservation of all of them needs every counter
+        assertTrue(inventory.tryReserve("TV", 100));
+        assertEquals(0, inventory.getAvailable("TV"));
+        assertFalse(inventory.tryReserve("TV", 1));
+    }
+
+    @Test
+    public void untrackedSkusAreNotLimited(){
+        assertFalse(inventory.isTracked("MLK"));
+        assertTrue(inventory.tryReserve("MLK", 1_000_000));
+        inventory.release("MLK", 1_000_000);
+        assertThrows(IllegalArgumentException.class, () -> inventory.getAvailable("MLK"));
+    }
+
+    @Test
+    public void rejectsBadArguments(){
+        assertThrows(IllegalArgumentException.class, () -> inventory.track("APL", 1));
+        assertThrows(IllegalArgumentException.class, () -> inventory.track(" ", 1));
+        assertThrows(IllegalArgumentException.class, () -> inventory.track("EGG", -1));
+        assertThrows(IllegalArgumentException.class, () -> inventory.tryReserve("APL", 0));
+        assertThrows(IllegalArgumentException.class, () -> inventory.restock("MLK", 1));
+        assertThrows(IllegalArgumentException.class, () -> new Inventory(0));
+    }
+
+    @Test
+    public void flashSaleSellsExactlyTheStockOnHand() throws InterruptedException {
+        int threads = 16;
+        AtomicInteger won = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> buyers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread buyer = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 1_000; i++) {
+                    if (inventory.tryReserve("TV", 1)) {
+                        won.incrementAndGet();
+                        // Every other winner changes their mind, putting the unit back
+                        if (i % 2 == 0) {
+                            inventory.release("TV", 1);
+                            won.decrementAndGet();
+                        } else {
+                            inventory.commit("TV", 1);
+                        }
+                    }
+                }
+            });
+            buyers.add(buyer);
+            buyer.start();
+        }
+        start.countDown();
+        for (Thread buyer : buyers) buyer.join();
+
+        assertEquals(100, won.get());
+        assertEquals(100, inventory.getSold("TV"));
+        assertEquals(0, inventory.getAvailable("TV"));
+        assertEquals(0, inventory.getReserved("TV"));
+    }
+}
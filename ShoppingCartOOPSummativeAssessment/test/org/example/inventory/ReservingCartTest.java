@@ -0,0 +1,137 @@
+package org.example.inventory;
+
+import org.example.cart.Cart;
+import org.example.cart.CartDelta;
+import org.example.cart.CartStore;
+import org.example.cart.InMemoryCart;
+import org.example.cart.MergePolicy;
+import org.example.model.Item;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReservingCartTest {
+
+    private Inventory inventory;
+    private ReservingCart cart;
+    final private Item APPLE = new Item("APL", "Apple", new BigDecimal("0.89"));
+    final private Item MILK = new Item("MLK", "Milk (1 gal)", new BigDecimal("3.49"));
+
+    @BeforeEach
+    public void setup(){
+        inventory = new Inventory();
+        inventory.track("APL", 5);
+        inventory.track("MLK", 2);
+        cart = new ReservingCart(new InMemoryCart(), inventory);
+    }
+
+    @Test
+    public void addReservesAndRemoveReleasesWhatWasRemoved(){
+        cart.addItemToCart(APPLE, 3);
+        assertEquals(2, inventory.getAvailable("APL"));
+        assertEquals(3, cart.getReserved(APPLE));
+
+        cart.removeItemFromCart(APPLE, 10);
+        assertEquals(5, inventory.getAvailable("APL"));
+        assertEquals(0, inventory.getReserved("APL"));
+        assertTrue(cart.getLines().isEmpty());
+    }
+
+    @Test
+    public void addBeyondStockThrowsAndChangesNothing(){
+        cart.addItemToCart(MILK, 2);
+        OutOfStockException e = assertThrows(OutOfStockException.class, () -> cart.addItemToCart(MILK, 1));
+        assertEquals("MLK", e.getSku());
+        assertEquals(1, e.getRequested());
+        assertEquals(2, cart.getLines().get(0).getQuantity());
+        assertEquals(2, inventory.getReserved("MLK"));
+    }
+
+    @Test
+    public void checkoutCommitsReservationsAsSold(){
+        cart.addItemToCart(APPLE, 2);
+        cart.addItemToCart(MILK, 1);
+        assertEquals(0, new BigDecimal("5.27").compareTo(cart.checkout()));
+        assertEquals(2, inventory.getSold("APL"));
+        assertEquals(1, inventory.getSold("MLK"));
+        assertEquals(0, inventory.getReserved("APL"));
+        assertEquals(3, inventory.getAvailable("APL"));
+    }
+
+    @Test
+    public void applyAllReservesOnlyTheNetIncreaseAndIsAllOrNothing(){
+        cart.applyAll(List.of(CartDelta.add(APPLE, 4), CartDelta.remove(APPLE, 2), CartDelta.add(MILK, 1)));
+        assertEquals(2, inventory.getReserved("APL"));
+        assertEquals(1, inventory.getReserved("MLK"));
+
+        assertThrows(OutOfStockException.class,
+                () -> cart.applyAll(List.of(CartDelta.add(APPLE, 1), CartDelta.add(MILK, 5))));
+        assertEquals(2, inventory.getReserved("APL"));
+        assertEquals(1, inventory.getReserved("MLK"));
+        assertEquals(0, new BigDecimal("5.27").compareTo(cart.getSubtotal()));
+    }
+
+    @Test
+    public void mergeReservesTheMergedQuantities(){
+        cart.addItemToCart(APPLE, 1);
+        Cart guest = new InMemoryCart();
+        guest.addItemToCart(APPLE, 3);
+        guest.addItemToCart(MILK, 3);
+        assertThrows(OutOfStockException.class, () -> cart.mergeFrom(guest));
+        assertEquals(1, inventory.getReserved("APL"));
+
+        guest.removeItemFromCart(MILK, 1);
+        cart.mergeFrom(guest, MergePolicy.KEEP_MAX);
+        assertEquals(3, inventory.getReserved("APL"));
+        assertEquals(2, inventory.getReserved("MLK"));
+    }
+
+    @Test
+    public void mergeReadsTheOtherCartOnce(){
+        Cart guest = new InMemoryCart() {
+            @Override
+            public void forEachLine(ObjIntConsumer<Item> action) {
+                super.forEachLine(action);
+                super.addItemToCart(APPLE, 1);
+            }
+        };
+        guest.addItemToCart(APPLE, 2);
+        cart.mergeFrom(guest);
+        assertEquals(2, cart.getReserved(APPLE));
+        assertEquals(2, cart.getLines().get(0).getQuantity());
+        assertEquals(2, inventory.getReserved("APL"));
+    }
+
+    @Test
+    public void wrappingAFullCartReservesItsLines(){
+        Cart existing = new InMemoryCart();
+        existing.addItemToCart(APPLE, 2);
+        existing.addItemToCart(MILK, 3);
+        assertThrows(OutOfStockException.class, () -> new ReservingCart(existing, inventory));
+        assertEquals(0, inventory.getReserved("APL"));
+
+        existing.removeItemFromCart(MILK, 1);
+        new ReservingCart(existing, inventory);
+        assertEquals(2, inventory.getReserved("APL"));
+    }
+
+    @Test
+    public void evictedCartsReleaseTheirStock(){
+        long[] now = {0};
+        CartStore store = new CartStore(() -> new ReservingCart(new InMemoryCart(), inventory), 0, 0, 1_000,
+                c -> CartStore.DEFAULT_CART_BYTES, () -> now[0]);
+        store.setEvictionListener(ReservingCart::releaseEvicted);
+        store.getCart("alice").addItemToCart(APPLE, 5);
+        assertFalse(inventory.tryReserve("APL", 1));
+
+        now[0] = 2_000;
+        assertEquals(1, store.evictExpired());
+        assertEquals(5, inventory.getAvailable("APL"));
+        assertEquals(0, inventory.getReserved("APL"));
+    }
+}
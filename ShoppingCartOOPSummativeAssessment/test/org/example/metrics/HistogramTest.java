@@ -0,0 +1,72 @@
+package org.example.metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HistogramTest {
+
+    private Histogram histogram;
+
+    @BeforeEach
+    public void setup(){
+        histogram = new Histogram();
+    }
+
+    @Test
+    public void percentilesStayWithinBucketPrecision(){
+        for (long v = 1; v <= 100_000; v++) {
+            histogram.record(v);
+        }
+        assertEquals(100_000, histogram.count());
+        assertEquals(100_000, histogram.max());
+        assertEquals(50_000, histogram.valueAt(50), 50_000 * 0.016);
+        assertEquals(99_000, histogram.valueAt(99), 99_000 * 0.016);
+        assertEquals(1, histogram.valueAt(0));
+        assertEquals(100_000, histogram.valueAt(100));
+    }
+
+    @Test
+    public void bucketsCoverEveryLong(){
+        assertEquals(0, Histogram.bucketOf(0));
+        assertEquals(63, Histogram.bucketOf(63));
+        assertEquals(Histogram.BUCKETS - 1, Histogram.bucketOf(Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, Histogram.bucketMax(Histogram.BUCKETS - 1));
+        for (long v : new long[] {64, 1000, 123_456_789, 1L << 40}) {
+            int bucket = Histogram.bucketOf(v);
+            assertTrue(Histogram.bucketMax(bucket) >= v);
+            assertTrue(Histogram.bucketMax(bucket - 1) < v);
+        }
+    }
+
+    @Test
+    public void concurrentRecordingLosesNothing() throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            long offset = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) histogram.record(i % 1000 + offset);
+            }));
+        }
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+        assertEquals(200_000, histogram.count());
+        assertEquals(1002, histogram.max());
+    }
+
+    @Test
+    public void emptyAndResetHistogramsReadZero(){
+        assertEquals(0, histogram.valueAt(99));
+        histogram.record(500);
+        histogram.record(-3);
+        assertEquals(0, histogram.valueAt(1));
+        histogram.reset();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.max());
+        assertThrows(IllegalArgumentException.class, () -> histogram.valueAt(101));
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.metrics;
+
+import org.example.cart.CartDelta;
+import org.example.cart.InMemoryCart;
+import org.example.model.Item;
+import org.example.model.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MeteredCartTest {
+
+    private CartMetrics metrics;
+    private MeteredCart cart;
+    private Item apple;
+    private Item milk;
+
+    @BeforeEach
+    public void setup(){
+        metrics = new CartMetrics();
+        metrics.setLevel(Level.COUNT);
+        cart = new MeteredCart(new InMemoryCart(), metrics);
+        apple = new Item("APL", "Apple", new BigDecimal("0.89"));
+        milk = new Item("MLK", "Milk", new BigDecimal("3.49"));
+    }
+
+    @Test
+    public void countsOperationsWithoutTiming(){
+        cart.addItemToCart(apple, 3);
+        cart.addItemToCart(milk, 1);
+        cart.removeItemFromCart(apple, 1);
+        cart.getSubtotal();
+        cart.applyAll(List.of(CartDelta.add(milk, 1)));
+        assertEquals(2, metrics.getAdds());
+        assertEquals(1, metrics.getRemoves());
+        assertEquals(1, metrics.value("subtotals").longValue());
+        assertEquals(1, metrics.value("batches").longValue());
+        assertEquals(0, metrics.getAddNanos().count());
+    }
+
+    @Test
+    public void checkoutRecordsAmountAndLineCount(){
+        cart.addItemToCart(apple, 2);
+        cart.addItemToCart(milk, 1);
+        assertEquals("5.27", cart.checkout().toPlainString());
+        cart.addItemToCart(milk, 2);
+        cart.checkoutMoney();
+        assertEquals(2, metrics.getCheckouts());
+        assertEquals(527 + 698, metrics.getCheckoutTotal());
+        assertEquals(2, metrics.getCheckoutLines().max());
+        assertEquals(1, metrics.getCheckoutLines().valueAt(50));
+        assertEquals(698, metrics.getCheckoutAmounts().max());
+    }
+
+    @Test
+    public void levelSwitchesAtRuntime(){
+        metrics.setLevel(Level.OFF);
+        cart.addItemToCart(apple, 1);
+        cart.checkout();
+        assertEquals(0, metrics.getAdds());
+        assertEquals(0, metrics.getCheckouts());
+
+        metrics.setLevel(Level.TIME);
+        cart.addItemToCart(apple, 1);
+        cart.removeItemFromCart(apple, 1);
+        assertEquals(1, metrics.getAdds());
+        assertEquals(1, metrics.getAddNanos().count());
+        assertEquals(1, metrics.getRemoveNanos().count());
+
+        metrics.reset();
+        assertEquals(0, metrics.getAdds());
+        assertEquals(Level.TIME, metrics.getLevel());
+        assertThrows(IllegalArgumentException.class, () -> metrics.setLevel(null));
+    }
+
+    @Test
+    public void failedCallsAreNotCounted(){
+        assertThrows(IllegalArgumentException.class, () -> cart.mergeFrom(cart));
+        Item euros = Item.of("EUR", "Imported", Money.ofMinor(100, Currency.getInstance("EUR")));
+        assertThrows(IllegalArgumentException.class, () -> cart.addItemToCart(euros, 1));
+        assertEquals(0, metrics.getAdds());
+        assertEquals(0, metrics.value("merges").longValue());
+        assertThrows(IllegalArgumentException.class, () -> new MeteredCart(null, metrics));
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.metrics;
+
+import org.example.catalog.StaticCatalog;
+import org.example.model.Item;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MeteredCatalogTest {
+
+    private CatalogMetrics metrics;
+    private MeteredCatalog catalog;
+
+    @BeforeEach
+    public void setup(){
+        metrics = new CatalogMetrics();
+        metrics.setLevel(Level.COUNT);
+        catalog = new MeteredCatalog(new StaticCatalog(), metrics);
+    }
+
+    @Test
+    public void lookupsSplitIntoHitsAndMisses(){
+        assertEquals(0.0, metrics.getSkuHitRatio());
+        assertNotNull(catalog.findItemBySKU("APL"));
+        assertNotNull(catalog.findItemBySKU("MLK"));
+        assertNotNull(catalog.findItemBySKU("BRD"));
+        assertNull(catalog.findItemBySKU("NOPE"));
+        assertNull(catalog.findItemByName("Durian"));
+        assertEquals(3, metrics.getSkuHits());
+        assertEquals(1, metrics.getSkuMisses());
+        assertEquals(0, metrics.getNameHits());
+        assertEquals(1, metrics.getNameMisses());
+        assertEquals(0.75, metrics.getSkuHitRatio(), 1e-9);
+        assertEquals(0.75, metrics.value("sku.hitRatio").doubleValue(), 1e-9);
+    }
+
+    @Test
+    public void searchesBrowsesAndWritesAreCounted(){
+        metrics.setLevel(Level.TIME);
+        catalog.searchByName("a", 0, 5);
+        catalog.browse(null, 5);
+        catalog.addItemToCatalog(new Item("FIG", "Fig", new BigDecimal("0.50")));
+        catalog.upsertAll(List.of(new Item("FIG", "Fig", new BigDecimal("0.55"))));
+        catalog.findItemBySKU("FIG");
+        assertEquals(1, metrics.getSearches());
+        assertEquals(1, metrics.getBrowses());
+        assertEquals(2, metrics.getWrites());
+        assertEquals(1, metrics.getSearchNanos().count());
+        assertEquals(1, metrics.getSkuNanos().count());
+        assertEquals("0.55", catalog.findItemBySKU("fig").getUnitPrice().toPlainString());
+    }
+}
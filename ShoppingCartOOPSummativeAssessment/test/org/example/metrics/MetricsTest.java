@@ -0,0 +1,81 @@
+package org.example.metrics;
+
+import org.example.cart.InMemoryCart;
+import org.example.model.Item;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.Attribute;
+import javax.management.InvalidAttributeValueException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsTest {
+
+    private Metrics metrics;
+    private MBeanServer server;
+
+    @BeforeEach
+    public void setup(){
+        metrics = new Metrics();
+        metrics.setLevel(Level.COUNT);
+        server = MBeanServerFactory.newMBeanServer();
+    }
+
+    @AfterEach
+    public void teardown() throws Exception {
+        metrics.unregisterMBeans(server, "test");
+    }
+
+    @Test
+    public void dumpListsEverySubsystemAndValue(){
+        new MeteredCart(new InMemoryCart(), metrics.cart()).addItemToCart(new Item("APL", "Apple", new BigDecimal("0.89")), 1);
+        metrics.catalog().setLevel(Level.OFF);
+        String dump = metrics.dump();
+        assertTrue(dump.startsWith("cart [count]\n"));
+        assertTrue(dump.contains("\n  adds                    1\n"));
+        assertTrue(dump.contains("\n  checkout.lines.p99      0\n"));
+        assertTrue(dump.contains("\ncatalog [off]\n"));
+        assertTrue(dump.contains("\n  sku.hitRatio            0.0000\n"));
+    }
+
+    @Test
+    public void mbeansReadValuesAndSwitchLevels() throws Exception {
+        metrics.registerMBeans(server, "test");
+        ObjectName cart = new ObjectName("test:type=Metrics,subsystem=cart");
+        ObjectName catalog = new ObjectName("test:type=Metrics,subsystem=catalog");
+        assertTrue(server.isRegistered(catalog));
+
+        metrics.cart().added(0);
+        assertEquals(1L, server.getAttribute(cart, "adds"));
+        assertEquals("COUNT", server.getAttribute(cart, "Level"));
+
+        server.setAttribute(cart, new Attribute("Level", "time"));
+        assertEquals(Level.TIME, metrics.cart().getLevel());
+        assertEquals(Level.COUNT, metrics.catalog().getLevel());
+        assertThrows(InvalidAttributeValueException.class, () -> server.setAttribute(cart, new Attribute("Level", "loud")));
+
+        server.invoke(cart, "reset", null, null);
+        assertEquals(0L, server.getAttribute(cart, "adds"));
+        for (MBeanAttributeInfo attribute : server.getMBeanInfo(catalog).getAttributes()) {
+            if (attribute.getName().equals("sku.hitRatio")) assertEquals(Double.class.getName(), attribute.getType());
+            else if (attribute.getName().equals("Level")) assertTrue(attribute.isWritable());
+            else assertEquals(Long.class.getName(), attribute.getType());
+        }
+    }
+
+    @Test
+    public void subsystemsAreFoundByName(){
+        assertSame(metrics.cart(), metrics.subsystem("cart"));
+        assertSame(metrics.catalog(), metrics.subsystem("catalog"));
+        assertThrows(IllegalArgumentException.class, () -> metrics.subsystem("disk"));
+        assertEquals(Level.TIME, Level.parse(" Time "));
+        assertThrows(IllegalArgumentException.class, () -> Level.parse("verbose"));
+    }
+}
@@ -54,4 +54,19 @@ public class CartLineTest {
         assertEquals(expected, cartLine.getLineTotal());
     }
 
+    @Test
+    public void getsCorrectPriceTotalAsMoney(){
+        assertEquals(1185, cartLine.getLineTotalMoney().getMinorUnits());
+    }
+
+    @Test
+    public void totalAndTextFollowQuantityChanges(){
+        assertEquals("TEST | Test Item | qty=5 | $11.85", cartLine.toString());
+        cartLine.add(1);
+        assertEquals("TEST | Test Item | qty=6 | $14.22", cartLine.toString());
+        assertEquals(new BigDecimal("14.22"), cartLine.getLineTotal());
+        cartLine.remove(2);
+        assertEquals(948, cartLine.getLineTotalMoney().getMinorUnits());
+    }
+
 }
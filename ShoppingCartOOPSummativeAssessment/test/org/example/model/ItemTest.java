@@ -4,6 +4,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.HashSet;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -72,4 +75,48 @@ public class ItemTest {
         assertThrows(Exception.class, () -> new Item(null, "test", new BigDecimal("1.00")));
     }
 
+    @Test
+    public void unitMoneyMatchesUnitPrice(){
+        assertEquals(399, item.getUnitMoney().getMinorUnits());
+        assertEquals(Money.DEFAULT_CURRENCY, item.getUnitMoney().getCurrency());
+    }
+
+    @Test
+    public void constructorThrowsErrorWhenPriceHasFractionsOfACent(){
+        assertThrows(IllegalArgumentException.class, () -> new Item("ABC", "test", new BigDecimal("0.899")));
+    }
+
+    @Test
+    public void canBeBuiltFromMoney(){
+        Item euroItem = Item.of("EUR1", "Croissant", Money.ofMinor(250, Currency.getInstance("EUR")));
+        assertEquals(new BigDecimal("2.50"), euroItem.getUnitPrice());
+    }
+
+    @Test
+    public void hashCodeIsConsistentWithEquals(){
+        Item newItem = new Item(" abc123 ", "Different name", new BigDecimal("9.50"));
+        assertEquals(item.hashCode(), newItem.hashCode());
+
+        Set<Item> items = new HashSet<>();
+        items.add(item);
+        items.add(newItem);
+        assertEquals(1, items.size());
+    }
+
+    @Test
+    public void equalSkusShareOneStringAndOrdinal(){
+        Item newItem = new Item(SKU.toLowerCase(), "Different name", new BigDecimal("9.50"));
+        assertSame(item.getSku(), newItem.getSku());
+        assertEquals(item.getOrdinal(), newItem.getOrdinal());
+        assertEquals(SkuRegistry.shared().ordinalOf(SKU), item.getOrdinal());
+    }
+
+    @Test
+    public void ofCanonicalSkuRejectsSkusThatWouldNeverBeEqual(){
+        Money price = Money.ofMinor(399, Currency.getInstance("USD"));
+        assertEquals(item, Item.ofCanonicalSku(SKU, ITEM_NAME, price));
+        assertThrows(IllegalArgumentException.class, () -> Item.ofCanonicalSku("abc123", ITEM_NAME, price));
+        assertThrows(IllegalArgumentException.class, () -> Item.ofCanonicalSku(" ABC123", ITEM_NAME, price));
+    }
+
 }
@@ -0,0 +1,51 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoneyTest {
+
+    final private Currency USD = Currency.getInstance("USD");
+    final private Currency EUR = Currency.getInstance("EUR");
+
+    @Test
+    public void convertsFromBigDecimalToMinorUnits(){
+        assertEquals(389, Money.of(new BigDecimal("3.89"), USD).getMinorUnits());
+        assertEquals(150, Money.of(new BigDecimal("1.5"), USD).getMinorUnits());
+    }
+
+    @Test
+    public void rejectsFractionsOfAMinorUnit(){
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("0.899"), USD));
+    }
+
+    @Test
+    public void addsAndMultiplies(){
+        Money price = Money.ofMinor(237, USD);
+        assertEquals(Money.ofMinor(1185, USD), price.times(5));
+        assertEquals(Money.ofMinor(474, USD), price.plus(price));
+        assertEquals(Money.zero(USD), price.minus(price));
+    }
+
+    @Test
+    public void overflowThrowsInsteadOfWrapping(){
+        Money huge = Money.ofMinor(Long.MAX_VALUE / 2 + 1, USD);
+        assertThrows(ArithmeticException.class, () -> huge.times(2));
+        assertThrows(ArithmeticException.class, () -> huge.plus(huge));
+    }
+
+    @Test
+    public void currenciesCannotBeMixed(){
+        assertThrows(IllegalArgumentException.class, () -> Money.ofMinor(1, USD).plus(Money.ofMinor(1, EUR)));
+    }
+
+    @Test
+    public void toBigDecimalUsesCurrencyScale(){
+        assertEquals(new BigDecimal("5.27"), Money.ofMinor(527, USD).toBigDecimal());
+        assertEquals(new BigDecimal("0.00"), Money.zero(USD).toBigDecimal());
+    }
+}
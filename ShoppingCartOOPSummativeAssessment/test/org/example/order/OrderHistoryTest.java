@@ -0,0 +1,178 @@
+package org.example.order;
+
+import org.example.cart.InMemoryCart;
+import org.example.catalog.StaticCatalog;
+import org.example.model.Item;
+import org.example.model.Money;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderHistoryTest {
+
+    @TempDir
+    Path dir;
+
+    private long now = 1_000_000;
+
+    final private Item APPLE = new Item("APL", "Apple", new BigDecimal("0.89"));
+    final private Item MILK = new Item("MLK", "Milk (1 gal)", new BigDecimal("3.49"));
+
+    private OrderHistory open(int blockSize) throws IOException {
+        return OrderHistory.open(dir.resolve("orders.log"), blockSize, () -> now);
+    }
+
+    private static List<OrderLine> basket(Item item, int quantity) {
+        return List.of(OrderLine.of(item, quantity));
+    }
+
+    @Test
+    public void ordersSurviveReopenAcrossBlocks() throws IOException {
+        try (OrderHistory history = open(4)) {
+            for (int i = 0; i < 10; i++) {
+                now += 1000;
+                history.record("c" + (i % 3), List.of(OrderLine.of(APPLE, i + 1), OrderLine.of(MILK, 1)));
+            }
+            assertEquals(2, history.getBlockCount());
+            assertEquals(2, history.getPendingCount());
+        }
+        try (OrderHistory history = open(4)) {
+            assertEquals(10, history.getOrderCount());
+            assertEquals(3, history.getBlockCount());           // close flushed the partial block
+            assertEquals(3, history.getCustomerCount());
+            Order seventh = history.getOrder(7);
+            assertEquals("c0", seventh.getCustomerId());
+            assertEquals(1_007_000, seventh.getPlacedAt());
+            assertEquals(List.of(OrderLine.of(APPLE, 7), OrderLine.of(MILK, 1)), seventh.getLines());
+            assertEquals("9.72", seventh.getSubtotal().toBigDecimal().toPlainString());
+            assertNull(history.getOrder(11));
+            assertNull(history.getOrder(0));
+            assertEquals(11, history.record("c9", basket(MILK, 1)).getOrderId());
+        }
+    }
+
+    @Test
+    public void lastOrdersAreNewestFirstAcrossDiskAndMemory() throws IOException {
+        try (OrderHistory history = open(3)) {
+            for (int i = 1; i <= 8; i++) {
+                history.record(i % 2 == 0 ? "even" : "odd", basket(APPLE, i));
+            }
+            List<Order> last = history.lastOrders("even", 3);
+            assertEquals(List.of(8L, 6L, 4L), List.of(last.get(0).getOrderId(), last.get(1).getOrderId(), last.get(2).getOrderId()));
+            assertEquals(4, history.lastOrders("odd", 10).size());
+            assertEquals(4, history.getOrderCount("odd"));
+            assertEquals(7, history.lastOrder("odd").getLines().get(0).getQuantity());
+            assertTrue(history.lastOrders("nobody", 5).isEmpty());
+            assertNull(history.lastOrder("nobody"));
+            assertThrows(IllegalArgumentException.class, () -> history.lastOrders("odd", 0));
+        }
+    }
+
+    @Test
+    public void placedBetweenOnlyReturnsTheRange() throws IOException {
+        try (OrderHistory history = open(2)) {
+            for (int i = 0; i < 9; i++) {
+                now = 10_000 + i * 100;
+                history.record("c", basket(MILK, 1));
+            }
+            List<Order> range = history.placedBetween(10_250, 10_650, 100);
+            assertEquals(4, range.size());
+            assertEquals(4, range.get(0).getOrderId());
+            assertEquals(7, range.get(3).getOrderId());
+            assertEquals(2, history.placedBetween(0, Long.MAX_VALUE, 2).size());
+            assertTrue(history.placedBetween(0, 10_000, 10).isEmpty());
+        }
+    }
+
+    @Test
+    public void reorderAddsThePreviousBasketAtCurrentPrices() throws IOException {
+        try (OrderHistory history = open(16)) {
+            Item gone = new Item("ZZZ", "Discontinued", new BigDecimal("9.99"));
+            Item oldApple = new Item("APL", "Apple", new BigDecimal("0.50"));
+            history.record("alice", basket(MILK, 5));
+            history.record("alice", List.of(OrderLine.of(oldApple, 3), OrderLine.of(gone, 1)));
+
+            InMemoryCart cart = new InMemoryCart();
+            List<OrderLine> missing = history.reorder("alice", cart, new StaticCatalog());
+            assertEquals(List.of(OrderLine.of(gone, 1)), missing);
+            assertEquals("2.67", cart.getSubtotal().toPlainString());
+            assertThrows(IllegalArgumentException.class, () -> history.reorder("bob", cart, new StaticCatalog()));
+        }
+    }
+
+    @Test
+    public void tornTailIsCutOffOnOpen() throws IOException {
+        Path file = dir.resolve("orders.log");
+        long intact;
+        try (OrderHistory history = open(2)) {
+            for (int i = 0; i < 4; i++) history.record("c", basket(APPLE, 1));
+            intact = history.getFileBytes();
+            history.record("c", basket(MILK, 2));
+        }
+        long full = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(full - 3);
+        }
+        try (OrderHistory history = open(2)) {
+            assertEquals(4, history.getOrderCount());
+            assertEquals(full - 3 - intact, history.getTruncatedBytes());
+            assertEquals(intact, Files.size(file));
+            assertEquals(5, history.record("c", basket(MILK, 1)).getOrderId());
+        }
+    }
+
+    @Test
+    public void columnsCompressRepetitiveOrders() throws IOException {
+        try (OrderHistory history = open(OrderHistory.DEFAULT_BLOCK_SIZE)) {
+            for (int i = 0; i < 5000; i++) {
+                now += 37_000;
+                history.record("customer-" + (i % 500), List.of(OrderLine.of(APPLE, 1 + i % 4), OrderLine.of(MILK, 2)));
+            }
+            history.flush();
+            assertEquals(0, history.getPendingCount());
+            assertTrue(history.getFileBytes() < 5000 * 10, "bytes per order: " + history.getFileBytes() / 5000.0);
+        }
+    }
+
+    @Test
+    public void unwritableLogStopsTakingOrdersOnceTooManyAreWaiting() throws IOException {
+        OrderHistory history = open(2);
+        history.record("alice", basket(APPLE, 1));
+        history.close();            // every later block write fails
+
+        for (int i = 0; i < 16; i++) {
+            history.record("bob", basket(MILK, 1));
+        }
+        assertThrows(UncheckedIOException.class, () -> history.record("bob", basket(MILK, 1)));
+        assertEquals(16, history.getOrderCount("bob"));
+        assertNotNull(history.getOrder(17));
+        assertNull(history.getOrder(18));
+    }
+
+    @Test
+    public void invalidOrdersAreRejected() throws IOException {
+        try (OrderHistory history = open(4)) {
+            Item euros = Item.of("EUR", "Imported", Money.ofMinor(100, Currency.getInstance("EUR")));
+            assertThrows(IllegalArgumentException.class, () -> history.record("c", List.of()));
+            assertThrows(IllegalArgumentException.class, () -> history.record(" ", basket(APPLE, 1)));
+            assertThrows(IllegalArgumentException.class,
+                    () -> history.record("c", List.of(OrderLine.of(APPLE, 1), OrderLine.of(euros, 1))));
+            assertEquals(0, history.getOrderCount());
+            List<OrderLine> lines = new ArrayList<>(basket(euros, 2));
+            assertEquals(Currency.getInstance("EUR"), history.record("c", lines).getCurrency());
+        }
+        assertThrows(IllegalArgumentException.class, () -> OrderHistory.open(dir.resolve("x"), 0, () -> 0));
+    }
+}
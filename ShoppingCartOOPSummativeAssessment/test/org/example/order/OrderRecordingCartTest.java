@@ -0,0 +1,75 @@
+package org.example.order;
+
+import org.example.cart.ConcurrentCart;
+import org.example.model.Item;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderRecordingCartTest {
+
+    @TempDir
+    Path dir;
+
+    private OrderHistory history;
+    private OrderRecordingCart cart;
+    private Item apple;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        history = OrderHistory.open(dir.resolve("orders.log"));
+        cart = new OrderRecordingCart("alice", new ConcurrentCart(), history);
+        apple = new Item("APL", "Apple", new BigDecimal("0.89"));
+    }
+
+    @AfterEach
+    public void teardown() throws IOException {
+        history.close();
+    }
+
+    @Test
+    public void checkoutRecordsASnapshotOfTheLines(){
+        cart.addItemToCart(apple, 3);
+        assertEquals("2.67", cart.checkout().toPlainString());
+        Order order = cart.getLastOrder();
+        assertEquals("alice", order.getCustomerId());
+        assertEquals(3, order.getItemCount());
+        assertEquals(order, history.lastOrder("alice"));
+        assertTrue(cart.getLines().isEmpty());
+        assertEquals(3, order.getLines().get(0).getQuantity());     // unaffected by the cart emptying
+    }
+
+    @Test
+    public void checkoutFailsBeforeEmptyingTheCartWhenTheLogCantBeWritten() throws IOException {
+        OrderHistory broken = OrderHistory.open(dir.resolve("broken.log"), 2, () -> 0L);
+        broken.close();             // every later block write fails
+        for (int i = 0; i < 16; i++) {
+            broken.record("bob", List.of(OrderLine.of(apple, 1)));
+        }
+        OrderRecordingCart bobs = new OrderRecordingCart("bob", new ConcurrentCart(), broken);
+        bobs.addItemToCart(apple, 2);
+
+        assertThrows(UncheckedIOException.class, bobs::checkout);
+        assertEquals(2, bobs.getLines().get(0).getQuantity());
+        assertNull(bobs.getLastOrder());
+        assertEquals(16, broken.getOrderCount("bob"));
+    }
+
+    @Test
+    public void emptyCheckoutRecordsNothing(){
+        assertEquals("0.00", cart.checkout().toPlainString());
+        assertNull(cart.getLastOrder());
+        assertEquals(0, history.getOrderCount());
+        assertThrows(IllegalArgumentException.class, () -> new OrderRecordingCart("", cart, history));
+        assertThrows(IllegalArgumentException.class, () -> cart.mergeFrom(cart));
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.pricing;
+
+import org.example.cart.InMemoryCart;
+import org.example.model.Item;
+import org.example.model.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PricedCartTest {
+
+    private PricingEngine engine;
+    private InMemoryCart cart;
+    private PricedCart priced;
+    final private Item APPLE = new Item("APL", "Apple", new BigDecimal("0.89"));
+    final private Item MILK = new Item("MLK", "Milk (1 gal)", new BigDecimal("3.49"));
+
+    @BeforeEach
+    public void setup(){
+        engine = new PricingEngine(List.of(PricingRule.bogo("APL"), PricingRule.defaultTax(new BigDecimal("5"))),
+                Map.of());
+        cart = new InMemoryCart();
+        cart.addItemToCart(APPLE, 1);
+        cart.addItemToCart(MILK, 1);
+        priced = engine.price(cart);
+    }
+
+    @Test
+    public void repricingOneLineMatchesPricingTheWholeCart(){
+        cart.addItemToCart(APPLE, 3);
+        priced.reprice(APPLE, 4);
+        PricedCart fresh = engine.price(cart);
+        assertEquals(fresh.getSubtotal(), priced.getSubtotal());
+        assertEquals(fresh.getDiscount(), priced.getDiscount());
+        assertEquals(fresh.getTax(), priced.getTax());
+        assertEquals(fresh.getTotal(), priced.getTotal());
+    }
+
+    @Test
+    public void repricingToZeroDropsTheLine(){
+        assertNull(priced.reprice(MILK, 0));
+        assertNull(priced.getLine(MILK));
+        assertEquals(1, priced.getLines().size());
+        assertEquals(Money.of(new BigDecimal("0.89"), Money.DEFAULT_CURRENCY), priced.getSubtotal());
+    }
+
+    @Test
+    public void linesKeepTheirOrderWhenRepriced(){
+        priced.reprice(APPLE, 2);
+        assertEquals(APPLE, priced.getLines().get(0).getItem());
+    }
+
+    @Test
+    public void rejectsOtherCurrenciesAndNegativeQuantities(){
+        Item euro = Item.of("EUR1", "Croissant", Money.ofMinor(150, Currency.getInstance("EUR")));
+        assertThrows(IllegalArgumentException.class, () -> priced.reprice(euro, 1));
+        assertThrows(IllegalArgumentException.class, () -> priced.reprice(APPLE, -1));
+    }
+}
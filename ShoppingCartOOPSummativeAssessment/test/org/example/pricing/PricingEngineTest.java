@@ -0,0 +1,114 @@
+package org.example.pricing;
+
+import org.example.cart.InMemoryCart;
+import org.example.model.Item;
+import org.example.model.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PricingEngineTest {
+
+    private PricingEngine engine;
+    final private Item APPLE = new Item("APL", "Apple", new BigDecimal("0.89"));
+    final private Item MILK = new Item("MLK", "Milk (1 gal)", new BigDecimal("3.49"));
+    final private Item SOAP = new Item("SOP", "Soap", new BigDecimal("2.00"));
+
+    @BeforeEach
+    public void setup(){
+        engine = new PricingEngine(List.of(
+                PricingRule.bogo("APL"),
+                PricingRule.bulkPrice("APL", 10, usd("0.50")),
+                PricingRule.bulkPrice("MLK", 3, usd("3.00")),
+                PricingRule.bulkPrice("MLK", 6, usd("2.75")),
+                PricingRule.categoryDiscount("dairy", new BigDecimal("10")),
+                PricingRule.tax("household", new BigDecimal("8.25")),
+                PricingRule.defaultTax(BigDecimal.ZERO)),
+                Map.of("MLK", "dairy", "SOP", "household"));
+    }
+
+    private static Money usd(String amount) {
+        return Money.of(new BigDecimal(amount), Money.DEFAULT_CURRENCY);
+    }
+
+    @Test
+    public void bogoMakesEverySecondUnitFree(){
+        PricedLine line = engine.price(APPLE, 3);
+        assertEquals(usd("2.67"), line.getGross());
+        assertEquals(usd("0.89"), line.getDiscount());
+        assertEquals(usd("1.78"), line.getTotal());
+        assertEquals("buy 1 get 1 free APL", line.getPromotion().toString());
+    }
+
+    @Test
+    public void bestPromotionWinsInsteadOfStacking(){
+        // 10 apples: BOGO takes 4.45 off, the bulk price 3.90, so BOGO wins alone
+        PricedLine line = engine.price(APPLE, 10);
+        assertEquals(usd("4.45"), line.getDiscount());
+        assertEquals(PricingRule.Kind.BUY_GET_FREE, line.getPromotion().kind);
+    }
+
+    @Test
+    public void tieredPriceThenCategoryDiscount(){
+        assertEquals(usd("3.49"), engine.price(MILK, 1).getTotal().plus(usd("0.35")));   // 10% off 3.49 rounds to 0.35
+        PricedLine three = engine.price(MILK, 3);
+        assertEquals(usd("9.00").minus(usd("0.90")), three.getTotal());
+        PricedLine six = engine.price(MILK, 6);
+        assertEquals(usd("16.50").minus(usd("1.65")), six.getTotal());
+    }
+
+    @Test
+    public void taxIsChargedOnTheDiscountedAmountByCategory(){
+        PricedLine soap = engine.price(SOAP, 3);
+        assertEquals(usd("0.50"), soap.getTax());        // 8.25% of 6.00 = 0.495, half up
+        assertEquals(usd("6.50"), soap.getTotal());
+        assertTrue(engine.price(APPLE, 1).getTax().isZero());
+    }
+
+    @Test
+    public void priceWholeCartItemizesAndTotals(){
+        InMemoryCart cart = new InMemoryCart();
+        cart.addItemToCart(APPLE, 2);
+        cart.addItemToCart(MILK, 1);
+        cart.addItemToCart(SOAP, 1);
+        PricedCart priced = engine.price(cart);
+        assertEquals(3, priced.getLines().size());
+        assertEquals(cart.getSubtotalMoney(), priced.getSubtotal());
+        assertEquals(usd("0.89").plus(usd("0.35")), priced.getDiscount());
+        assertEquals(usd("0.17"), priced.getTax());
+        assertEquals(usd("0.89").plus(usd("3.14")).plus(usd("2.17")), priced.getTotal());
+    }
+
+    @Test
+    public void onlyRulesForTheLinesSkuRun(){
+        List<PricingRule> rules = new ArrayList<>();
+        Map<String, String> categories = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            rules.add(PricingRule.bulkPrice("SKU" + i, 2, usd("0.01")));
+            categories.put("SKU" + i, "cat" + (i % 100));
+        }
+        PricingEngine big = new PricingEngine(rules, categories);
+        assertEquals(10_000, big.getPlanCount());
+        Item item = new Item("SKU42", "Forty two", new BigDecimal("1.00"));
+        assertEquals(usd("0.02"), big.price(item, 2).getTotal());
+        assertNull(big.price(APPLE, 2).getPromotion());
+    }
+
+    @Test
+    public void rejectsBadRules(){
+        assertThrows(IllegalArgumentException.class, () -> PricingRule.bogo(" "));
+        assertThrows(IllegalArgumentException.class, () -> PricingRule.buyGetFree("APL", 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> PricingRule.categoryDiscount("x", new BigDecimal("101")));
+        assertThrows(IllegalArgumentException.class, () -> PricingRule.tax("x", new BigDecimal("1.005")));
+        assertThrows(IllegalArgumentException.class, () -> new PricingEngine(
+                List.of(PricingRule.defaultTax(BigDecimal.ONE), PricingRule.defaultTax(BigDecimal.TEN)), Map.of()));
+        assertThrows(IllegalArgumentException.class, () -> engine.price(APPLE, 0));
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.server;
+
+import org.example.cart.CartStore;
+import org.example.cart.ConcurrentCart;
+import org.example.catalog.SnapshotCatalog;
+import org.example.catalog.StaticCatalog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CartServerTest {
+
+    private CartServer server;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        server = new CartServer(new SnapshotCatalog(new StaticCatalog().getCatalogItems()),
+                new CartStore(ConcurrentCart::new, 1_000, 60_000));
+        server.start(0);
+    }
+
+    @AfterEach
+    public void teardown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    public void protocolRoundTrip() throws IOException {
+        try (Client client = new Client()) {
+            assertEquals("OK", client.send("PING"));
+            assertEquals("OK APL 0.89 Apple", client.send("find apl"));
+            assertEquals("OK 2.67", client.send("ADD APL 3"));
+            assertEquals("OK 6.16", client.send("ADD MLK"));
+            assertEquals("OK 5.27", client.send("REMOVE APL"));
+            assertEquals("OK 5.27", client.send("SUBTOTAL"));
+            assertEquals("OK 5.27", client.send("CHECKOUT"));
+            assertEquals("OK 0.00", client.send("SUBTOTAL"));
+            assertEquals("OK bye", client.send("QUIT"));
+            assertNull(client.in.readLine());
+        }
+    }
+
+    @Test
+    public void errorsAreRepliedAndKeepTheConnectionOpen() throws IOException {
+        try (Client client = new Client()) {
+            assertEquals("ERR no item with SKU NOPE", client.send("ADD NOPE"));
+            assertEquals("ERR quantity is not a whole number", client.send("ADD APL lots"));
+            assertEquals("ERR quantity > 0 required", client.send("ADD APL 0"));
+            assertEquals("ERR unknown command DANCE", client.send("DANCE"));
+            assertEquals("ERR FIND needs a SKU", client.send("FIND"));
+            assertEquals("OK", client.send("PING"));
+        }
+    }
+
+    @Test
+    public void connectionsShareACartBySessionId() throws IOException {
+        try (Client first = new Client(); Client second = new Client()) {
+            assertEquals("OK 0.00", second.send("SUBTOTAL"));       // own session to start with
+            first.send("SESSION alice");
+            second.send("SESSION alice");
+            first.send("ADD BRD 2");
+            assertEquals("OK 5.58", second.send("SUBTOTAL"));
+        }
+    }
+
+    @Test
+    public void pipelinedRequestsGetRepliesInOrder() throws IOException {
+        try (Client client = new Client()) {
+            client.out.write("ADD EGG\nADD EGG\nSUBTOTAL\n");
+            client.out.flush();
+            assertEquals("OK 2.99", client.in.readLine());
+            assertEquals("OK 5.98", client.in.readLine());
+            assertEquals("OK 5.98", client.in.readLine());
+        }
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void closeDropsOpenConnections() throws IOException {
+        try (Client client = new Client()) {
+            client.send("PING");
+            assertEquals(1, server.getOpenConnections());
+            server.close();
+            assertNull(client.in.readLine());
+        }
+        assertThrows(IllegalStateException.class, () -> server.start(0));
+    }
+
+    @Test
+    public void loadGeneratorHoldsEveryConnectionOpen() throws InterruptedException {
+        LoadGenerator.Result result = new LoadGenerator(server.getPort(), List.of("APL", "MLK")).run(200, 40);
+        assertEquals(200, result.getConnected());
+        assertEquals(200 * 40, result.getRequests());
+        assertEquals(0, result.getErrors());
+        assertEquals(200, server.getConnectionCount());
+        assertTrue(result.getMeanLatencyNanos() <= result.getMaxLatencyNanos());
+        assertThrows(IllegalArgumentException.class, () -> new LoadGenerator(server.getPort(), List.of()));
+    }
+
+    private final class Client implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final Writer out;
+
+        private Client() throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+        }
+
+        private String send(String request) throws IOException {
+            out.write(request + "\n");
+            out.flush();
+            return in.readLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
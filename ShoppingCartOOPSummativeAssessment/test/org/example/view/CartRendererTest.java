@@ -0,0 +1,71 @@
+package org.example.view;
+
+import org.example.cart.InMemoryCart;
+import org.example.model.CartLine;
+import org.example.model.Item;
+import org.example.model.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.StringJoiner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CartRendererTest {
+
+    private CartRenderer renderer;
+    private InMemoryCart cart;
+    final private Item APPLE = new Item("APL", "Apple", new BigDecimal("0.89"));
+    final private Item MILK = new Item("MLK", "Milk (1 gal)", new BigDecimal("3.49"));
+
+    @BeforeEach
+    public void setup(){
+        renderer = new CartRenderer("\n");
+        cart = new InMemoryCart();
+    }
+
+    @Test
+    public void matchesCartLineToString(){
+        cart.addItemToCart(APPLE, 12);
+        cart.addItemToCart(MILK, 1);
+        StringJoiner expected = new StringJoiner("\n");
+        for (CartLine line : cart.getLines()) expected.add(line.toString());
+
+        StringBuilder out = new StringBuilder();
+        assertEquals(2, renderer.render(cart, out));
+        assertEquals(expected.toString(), out.toString());
+    }
+
+    @Test
+    public void rendersNothingForAnEmptyCart(){
+        StringBuilder out = new StringBuilder();
+        assertEquals(0, renderer.render(cart, out));
+        assertEquals("", out.toString());
+    }
+
+    @Test
+    public void writesToAnyAppendable() throws IOException {
+        cart.addItemToCart(new Item("FREE", "Sample", BigDecimal.ZERO), 3);
+        StringWriter out = new StringWriter();
+        renderer.render(cart, out);
+        assertEquals("FREE | Sample | qty=3 | $0.00", out.toString());
+    }
+
+    @Test
+    public void formatsMoneyLikeBigDecimal() throws IOException {
+        long[] amounts = {0, 5, 99, 100, 123456, -7, -1234, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (String code : new String[] {"USD", "JPY", "BHD"}) {
+            Currency currency = Currency.getInstance(code);
+            for (long minor : amounts) {
+                Money money = Money.ofMinor(minor, currency);
+                StringBuilder out = new StringBuilder();
+                renderer.appendMoney(money, out);
+                assertEquals(money.toBigDecimal().toString(), out.toString(), code + " " + minor);
+            }
+        }
+    }
+}
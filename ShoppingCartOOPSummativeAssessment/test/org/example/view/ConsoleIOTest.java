@@ -0,0 +1,69 @@
+package org.example.view;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConsoleIOTest {
+
+    private static final String NL = System.lineSeparator();
+
+    @Test
+    public void messagesAreHeldUntilThePromptThenWrittenTogether(){
+        StringWriter out = new StringWriter();
+        ConsoleIO console = new ConsoleIO(new StringReader("3" + NL), new UnflushedUntilAsked(out), false);
+        console.writeMessage("1. Apple");
+        console.writeMessage("2. Milk");
+        assertEquals("", out.toString());
+
+        assertEquals(3, console.getIntegerInputInRange("Pick one:", 1, 3));
+        assertEquals("1. Apple" + NL + "2. Milk" + NL + "Pick one:" + NL, out.toString());
+    }
+
+    @Test
+    public void autoFlushWritesEveryMessageStraightAway(){
+        StringWriter out = new StringWriter();
+        ConsoleIO console = new ConsoleIO(new StringReader(""), new UnflushedUntilAsked(out), true);
+        console.writeMessage("hello");
+        assertEquals("hello" + NL, out.toString());
+    }
+
+    @Test
+    public void reenteringBadNumbersUntilOneFits(){
+        StringWriter out = new StringWriter();
+        ConsoleIO console = new ConsoleIO(new StringReader("abc\n-2\n9\n2\n"), out, false);
+        assertEquals(2, console.getIntegerInputInRange("How many?", 1, 5));
+        String screen = out.toString();
+        assertTrue(screen.contains("Please enter a proper positive whole number integer."));
+        assertTrue(screen.contains("Please enter a valid number within the range 1 - 5"));
+    }
+
+    @Test
+    public void endOfInputIsReported(){
+        ConsoleIO console = new ConsoleIO(new StringReader("only line\n"), new StringWriter(), false);
+        assertEquals("only line", console.getInput("?"));
+        assertThrows(NoSuchElementException.class, () -> console.getInput("?"));
+    }
+
+    // Keeps writes to itself until flushed, like a buffered terminal writer
+    private static final class UnflushedUntilAsked extends Writer {
+        private final StringWriter target;
+        private final StringBuilder pending = new StringBuilder();
+
+        private UnflushedUntilAsked(StringWriter target) {
+            this.target = target;
+        }
+
+        @Override public void write(char[] chars, int offset, int length) { pending.append(chars, offset, length); }
+        @Override public void flush() {
+            target.write(pending.toString());
+            pending.setLength(0);
+        }
+        @Override public void close() { flush(); }
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.view;
+
+import org.example.cart.InMemoryCart;
+import org.example.catalog.StaticCatalog;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MenuControllerTest {
+
+    @Test
+    public void addsByPageNumberOrSkuAndChecksOut(){
+        InMemoryCart cart = new InMemoryCart();
+        StringWriter out = new StringWriter();
+        // pick 1 (Apple) x2, then search for milk and pick it by SKU x1
+        ConsoleIO console = new ConsoleIO(new StringReader("1\n2\n/milk\nmlk\n1\n"), out, false);
+        MenuController menu = new MenuController(cart, new StaticCatalog(), console);
+
+        assertTrue(menu.handleAction(3));
+        assertTrue(menu.handleAction(3));
+        assertEquals("5.27", cart.getSubtotal().toPlainString());
+
+        assertTrue(menu.handleAction(4));
+        console.flush();
+        assertTrue(out.toString().contains("Your total is: $5.27"));
+        assertTrue(cart.getLines().isEmpty());
+        assertFalse(menu.handleAction(5));
+    }
+}